@@ -0,0 +1,126 @@
+package com.minhasfinancas.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.minhasfinancas.MinhasfinancasApplication;
+import com.minhasfinancas.model.entity.Usuario;
+import com.minhasfinancas.service.LancamentoService;
+import com.minhasfinancas.service.SaldoService;
+import com.minhasfinancas.service.TokenService;
+import com.minhasfinancas.service.UsuarioService;
+
+/**
+ * Sobe a aplicação sobre um H2 em memória e popula um usuário com
+ * {@code linhasPorUsuario} lançamentos distribuídos entre meses, anos,
+ * tipos e status.
+ */
+@State(Scope.Benchmark)
+public class BaseDeDados {
+
+	public static final String EMAIL = "benchmark@email.com";
+	public static final String SENHA = "senha";
+	
+	private static final String INSERIR_LANCAMENTOS =
+			"insert into financas.lancamento (id, descricao, mes, ano, valor, tipo, status, id_usuario, data_cadastro) "
+			+ "select next value for financas.lancamento_seq, concat('Lançamento ', x), mod(x, 12) + 1, 2015 + mod(x, 10), "
+			+ "mod(x, 1000) + 1, case when mod(x, 3) = 0 then 'RECEITA' else 'DESPESA' end, "
+			+ "case mod(x, 5) when 0 then 'CANCELADO' when 1 then 'PENDENTE' else 'EFETIVADO' end, ?, current_date "
+			+ "from system_range(1, ?)";
+	
+	@Param({"10000", "1000000"})
+	public int linhasPorUsuario;
+	
+	private ConfigurableApplicationContext contexto;
+	
+	private Usuario usuario;
+	
+	@Setup(Level.Trial)
+	public void iniciar() {
+		contexto = iniciarAplicacao(WebApplicationType.NONE);
+		usuario = popular(contexto, linhasPorUsuario);
+	}
+	
+	/**
+	 * Sobe a aplicação com o perfil de teste mais os perfis informados, cada vez
+	 * sobre um banco em memória novo. O acesso R2DBC do perfil {@code reativo}
+	 * aponta para o mesmo banco. As propriedades adicionais têm precedência sobre
+	 * as dos perfis, como argumentos de linha de comando.
+	 */
+	public static ConfigurableApplicationContext iniciarAplicacao(WebApplicationType tipo, String... perfis) {
+		return iniciarAplicacao(tipo, perfis, new String[0]);
+	}
+	
+	public static ConfigurableApplicationContext iniciarAplicacao(WebApplicationType tipo, String[] perfis, String... propriedades) {
+		System.setProperty("spring.devtools.restart.enabled", "false");
+		String banco = "benchmark" + System.nanoTime();
+		List<String> argumentos = new ArrayList<>();
+		argumentos.add("--spring.datasource.url=jdbc:h2:mem:" + banco
+				+ ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;INIT=CREATE SCHEMA IF NOT EXISTS financas");
+		argumentos.add("--minhasfinancas.r2dbc.url=r2dbc:h2:mem:///" + banco + "?options=DB_CLOSE_DELAY=-1");
+		for(String propriedade : propriedades) {
+			argumentos.add("--" + propriedade);
+		}
+		
+		return new SpringApplicationBuilder(MinhasfinancasApplication.class)
+				.profiles("test")
+				.profiles(perfis)
+				.web(tipo)
+				.properties(
+						"server.port=0",
+						"spring.main.banner-mode=off",
+						"logging.level.root=WARN")
+				.run(argumentos.toArray(new String[0]));
+	}
+	
+	public static Usuario popular(ConfigurableApplicationContext contexto, int linhas) {
+		Usuario usuario = contexto.getBean(UsuarioService.class).salvarUsuario(Usuario.builder()
+				.nome("Benchmark")
+				.email(EMAIL)
+				.senha(SENHA)
+				.build());
+		
+		contexto.getBean(JdbcTemplate.class).update(INSERIR_LANCAMENTOS, usuario.getId(), linhas);
+		contexto.getBean(SaldoService.class).conciliar(true);
+		return usuario;
+	}
+	
+	/**
+	 * Valor do cabeçalho {@code Authorization} para as requisições do usuário.
+	 */
+	public static String autorizacao(ConfigurableApplicationContext contexto, Usuario usuario) {
+		return "Bearer " + contexto.getBean(TokenService.class).emitir(usuario.getId()).getToken();
+	}
+	
+	@TearDown(Level.Trial)
+	public void encerrar() {
+		contexto.close();
+	}
+	
+	public <T> T getBean(Class<T> tipo) {
+		return contexto.getBean(tipo);
+	}
+	
+	public LancamentoService getLancamentoService() {
+		return getBean(LancamentoService.class);
+	}
+	
+	public UsuarioService getUsuarioService() {
+		return getBean(UsuarioService.class);
+	}
+	
+	public Usuario getUsuario() {
+		return usuario;
+	}
+}
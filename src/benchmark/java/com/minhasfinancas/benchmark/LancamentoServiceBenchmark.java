@@ -0,0 +1,87 @@
+package com.minhasfinancas.benchmark;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.minhasfinancas.model.entity.Lancamento;
+import com.minhasfinancas.model.entity.Usuario;
+import com.minhasfinancas.model.enums.TipoLancamento;
+import com.minhasfinancas.model.repository.LancamentoFiltro;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class LancamentoServiceBenchmark {
+	
+	public enum Filtro {
+		USUARIO,
+		USUARIO_ANO,
+		USUARIO_ANO_MES,
+		USUARIO_DESCRICAO;
+		
+		Lancamento criar(Usuario usuario) {
+			Lancamento filtro = new Lancamento();
+			filtro.setUsuario(usuario);
+			if(this == USUARIO_ANO || this == USUARIO_ANO_MES) {
+				filtro.setAno(2019);
+			}
+			if(this == USUARIO_ANO_MES) {
+				filtro.setMes(6);
+			}
+			if(this == USUARIO_DESCRICAO) {
+				filtro.setDescricao("lançamento 99");
+			}
+			return filtro;
+		}
+	}
+	
+	@State(Scope.Benchmark)
+	public static class Consulta {
+		
+		@Param
+		public Filtro filtro;
+	}
+
+	@Benchmark
+	public List<Lancamento> buscar(BaseDeDados base, Consulta consulta) {
+		return base.getLancamentoService().buscar(consulta.filtro.criar(base.getUsuario()));
+	}
+	
+	@Benchmark
+	public List<Lancamento> buscarPagina(BaseDeDados base, Consulta consulta) {
+		return base.getLancamentoService().buscar(LancamentoFiltro.de(consulta.filtro.criar(base.getUsuario())), null, 50);
+	}
+	
+	@Benchmark
+	public BigDecimal obterSaldoPorUsuario(BaseDeDados base) {
+		return base.getLancamentoService().obterSaldoPorUsuario(base.getUsuario().getId());
+	}
+	
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	public Lancamento salvar(BaseDeDados base) {
+		return base.getLancamentoService().salvar(Lancamento.builder()
+				.descricao("Benchmark")
+				.mes(1)
+				.ano(2020)
+				.valor(BigDecimal.TEN)
+				.tipo(TipoLancamento.DESPESA)
+				.usuario(base.getUsuario())
+				.build());
+	}
+}
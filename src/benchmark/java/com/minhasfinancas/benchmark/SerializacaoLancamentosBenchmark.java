@@ -0,0 +1,80 @@
+package com.minhasfinancas.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minhasfinancas.api.dto.LancamentoDto;
+import com.minhasfinancas.model.entity.Lancamento;
+import com.minhasfinancas.model.entity.Usuario;
+import com.minhasfinancas.model.enums.StatusLancamento;
+import com.minhasfinancas.model.enums.TipoLancamento;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializacaoLancamentosBenchmark {
+	
+	@Param({"100", "10000"})
+	public int quantidade;
+	
+	private ObjectMapper objectMapper;
+	
+	private List<Lancamento> lancamentos;
+	
+	@Setup
+	public void iniciar() {
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		
+		Usuario usuario = Usuario.builder().id(1l).nome("Benchmark").email(BaseDeDados.EMAIL).senha(BaseDeDados.SENHA).build();
+		lancamentos = new ArrayList<>(quantidade);
+		for(int i = 0; i < quantidade; i++) {
+			lancamentos.add(Lancamento.builder()
+					.id((long) i)
+					.descricao("Lançamento " + i)
+					.mes(i % 12 + 1)
+					.ano(2020)
+					.valor(BigDecimal.valueOf(i, 2))
+					.tipo(i % 3 == 0 ? TipoLancamento.RECEITA : TipoLancamento.DESPESA)
+					.status(StatusLancamento.PENDENTE)
+					.dataCadastro(LocalDate.now())
+					.usuario(usuario)
+					.build());
+		}
+	}
+
+	/**
+	 * Formato das respostas da API: cada lançamento convertido para o DTO, com
+	 * o usuário só pelo id.
+	 */
+	@Benchmark
+	public byte[] serializar() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(lancamentos.stream().map(LancamentoDto::de).collect(Collectors.toList()));
+	}
+	
+	@Benchmark
+	public byte[] serializarEntidades() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(lancamentos);
+	}
+}
@@ -0,0 +1,101 @@
+package com.minhasfinancas.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.minhasfinancas.exceptions.ErroAutenticacao;
+import com.minhasfinancas.model.entity.Usuario;
+import com.minhasfinancas.service.UsuarioService;
+
+/**
+ * Vazão de logins com vários clientes simultâneos, para cada custo de BCrypt
+ * e tamanho do executor de hash. Com o executor limitado, a vazão com mais
+ * clientes que threads fica estável em vez de cair pela disputa de CPU.
+ * {@code emailInexistente} mede as tentativas com e-mails sem cadastro, que
+ * depois da primeira são respondidas pelo cache sem consultar o banco.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(16)
+@Fork(1)
+public class UsuarioServiceBenchmark {
+	
+	private static final int EMAILS_INEXISTENTES = 1000;
+	
+	@State(Scope.Benchmark)
+	public static class Login {
+		
+		@Param({"8", "10", "12"})
+		public int custo;
+		
+		@Param({"0"})
+		public int threadsHash;
+		
+		private ConfigurableApplicationContext contexto;
+		
+		private UsuarioService usuarioService;
+		
+		@Setup(Level.Trial)
+		public void iniciar() {
+			contexto = BaseDeDados.iniciarAplicacao(WebApplicationType.NONE, new String[0],
+					"minhasfinancas.senha.custo-bcrypt=" + custo,
+					"minhasfinancas.senha.threads=" + threadsHash,
+					"minhasfinancas.senha.fila=1024",
+					"spring.cache.type=caffeine");
+			usuarioService = contexto.getBean(UsuarioService.class);
+			usuarioService.salvarUsuario(Usuario.builder()
+					.nome("Benchmark")
+					.email(BaseDeDados.EMAIL)
+					.senha(BaseDeDados.SENHA)
+					.build());
+		}
+		
+		@TearDown(Level.Trial)
+		public void encerrar() {
+			contexto.close();
+		}
+	}
+	
+	@State(Scope.Thread)
+	public static class Tentativas {
+		
+		private int proxima;
+		
+		String proximoEmailInexistente() {
+			proxima = (proxima + 1) % EMAILS_INEXISTENTES;
+			return "inexistente" + proxima + "@email.com";
+		}
+	}
+
+	@Benchmark
+	public Usuario autenticar(Login login) {
+		return login.usuarioService.autenticar(BaseDeDados.EMAIL, BaseDeDados.SENHA);
+	}
+	
+	@Benchmark
+	public Object emailInexistente(Login login, Tentativas tentativas) {
+		try {
+			return login.usuarioService.autenticar(tentativas.proximoEmailInexistente(), BaseDeDados.SENHA);
+		} catch (ErroAutenticacao e) {
+			return e;
+		}
+	}
+}
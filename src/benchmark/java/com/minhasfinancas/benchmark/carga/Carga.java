@@ -0,0 +1,127 @@
+package com.minhasfinancas.benchmark.carga;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mantém {@code concorrencia} clientes simultâneos, cada um encadeando uma nova
+ * requisição assim que a anterior termina, alternando entre os endereços
+ * informados, todas com o cabeçalho {@code Authorization} recebido. Os clientes são assíncronos, então dezenas de milhares deles não
+ * exigem uma thread cada no lado do gerador de carga.
+ */
+public class Carga {
+	
+	public static Resultado executar(URI[] enderecos, String autorizacao, int concorrencia, Duration duracao) throws InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+		try {
+			HttpClient cliente = HttpClient.newBuilder().executor(executor).build();
+			long fim = System.nanoTime() + duracao.toNanos();
+			CountDownLatch concluidos = new CountDownLatch(concorrencia);
+			Medicoes[] medicoes = new Medicoes[concorrencia];
+			
+			for(int i = 0; i < concorrencia; i++) {
+				medicoes[i] = new Medicoes();
+				disparar(cliente, executor, enderecos, autorizacao, i, fim, medicoes[i], concluidos);
+			}
+			concluidos.await(duracao.getSeconds() + 60, TimeUnit.SECONDS);
+			
+			Medicoes total = new Medicoes();
+			for(Medicoes parcial : medicoes) {
+				total.juntar(parcial);
+			}
+			return total.resumir(duracao);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	private static void disparar(HttpClient cliente, ExecutorService executor, URI[] enderecos, String autorizacao, int sequencia, long fim,
+			Medicoes medicoes, CountDownLatch concluidos) {
+		if(System.nanoTime() >= fim) {
+			concluidos.countDown();
+			return;
+		}
+		
+		HttpRequest requisicao = HttpRequest.newBuilder(enderecos[sequencia % enderecos.length])
+				.timeout(Duration.ofSeconds(60))
+				.header("Authorization", autorizacao)
+				.build();
+		long inicio = System.nanoTime();
+		cliente.sendAsync(requisicao, HttpResponse.BodyHandlers.discarding())
+			.whenCompleteAsync((resposta, erro) -> {
+				medicoes.registrar(System.nanoTime() - inicio, erro != null || resposta.statusCode() != 200);
+				disparar(cliente, executor, enderecos, autorizacao, sequencia + 1, fim, medicoes, concluidos);
+			}, executor);
+	}
+	
+	private static class Medicoes {
+		
+		private long[] latencias = new long[64];
+		private int quantidade;
+		private int erros;
+		
+		void registrar(long nanos, boolean erro) {
+			if(quantidade == latencias.length) {
+				latencias = Arrays.copyOf(latencias, quantidade * 2);
+			}
+			latencias[quantidade++] = nanos;
+			if(erro) {
+				erros++;
+			}
+		}
+		
+		void juntar(Medicoes outras) {
+			for(int i = 0; i < outras.quantidade; i++) {
+				registrar(outras.latencias[i], false);
+			}
+			erros += outras.erros;
+		}
+		
+		Resultado resumir(Duration duracao) {
+			long[] ordenadas = Arrays.copyOf(latencias, quantidade);
+			Arrays.sort(ordenadas);
+			return new Resultado(quantidade / (double) duracao.getSeconds(), erros,
+					percentil(ordenadas, 0.50), percentil(ordenadas, 0.99),
+					ordenadas.length == 0 ? 0 : ordenadas[ordenadas.length - 1] / 1e6);
+		}
+		
+		private static double percentil(long[] ordenadas, double percentil) {
+			if(ordenadas.length == 0) {
+				return 0;
+			}
+			return ordenadas[(int) Math.ceil(percentil * ordenadas.length) - 1] / 1e6;
+		}
+	}
+	
+	public static class Resultado {
+		
+		public static final String CABECALHO = String.format("%10s %8s %10s %10s %10s", "req/s", "erros", "p50 ms", "p99 ms", "max ms");
+		
+		private final double vazao;
+		private final int erros;
+		private final double p50;
+		private final double p99;
+		private final double maximo;
+		
+		Resultado(double vazao, int erros, double p50, double p99, double maximo) {
+			this.vazao = vazao;
+			this.erros = erros;
+			this.p50 = p50;
+			this.p99 = p99;
+			this.maximo = maximo;
+		}
+		
+		@Override
+		public String toString() {
+			return String.format("%10.1f %8d %10.2f %10.2f %10.2f", vazao, erros, p50, p99, maximo);
+		}
+	}
+}
@@ -0,0 +1,72 @@
+package com.minhasfinancas.benchmark.carga;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.minhasfinancas.benchmark.BaseDeDados;
+import com.minhasfinancas.model.entity.Usuario;
+
+/**
+ * Compara vazão e latência da API com o perfil padrão e com o perfil
+ * {@code virtual-threads}. Para cada perfil sobe a aplicação em uma porta livre,
+ * popula a base e mantém {@code carga.concorrencia} clientes alternando entre a
+ * busca paginada de lançamentos e a consulta de saldo.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.minhasfinancas.benchmark.carga.ComparacaoCarga \
+ *     -Dcarga.concorrencia=500 -Dcarga.segundos=30
+ * </pre>
+ */
+public class ComparacaoCarga {
+	
+	private static final int CONCORRENCIA = Integer.getInteger("carga.concorrencia", 500);
+	private static final Duration AQUECIMENTO = Duration.ofSeconds(Long.getLong("carga.aquecimento", 10));
+	private static final Duration DURACAO = Duration.ofSeconds(Long.getLong("carga.segundos", 30));
+	private static final int LINHAS = Integer.getInteger("carga.linhas", 10000);
+
+	public static void main(String[] args) throws Exception {
+		List<String[]> perfis = new ArrayList<>();
+		perfis.add(new String[0]);
+		if(Runtime.version().feature() >= 21) {
+			perfis.add(new String[] {"virtual-threads"});
+		} else {
+			System.out.println("Java " + Runtime.version() + " não possui threads virtuais, medindo apenas o perfil padrão");
+		}
+		
+		List<String> resultados = new ArrayList<>();
+		for(String[] perfil : perfis) {
+			String nome = perfil.length == 0 ? "padrao" : String.join(",", perfil);
+			ConfigurableApplicationContext contexto = BaseDeDados.iniciarAplicacao(WebApplicationType.SERVLET, perfil);
+			try {
+				Usuario usuario = BaseDeDados.popular(contexto, LINHAS);
+				int porta = contexto.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+				
+				String autorizacao = BaseDeDados.autorizacao(contexto, usuario);
+				
+				executar(porta, usuario.getId(), autorizacao, AQUECIMENTO);
+				Carga.Resultado resultado = executar(porta, usuario.getId(), autorizacao, DURACAO);
+				resultados.add(String.format("%-16s %s", nome, resultado));
+			} finally {
+				contexto.close();
+			}
+		}
+		
+		System.out.println();
+		System.out.println(String.format("%-16s %s", "perfil", Carga.Resultado.CABECALHO));
+		resultados.forEach(System.out::println);
+	}
+	
+	private static Carga.Resultado executar(int porta, Long idUsuario, String autorizacao, Duration duracao) throws InterruptedException {
+		URI[] enderecos = {
+				URI.create("http://localhost:" + porta + "/api/lancamentos/pagina?ano=2019&tamanho=50"),
+				URI.create("http://localhost:" + porta + "/api/usuarios/" + idUsuario + "/saldo")
+		};
+		return Carga.executar(enderecos, autorizacao, CONCORRENCIA, duracao);
+	}
+}
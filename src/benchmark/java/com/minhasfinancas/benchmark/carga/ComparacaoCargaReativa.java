@@ -0,0 +1,107 @@
+package com.minhasfinancas.benchmark.carga;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.minhasfinancas.benchmark.BaseDeDados;
+import com.minhasfinancas.model.entity.Usuario;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Compara a busca de lançamentos pelo caminho JDBC ({@code /api/lancamentos})
+ * com o caminho R2DBC do perfil {@code reativo} ({@code /api/reativo/lancamentos})
+ * sob {@code carga.concorrencia} clientes simultâneos, 10.000 por padrão. Além de
+ * vazão e latência, registra o pico de threads da JVM e de conexões em uso em
+ * cada pool durante a medição.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.minhasfinancas.benchmark.carga.ComparacaoCargaReativa \
+ *     -Dcarga.concorrencia=10000 -Dcarga.segundos=30
+ * </pre>
+ */
+public class ComparacaoCargaReativa {
+	
+	private static final int CONCORRENCIA = Integer.getInteger("carga.concorrencia", 10000);
+	private static final Duration AQUECIMENTO = Duration.ofSeconds(Long.getLong("carga.aquecimento", 10));
+	private static final Duration DURACAO = Duration.ofSeconds(Long.getLong("carga.segundos", 30));
+	private static final int LINHAS = Integer.getInteger("carga.linhas", 10000);
+	
+	private static final String CONEXOES_JDBC = "hikaricp.connections.active";
+	private static final String CONEXOES_R2DBC = "minhasfinancas.r2dbc.conexoes.ativas";
+
+	public static void main(String[] args) throws Exception {
+		ConfigurableApplicationContext contexto = BaseDeDados.iniciarAplicacao(WebApplicationType.SERVLET,
+				new String[] {"reativo"},
+				"server.tomcat.max-connections=" + (CONCORRENCIA * 2),
+				"server.tomcat.accept-count=" + CONCORRENCIA);
+		List<String> resultados = new ArrayList<>();
+		try {
+			Usuario usuario = BaseDeDados.popular(contexto, LINHAS);
+			int porta = contexto.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+			MeterRegistry registry = contexto.getBean(MeterRegistry.class);
+			String consulta = "?ano=2019&mes=5";
+			String autorizacao = BaseDeDados.autorizacao(contexto, usuario);
+			
+			resultados.add(medir("jdbc", URI.create("http://localhost:" + porta + "/api/lancamentos" + consulta), autorizacao, registry));
+			resultados.add(medir("r2dbc", URI.create("http://localhost:" + porta + "/api/reativo/lancamentos" + consulta), autorizacao, registry));
+		} finally {
+			contexto.close();
+		}
+		
+		System.out.println();
+		System.out.println(String.format("%-8s %s %10s %12s %12s", "caminho", Carga.Resultado.CABECALHO,
+				"threads", "conexoes jdbc", "conexoes r2dbc"));
+		resultados.forEach(System.out::println);
+	}
+	
+	private static String medir(String nome, URI endereco, String autorizacao, MeterRegistry registry) throws InterruptedException {
+		URI[] enderecos = {endereco};
+		Carga.executar(enderecos, autorizacao, CONCORRENCIA, AQUECIMENTO);
+		
+		Picos picos = new Picos(registry);
+		ScheduledExecutorService amostragem = Executors.newSingleThreadScheduledExecutor();
+		amostragem.scheduleAtFixedRate(picos::amostrar, 0, 100, TimeUnit.MILLISECONDS);
+		try {
+			Carga.Resultado resultado = Carga.executar(enderecos, autorizacao, CONCORRENCIA, DURACAO);
+			return String.format("%-8s %s %10d %12.0f %12.0f", nome, resultado, picos.threads, picos.conexoesJdbc, picos.conexoesR2dbc);
+		} finally {
+			amostragem.shutdownNow();
+		}
+	}
+	
+	private static class Picos {
+		
+		private final ThreadMXBean threadsJvm = ManagementFactory.getThreadMXBean();
+		private final MeterRegistry registry;
+		private volatile int threads;
+		private volatile double conexoesJdbc;
+		private volatile double conexoesR2dbc;
+		
+		Picos(MeterRegistry registry) {
+			this.registry = registry;
+		}
+		
+		void amostrar() {
+			threads = Math.max(threads, threadsJvm.getThreadCount());
+			conexoesJdbc = Math.max(conexoesJdbc, valor(CONEXOES_JDBC));
+			conexoesR2dbc = Math.max(conexoesR2dbc, valor(CONEXOES_R2DBC));
+		}
+		
+		private double valor(String medidor) {
+			return registry.find(medidor).gauges().stream().mapToDouble(Gauge::value).sum();
+		}
+	}
+}
@@ -0,0 +1,56 @@
+package com.minhasfinancas.api.controller;
+
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.minhasfinancas.api.dto.EventoLancamentoDto;
+import com.minhasfinancas.api.dto.PaginaEventoLancamentoDto;
+import com.minhasfinancas.api.seguranca.TokenAutenticacaoFilter;
+import com.minhasfinancas.exceptions.CursorExpiradoException;
+import com.minhasfinancas.service.EventoLancamentoService;
+import com.minhasfinancas.service.PaginaEventos;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("api/lancamentos/eventos")
+@RequiredArgsConstructor
+public class EventoLancamentoController {
+	
+	private final EventoLancamentoService eventoLancamentoService;
+	
+	@Value("${minhasfinancas.eventos.pagina.tamanho-padrao:100}")
+	private int tamanhoPaginaPadrao;
+	
+	@Value("${minhasfinancas.eventos.pagina.tamanho-maximo:1000}")
+	private int tamanhoPaginaMaximo;
+	
+	@GetMapping
+	public ResponseEntity buscar(
+			@RequestAttribute(TokenAutenticacaoFilter.ID_USUARIO) Long idUsuario,
+			@RequestParam(value = "cursor", required = false) Long cursor,
+			@RequestParam(value = "tamanho", required = false) Integer tamanho
+			) {
+		int limite = tamanho == null ? tamanhoPaginaPadrao : tamanho;
+		if(limite < 1 || limite > tamanhoPaginaMaximo) {
+			return ResponseEntity.badRequest().body("Informe um tamanho de página entre 1 e " + tamanhoPaginaMaximo);
+		}
+		
+		try {
+			PaginaEventos pagina = eventoLancamentoService.buscar(idUsuario, cursor, limite);
+			return ResponseEntity.ok(new PaginaEventoLancamentoDto(pagina.getEventos().stream()
+					.map(EventoLancamentoDto::de)
+					.collect(Collectors.toList()), pagina.getProximoCursor()));
+		} catch (CursorExpiradoException e) {
+			return new ResponseEntity(e.getMessage(), HttpStatus.GONE);
+		}
+	}
+}
@@ -1,33 +1,71 @@
 package com.minhasfinancas.api.controller;
 
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import javax.persistence.Entity;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import com.minhasfinancas.api.dto.AtualizaStatusDto;
+import com.minhasfinancas.api.dto.AtualizaStatusEmLoteDto;
 import com.minhasfinancas.api.dto.LancamentoDto;
+import com.minhasfinancas.api.dto.PaginaLancamentoDto;
+import com.minhasfinancas.api.dto.ResultadoBuscaDto;
+import com.minhasfinancas.api.idempotencia.RegistroIdempotencia;
+import com.minhasfinancas.api.seguranca.TokenAutenticacaoFilter;
 import com.minhasfinancas.exceptions.RegraNegocioException;
 import com.minhasfinancas.model.entity.Lancamento;
-import com.minhasfinancas.model.entity.Usuario;
 import com.minhasfinancas.model.enums.StatusLancamento;
 import com.minhasfinancas.model.enums.TipoLancamento;
+import com.minhasfinancas.model.repository.LancamentoFiltro;
+import com.minhasfinancas.service.ExportacaoService;
+import com.minhasfinancas.service.ImportacaoService;
 import com.minhasfinancas.service.LancamentoService;
+import com.minhasfinancas.service.ResultadoAtualizacaoStatus;
+import com.minhasfinancas.service.ResumoMensalService;
 import com.minhasfinancas.service.UsuarioService;
+import com.minhasfinancas.service.exportacao.FormatoExportacao;
+import com.minhasfinancas.service.importacao.FormatoImportacao;
+import com.minhasfinancas.service.importacao.ResultadoImportacao;
 
 import lombok.RequiredArgsConstructor;
 
@@ -35,62 +73,306 @@ import lombok.RequiredArgsConstructor;
 @RequestMapping("api/lancamentos")
 @RequiredArgsConstructor
 public class LancamentoController {
+	
+	private static final String USUARIO_INEXISTENTE = "Usuário não encontrado para o Id informado";
+	
+	private static final String LANCAMENTO_ALTERADO = "O lançamento foi alterado por outra requisição, consulte-o novamente.";
 
 	private final LancamentoService lancamentoService;
 	
 	private final UsuarioService usuarioService;
 	
+	private final ImportacaoService importacaoService;
+	
+	private final ExportacaoService exportacaoService;
+	
+	private final ResumoMensalService resumoMensalService;
+	
+	private final ObjectMapper objectMapper;
+	
+	private final RegistroIdempotencia registroIdempotencia;
+	
+	@Value("${minhasfinancas.lancamentos.pagina.tamanho-padrao:50}")
+	private int tamanhoPaginaPadrao;
+	
+	@Value("${minhasfinancas.lancamentos.pagina.tamanho-maximo:500}")
+	private int tamanhoPaginaMaximo;
+	
 	@GetMapping
 	public ResponseEntity buscar(
 			@RequestParam(value = "descricao", required = false) String descricao,
 			@RequestParam(value = "mes", required = false) Integer mes,
 			@RequestParam(value = "ano", required = false) Integer ano,
-			@RequestParam("usuario") Long idUsuario
+			@RequestAttribute(TokenAutenticacaoFilter.ID_USUARIO) Long idUsuario,
+			@RequestParam(value = "valorMinimo", required = false) BigDecimal valorMinimo,
+			@RequestParam(value = "valorMaximo", required = false) BigDecimal valorMaximo,
+			@RequestParam(value = "dataInicial", required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate dataInicial,
+			@RequestParam(value = "dataFinal", required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate dataFinal,
+			@RequestParam(value = "tipo", required = false) List<String> tipos,
+			@RequestParam(value = "status", required = false) List<String> status,
+			@RequestParam(value = "ordenacao", required = false) List<String> ordenacao
 			) {
-		Lancamento lancamentoFiltro = new Lancamento();
-		lancamentoFiltro.setDescricao(descricao);
-		lancamentoFiltro.setMes(mes);
-		lancamentoFiltro.setAno(ano);
-		
-		Optional<Usuario> usuario = usuarioService.obterPorId(idUsuario);
-		if(!usuario.isPresent()) {
-			return ResponseEntity.badRequest().body("Não foi possível realizar a consulta. Usuário não encontrado!");
-		}else {
-			lancamentoFiltro.setUsuario(usuario.get());
+		try {
+			LancamentoFiltro filtro = criarFiltro(idUsuario, descricao, mes, ano, valorMinimo, valorMaximo,
+					dataInicial, dataFinal, tipos, status);
+			filtro.setOrdenacao(converterOrdenacao(ordenacao));
+			
+			List<Lancamento> lancamentos = lancamentoService.buscar(filtro);
+			return ResponseEntity.ok(converter(lancamentos));
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+	
+	@GetMapping("pagina")
+	public ResponseEntity buscarPagina(
+			@RequestParam(value = "descricao", required = false) String descricao,
+			@RequestParam(value = "mes", required = false) Integer mes,
+			@RequestParam(value = "ano", required = false) Integer ano,
+			@RequestAttribute(TokenAutenticacaoFilter.ID_USUARIO) Long idUsuario,
+			@RequestParam(value = "valorMinimo", required = false) BigDecimal valorMinimo,
+			@RequestParam(value = "valorMaximo", required = false) BigDecimal valorMaximo,
+			@RequestParam(value = "dataInicial", required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate dataInicial,
+			@RequestParam(value = "dataFinal", required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate dataFinal,
+			@RequestParam(value = "tipo", required = false) List<String> tipos,
+			@RequestParam(value = "status", required = false) List<String> status,
+			@RequestParam(value = "cursor", required = false) Long cursor,
+			@RequestParam(value = "tamanho", required = false) Integer tamanho
+			) {
+		int limite = tamanho == null ? tamanhoPaginaPadrao : tamanho;
+		if(limite < 1 || limite > tamanhoPaginaMaximo) {
+			return ResponseEntity.badRequest().body("Informe um tamanho de página entre 1 e " + tamanhoPaginaMaximo);
 		}
 		
-		List<Lancamento> lancamentos = lancamentoService.buscar(lancamentoFiltro);
-		return ResponseEntity.ok(lancamentos);
+		try {
+			LancamentoFiltro filtro = criarFiltro(idUsuario, descricao, mes, ano, valorMinimo, valorMaximo,
+					dataInicial, dataFinal, tipos, status);
+			
+			// busca um registro a mais só para saber se existe uma próxima página
+			List<Lancamento> lancamentos = lancamentoService.buscar(filtro, cursor, limite + 1);
+			Long proximoCursor = null;
+			if(lancamentos.size() > limite) {
+				lancamentos = lancamentos.subList(0, limite);
+				proximoCursor = lancamentos.get(limite - 1).getId();
+			}
+			return ResponseEntity.ok(new PaginaLancamentoDto(converter(lancamentos), proximoCursor));
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
 	}
 	
-	@PostMapping
-	public ResponseEntity salvar(@RequestBody LancamentoDto dto) {
+	@GetMapping("busca")
+	public ResponseEntity buscarPorTexto(
+			@RequestAttribute(TokenAutenticacaoFilter.ID_USUARIO) Long idUsuario,
+			@RequestParam("texto") String texto,
+			@RequestParam(value = "pagina", defaultValue = "0") int pagina,
+			@RequestParam(value = "tamanho", required = false) Integer tamanho
+			) {
+		int limite = tamanho == null ? tamanhoPaginaPadrao : tamanho;
+		if(limite < 1 || limite > tamanhoPaginaMaximo) {
+			return ResponseEntity.badRequest().body("Informe um tamanho de página entre 1 e " + tamanhoPaginaMaximo);
+		}
+		
 		try {
-			Lancamento entidade = converter(dto);
-			entidade = lancamentoService.salvar(entidade);
-			return ResponseEntity.ok(entidade);
+			// busca um registro a mais só para saber se existe uma próxima página
+			List<Lancamento> lancamentos = lancamentoService.buscarPorTexto(idUsuario, texto, pagina * limite, limite + 1);
+			Integer proximaPagina = null;
+			if(lancamentos.size() > limite) {
+				lancamentos = lancamentos.subList(0, limite);
+				proximaPagina = pagina + 1;
+			}
+			return ResponseEntity.ok(new ResultadoBuscaDto(converter(lancamentos), pagina, proximaPagina));
 		} catch (RegraNegocioException e) {
 			return ResponseEntity.badRequest().body(e.getMessage());
-		} 	
+		}
+	}
+	
+	@GetMapping("stream")
+	public ResponseEntity<StreamingResponseBody> buscarEmFluxo(
+			@RequestParam(value = "descricao", required = false) String descricao,
+			@RequestParam(value = "mes", required = false) Integer mes,
+			@RequestParam(value = "ano", required = false) Integer ano,
+			@RequestAttribute(TokenAutenticacaoFilter.ID_USUARIO) Long idUsuario,
+			@RequestParam(value = "valorMinimo", required = false) BigDecimal valorMinimo,
+			@RequestParam(value = "valorMaximo", required = false) BigDecimal valorMaximo,
+			@RequestParam(value = "dataInicial", required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate dataInicial,
+			@RequestParam(value = "dataFinal", required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate dataFinal,
+			@RequestParam(value = "tipo", required = false) List<String> tipos,
+			@RequestParam(value = "status", required = false) List<String> status
+			) {
+		// a primeira página é buscada antes de a resposta começar, para que um
+		// filtro inválido ainda possa ser respondido com 400
+		LancamentoFiltro filtro;
+		List<Lancamento> primeiraPagina;
+		try {
+			filtro = criarFiltro(idUsuario, descricao, mes, ano, valorMinimo, valorMaximo, dataInicial, dataFinal, tipos, status);
+			primeiraPagina = lancamentoService.buscar(filtro, null, tamanhoPaginaMaximo);
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN).body(saida -> saida.write(
+					e.getMessage().getBytes(StandardCharsets.UTF_8)));
+		}
+		
+		StreamingResponseBody corpo = saida -> {
+			JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida);
+			gerador.writeStartArray();
+			
+			List<Lancamento> pagina = primeiraPagina;
+			while(true) {
+				for(Lancamento lancamento : pagina) {
+					gerador.writeObject(LancamentoDto.de(lancamento));
+				}
+				gerador.flush();
+				if(pagina.size() < tamanhoPaginaMaximo) {
+					break;
+				}
+				pagina = lancamentoService.buscar(filtro, pagina.get(pagina.size() - 1).getId(), tamanhoPaginaMaximo);
+			}
+			
+			gerador.writeEndArray();
+			gerador.close();
+		};
+		
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(corpo);
+	}
+	
+	@GetMapping("exportar")
+	public ResponseEntity<StreamingResponseBody> exportar(
+			@RequestAttribute(TokenAutenticacaoFilter.ID_USUARIO) Long idUsuario,
+			@RequestParam(value = "formato", defaultValue = "CSV") String formato
+			) {
+		FormatoExportacao formatoExportacao;
+		try {
+			formatoExportacao = FormatoExportacao.valueOf(formato.toUpperCase());
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN).body(saida -> saida.write(
+					"Formato de exportação inválido, informe CSV ou XLSX.".getBytes(StandardCharsets.UTF_8)));
+		}
+		
+		return ResponseEntity.ok()
+				.contentType(MediaType.parseMediaType(formatoExportacao.getTipoConteudo()))
+				.header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+						.filename("lancamentos." + formatoExportacao.getExtensao()).build().toString())
+				.body(saida -> exportacaoService.exportar(idUsuario, formatoExportacao, saida));
+	}
+	
+	@GetMapping("resumo-mensal")
+	public ResponseEntity obterResumoMensal(
+			@RequestAttribute(TokenAutenticacaoFilter.ID_USUARIO) Long idUsuario,
+			@RequestParam("anoInicial") Integer anoInicial,
+			@RequestParam(value = "anoFinal", required = false) Integer anoFinal
+			) {
+		Integer ultimoAno = anoFinal == null ? anoInicial : anoFinal;
+		if(ultimoAno < anoInicial) {
+			return ResponseEntity.badRequest().body("O ano final deve ser maior ou igual ao ano inicial.");
+		}
+		
+		return ResponseEntity.ok(resumoMensalService.obterFluxoMensal(idUsuario, anoInicial, ultimoAno));
+	}
+	
+	@PostMapping
+	public ResponseEntity salvar(@RequestBody LancamentoDto dto, @RequestAttribute(TokenAutenticacaoFilter.ID_USUARIO) Long idUsuario,
+			@RequestHeader(value = RegistroIdempotencia.CABECALHO, required = false) String chaveIdempotencia) {
+		String impressao = chaveIdempotencia == null ? null : impressao(dto);
+		return registroIdempotencia.executar(idUsuario, chaveIdempotencia, impressao, () -> {
+			try {
+				Lancamento entidade = converter(dto, idUsuario);
+				entidade = lancamentoService.salvar(entidade);
+				return ResponseEntity.ok(LancamentoDto.de(entidade));
+			} catch (RegraNegocioException e) {
+				return ResponseEntity.badRequest().body(e.getMessage());
+			} catch (DataIntegrityViolationException e) {
+				return ResponseEntity.badRequest().body(USUARIO_INEXISTENTE);
+			}
+		});
+	}
+	
+	@PostMapping("importar")
+	public ResponseEntity importar(
+			@RequestAttribute(TokenAutenticacaoFilter.ID_USUARIO) Long idUsuario,
+			@RequestParam("formato") String formato,
+			@RequestHeader(value = RegistroIdempotencia.CABECALHO, required = false) String chaveIdempotencia,
+			@RequestHeader(value = HttpHeaders.CONTENT_LENGTH, required = false) Long tamanho,
+			InputStream corpo
+			) {
+		FormatoImportacao formatoImportacao;
+		try {
+			formatoImportacao = FormatoImportacao.valueOf(formato.toUpperCase());
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().body("Formato de importação inválido, informe CSV, OFX ou JSONL.");
+		}
+		
+		// o arquivo é lido enquanto é importado, então a impressão usa só o formato e o tamanho;
+		// sem o tamanho dois arquivos diferentes teriam a mesma impressão
+		if(chaveIdempotencia != null && tamanho == null) {
+			return new ResponseEntity("Informe o " + HttpHeaders.CONTENT_LENGTH + " para importar com uma "
+					+ RegistroIdempotencia.CABECALHO + ".", HttpStatus.LENGTH_REQUIRED);
+		}
+		String impressao = RegistroIdempotencia.impressao("importar:" + formatoImportacao + ":" + tamanho);
+		return registroIdempotencia.executarReservando(idUsuario, chaveIdempotencia, impressao, () -> {
+			try {
+				Reader entrada = new InputStreamReader(corpo, StandardCharsets.UTF_8);
+				ResultadoImportacao resultado = importacaoService.importar(usuarioService.obterReferencia(idUsuario),
+						formatoImportacao, entrada);
+				return ResponseEntity.ok(resultado);
+			} catch (RegraNegocioException e) {
+				return ResponseEntity.badRequest().body(e.getMessage());
+			} catch (DataIntegrityViolationException e) {
+				return ResponseEntity.badRequest().body(USUARIO_INEXISTENTE);
+			}
+		});
 	}
 	
 	@PutMapping("{id}")
-	public ResponseEntity atualizar(@PathVariable("id") Long id, @RequestBody LancamentoDto dto) {
-		return lancamentoService.obterPorId(id).map(entity ->{
+	public ResponseEntity atualizar(@PathVariable("id") Long id, @RequestBody LancamentoDto dto,
+			@RequestAttribute(TokenAutenticacaoFilter.ID_USUARIO) Long idUsuario) {
+		return obterDoUsuario(id, idUsuario).map(entity ->{
 			try {
-				Lancamento lancamento = converter(dto);
+				Lancamento lancamento = converter(dto, idUsuario);
 				lancamento.setId(entity.getId());
-				lancamentoService.atualizar(lancamento);
-				return ResponseEntity.ok(lancamento);
+				lancamento.setVersao(dto.getVersao());
+				Lancamento atualizado = lancamentoService.atualizar(lancamento);
+				return ResponseEntity.ok(LancamentoDto.de(atualizado));
 			} catch (RegraNegocioException e) {
 				return ResponseEntity.badRequest().body(e.getMessage());
+			} catch (DataIntegrityViolationException e) {
+				return ResponseEntity.badRequest().body(USUARIO_INEXISTENTE);
+			} catch (OptimisticLockingFailureException e) {
+				return ResponseEntity.status(HttpStatus.CONFLICT).body(LANCAMENTO_ALTERADO);
 			}
 		}).orElseGet(() -> new ResponseEntity("Lançamento não encontrado na base de dados", HttpStatus.BAD_REQUEST));
 	}
 	
+	/**
+	 * Altera só os campos enviados. Com {@code versao} no corpo, a alteração é
+	 * recusada com 409 se o lançamento mudou desde que foi lido pelo cliente.
+	 */
+	@PatchMapping("{id}")
+	public ResponseEntity atualizarParcialmente(@PathVariable("id") Long id, @RequestBody LancamentoDto dto,
+			@RequestAttribute(TokenAutenticacaoFilter.ID_USUARIO) Long idUsuario) {
+		try {
+			Lancamento alteracoes = Lancamento.builder()
+					.descricao(dto.getDescricao())
+					.mes(dto.getMes())
+					.ano(dto.getAno())
+					.valor(dto.getValor())
+					.tipo(converterTipo(dto.getTipo()))
+					.status(converterStatus(dto.getStatus()))
+					.build();
+			
+			return lancamentoService.atualizarParcialmente(idUsuario, id, dto.getVersao(), alteracoes)
+					.<ResponseEntity>map(lancamento -> ResponseEntity.ok(LancamentoDto.de(lancamento)))
+					.orElseGet(() -> new ResponseEntity("Lançamento não encontrado na base de dados", HttpStatus.BAD_REQUEST));
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		} catch (OptimisticLockingFailureException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(LANCAMENTO_ALTERADO);
+		}
+	}
+	
 	@PutMapping("{id}/atualizarStatus")
-	public ResponseEntity atualizarStatus(@PathVariable("id") Long id, @RequestBody AtualizaStatusDto dto) {
-		return lancamentoService.obterPorId(id).map(entity -> {
+	public ResponseEntity atualizarStatus(@PathVariable("id") Long id, @RequestBody AtualizaStatusDto dto,
+			@RequestAttribute(TokenAutenticacaoFilter.ID_USUARIO) Long idUsuario) {
+		return obterDoUsuario(id, idUsuario).map(entity -> {
 			StatusLancamento statusLancamento = StatusLancamento.valueOf(dto.getStatus());
 			
 			if(statusLancamento == null) {
@@ -99,18 +381,38 @@ public class LancamentoController {
 			
 			try {
 				entity.setStatus(statusLancamento);
-				lancamentoService.atualizar(entity);
-				return ResponseEntity.ok(entity);
+				Lancamento atualizado = lancamentoService.atualizar(entity);
+				return ResponseEntity.ok(LancamentoDto.de(atualizado));
 			} catch (RegraNegocioException e) {
 				return ResponseEntity.badRequest().body(e.getMessage());
+			} catch (OptimisticLockingFailureException e) {
+				return ResponseEntity.status(HttpStatus.CONFLICT).body(LANCAMENTO_ALTERADO);
 			}
 		}).orElseGet(() -> 
 			new ResponseEntity("Lançamento não encontrado na base de dados", HttpStatus.BAD_REQUEST));
 	}
 	
+	@PutMapping("status")
+	public ResponseEntity atualizarStatusEmLote(@RequestBody AtualizaStatusEmLoteDto dto,
+			@RequestAttribute(TokenAutenticacaoFilter.ID_USUARIO) Long idUsuario) {
+		try {
+			StatusLancamento novo = converterStatus(dto.getStatus());
+			StatusLancamento atual = converterStatus(dto.getStatusAtual());
+			
+			ResultadoAtualizacaoStatus resultado = dto.getIds() != null && !dto.getIds().isEmpty()
+					? lancamentoService.atualizarStatusEmLote(idUsuario, dto.getIds(), atual, novo)
+					: lancamentoService.atualizarStatusEmLote(idUsuario, dto.getAno(), dto.getMes(), atual, novo);
+			return ResponseEntity.ok(resultado);
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		} catch (OptimisticLockingFailureException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+		}
+	}
+	
 	@DeleteMapping("{id}")
-	public ResponseEntity deletar(@PathVariable("id") Long id) {
-		return lancamentoService.obterPorId(id).map( entidade -> {
+	public ResponseEntity deletar(@PathVariable("id") Long id, @RequestAttribute(TokenAutenticacaoFilter.ID_USUARIO) Long idUsuario) {
+		return obterDoUsuario(id, idUsuario).map( entidade -> {
 			lancamentoService.apagar(entidade);
 			return new ResponseEntity( HttpStatus.NO_CONTENT);
 		}).orElseGet( () ->
@@ -119,17 +421,121 @@ public class LancamentoController {
 	}
 	
 	
-	private Lancamento converter(LancamentoDto dto) {
+	/**
+	 * Filtro comum à listagem, à página por cursor e ao fluxo.
+	 */
+	private LancamentoFiltro criarFiltro(Long idUsuario, String descricao, Integer mes, Integer ano,
+			BigDecimal valorMinimo, BigDecimal valorMaximo, LocalDate dataInicial, LocalDate dataFinal,
+			List<String> tipos, List<String> status) {
+		return LancamentoFiltro.builder()
+				.idUsuario(idUsuario)
+				.descricao(descricao)
+				.mes(mes)
+				.ano(ano)
+				.valorMinimo(valorMinimo)
+				.valorMaximo(valorMaximo)
+				.dataCadastroInicial(dataInicial)
+				.dataCadastroFinal(dataFinal)
+				.tipos(converter(tipos, TipoLancamento.class))
+				.status(converter(status, StatusLancamento.class))
+				.build();
+	}
+	
+	/**
+	 * Lançamentos de outro usuário são tratados como inexistentes.
+	 */
+	private Optional<Lancamento> obterDoUsuario(Long id, Long idUsuario) {
+		return lancamentoService.obterPorId(id)
+				.filter(lancamento -> lancamento.getUsuario() != null && idUsuario.equals(lancamento.getUsuario().getId()));
+	}
+	
+	private <E extends Enum<E>> Set<E> converter(List<String> valores, Class<E> tipo) {
+		if(valores == null) {
+			return null;
+		}
+		
+		Set<E> convertidos = EnumSet.noneOf(tipo);
+		for(String valor : valores) {
+			try {
+				convertidos.add(Enum.valueOf(tipo, valor.trim().toUpperCase()));
+			} catch (IllegalArgumentException e) {
+				throw new RegraNegocioException("Valor inválido para " + tipo.getSimpleName() + ": " + valor);
+			}
+		}
+		return convertidos;
+	}
+	
+	private static TipoLancamento converterTipo(String tipo) {
+		if(tipo == null) {
+			return null;
+		}
+		
+		try {
+			return TipoLancamento.valueOf(tipo.trim().toUpperCase());
+		} catch (IllegalArgumentException e) {
+			throw new RegraNegocioException("Tipo inválido: " + tipo);
+		}
+	}
+	
+	private static StatusLancamento converterStatus(String status) {
+		if(status == null) {
+			return null;
+		}
+		
+		try {
+			return StatusLancamento.valueOf(status.trim().toUpperCase());
+		} catch (IllegalArgumentException e) {
+			throw new RegraNegocioException("Status inválido: " + status);
+		}
+	}
+	
+	/**
+	 * Cada item é um campo, opcionalmente seguido de ":asc" ou ":desc"
+	 * (ex.: ordenacao=valor:desc&ordenacao=ano).
+	 */
+	private Sort converterOrdenacao(List<String> ordenacao) {
+		if(ordenacao == null) {
+			return null;
+		}
+		
+		List<Sort.Order> ordens = new ArrayList<>();
+		for(String item : ordenacao) {
+			String[] partes = item.trim().split(":");
+			Sort.Direction direcao = Sort.Direction.ASC;
+			if(partes.length > 1) {
+				direcao = Sort.Direction.fromOptionalString(partes[1]).orElseThrow(() ->
+						new RegraNegocioException("Direção de ordenação inválida: " + item));
+			}
+			ordens.add(new Sort.Order(direcao, partes[0]));
+		}
+		return Sort.by(ordens);
+	}
+	
+	private static List<LancamentoDto> converter(List<Lancamento> lancamentos) {
+		return lancamentos.stream().map(LancamentoDto::de).collect(Collectors.toList());
+	}
+	
+	private String impressao(LancamentoDto dto) {
+		try {
+			return RegistroIdempotencia.impressao(objectMapper.writeValueAsString(dto));
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	/**
+	 * O usuário do lançamento é sempre o do token; o campo {@code usuario} do
+	 * corpo é ignorado.
+	 */
+	private Lancamento converter(LancamentoDto dto, Long idUsuario) {
 		Lancamento lancamento = new Lancamento();
 		lancamento.setDescricao(dto.getDescricao());
 		lancamento.setAno(dto.getAno());
 		lancamento.setMes(dto.getMes());
 		lancamento.setValor(dto.getValor());
 		
-		Usuario usuario = usuarioService.obterPorId(dto.getUsuario()).orElseThrow(() -> new RegraNegocioException("Usuário"
-				+ " não encontrado para o Id informado"));
-		
-		lancamento.setUsuario(usuario);
+		// só a referência: um usuário excluído depois de emitido o token é recusado pela chave estrangeira ao gravar
+		lancamento.setUsuario(usuarioService.obterReferencia(idUsuario));
 		
 		if(dto.getTipo() != null) {
 			lancamento.setTipo(TipoLancamento.valueOf(dto.getTipo()));
@@ -0,0 +1,70 @@
+package com.minhasfinancas.api.controller;
+
+import java.math.BigDecimal;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.minhasfinancas.api.dto.LancamentoDto;
+import com.minhasfinancas.api.seguranca.TokenAutenticacaoFilter;
+import com.minhasfinancas.model.entity.Lancamento;
+import com.minhasfinancas.model.entity.Usuario;
+import com.minhasfinancas.service.LancamentoReativoService;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Variante sem bloqueio das consultas de lançamentos e saldo. Os resultados são
+ * escritos como NDJSON à medida que chegam do banco, respeitando o ritmo do cliente.
+ */
+@RestController
+@RequestMapping("api/reativo")
+@Profile("reativo")
+@RequiredArgsConstructor
+public class LancamentoReativoController {
+
+	private final LancamentoReativoService lancamentoReativoService;
+	
+	@GetMapping(value = "lancamentos", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public Flux<LancamentoDto> buscar(
+			@RequestParam(value = "descricao", required = false) String descricao,
+			@RequestParam(value = "mes", required = false) Integer mes,
+			@RequestParam(value = "ano", required = false) Integer ano,
+			@RequestAttribute(TokenAutenticacaoFilter.ID_USUARIO) Long idUsuario
+			) {
+		Lancamento lancamentoFiltro = new Lancamento();
+		lancamentoFiltro.setDescricao(descricao);
+		lancamentoFiltro.setMes(mes);
+		lancamentoFiltro.setAno(ano);
+		lancamentoFiltro.setUsuario(Usuario.builder().id(idUsuario).build());
+		
+		return lancamentoReativoService.buscar(lancamentoFiltro).map(LancamentoDto::de);
+	}
+	
+	@GetMapping("lancamentos/{id}")
+	public Mono<ResponseEntity<LancamentoDto>> obterPorId(@PathVariable("id") Long id,
+			@RequestAttribute(TokenAutenticacaoFilter.ID_USUARIO) Long idUsuario) {
+		return lancamentoReativoService.obterPorId(id)
+				.filter(lancamento -> idUsuario.equals(lancamento.getUsuario().getId()))
+				.map(lancamento -> ResponseEntity.ok(LancamentoDto.de(lancamento)))
+				.defaultIfEmpty(ResponseEntity.notFound().build());
+	}
+	
+	@GetMapping("usuarios/{id}/saldo")
+	public Mono<ResponseEntity<BigDecimal>> obterSaldo(@PathVariable("id") Long id,
+			@RequestAttribute(TokenAutenticacaoFilter.ID_USUARIO) Long idUsuario) {
+		if(!id.equals(idUsuario)) {
+			return Mono.just(ResponseEntity.notFound().build());
+		}
+		return lancamentoReativoService.obterSaldoPorUsuario(id).map(ResponseEntity::ok);
+	}
+}
@@ -0,0 +1,91 @@
+package com.minhasfinancas.api.controller;
+
+import java.util.stream.Collectors;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.minhasfinancas.api.dto.LancamentoRecorrenteDto;
+import com.minhasfinancas.api.seguranca.TokenAutenticacaoFilter;
+import com.minhasfinancas.exceptions.RegraNegocioException;
+import com.minhasfinancas.model.entity.LancamentoRecorrente;
+import com.minhasfinancas.model.enums.TipoLancamento;
+import com.minhasfinancas.service.LancamentoRecorrenteService;
+import com.minhasfinancas.service.UsuarioService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("api/lancamentos-recorrentes")
+@RequiredArgsConstructor
+public class LancamentoRecorrenteController {
+	
+	private final LancamentoRecorrenteService lancamentoRecorrenteService;
+	
+	private final UsuarioService usuarioService;
+	
+	@GetMapping
+	public ResponseEntity buscar(@RequestAttribute(TokenAutenticacaoFilter.ID_USUARIO) Long idUsuario) {
+		return ResponseEntity.ok(lancamentoRecorrenteService.obterPorUsuario(idUsuario).stream()
+				.map(LancamentoRecorrenteDto::de)
+				.collect(Collectors.toList()));
+	}
+	
+	@PostMapping
+	public ResponseEntity salvar(@RequestBody LancamentoRecorrenteDto dto,
+			@RequestAttribute(TokenAutenticacaoFilter.ID_USUARIO) Long idUsuario) {
+		try {
+			LancamentoRecorrente recorrente = converter(dto, idUsuario);
+			recorrente = lancamentoRecorrenteService.salvar(recorrente);
+			return ResponseEntity.ok(LancamentoRecorrenteDto.de(recorrente));
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		} catch (DataIntegrityViolationException e) {
+			return ResponseEntity.badRequest().body("Usuário não encontrado para o Id informado");
+		}
+	}
+	
+	@DeleteMapping("{id}")
+	public ResponseEntity encerrar(@PathVariable("id") Long id,
+			@RequestAttribute(TokenAutenticacaoFilter.ID_USUARIO) Long idUsuario) {
+		return lancamentoRecorrenteService.encerrar(id, idUsuario)
+				.<ResponseEntity>map(recorrente -> ResponseEntity.ok(LancamentoRecorrenteDto.de(recorrente)))
+				.orElseGet(() -> new ResponseEntity("Lançamento recorrente não encontrado na base de dados", HttpStatus.BAD_REQUEST));
+	}
+	
+	private LancamentoRecorrente converter(LancamentoRecorrenteDto dto, Long idUsuario) {
+		LancamentoRecorrente recorrente = new LancamentoRecorrente();
+		recorrente.setDescricao(dto.getDescricao());
+		recorrente.setValor(dto.getValor());
+		recorrente.setUsuario(usuarioService.obterReferencia(idUsuario));
+		
+		if(dto.getTipo() != null) {
+			try {
+				recorrente.setTipo(TipoLancamento.valueOf(dto.getTipo()));
+			} catch (IllegalArgumentException e) {
+				throw new RegraNegocioException("Informe um tipo de Lançamento.");
+			}
+		}
+		if(dto.getMesInicial() != null && dto.getAnoInicial() != null) {
+			recorrente.setCompetenciaInicial(competencia(dto.getAnoInicial(), dto.getMesInicial()));
+		}
+		if(dto.getMesFinal() != null && dto.getAnoFinal() != null) {
+			recorrente.setCompetenciaFinal(competencia(dto.getAnoFinal(), dto.getMesFinal()));
+		}
+		return recorrente;
+	}
+	
+	private static Integer competencia(int ano, int mes) {
+		// meses fora de 1..12 viram uma competência inválida, recusada pela validação
+		return mes < 1 || mes > 12 ? 0 : LancamentoRecorrente.competencia(ano, mes);
+	}
+}
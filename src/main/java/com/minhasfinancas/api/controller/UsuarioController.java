@@ -1,23 +1,29 @@
 package com.minhasfinancas.api.controller;
 
 import java.math.BigDecimal;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.minhasfinancas.api.dto.UsuarioAutenticadoDto;
 import com.minhasfinancas.api.dto.UsuarioDto;
+import com.minhasfinancas.api.seguranca.TokenAutenticacaoFilter;
 import com.minhasfinancas.exceptions.ErroAutenticacao;
 import com.minhasfinancas.exceptions.RegraNegocioException;
+import com.minhasfinancas.exceptions.ServicoSobrecarregadoException;
 import com.minhasfinancas.model.entity.Usuario;
 import com.minhasfinancas.service.LancamentoService;
+import com.minhasfinancas.service.SaldoDetalhado;
+import com.minhasfinancas.service.TokenService;
 import com.minhasfinancas.service.UsuarioService;
 
 import lombok.RequiredArgsConstructor;
@@ -29,15 +35,28 @@ public class UsuarioController {
 	
 	private final UsuarioService usuarioService;
 	private final LancamentoService lancamentoService;
+	private final TokenService tokenService;
 	
+	/**
+	 * A thread do Tomcat é liberada enquanto o hash da senha é conferido; a
+	 * resposta é escrita quando o cálculo termina, com o token de acesso a
+	 * enviar nas demais requisições.
+	 */
 	@PostMapping("/autenticar")
-	public ResponseEntity<Object> autenticar(@RequestBody UsuarioDto dto) {
-		try {
-			Usuario usuarioAutenticado = usuarioService.autenticar(dto.getEmail(), dto.getSenha());
-			return ResponseEntity.ok(usuarioAutenticado);
-		}catch (ErroAutenticacao e) {
-			return ResponseEntity.badRequest().body(e.getMessage());
-		}
+	public CompletableFuture<ResponseEntity<Object>> autenticar(@RequestBody UsuarioDto dto) {
+		return usuarioService.autenticarAsync(dto.getEmail(), dto.getSenha())
+				.<ResponseEntity<Object>>thenApply(usuario ->
+						ResponseEntity.ok(UsuarioAutenticadoDto.de(usuario, tokenService.emitir(usuario.getId()))))
+				.exceptionally(erro -> {
+					Throwable causa = erro instanceof CompletionException ? erro.getCause() : erro;
+					if(causa instanceof ErroAutenticacao) {
+						return ResponseEntity.badRequest().body(causa.getMessage());
+					}
+					if(causa instanceof ServicoSobrecarregadoException) {
+						return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(causa.getMessage());
+					}
+					throw erro instanceof CompletionException ? (CompletionException) erro : new CompletionException(erro);
+				});
 	}
 	
 	@PostMapping
@@ -52,14 +71,16 @@ public class UsuarioController {
 			return new ResponseEntity<Object>(usuarioSalvo, HttpStatus.CREATED);
 		} catch (RegraNegocioException e) {
 			return ResponseEntity.badRequest().body(e.getMessage());
+		} catch (ServicoSobrecarregadoException e) {
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
 		}
 	}
 	
 	@GetMapping("{id}/saldo")
-	public ResponseEntity<BigDecimal> obterSaldo(@PathVariable("id") Long id){
-		Optional<Usuario> usuario = usuarioService.obterPorId(id);
-		
-		if(!usuario.isPresent()) {
+	public ResponseEntity<BigDecimal> obterSaldo(@PathVariable("id") Long id,
+			@RequestAttribute(TokenAutenticacaoFilter.ID_USUARIO) Long idUsuario){
+		// o saldo de outro usuário é tratado como inexistente
+		if(!id.equals(idUsuario)) {
 			return new ResponseEntity<BigDecimal>(HttpStatus.NOT_FOUND);
 		}
 		
@@ -68,4 +89,17 @@ public class UsuarioController {
 		return ResponseEntity.ok(saldo);
 	}
 	
+	@GetMapping("{id}/saldo/detalhado")
+	public ResponseEntity<SaldoDetalhado> obterSaldoDetalhado(@PathVariable("id") Long id,
+			@RequestAttribute(TokenAutenticacaoFilter.ID_USUARIO) Long idUsuario){
+		// o saldo de outro usuário é tratado como inexistente
+		if(!id.equals(idUsuario)) {
+			return new ResponseEntity<SaldoDetalhado>(HttpStatus.NOT_FOUND);
+		}
+		
+		SaldoDetalhado saldo = lancamentoService.obterSaldoDetalhadoPorUsuario(id);
+		
+		return ResponseEntity.ok(saldo);
+	}
+	
 }
@@ -0,0 +1,24 @@
+package com.minhasfinancas.api.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Lançamentos a alterar: pelos ids (com {@code statusAtual} opcional como
+ * verificação) ou, sem ids, pela competência e pelo status atual. O usuário
+ * é o do token de acesso.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AtualizaStatusEmLoteDto {
+	
+	private List<Long> ids;
+	private Integer ano;
+	private Integer mes;
+	private String statusAtual;
+	private String status;
+}
@@ -0,0 +1,42 @@
+package com.minhasfinancas.api.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.minhasfinancas.model.entity.EventoLancamento;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class EventoLancamentoDto {
+	
+	private Long posicao;
+	private String operacao;
+	private Long lancamento;
+	private String descricao;
+	private Integer mes;
+	private Integer ano;
+	private BigDecimal valor;
+	private String tipo;
+	private String status;
+	private Long versao;
+	private LocalDateTime registradoEm;
+	
+	public static EventoLancamentoDto de(EventoLancamento evento) {
+		return EventoLancamentoDto.builder()
+				.posicao(evento.getPosicao())
+				.operacao(evento.getOperacao().name())
+				.lancamento(evento.getIdLancamento())
+				.descricao(evento.getDescricao())
+				.mes(evento.getMes())
+				.ano(evento.getAno())
+				.valor(evento.getValor())
+				.tipo(evento.getTipo() == null ? null : evento.getTipo().name())
+				.status(evento.getStatus() == null ? null : evento.getStatus().name())
+				.versao(evento.getVersao())
+				.registradoEm(evento.getRegistradoEm())
+				.build();
+	}
+}
@@ -1,6 +1,9 @@
 package com.minhasfinancas.api.dto;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.minhasfinancas.model.entity.Lancamento;
 
 import lombok.Builder;
 import lombok.Data;
@@ -17,4 +20,25 @@ public class LancamentoDto {
 	private Long usuario;
 	private String tipo;
 	private String status;
+	private LocalDate dataCadastro;
+	private Long versao;
+	
+	/**
+	 * Representação enxuta usada nas respostas: o usuário sai só pelo id, lido
+	 * da chave estrangeira sem carregar a entidade.
+	 */
+	public static LancamentoDto de(Lancamento lancamento) {
+		return LancamentoDto.builder()
+				.id(lancamento.getId())
+				.descricao(lancamento.getDescricao())
+				.mes(lancamento.getMes())
+				.ano(lancamento.getAno())
+				.valor(lancamento.getValor())
+				.usuario(lancamento.getUsuario() == null ? null : lancamento.getUsuario().getId())
+				.tipo(lancamento.getTipo() == null ? null : lancamento.getTipo().name())
+				.status(lancamento.getStatus() == null ? null : lancamento.getStatus().name())
+				.dataCadastro(lancamento.getDataCadastro())
+				.versao(lancamento.getVersao())
+				.build();
+	}
 }
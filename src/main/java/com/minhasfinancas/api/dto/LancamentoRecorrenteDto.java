@@ -0,0 +1,40 @@
+package com.minhasfinancas.api.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.minhasfinancas.model.entity.LancamentoRecorrente;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class LancamentoRecorrenteDto {
+	
+	private Long id;
+	private String descricao;
+	private BigDecimal valor;
+	private String tipo;
+	private Integer mesInicial;
+	private Integer anoInicial;
+	private Integer mesFinal;
+	private Integer anoFinal;
+	private LocalDate dataCadastro;
+	
+	public static LancamentoRecorrenteDto de(LancamentoRecorrente recorrente) {
+		Integer inicial = recorrente.getCompetenciaInicial();
+		Integer fim = recorrente.getCompetenciaFinal();
+		return LancamentoRecorrenteDto.builder()
+				.id(recorrente.getId())
+				.descricao(recorrente.getDescricao())
+				.valor(recorrente.getValor())
+				.tipo(recorrente.getTipo() == null ? null : recorrente.getTipo().name())
+				.mesInicial(inicial == null ? null : inicial % 100)
+				.anoInicial(inicial == null ? null : inicial / 100)
+				.mesFinal(fim == null ? null : fim % 100)
+				.anoFinal(fim == null ? null : fim / 100)
+				.dataCadastro(recorrente.getDataCadastro())
+				.build();
+	}
+}
@@ -0,0 +1,16 @@
+package com.minhasfinancas.api.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PaginaLancamentoDto {
+	
+	private List<LancamentoDto> conteudo;
+	private Long proximoCursor;
+}
@@ -0,0 +1,17 @@
+package com.minhasfinancas.api.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ResultadoBuscaDto {
+	
+	private List<LancamentoDto> conteudo;
+	private int pagina;
+	private Integer proximaPagina;
+}
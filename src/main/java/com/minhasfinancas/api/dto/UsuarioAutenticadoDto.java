@@ -0,0 +1,34 @@
+package com.minhasfinancas.api.dto;
+
+import java.time.Instant;
+
+import com.minhasfinancas.model.entity.Usuario;
+import com.minhasfinancas.service.TokenAcesso;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Resposta da autenticação: os dados do usuário, como antes, mais o token a
+ * enviar em {@code Authorization: Bearer} nas demais requisições.
+ */
+@Data
+@Builder
+public class UsuarioAutenticadoDto {
+	
+	private Long id;
+	private String nome;
+	private String email;
+	private String token;
+	private Instant expiraEm;
+	
+	public static UsuarioAutenticadoDto de(Usuario usuario, TokenAcesso token) {
+		return UsuarioAutenticadoDto.builder()
+				.id(usuario.getId())
+				.nome(usuario.getNome())
+				.email(usuario.getEmail())
+				.token(token.getToken())
+				.expiraEm(token.getExpiraEm())
+				.build();
+	}
+}
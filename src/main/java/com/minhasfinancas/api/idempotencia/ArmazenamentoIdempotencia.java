@@ -0,0 +1,121 @@
+package com.minhasfinancas.api.idempotencia;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minhasfinancas.model.entity.ChaveIdempotencia;
+import com.minhasfinancas.model.entity.ChaveIdempotenciaId;
+import com.minhasfinancas.model.repository.ChaveIdempotenciaRepository;
+
+/**
+ * Grava no banco as respostas de sucesso das requisições com Idempotency-Key.
+ * Nenhuma chave é consultada antes da operação: a chave primária recusa a
+ * gravação de uma chave já usada e só então a resposta gravada é lida.
+ */
+public class ArmazenamentoIdempotencia {
+	
+	private final ChaveIdempotenciaRepository repository;
+	
+	private final TransactionTemplate transactionTemplate;
+	
+	private final ObjectMapper objectMapper;
+	
+	public ArmazenamentoIdempotencia(ChaveIdempotenciaRepository repository, PlatformTransactionManager transactionManager,
+			ObjectMapper objectMapper) {
+		this.repository = repository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.objectMapper = objectMapper;
+	}
+	
+	ResponseEntity executar(ChaveIdempotenciaId id, String impressao, Supplier<ResponseEntity> operacao, boolean reservar) {
+		return reservar ? executarReservando(id, impressao, operacao) : executarNaTransacao(id, impressao, operacao);
+	}
+	
+	public long removerCriadasAntesDe(LocalDateTime limite) {
+		return transactionTemplate.execute(status -> repository.removerCriadasAntesDe(limite));
+	}
+	
+	/**
+	 * A operação e a chave são gravadas juntas; se outra instância já gravou a
+	 * chave, tudo é desfeito e a resposta dela é devolvida.
+	 */
+	private ResponseEntity executarNaTransacao(ChaveIdempotenciaId id, String impressao, Supplier<ResponseEntity> operacao) {
+		try {
+			return transactionTemplate.execute(status -> {
+				ResponseEntity resposta = operacao.get();
+				if(resposta.getStatusCode().is2xxSuccessful()) {
+					repository.inserir(id.getIdUsuario(), id.getChave(), impressao, resposta.getStatusCodeValue(),
+							serializar(resposta.getBody()));
+				} else {
+					// a operação recusada pode ter marcado a transação para desfazer
+					status.setRollbackOnly();
+				}
+				return resposta;
+			});
+		} catch (DataIntegrityViolationException e) {
+			return obterGravada(id, impressao).orElseThrow(() -> e);
+		}
+	}
+	
+	private ResponseEntity executarReservando(ChaveIdempotenciaId id, String impressao, Supplier<ResponseEntity> operacao) {
+		try {
+			transactionTemplate.executeWithoutResult(status -> repository.reservar(id.getIdUsuario(), id.getChave(), impressao));
+		} catch (DataIntegrityViolationException e) {
+			return obterGravada(id, impressao).orElseThrow(() -> e);
+		}
+		
+		ResponseEntity resposta;
+		try {
+			resposta = operacao.get();
+		} catch (RuntimeException e) {
+			liberar(id);
+			throw e;
+		}
+		
+		if(resposta.getStatusCode().is2xxSuccessful()) {
+			String corpo = serializar(resposta.getBody());
+			transactionTemplate.executeWithoutResult(status -> repository.concluir(id.getIdUsuario(), id.getChave(),
+					resposta.getStatusCodeValue(), corpo));
+		} else {
+			liberar(id);
+		}
+		return resposta;
+	}
+	
+	private Optional<ResponseEntity> obterGravada(ChaveIdempotenciaId id, String impressao) {
+		// numa transação de escrita, para ler do primário mesmo com réplicas
+		Optional<ChaveIdempotencia> gravada = transactionTemplate.execute(status -> repository.findById(id));
+		return gravada.map(chave -> {
+			if(!chave.getImpressao().equals(impressao)) {
+				return RegistroIdempotencia.chaveReutilizada();
+			}
+			if(chave.getStatus() == null) {
+				return RegistroIdempotencia.emAndamento();
+			}
+			return RegistroIdempotencia.repetida(ResponseEntity.status(chave.getStatus())
+					.contentType(MediaType.APPLICATION_JSON)
+					.body(chave.getCorpo()));
+		});
+	}
+	
+	private void liberar(ChaveIdempotenciaId id) {
+		transactionTemplate.executeWithoutResult(status -> repository.deleteById(id));
+	}
+	
+	private String serializar(Object corpo) {
+		try {
+			return objectMapper.writeValueAsString(corpo);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("Não foi possível gravar a resposta da requisição.", e);
+		}
+	}
+}
@@ -0,0 +1,174 @@
+package com.minhasfinancas.api.idempotencia;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.minhasfinancas.model.entity.ChaveIdempotenciaId;
+
+/**
+ * Faz uma requisição repetida com o mesmo {@value #CABECALHO} do mesmo usuário
+ * devolver a resposta original em vez de gravar de novo. As chaves ficam num
+ * cache limitado em memória, que as descarta após o ttl, e uma repetição que
+ * chega enquanto a original ainda executa espera por ela. Só as respostas de
+ * sucesso são lembradas: depois de um erro a mesma chave pode ser repetida.
+ * <p>
+ * Uma chave nova não consulta o banco. Com o perfil {@code idempotencia-banco}
+ * as respostas também são gravadas pelo {@link ArmazenamentoIdempotencia},
+ * para valer entre instâncias e depois de um reinício.
+ */
+@Component
+public class RegistroIdempotencia {
+	
+	public static final String CABECALHO = "Idempotency-Key";
+	
+	/** presente nas respostas devolvidas de uma execução anterior */
+	public static final String CABECALHO_REPETIDA = "Idempotent-Replayed";
+	
+	static final int TAMANHO_MAXIMO_CHAVE = 100;
+	
+	private final Cache<ChaveIdempotenciaId, Execucao> execucoes;
+	
+	private final ArmazenamentoIdempotencia armazenamento;
+	
+	private final long espera;
+	
+	public RegistroIdempotencia(ObjectProvider<ArmazenamentoIdempotencia> armazenamento,
+			@Value("${minhasfinancas.idempotencia.ttl:24h}") Duration ttl,
+			@Value("${minhasfinancas.idempotencia.capacidade:100000}") long capacidade,
+			@Value("${minhasfinancas.idempotencia.espera:10s}") Duration espera) {
+		this.execucoes = Caffeine.newBuilder()
+				.expireAfterWrite(ttl)
+				.maximumSize(capacidade)
+				.build();
+		this.armazenamento = armazenamento.getIfAvailable();
+		this.espera = espera.toNanos();
+	}
+	
+	/**
+	 * Para operações que gravam numa única transação, como o cadastro de um
+	 * lançamento; no banco a chave é gravada na mesma transação.
+	 */
+	public ResponseEntity executar(Long idUsuario, String chave, String impressao, Supplier<ResponseEntity> operacao) {
+		return executar(idUsuario, chave, impressao, operacao, false);
+	}
+	
+	/**
+	 * Para operações que gravam em várias transações, como a importação; no
+	 * banco a chave é reservada antes de a operação começar.
+	 */
+	public ResponseEntity executarReservando(Long idUsuario, String chave, String impressao,
+			Supplier<ResponseEntity> operacao) {
+		return executar(idUsuario, chave, impressao, operacao, true);
+	}
+	
+	/**
+	 * Hash SHA-256, em hexadecimal, que identifica o conteúdo de uma requisição.
+	 */
+	public static String impressao(String conteudo) {
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(conteudo.getBytes(StandardCharsets.UTF_8));
+			StringBuilder hexadecimal = new StringBuilder(hash.length * 2);
+			for(byte b : hash) {
+				hexadecimal.append(String.format("%02x", b));
+			}
+			return hexadecimal.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	private ResponseEntity executar(Long idUsuario, String chave, String impressao, Supplier<ResponseEntity> operacao,
+			boolean reservar) {
+		if(chave == null) {
+			return operacao.get();
+		}
+		if(chave.trim().isEmpty() || chave.length() > TAMANHO_MAXIMO_CHAVE) {
+			return ResponseEntity.badRequest().body("Informe uma " + CABECALHO + " de até " + TAMANHO_MAXIMO_CHAVE + " caracteres.");
+		}
+		
+		ChaveIdempotenciaId id = new ChaveIdempotenciaId(idUsuario, chave);
+		Execucao execucao = new Execucao(impressao);
+		Execucao anterior = execucoes.asMap().putIfAbsent(id, execucao);
+		if(anterior != null) {
+			return repetir(anterior, impressao);
+		}
+		
+		ResponseEntity resposta;
+		try {
+			resposta = armazenamento == null ? operacao.get() : armazenamento.executar(id, impressao, operacao, reservar);
+		} catch (RuntimeException e) {
+			execucoes.asMap().remove(id, execucao);
+			execucao.resposta.completeExceptionally(e);
+			throw e;
+		}
+		
+		if(!resposta.getStatusCode().is2xxSuccessful()) {
+			execucoes.asMap().remove(id, execucao);
+		}
+		execucao.resposta.complete(resposta);
+		return resposta;
+	}
+	
+	private ResponseEntity repetir(Execucao anterior, String impressao) {
+		if(!anterior.impressao.equals(impressao)) {
+			return chaveReutilizada();
+		}
+		
+		try {
+			return repetida(anterior.resposta.get(espera, TimeUnit.NANOSECONDS));
+		} catch (TimeoutException e) {
+			return emAndamento();
+		} catch (ExecutionException e) {
+			return new ResponseEntity("A requisição original com esta " + CABECALHO + " falhou, tente novamente.",
+					HttpStatus.CONFLICT);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return emAndamento();
+		}
+	}
+	
+	static ResponseEntity repetida(ResponseEntity original) {
+		return ResponseEntity.status(original.getStatusCode())
+				.headers(cabecalhos -> {
+					cabecalhos.addAll(original.getHeaders());
+					cabecalhos.set(CABECALHO_REPETIDA, "true");
+				})
+				.body(original.getBody());
+	}
+	
+	static ResponseEntity chaveReutilizada() {
+		return new ResponseEntity("A " + CABECALHO + " informada já foi usada em outra requisição.",
+				HttpStatus.UNPROCESSABLE_ENTITY);
+	}
+	
+	static ResponseEntity emAndamento() {
+		return new ResponseEntity("Uma requisição com a mesma " + CABECALHO + " ainda está em andamento.",
+				HttpStatus.CONFLICT);
+	}
+	
+	private static class Execucao {
+		
+		private final String impressao;
+		
+		private final CompletableFuture<ResponseEntity> resposta = new CompletableFuture<>();
+		
+		private Execucao(String impressao) {
+			this.impressao = impressao;
+		}
+	}
+}
@@ -0,0 +1,68 @@
+package com.minhasfinancas.api.seguranca;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.minhasfinancas.service.TokenService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Exige um token {@code Authorization: Bearer} válido nas rotas da API, exceto
+ * no cadastro e na autenticação de usuários. O id do usuário do token fica no
+ * atributo {@link #ID_USUARIO} da requisição, lido pelos controllers com
+ * {@code @RequestAttribute}; a verificação não consulta o banco.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenAutenticacaoFilter extends OncePerRequestFilter {
+	
+	public static final String ID_USUARIO = "minhasfinancas.idUsuario";
+	
+	private static final String PREFIXO = "Bearer ";
+	
+	private final TokenService tokenService;
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		String caminho = request.getRequestURI().substring(request.getContextPath().length());
+		if(!caminho.startsWith("/api/")) {
+			return true;
+		}
+		return HttpMethod.POST.matches(request.getMethod())
+				&& (caminho.equals("/api/usuarios") || caminho.equals("/api/usuarios/autenticar"));
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		String autorizacao = request.getHeader(HttpHeaders.AUTHORIZATION);
+		Optional<Long> idUsuario = autorizacao != null && autorizacao.regionMatches(true, 0, PREFIXO, 0, PREFIXO.length())
+				? tokenService.validar(autorizacao.substring(PREFIXO.length()).trim())
+				: Optional.empty();
+		
+		if(!idUsuario.isPresent()) {
+			response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+			response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+			response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+			response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+			response.getWriter().write("Token de acesso ausente, inválido ou expirado.");
+			return;
+		}
+		
+		request.setAttribute(ID_USUARIO, idUsuario.get());
+		filterChain.doFilter(request, response);
+	}
+}
@@ -0,0 +1,77 @@
+package com.minhasfinancas.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Collections;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Hash de senhas com BCrypt, gravado com o prefixo {@code {bcrypt}}. O custo é
+ * configurável em {@code minhasfinancas.senha.custo-bcrypt}; hashes com custo
+ * menor e senhas ainda gravadas em texto puro são reconhecidos e refeitos no
+ * login.
+ */
+@Configuration
+public class AutenticacaoConfig {
+	
+	public static final String USUARIOS_INEXISTENTES = "usuariosInexistentes";
+	
+	private static final String BCRYPT = "bcrypt";
+	
+	@Bean
+	public PasswordEncoder codificadorSenha(@Value("${minhasfinancas.senha.custo-bcrypt:10}") int custo) {
+		Map<String, PasswordEncoder> codificadores = Collections.singletonMap(BCRYPT, new BCryptPasswordEncoder(custo));
+		DelegatingPasswordEncoder codificador = new DelegatingPasswordEncoder(BCRYPT, codificadores);
+		codificador.setDefaultPasswordEncoderForMatches(new SenhaLegada());
+		return codificador;
+	}
+	
+	/**
+	 * E-mails sem cadastro ficam num cache à parte, com validade curta e
+	 * limite próprio, para que uma rajada de tentativas com e-mails aleatórios
+	 * não consulte o banco a cada vez nem desloque os usuários em cache.
+	 */
+	@Bean
+	public CacheManagerCustomizer<CaffeineCacheManager> cacheUsuariosInexistentes(
+			@Value("${minhasfinancas.autenticacao.cache-inexistentes:maximumSize=100000,expireAfterWrite=1m}") String especificacao) {
+		return gerenciador -> gerenciador.registerCustomCache(USUARIOS_INEXISTENTES,
+				Caffeine.from(especificacao).build());
+	}
+	
+	/**
+	 * Senhas gravadas antes do hash, sem o prefixo {@code {bcrypt}}: só servem
+	 * para conferir o login que as converte.
+	 */
+	static class SenhaLegada implements PasswordEncoder {
+
+		@Override
+		public String encode(CharSequence senha) {
+			throw new UnsupportedOperationException("Senhas novas são gravadas com " + BCRYPT);
+		}
+
+		@Override
+		public boolean matches(CharSequence senha, String senhaGravada) {
+			if(senha == null || senhaGravada == null) {
+				return false;
+			}
+			return MessageDigest.isEqual(senha.toString().getBytes(StandardCharsets.UTF_8),
+					senhaGravada.getBytes(StandardCharsets.UTF_8));
+		}
+		
+		@Override
+		public boolean upgradeEncoding(String senhaGravada) {
+			return true;
+		}
+	}
+}
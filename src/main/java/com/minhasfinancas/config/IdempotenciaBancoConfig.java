@@ -0,0 +1,27 @@
+package com.minhasfinancas.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minhasfinancas.api.idempotencia.ArmazenamentoIdempotencia;
+import com.minhasfinancas.model.repository.ChaveIdempotenciaRepository;
+
+/**
+ * Perfil opcional {@code idempotencia-banco}: as respostas das requisições
+ * com Idempotency-Key também são gravadas no banco, o que faz a repetição
+ * valer entre instâncias e depois de um reinício, ao custo de um insert a
+ * mais na transação de cada requisição com chave.
+ */
+@Configuration
+@Profile("idempotencia-banco")
+public class IdempotenciaBancoConfig {
+	
+	@Bean
+	public ArmazenamentoIdempotencia armazenamentoIdempotencia(ChaveIdempotenciaRepository repository,
+			PlatformTransactionManager transactionManager, ObjectMapper objectMapper) {
+		return new ArmazenamentoIdempotencia(repository, transactionManager, objectMapper);
+	}
+}
@@ -0,0 +1,85 @@
+package com.minhasfinancas.config;
+
+import java.time.Duration;
+
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.minhasfinancas.api.seguranca.TokenAutenticacaoFilter;
+import com.minhasfinancas.service.SaldoAlteradoEvent;
+
+/**
+ * Lembra por alguns segundos os usuários que acabaram de escrever, para que as
+ * leituras seguintes deles vão ao primário e não a uma réplica ainda atrasada.
+ * <p>
+ * A escrita é registrada ao fim de cada transação de escrita feita numa
+ * requisição autenticada e a cada alteração de saldo, o que cobre também os
+ * jobs, que rodam fora de uma requisição.
+ */
+public class JanelaLeituraPropria {
+	
+	private final Cache<Long, Boolean> escritasRecentes;
+	
+	public JanelaLeituraPropria(Duration janela) {
+		this.escritasRecentes = Caffeine.newBuilder()
+				.expireAfterWrite(janela)
+				.maximumSize(100_000)
+				.build();
+	}
+	
+	public void registrarEscrita(Long idUsuario) {
+		if(idUsuario != null) {
+			escritasRecentes.put(idUsuario, Boolean.TRUE);
+		}
+	}
+	
+	public boolean escreveuRecentemente(Long idUsuario) {
+		return idUsuario != null && escritasRecentes.getIfPresent(idUsuario) != null;
+	}
+	
+	/**
+	 * Se a transação ainda está aberta o registro fica para depois do término,
+	 * para que a janela conte a partir do momento em que a escrita é visível.
+	 */
+	void registrarEscritaDaRequisicao() {
+		Long idUsuario = usuarioDaRequisicao();
+		if(idUsuario == null) {
+			return;
+		}
+		if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+			registrarEscrita(idUsuario);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			
+			@Override
+			public void afterCompletion(int status) {
+				registrarEscrita(idUsuario);
+			}
+		});
+	}
+	
+	boolean leituraPropriaPendente() {
+		return escreveuRecentemente(usuarioDaRequisicao());
+	}
+	
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+	public void saldoAlterado(SaldoAlteradoEvent evento) {
+		registrarEscrita(evento.getIdUsuario());
+	}
+	
+	private static Long usuarioDaRequisicao() {
+		RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+		if(atributos == null) {
+			return null;
+		}
+		Object idUsuario = atributos.getAttribute(TokenAutenticacaoFilter.ID_USUARIO, RequestAttributes.SCOPE_REQUEST);
+		return idUsuario instanceof Long ? (Long) idUsuario : null;
+	}
+}
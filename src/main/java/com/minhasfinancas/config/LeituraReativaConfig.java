@@ -0,0 +1,70 @@
+package com.minhasfinancas.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+
+/**
+ * Perfil opcional {@code reativo}: um pool R2DBC sobre o mesmo banco, usado
+ * apenas pelas consultas de {@code api/reativo}. A escrita continua via JPA.
+ * O pool e o driver só entram no pacote gerado com {@code mvn -Preativo}.
+ * <p>
+ * O pool não é exposto como bean {@code ConnectionFactory} de propósito: a
+ * presença de um desativaria a configuração automática do DataSource JDBC.
+ */
+@Configuration
+@Profile("reativo")
+public class LeituraReativaConfig implements DisposableBean {
+	
+	private final ConnectionPool pool;
+	
+	public LeituraReativaConfig(
+			@Value("${minhasfinancas.r2dbc.url}") String url,
+			@Value("${minhasfinancas.r2dbc.usuario:${spring.datasource.username}}") String usuario,
+			@Value("${minhasfinancas.r2dbc.senha:${spring.datasource.password}}") String senha,
+			@Value("${minhasfinancas.r2dbc.pool.tamanho-inicial:5}") int tamanhoInicial,
+			@Value("${minhasfinancas.r2dbc.pool.tamanho-maximo:20}") int tamanhoMaximo,
+			MeterRegistry registry) {
+		ConnectionFactoryOptions opcoes = ConnectionFactoryOptions.parse(url).mutate()
+				.option(ConnectionFactoryOptions.USER, usuario)
+				.option(ConnectionFactoryOptions.PASSWORD, senha)
+				.build();
+		
+		pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(opcoes))
+				.name("leitura-reativa")
+				.initialSize(tamanhoInicial)
+				.maxSize(tamanhoMaximo)
+				.maxIdleTime(Duration.ofMinutes(10))
+				.build());
+		
+		Gauge.builder("minhasfinancas.r2dbc.conexoes.ativas", pool, p -> p.getMetrics().map(PoolMetrics::acquiredSize).orElse(0))
+				.register(registry);
+		Gauge.builder("minhasfinancas.r2dbc.conexoes.ociosas", pool, p -> p.getMetrics().map(PoolMetrics::idleSize).orElse(0))
+				.register(registry);
+		Gauge.builder("minhasfinancas.r2dbc.conexoes.pendentes", pool, p -> p.getMetrics().map(PoolMetrics::pendingAcquireSize).orElse(0))
+				.register(registry);
+	}
+	
+	@Bean
+	public DatabaseClient databaseClientLeitura() {
+		return DatabaseClient.create(pool);
+	}
+
+	@Override
+	public void destroy() {
+		pool.dispose();
+	}
+}
@@ -0,0 +1,65 @@
+package com.minhasfinancas.config;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import com.minhasfinancas.exceptions.ErroAutenticacao;
+import com.minhasfinancas.exceptions.RegraNegocioException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Mede o tempo de cada método público dos serviços e conta as exceções de
+ * negócio e de autenticação por serviço e método, já que os controllers as
+ * transformam em respostas 400 sem deixar rastro. A mensagem não vira tag
+ * porque algumas repetem a entrada do cliente e criariam uma série por valor.
+ */
+@Aspect
+@Component
+public class MetricasServicoAspect {
+	
+	public static final String TEMPO_SERVICO = "minhasfinancas.servico";
+	public static final String ERROS = "minhasfinancas.erros";
+
+	private final MeterRegistry registry;
+	
+	public MetricasServicoAspect(MeterRegistry registry) {
+		this.registry = registry;
+	}
+	
+	@Around("execution(public * com.minhasfinancas.service.impl.*ServiceImpl.*(..))")
+	public Object medir(ProceedingJoinPoint joinPoint) throws Throwable {
+		Timer.Sample amostra = Timer.start(registry);
+		Object resultado;
+		try {
+			resultado = joinPoint.proceed();
+		} catch (Throwable e) {
+			registrar(joinPoint, amostra, e);
+			throw e;
+		}
+		
+		// métodos assíncronos são medidos até o futuro terminar
+		if(resultado instanceof CompletableFuture) {
+			return ((CompletableFuture<?>) resultado).whenComplete((valor, erro) ->
+					registrar(joinPoint, amostra, erro instanceof CompletionException ? erro.getCause() : erro));
+		}
+		registrar(joinPoint, amostra, null);
+		return resultado;
+	}
+	
+	private void registrar(ProceedingJoinPoint joinPoint, Timer.Sample amostra, Throwable erro) {
+		String excecao = erro == null ? "none" : erro.getClass().getSimpleName();
+		String servico = joinPoint.getSignature().getDeclaringType().getSimpleName().replace("Impl", "");
+		String metodo = joinPoint.getSignature().getName();
+		if(erro instanceof RegraNegocioException || erro instanceof ErroAutenticacao) {
+			registry.counter(ERROS, "tipo", excecao, "servico", servico, "metodo", metodo).increment();
+		}
+		amostra.stop(registry.timer(TEMPO_SERVICO, "servico", servico, "metodo", metodo, "excecao", excecao));
+	}
+}
@@ -0,0 +1,96 @@
+package com.minhasfinancas.config;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Perfil opcional {@code replicas}: as transações {@code readOnly} passam a ler
+ * das réplicas listadas em {@code minhasfinancas.replicas.urls}, conforme o
+ * {@link RoteamentoLeituraDataSource}. O primário continua configurado por
+ * {@code spring.datasource.*}.
+ * <p>
+ * O Flyway usa o mesmo DataSource do JPA, que fora de uma transação somente
+ * leitura sempre chega ao primário; com um DataSource próprio para o Flyway o
+ * Spring Boot deixaria de reconhecer o esquema como gerenciado e, num banco
+ * embarcado, passaria o Hibernate para {@code create-drop}.
+ * <p>
+ * Os pools das réplicas só conectam no primeiro uso, para que uma réplica fora
+ * do ar não impeça a aplicação de subir.
+ */
+@Configuration
+@Profile("replicas")
+public class ReplicasLeituraConfig implements DisposableBean {
+	
+	private final List<HikariDataSource> replicas = new ArrayList<>();
+	
+	@Bean
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource dataSourcePrimario(DataSourceProperties propriedades) {
+		return propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+	}
+	
+	@Bean
+	public JanelaLeituraPropria janelaLeituraPropria(
+			@Value("${minhasfinancas.replicas.janela-leitura-propria:5s}") Duration janela) {
+		return new JanelaLeituraPropria(janela);
+	}
+	
+	@Bean
+	@Primary
+	public DataSource dataSource(HikariDataSource dataSourcePrimario, JanelaLeituraPropria janelaLeituraPropria,
+			DataSourceProperties propriedades, MeterRegistry registry,
+			@Value("${minhasfinancas.replicas.urls}") List<String> urls,
+			@Value("${minhasfinancas.replicas.usuario:${spring.datasource.username}}") String usuario,
+			@Value("${minhasfinancas.replicas.senha:${spring.datasource.password}}") String senha,
+			@Value("${minhasfinancas.replicas.pool.tamanho-maximo:10}") int tamanhoMaximo,
+			@Value("${minhasfinancas.replicas.tempo-conexao:2s}") Duration tempoConexao,
+			@Value("${minhasfinancas.replicas.quarentena:30s}") Duration quarentena) {
+		for(String url : urls) {
+			HikariConfig config = new HikariConfig();
+			config.setPoolName("replica-" + replicas.size());
+			config.setJdbcUrl(url);
+			config.setUsername(usuario);
+			config.setPassword(senha);
+			config.setDriverClassName(propriedades.determineDriverClassName());
+			config.setMaximumPoolSize(tamanhoMaximo);
+			config.setConnectionTimeout(tempoConexao.toMillis());
+			config.setInitializationFailTimeout(-1);
+			config.setReadOnly(true);
+			config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+			replicas.add(new HikariDataSource(config));
+		}
+		
+		LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy();
+		proxy.setTargetDataSource(new RoteamentoLeituraDataSource(dataSourcePrimario, replicas, janelaLeituraPropria, quarentena));
+		// valores padrão do Hikari, informados para não abrir uma conexão só para descobri-los
+		proxy.setDefaultAutoCommit(true);
+		proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+		proxy.afterPropertiesSet();
+		return proxy;
+	}
+	
+	@Override
+	public void destroy() {
+		replicas.forEach(HikariDataSource::close);
+	}
+}
@@ -0,0 +1,115 @@
+package com.minhasfinancas.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Envia as transações somente leitura às réplicas, em rodízio, e todo o resto
+ * ao primário. Também vão ao primário as leituras de quem escreveu dentro da
+ * {@link JanelaLeituraPropria} e as leituras feitas enquanto nenhuma réplica
+ * está disponível.
+ * <p>
+ * Uma réplica que recusa conexão fica fora do rodízio durante a quarentena e
+ * a leitura segue no primário. Deve ser usado atrás de um
+ * {@code LazyConnectionDataSourceProxy}, para que a conexão só seja obtida
+ * depois que a transação já declarou se é somente leitura.
+ */
+@Slf4j
+public class RoteamentoLeituraDataSource extends AbstractRoutingDataSource {
+	
+	static final String PRIMARIO = "primario";
+	
+	/** marca uma réplica fora da quarentena; qualquer outro valor é o fim dela, em nanoTime */
+	private static final long DISPONIVEL = 0;
+	
+	private final int quantidadeReplicas;
+	
+	private final JanelaLeituraPropria janelaLeituraPropria;
+	
+	private final long quarentena;
+	
+	private final AtomicInteger proxima = new AtomicInteger();
+	
+	private final AtomicLongArray suspensaAte;
+	
+	public RoteamentoLeituraDataSource(DataSource primario, List<? extends DataSource> replicas,
+			JanelaLeituraPropria janelaLeituraPropria, Duration quarentena) {
+		this.quantidadeReplicas = replicas.size();
+		this.janelaLeituraPropria = janelaLeituraPropria;
+		this.quarentena = quarentena.toNanos();
+		this.suspensaAte = new AtomicLongArray(quantidadeReplicas);
+		
+		Map<Object, Object> alvos = new HashMap<>();
+		alvos.put(PRIMARIO, primario);
+		for(int i = 0; i < quantidadeReplicas; i++) {
+			alvos.put(i, replicas.get(i));
+		}
+		setTargetDataSources(alvos);
+		setDefaultTargetDataSource(primario);
+		setLenientFallback(false);
+		afterPropertiesSet();
+	}
+	
+	@Override
+	protected Object determineCurrentLookupKey() {
+		if(!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			if(TransactionSynchronizationManager.isActualTransactionActive()) {
+				janelaLeituraPropria.registrarEscritaDaRequisicao();
+			}
+			return PRIMARIO;
+		}
+		if(janelaLeituraPropria.leituraPropriaPendente()) {
+			return PRIMARIO;
+		}
+		return escolherReplica();
+	}
+	
+	@Override
+	public Connection getConnection() throws SQLException {
+		Object chave = determineCurrentLookupKey();
+		DataSource alvo = getResolvedDataSources().get(chave);
+		if(PRIMARIO.equals(chave)) {
+			return alvo.getConnection();
+		}
+		
+		try {
+			return alvo.getConnection();
+		} catch (SQLException e) {
+			int replica = (Integer) chave;
+			suspender(replica);
+			log.warn("Réplica {} indisponível, leituras seguem no primário por {} ms: {}", replica,
+					Duration.ofNanos(quarentena).toMillis(), e.getMessage());
+			return getResolvedDataSources().get(PRIMARIO).getConnection();
+		}
+	}
+	
+	private Object escolherReplica() {
+		long agora = System.nanoTime();
+		for(int tentativa = 0; tentativa < quantidadeReplicas; tentativa++) {
+			int replica = Math.floorMod(proxima.getAndIncrement(), quantidadeReplicas);
+			long fim = suspensaAte.get(replica);
+			if(fim == DISPONIVEL || agora - fim >= 0) {
+				return replica;
+			}
+		}
+		return PRIMARIO;
+	}
+	
+	private void suspender(int replica) {
+		long fim = System.nanoTime() + quarentena;
+		suspensaAte.set(replica, fim == DISPONIVEL ? 1 : fim);
+	}
+}
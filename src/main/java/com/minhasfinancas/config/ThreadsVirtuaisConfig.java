@@ -0,0 +1,54 @@
+package com.minhasfinancas.config;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+/**
+ * Perfil opcional {@code virtual-threads}: as requisições do Tomcat e o
+ * processamento assíncrono do MVC (stream e exportação) passam a rodar em
+ * threads virtuais, e o limite de concorrência fica a cargo do pool do Hikari
+ * configurado em application-virtual-threads.properties.
+ * <p>
+ * O projeto ainda compila para Java 11, por isso o executor é obtido por
+ * reflexão. O perfil exige Java 21 ou superior em tempo de execução.
+ */
+@Configuration
+@Profile("virtual-threads")
+public class ThreadsVirtuaisConfig {
+	
+	@Bean(destroyMethod = "shutdown")
+	public ExecutorService executorThreadsVirtuais() {
+		return criarExecutor();
+	}
+
+	@Bean
+	public TomcatProtocolHandlerCustomizer<?> tomcatThreadsVirtuais(ExecutorService executorThreadsVirtuais) {
+		return protocolHandler -> protocolHandler.setExecutor(executorThreadsVirtuais);
+	}
+	
+	@Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+	public AsyncTaskExecutor applicationTaskExecutor(ExecutorService executorThreadsVirtuais) {
+		return new TaskExecutorAdapter(executorThreadsVirtuais);
+	}
+	
+	static ExecutorService criarExecutor() {
+		try {
+			Method fabrica = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) fabrica.invoke(null);
+		} catch (NoSuchMethodException e) {
+			throw new IllegalStateException("O perfil virtual-threads requer Java 21 ou superior, versão atual: "
+					+ Runtime.version(), e);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Não foi possível criar o executor de threads virtuais", e);
+		}
+	}
+}
@@ -0,0 +1,8 @@
+package com.minhasfinancas.exceptions;
+
+public class CursorExpiradoException extends RuntimeException {
+
+	public CursorExpiradoException(String mensagem) {
+		super(mensagem);
+	}
+}
@@ -0,0 +1,8 @@
+package com.minhasfinancas.exceptions;
+
+public class ServicoSobrecarregadoException extends RuntimeException {
+
+	public ServicoSobrecarregadoException(String mensagem, Throwable causa) {
+		super(mensagem, causa);
+	}
+}
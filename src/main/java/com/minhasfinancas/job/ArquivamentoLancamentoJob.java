@@ -0,0 +1,26 @@
+package com.minhasfinancas.job;
+
+import java.time.Year;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.minhasfinancas.service.ArquivamentoService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Arquiva os anos encerrados e prepara as partições dos próximos. Roda uma vez
+ * por mês; fora da virada do ano as execuções não encontram nada a arquivar.
+ */
+@Component
+@RequiredArgsConstructor
+public class ArquivamentoLancamentoJob {
+	
+	private final ArquivamentoService arquivamentoService;
+	
+	@Scheduled(cron = "${minhasfinancas.arquivamento.cron:0 0 4 1 * *}")
+	public void executar() {
+		arquivamentoService.arquivar(Year.now().getValue());
+	}
+}
@@ -0,0 +1,39 @@
+package com.minhasfinancas.job;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.minhasfinancas.service.DivergenciaSaldo;
+import com.minhasfinancas.service.SaldoService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Recalcula o saldo de todos os usuários a partir dos lançamentos e
+ * registra qualquer divergência em relação ao saldo consolidado.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConciliacaoSaldoJob {
+
+	private final SaldoService saldoService;
+	
+	@Value("${minhasfinancas.saldo.conciliacao.corrigir:true}")
+	private boolean corrigir;
+	
+	@Scheduled(cron = "${minhasfinancas.saldo.conciliacao.cron:0 0 3 * * *}")
+	public void executar() {
+		List<DivergenciaSaldo> divergencias = saldoService.conciliar(corrigir);
+		
+		divergencias.forEach(divergencia -> log.warn("Saldo divergente para o usuário {}: consolidado {}, calculado {}",
+				divergencia.getIdUsuario(), divergencia.getSaldoConsolidado(), divergencia.getSaldoCalculado()));
+		
+		log.info("Conciliação de saldos concluída: {} divergência(s){}", divergencias.size(),
+				corrigir && !divergencias.isEmpty() ? " corrigida(s)" : "");
+	}
+}
@@ -0,0 +1,27 @@
+package com.minhasfinancas.job;
+
+import java.time.YearMonth;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.minhasfinancas.service.LancamentoRecorrenteService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Gera os lançamentos recorrentes da competência atual. Roda todo dia para
+ * que uma execução interrompida seja retomada; depois de concluída, as
+ * execuções seguintes do mesmo mês não fazem nada.
+ */
+@Component
+@RequiredArgsConstructor
+public class GeracaoRecorrenciaJob {
+
+	private final LancamentoRecorrenteService lancamentoRecorrenteService;
+	
+	@Scheduled(cron = "${minhasfinancas.recorrencia.cron:0 0 1 * * *}")
+	public void executar() {
+		lancamentoRecorrenteService.gerar(YearMonth.now());
+	}
+}
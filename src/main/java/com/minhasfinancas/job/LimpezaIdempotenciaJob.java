@@ -0,0 +1,35 @@
+package com.minhasfinancas.job;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.minhasfinancas.api.idempotencia.ArmazenamentoIdempotencia;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Remove do banco as Idempotency-Keys mais antigas que o ttl.
+ */
+@Slf4j
+@Component
+@Profile("idempotencia-banco")
+@RequiredArgsConstructor
+public class LimpezaIdempotenciaJob {
+	
+	private final ArmazenamentoIdempotencia armazenamentoIdempotencia;
+	
+	@Value("${minhasfinancas.idempotencia.ttl:24h}")
+	private Duration ttl;
+	
+	@Scheduled(cron = "${minhasfinancas.idempotencia.limpeza.cron:0 0 * * * *}")
+	public void executar() {
+		long removidas = armazenamentoIdempotencia.removerCriadasAntesDe(LocalDateTime.now().minus(ttl));
+		log.info("Limpeza de Idempotency-Keys concluída: {} removida(s)", removidas);
+	}
+}
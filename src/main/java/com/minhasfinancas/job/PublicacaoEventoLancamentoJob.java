@@ -0,0 +1,51 @@
+package com.minhasfinancas.job;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.minhasfinancas.service.EventoLancamentoService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Publica os eventos de lançamento pendentes em lotes, até esvaziar a fila, e
+ * uma vez por dia remove os publicados há mais tempo que a retenção.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PublicacaoEventoLancamentoJob {
+	
+	private final EventoLancamentoService eventoLancamentoService;
+	
+	@Value("${minhasfinancas.eventos.publicacao.tamanho-lote:500}")
+	private int tamanhoLote;
+	
+	@Value("${minhasfinancas.eventos.retencao:7d}")
+	private Duration retencao;
+	
+	@Scheduled(fixedDelayString = "${minhasfinancas.eventos.publicacao.intervalo:1000}")
+	public void publicar() {
+		try {
+			int publicados;
+			do {
+				publicados = eventoLancamentoService.publicar(tamanhoLote);
+			} while(publicados == tamanhoLote);
+		} catch (DataIntegrityViolationException e) {
+			// outra instância publicou ao mesmo tempo; os pendentes ficam para a próxima execução
+			log.debug("Publicação de eventos concorrente, nova tentativa na próxima execução: {}", e.getMessage());
+		}
+	}
+	
+	@Scheduled(cron = "${minhasfinancas.eventos.limpeza.cron:0 30 3 * * *}")
+	public void limpar() {
+		long removidos = eventoLancamentoService.removerPublicadosAntesDe(LocalDateTime.now().minus(retencao));
+		log.info("Limpeza de eventos de lançamento concluída: {} removido(s)", removidos);
+	}
+}
@@ -0,0 +1,53 @@
+package com.minhasfinancas.model.entity;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+
+import org.springframework.data.jpa.convert.threeten.Jsr310JpaConverters;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resposta gravada para uma Idempotency-Key de um usuário. Sem status a chave
+ * está apenas reservada por uma requisição ainda em andamento.
+ */
+@Entity
+@Table(name = "chave_idempotencia", schema = "financas")
+@IdClass(ChaveIdempotenciaId.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChaveIdempotencia {
+	
+	@Id
+	@Column(name = "id_usuario")
+	private Long idUsuario;
+	
+	@Id
+	@Column(name = "chave")
+	private String chave;
+	
+	/** hash da requisição original, para recusar a chave reutilizada em outra */
+	@Column(name = "impressao")
+	private String impressao;
+	
+	@Column(name = "status")
+	private Integer status;
+	
+	@Column(name = "corpo")
+	private String corpo;
+	
+	@Column(name = "criada_em")
+	@Convert(converter = Jsr310JpaConverters.LocalDateTimeConverter.class)
+	private LocalDateTime criadaEm;
+}
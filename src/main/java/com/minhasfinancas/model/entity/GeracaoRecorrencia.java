@@ -0,0 +1,44 @@
+package com.minhasfinancas.model.entity;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import org.springframework.data.jpa.convert.threeten.Jsr310JpaConverters;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progresso da geração dos lançamentos recorrentes de uma competência, para
+ * que uma execução interrompida continue do primeiro usuário não processado.
+ */
+@Entity
+@Table(name = "geracao_recorrencia", schema = "financas")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeracaoRecorrencia {
+
+	@Id
+	@Column(name = "competencia")
+	private Integer competencia;
+	
+	/** todos os usuários com id menor que este já foram processados */
+	@Column(name = "ultimo_usuario")
+	private Long ultimoUsuario;
+	
+	@Column(name = "concluida")
+	private boolean concluida;
+	
+	@Column(name = "atualizada_em")
+	@Convert(converter = Jsr310JpaConverters.LocalDateTimeConverter.class)
+	private LocalDateTime atualizadaEm;
+}
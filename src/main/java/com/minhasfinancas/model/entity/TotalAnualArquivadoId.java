@@ -0,0 +1,23 @@
+package com.minhasfinancas.model.entity;
+
+import java.io.Serializable;
+
+import com.minhasfinancas.model.enums.StatusLancamento;
+import com.minhasfinancas.model.enums.TipoLancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TotalAnualArquivadoId implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private Long idUsuario;
+	private Integer ano;
+	private TipoLancamento tipo;
+	private StatusLancamento status;
+}
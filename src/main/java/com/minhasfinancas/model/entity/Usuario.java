@@ -8,6 +8,9 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.Table;
+import javax.persistence.Version;
+
+import org.hibernate.annotations.DynamicUpdate;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
@@ -19,6 +22,7 @@ import lombok.NoArgsConstructor;
 
 @Entity
 @Table(name = "usuario", schema = "financas")
+@DynamicUpdate
 @Data
 @Builder
 @NoArgsConstructor
@@ -38,6 +42,9 @@ public class Usuario {
 	@Column(name="senha")
 	@JsonIgnore
 	private String senha;
-
+	
+	@Version
+	@Column(name="versao")
+	private Long versao;
 	
 }
@@ -0,0 +1,7 @@
+package com.minhasfinancas.model.enums;
+
+public enum OperacaoLancamento {
+	CRIADO,
+	ATUALIZADO,
+	APAGADO
+}
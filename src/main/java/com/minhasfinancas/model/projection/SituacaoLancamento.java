@@ -0,0 +1,25 @@
+package com.minhasfinancas.model.projection;
+
+import java.math.BigDecimal;
+
+import com.minhasfinancas.model.enums.StatusLancamento;
+import com.minhasfinancas.model.enums.TipoLancamento;
+
+/**
+ * Campos de um lançamento que entram no saldo e no resumo mensal, lidos
+ * sem carregar a entidade.
+ */
+public interface SituacaoLancamento {
+
+	Long getId();
+	
+	Integer getAno();
+	
+	Integer getMes();
+	
+	TipoLancamento getTipo();
+	
+	StatusLancamento getStatus();
+	
+	BigDecimal getValor();
+}
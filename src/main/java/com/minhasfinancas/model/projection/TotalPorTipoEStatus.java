@@ -0,0 +1,17 @@
+package com.minhasfinancas.model.projection;
+
+import java.math.BigDecimal;
+
+import com.minhasfinancas.model.enums.StatusLancamento;
+import com.minhasfinancas.model.enums.TipoLancamento;
+
+public interface TotalPorTipoEStatus {
+
+	Long getIdUsuario();
+	
+	TipoLancamento getTipo();
+	
+	StatusLancamento getStatus();
+	
+	BigDecimal getTotal();
+}
@@ -0,0 +1,42 @@
+package com.minhasfinancas.model.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.minhasfinancas.model.entity.ChaveIdempotencia;
+import com.minhasfinancas.model.entity.ChaveIdempotenciaId;
+
+/**
+ * As chaves são gravadas com insert, e não com save, para que uma chave já
+ * existente seja recusada pela chave primária em vez de consultada antes ou
+ * sobrescrita.
+ */
+public interface ChaveIdempotenciaRepository extends JpaRepository<ChaveIdempotencia, ChaveIdempotenciaId> {
+	
+	@Modifying
+	@Query(value = "insert into financas.chave_idempotencia (id_usuario, chave, impressao, status, corpo, criada_em) "
+			+ "values (:idUsuario, :chave, :impressao, :status, :corpo, current_timestamp)",
+			nativeQuery = true)
+	int inserir(@Param("idUsuario") Long idUsuario, @Param("chave") String chave, @Param("impressao") String impressao,
+			@Param("status") Integer status, @Param("corpo") String corpo);
+	
+	@Modifying
+	@Query(value = "insert into financas.chave_idempotencia (id_usuario, chave, impressao, status, corpo, criada_em) "
+			+ "values (:idUsuario, :chave, :impressao, null, null, current_timestamp)",
+			nativeQuery = true)
+	int reservar(@Param("idUsuario") Long idUsuario, @Param("chave") String chave, @Param("impressao") String impressao);
+	
+	@Modifying
+	@Query("update ChaveIdempotencia c set c.status = :status, c.corpo = :corpo "
+			+ "where c.idUsuario = :idUsuario and c.chave = :chave")
+	int concluir(@Param("idUsuario") Long idUsuario, @Param("chave") String chave, @Param("status") Integer status,
+			@Param("corpo") String corpo);
+	
+	@Modifying
+	@Query("delete from ChaveIdempotencia c where c.criadaEm < :limite")
+	int removerCriadasAntesDe(@Param("limite") LocalDateTime limite);
+}
@@ -0,0 +1,73 @@
+package com.minhasfinancas.model.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import javax.persistence.LockModeType;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.minhasfinancas.model.entity.EventoLancamento;
+
+/**
+ * Os eventos são gravados por comandos nativos que leem o lançamento já
+ * alterado, depois de descarregar as alterações pendentes da sessão. Assim o
+ * id do evento só é tirado da sequência quando a linha do lançamento já está
+ * bloqueada pela transação, e dois eventos do mesmo lançamento nunca ficam
+ * com ids fora da ordem em que foram confirmados.
+ */
+public interface EventoLancamentoRepository extends JpaRepository<EventoLancamento, Long> {
+	
+	String COLUNAS = "id, id_lancamento, id_usuario, operacao, descricao, mes, ano, valor, tipo, status, versao, registrado_em";
+	
+	@Modifying(flushAutomatically = true)
+	@Query(value = "insert into financas.evento_lancamento (" + COLUNAS + ") "
+			+ "select nextval('financas.evento_lancamento_seq'), l.id, l.id_usuario, :operacao, l.descricao, l.mes, l.ano, "
+			+ "l.valor, l.tipo, l.status, l.versao, current_timestamp from financas.lancamento l where l.id in (:ids) "
+			+ "and l.id_usuario is not null",
+			nativeQuery = true)
+	int registrarEstadoAtual(@Param("operacao") String operacao, @Param("ids") Collection<Long> ids);
+	
+	@Modifying(flushAutomatically = true)
+	@Query(value = "insert into financas.evento_lancamento (" + COLUNAS + ") "
+			+ "values (nextval('financas.evento_lancamento_seq'), :idLancamento, :idUsuario, 'APAGADO', "
+			+ "null, null, null, null, null, null, :versao, current_timestamp)",
+			nativeQuery = true)
+	int registrarRemocao(@Param("idLancamento") Long idLancamento, @Param("idUsuario") Long idUsuario,
+			@Param("versao") Long versao);
+	
+	/**
+	 * Bloqueia os eventos ainda não publicados, em ordem de registro. Uma
+	 * publicação simultânea espera esta terminar e então não os encontra mais
+	 * pendentes.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select e from EventoLancamento e where e.posicao is null order by e.id")
+	List<EventoLancamento> bloquearPendentes(Pageable pagina);
+	
+	@Query("select max(e.posicao) from EventoLancamento e")
+	Long obterUltimaPosicao();
+	
+	@Query("select min(e.posicao) from EventoLancamento e")
+	Long obterPrimeiraPosicao();
+	
+	@Query("select e from EventoLancamento e where e.idUsuario = :idUsuario and e.posicao > :apos and e.posicao <= :ate "
+			+ "order by e.posicao")
+	List<EventoLancamento> buscarPublicados(@Param("idUsuario") Long idUsuario, @Param("apos") long apos,
+			@Param("ate") long ate, Pageable pagina);
+	
+	/**
+	 * O último evento publicado nunca é removido, para que a numeração das
+	 * posições continue a partir dele.
+	 */
+	@Modifying
+	@Query("delete from EventoLancamento e where e.publicadoEm < :limite and e.posicao < "
+			+ "(select max(u.posicao) from EventoLancamento u)")
+	int removerPublicadosAntesDe(@Param("limite") LocalDateTime limite);
+}
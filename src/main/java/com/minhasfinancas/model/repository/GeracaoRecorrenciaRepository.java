@@ -0,0 +1,8 @@
+package com.minhasfinancas.model.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.minhasfinancas.model.entity.GeracaoRecorrencia;
+
+public interface GeracaoRecorrenciaRepository extends JpaRepository<GeracaoRecorrencia, Integer> {
+}
@@ -0,0 +1,61 @@
+package com.minhasfinancas.model.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Set;
+
+import org.springframework.data.domain.Sort;
+
+import com.minhasfinancas.model.entity.Lancamento;
+import com.minhasfinancas.model.enums.StatusLancamento;
+import com.minhasfinancas.model.enums.TipoLancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Critérios da busca de lançamentos de um usuário. Campos nulos (ou conjuntos
+ * vazios) não restringem a busca; os intervalos são fechados e podem ser
+ * informados só de um lado.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LancamentoFiltro {
+
+	private Long idUsuario;
+	
+	private String descricao;
+	
+	private Integer mes;
+	
+	private Integer ano;
+	
+	private BigDecimal valorMinimo;
+	
+	private BigDecimal valorMaximo;
+	
+	private LocalDate dataCadastroInicial;
+	
+	private LocalDate dataCadastroFinal;
+	
+	private Set<TipoLancamento> tipos;
+	
+	private Set<StatusLancamento> status;
+	
+	private Sort ordenacao;
+	
+	public static LancamentoFiltro de(Lancamento lancamento) {
+		return LancamentoFiltro.builder()
+				.idUsuario(lancamento.getUsuario() == null ? null : lancamento.getUsuario().getId())
+				.descricao(lancamento.getDescricao())
+				.mes(lancamento.getMes())
+				.ano(lancamento.getAno())
+				.tipos(lancamento.getTipo() == null ? null : Set.of(lancamento.getTipo()))
+				.status(lancamento.getStatus() == null ? null : Set.of(lancamento.getStatus()))
+				.build();
+	}
+}
@@ -0,0 +1,139 @@
+package com.minhasfinancas.model.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.minhasfinancas.model.entity.LancamentoRecorrente;
+
+/**
+ * Além do CRUD dos modelos, os comandos da geração em lote: cada um age de uma
+ * vez sobre todos os modelos devidos na competência para os usuários com id
+ * em {@code [usuarioInicial, usuarioFinal)}. Como o último deles marca os
+ * modelos como gerados, todos devem rodar na mesma transação e na ordem em
+ * que são declarados.
+ */
+public interface LancamentoRecorrenteRepository extends JpaRepository<LancamentoRecorrente, Long> {
+	
+	String DEVIDOS = "r.id_usuario >= :usuarioInicial and r.id_usuario < :usuarioFinal "
+			+ "and r.competencia_inicial <= :competencia "
+			+ "and (r.competencia_final is null or r.competencia_final >= :competencia) "
+			+ "and (r.ultima_competencia_gerada is null or r.ultima_competencia_gerada < :competencia)";
+	
+	List<LancamentoRecorrente> findByUsuarioIdOrderById(Long idUsuario);
+	
+	Optional<LancamentoRecorrente> findByIdAndUsuarioId(Long id, Long idUsuario);
+	
+	@Query("select min(r.usuario.id) from LancamentoRecorrente r")
+	Long obterMenorIdUsuario();
+	
+	@Query("select max(r.usuario.id) from LancamentoRecorrente r")
+	Long obterMaiorIdUsuario();
+	
+	/**
+	 * Bloqueia os modelos devidos, para que uma segunda geração simultânea da
+	 * mesma faixa espere esta terminar e então não os encontre mais devidos.
+	 * Retorna o id do usuário de cada modelo.
+	 */
+	@Query(value = "select r.id_usuario from financas.lancamento_recorrente r where " + DEVIDOS + " for update",
+			nativeQuery = true)
+	List<Number> bloquearDevidos(@Param("competencia") int competencia,
+			@Param("usuarioInicial") long usuarioInicial, @Param("usuarioFinal") long usuarioFinal);
+	
+	/**
+	 * Cada id vem da sequência usada pelo Hibernate; com o otimizador pooled um
+	 * valor da sequência reserva o bloco inteiro, então não há colisão com os
+	 * ids que a aplicação distribui em memória. Cada lançamento guarda o modelo
+	 * que o gerou, usado por {@link #registrarEventosGerados}.
+	 */
+	@Modifying
+	@Query(value = "insert into financas.lancamento (id, descricao, mes, ano, valor, tipo, status, id_usuario, data_cadastro, "
+			+ "versao, id_recorrente) "
+			+ "select nextval('financas.lancamento_seq'), r.descricao, :mes, :ano, r.valor, r.tipo, 'PENDENTE', r.id_usuario, "
+			+ "current_date, 0, r.id from financas.lancamento_recorrente r where " + DEVIDOS,
+			nativeQuery = true)
+	int gerarLancamentos(@Param("competencia") int competencia, @Param("ano") int ano, @Param("mes") int mes,
+			@Param("usuarioInicial") long usuarioInicial, @Param("usuarioFinal") long usuarioFinal);
+	
+	@Modifying
+	@Query(value = "update financas.saldo_usuario s set "
+			+ "receitas = receitas + coalesce((select sum(r.valor) from financas.lancamento_recorrente r "
+			+ "where r.id_usuario = s.id_usuario and r.tipo = 'RECEITA' and " + DEVIDOS + "), 0), "
+			+ "despesas = despesas + coalesce((select sum(r.valor) from financas.lancamento_recorrente r "
+			+ "where r.id_usuario = s.id_usuario and r.tipo = 'DESPESA' and " + DEVIDOS + "), 0) "
+			+ "where s.id_usuario >= :usuarioInicial and s.id_usuario < :usuarioFinal and exists ("
+			+ "select 1 from financas.lancamento_recorrente r where r.id_usuario = s.id_usuario and " + DEVIDOS + ")",
+			nativeQuery = true)
+	int somarNosSaldos(@Param("competencia") int competencia,
+			@Param("usuarioInicial") long usuarioInicial, @Param("usuarioFinal") long usuarioFinal);
+	
+	/**
+	 * Usuários ainda sem saldo consolidado têm o saldo calculado a partir de
+	 * todos os lançamentos, que já incluem os recém-gerados, e dos totais dos
+	 * anos arquivados.
+	 */
+	@Modifying
+	@Query(value = "insert into financas.saldo_usuario (id_usuario, receitas, despesas) "
+			+ "select l.id_usuario, "
+			+ "coalesce(sum(case when l.tipo = 'RECEITA' then l.valor end), 0), "
+			+ "coalesce(sum(case when l.tipo = 'RECEITA' then null else l.valor end), 0) "
+			+ "from (select id_usuario, tipo, valor, status from financas.lancamento "
+			+ "union all select id_usuario, tipo, total, status from financas.total_anual_arquivado) l "
+			+ "where l.id_usuario in (select r.id_usuario from financas.lancamento_recorrente r where " + DEVIDOS + ") "
+			+ "and (l.status is null or l.status <> 'CANCELADO') "
+			+ "and not exists (select 1 from financas.saldo_usuario s where s.id_usuario = l.id_usuario) "
+			+ "group by l.id_usuario",
+			nativeQuery = true)
+	int criarSaldosAusentes(@Param("competencia") int competencia,
+			@Param("usuarioInicial") long usuarioInicial, @Param("usuarioFinal") long usuarioFinal);
+	
+	@Modifying
+	@Query(value = "update financas.resumo_mensal m set "
+			+ "total = total + (select sum(r.valor) from financas.lancamento_recorrente r "
+			+ "where r.id_usuario = m.id_usuario and r.tipo = m.tipo and " + DEVIDOS + "), "
+			+ "quantidade = quantidade + (select count(*) from financas.lancamento_recorrente r "
+			+ "where r.id_usuario = m.id_usuario and r.tipo = m.tipo and " + DEVIDOS + ") "
+			+ "where m.ano = :ano and m.mes = :mes and m.status = 'PENDENTE' "
+			+ "and m.id_usuario >= :usuarioInicial and m.id_usuario < :usuarioFinal and exists ("
+			+ "select 1 from financas.lancamento_recorrente r where r.id_usuario = m.id_usuario and r.tipo = m.tipo and " + DEVIDOS + ")",
+			nativeQuery = true)
+	int somarNosResumos(@Param("competencia") int competencia, @Param("ano") int ano, @Param("mes") int mes,
+			@Param("usuarioInicial") long usuarioInicial, @Param("usuarioFinal") long usuarioFinal);
+	
+	@Modifying
+	@Query(value = "insert into financas.resumo_mensal (id_usuario, ano, mes, tipo, status, total, quantidade) "
+			+ "select r.id_usuario, :ano, :mes, r.tipo, 'PENDENTE', sum(r.valor), count(*) "
+			+ "from financas.lancamento_recorrente r where " + DEVIDOS + " "
+			+ "and not exists (select 1 from financas.resumo_mensal m where m.id_usuario = r.id_usuario "
+			+ "and m.ano = :ano and m.mes = :mes and m.tipo = r.tipo and m.status = 'PENDENTE') "
+			+ "group by r.id_usuario, r.tipo",
+			nativeQuery = true)
+	int criarResumosAusentes(@Param("competencia") int competencia, @Param("ano") int ano, @Param("mes") int mes,
+			@Param("usuarioInicial") long usuarioInicial, @Param("usuarioFinal") long usuarioFinal);
+	
+	/**
+	 * Registra a criação dos lançamentos recém gerados, reconhecidos pelo modelo
+	 * que os gerou e pela competência; como o modelo ainda está devido, só a
+	 * linha inserida nesta geração é encontrada.
+	 */
+	@Modifying
+	@Query(value = "insert into financas.evento_lancamento (" + EventoLancamentoRepository.COLUNAS + ") "
+			+ "select nextval('financas.evento_lancamento_seq'), l.id, l.id_usuario, 'CRIADO', "
+			+ "l.descricao, l.mes, l.ano, l.valor, l.tipo, l.status, l.versao, current_timestamp "
+			+ "from financas.lancamento l join financas.lancamento_recorrente r on r.id_usuario = l.id_usuario "
+			+ "and r.id = l.id_recorrente "
+			+ "where " + DEVIDOS + " and l.ano = :ano and l.mes = :mes",
+			nativeQuery = true)
+	int registrarEventosGerados(@Param("competencia") int competencia, @Param("ano") int ano, @Param("mes") int mes,
+			@Param("usuarioInicial") long usuarioInicial, @Param("usuarioFinal") long usuarioFinal);
+	
+	@Modifying
+	@Query(value = "update financas.lancamento_recorrente r set ultima_competencia_gerada = :competencia where " + DEVIDOS,
+			nativeQuery = true)
+	int marcarGerados(@Param("competencia") int competencia,
+			@Param("usuarioInicial") long usuarioInicial, @Param("usuarioFinal") long usuarioFinal);
+}
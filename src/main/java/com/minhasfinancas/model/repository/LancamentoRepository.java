@@ -1,17 +1,51 @@
 package com.minhasfinancas.model.repository;
 
-import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+import javax.persistence.LockModeType;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import com.minhasfinancas.model.entity.Lancamento;
-import com.minhasfinancas.model.enums.TipoLancamento;
+import com.minhasfinancas.model.enums.StatusLancamento;
+import com.minhasfinancas.model.projection.SituacaoLancamento;
+import com.minhasfinancas.model.projection.TotalPorTipoEStatus;
 
-public interface LancamentoRepository extends JpaRepository<Lancamento, Long>{
+public interface LancamentoRepository extends JpaRepository<Lancamento, Long>, JpaSpecificationExecutor<Lancamento>,
+		LancamentoRepositoryCustom {
 
-	@Query("select sum(l.valor) from Lancamento l join l.usuario u "
-			+ "where u.id = :idUsuario and l.tipo = :tipo group by u ")
-	BigDecimal obterSaldoPorTipoLancamentoEUsuario(@Param("idUsuario") Long idUsuario, @Param("tipo") TipoLancamento tipo);
+	@Query("select l.usuario.id as idUsuario, l.tipo as tipo, l.status as status, sum(l.valor) as total "
+			+ "from Lancamento l where l.usuario.id = :idUsuario group by l.usuario.id, l.tipo, l.status")
+	List<TotalPorTipoEStatus> obterTotaisPorTipoEStatus(@Param("idUsuario") Long idUsuario);
+	
+	/**
+	 * Bloqueia (em ordem de id, para evitar deadlocks entre atualizações
+	 * concorrentes) e retorna os lançamentos do usuário entre os ids informados.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select l.id as id, l.ano as ano, l.mes as mes, l.tipo as tipo, l.status as status, l.valor as valor "
+			+ "from Lancamento l where l.usuario.id = :idUsuario and l.id in :ids order by l.id")
+	List<SituacaoLancamento> bloquearPorIds(@Param("idUsuario") Long idUsuario, @Param("ids") Collection<Long> ids);
+	
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select l.id as id, l.ano as ano, l.mes as mes, l.tipo as tipo, l.status as status, l.valor as valor "
+			+ "from Lancamento l where l.usuario.id = :idUsuario and l.ano = :ano and l.mes = :mes and l.status = :status "
+			+ "order by l.id")
+	List<SituacaoLancamento> bloquearPorCompetencia(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano,
+			@Param("mes") Integer mes, @Param("status") StatusLancamento status);
+	
+	/**
+	 * Altera o status em um único comando. A condição sobre o status atual
+	 * garante que só mudem os lançamentos ainda no status lido.
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("update Lancamento l set l.status = :novo, l.versao = l.versao + 1 where l.id in :ids and l.status = :atual")
+	int atualizarStatus(@Param("ids") Collection<Long> ids, @Param("atual") StatusLancamento atual,
+			@Param("novo") StatusLancamento novo);
 }
@@ -0,0 +1,62 @@
+package com.minhasfinancas.model.repository;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.minhasfinancas.model.entity.Lancamento;
+
+public interface LancamentoRepositoryCustom {
+
+	/**
+	 * Paginação por cursor: retorna até {@code limite} lançamentos com id maior
+	 * que {@code aposId}, em ordem de id. As entidades retornadas já saem
+	 * desanexadas do contexto de persistência.
+	 */
+	List<Lancamento> buscarAposId(Specification<Lancamento> specification, Long aposId, int limite);
+	
+	/**
+	 * Insere os lançamentos em lote (ver hibernate.jdbc.batch_size) e os
+	 * desanexa em seguida, para que importações grandes não acumulem memória.
+	 */
+	void salvarEmLote(List<Lancamento> lancamentos);
+	
+	/**
+	 * Percorre todos os lançamentos do usuário com um cursor somente leitura,
+	 * desanexando cada um depois de entregue ao consumidor. Deve ser chamado
+	 * dentro de uma transação para que o driver respeite o fetch size.
+	 */
+	void percorrerPorUsuario(Long idUsuario, Consumer<Lancamento> consumidor);
+	
+	/**
+	 * Busca textual na descrição dos lançamentos do usuário, ignorando acentos,
+	 * dos mais relevantes para os menos relevantes. No PostgreSQL usa o vetor
+	 * {@code descricao_tsv} e aceita a sintaxe de {@code websearch_to_tsquery};
+	 * nos demais bancos exige todos os termos e ordena pelos mais recentes.
+	 */
+	List<Lancamento> buscarPorTexto(Long idUsuario, String texto, int deslocamento, int limite);
+	
+	/**
+	 * Anos anteriores a {@code ano} com lançamentos ainda não arquivados, em
+	 * ordem. No PostgreSQL particionado vem das partições existentes e da
+	 * partição padrão, sem percorrer as partições de cada ano.
+	 */
+	List<Integer> obterAnosAnterioresA(int ano);
+	
+	/**
+	 * Move os lançamentos do ano para {@code financas_arquivo.lancamento_<ano>}
+	 * e soma os seus totais em {@code financas.total_anual_arquivado}. No
+	 * PostgreSQL a partição do ano é desanexada e movida inteira; nos demais
+	 * casos as linhas são copiadas e apagadas. Deve rodar em uma transação.
+	 * Retorna a quantidade de lançamentos arquivados.
+	 */
+	long arquivarAno(int ano);
+	
+	/**
+	 * Cria a partição do ano, se ainda não existir, levando para ela os
+	 * lançamentos do ano que estiverem na partição padrão. Não faz nada quando a
+	 * tabela não é particionada. Deve rodar em uma transação.
+	 */
+	void criarParticao(int ano);
+}
@@ -0,0 +1,281 @@
+package com.minhasfinancas.model.repository;
+
+import java.text.Normalizer;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import org.hibernate.dialect.PostgreSQL81Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.minhasfinancas.model.entity.Lancamento;
+
+public class LancamentoRepositoryImpl implements LancamentoRepositoryCustom {
+
+	private static final String BUSCA_TEXTUAL_POSTGRESQL = "select l.* from financas.lancamento l, "
+			+ "websearch_to_tsquery('portuguese', financas.sem_acentos(:texto)) consulta "
+			+ "where l.id_usuario = :idUsuario and l.descricao_tsv @@ consulta "
+			+ "order by ts_rank(l.descricao_tsv, consulta) desc, l.id desc";
+	
+	private static final String COLUNAS = "id, descricao, mes, ano, valor, tipo, status, id_usuario, data_cadastro, versao, id_recorrente";
+	
+	private static final String PARTICOES = "select cast(substring(c.relname from 12) as integer) as ano from pg_inherits i "
+			+ "join pg_class c on c.oid = i.inhrelid "
+			+ "where i.inhparent = 'financas.lancamento'::regclass and c.relname ~ '^lancamento_[0-9]+$'";
+	
+	private static final String COM_ACENTOS = "áàâãäéèêëíìîïóòôõöúùûüç";
+	private static final String SEM_ACENTOS = "aaaaaeeeeiiiiooooouuuuc";
+	
+	@PersistenceContext
+	private EntityManager entityManager;
+	
+	private Boolean postgresql;
+	
+	private Boolean particionada;
+	
+	@Value("${minhasfinancas.exportacao.tamanho-leitura:500}")
+	private int tamanhoLeitura;
+	
+	@Value("${minhasfinancas.arquivamento.tablespace:}")
+	private String tablespaceArquivo;
+	
+	@Override
+	public List<Lancamento> buscarAposId(Specification<Lancamento> specification, Long aposId, int limite) {
+		if(aposId != null) {
+			specification = Specification.where(specification).and(LancamentoSpecifications.comIdMaiorQue(aposId));
+		}
+		
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Lancamento> query = cb.createQuery(Lancamento.class);
+		Root<Lancamento> root = query.from(Lancamento.class);
+		
+		Predicate predicate = specification == null ? null : specification.toPredicate(root, query, cb);
+		if(predicate != null) {
+			query.where(predicate);
+		}
+		query.orderBy(cb.asc(root.get("id")));
+		
+		List<Lancamento> lancamentos = entityManager.createQuery(query)
+				.setMaxResults(limite)
+				.getResultList();
+		
+		// quem percorre todas as páginas na mesma sessão não deve acumular entidades
+		lancamentos.forEach(entityManager::detach);
+		return lancamentos;
+	}
+	
+	@Override
+	public void salvarEmLote(List<Lancamento> lancamentos) {
+		lancamentos.forEach(entityManager::persist);
+		entityManager.flush();
+		lancamentos.forEach(entityManager::detach);
+	}
+	
+	@Override
+	public void percorrerPorUsuario(Long idUsuario, Consumer<Lancamento> consumidor) {
+		TypedQuery<Lancamento> query = entityManager.createQuery("select l from Lancamento l "
+				+ "where l.usuario.id = :idUsuario order by l.ano, l.mes, l.id", Lancamento.class)
+				.setParameter("idUsuario", idUsuario)
+				.setHint(QueryHints.HINT_FETCH_SIZE, tamanhoLeitura)
+				.setHint(QueryHints.HINT_READONLY, true);
+		
+		try (Stream<Lancamento> lancamentos = query.getResultStream()) {
+			lancamentos.forEach(lancamento -> {
+				consumidor.accept(lancamento);
+				entityManager.detach(lancamento);
+			});
+		}
+	}
+	
+	@Override
+	public List<Lancamento> buscarPorTexto(Long idUsuario, String texto, int deslocamento, int limite) {
+		Query query = isPostgresql()
+				? entityManager.createNativeQuery(BUSCA_TEXTUAL_POSTGRESQL, Lancamento.class).setParameter("texto", texto)
+				: criarBuscaPorTermos(texto);
+		
+		@SuppressWarnings("unchecked")
+		List<Lancamento> lancamentos = query
+				.setParameter("idUsuario", idUsuario)
+				.setFirstResult(deslocamento)
+				.setMaxResults(limite)
+				.getResultList();
+		
+		lancamentos.forEach(entityManager::detach);
+		return lancamentos;
+	}
+	
+	@Override
+	public List<Integer> obterAnosAnterioresA(int ano) {
+		String sql = isParticionada()
+				? "select ano from (" + PARTICOES + " union select ano from financas.lancamento_padrao) anos "
+					+ "where ano > 0 and ano < :ano order by ano"
+				: "select distinct ano from financas.lancamento where ano > 0 and ano < :ano order by ano";
+		
+		@SuppressWarnings("unchecked")
+		List<Number> anos = entityManager.createNativeQuery(sql).setParameter("ano", ano).getResultList();
+		return anos.stream().map(Number::intValue).collect(Collectors.toList());
+	}
+	
+	@Override
+	public long arquivarAno(int ano) {
+		String particao = "lancamento_" + ano;
+		String arquivo = "financas_arquivo." + particao;
+		
+		if(isParticionada() && possuiParticao(ano)) {
+			// o detach bloqueia a tabela só pelo tempo de alterar o catálogo; nenhuma linha é copiada
+			executar("alter table financas.lancamento detach partition financas." + particao);
+			executar("alter table financas." + particao + " set schema financas_arquivo");
+			if(!tablespaceArquivo.isEmpty()) {
+				if(!tablespaceArquivo.matches("[A-Za-z_][A-Za-z0-9_]*")) {
+					throw new IllegalStateException("Tablespace de arquivo inválido: " + tablespaceArquivo);
+				}
+				executar("alter table " + arquivo + " set tablespace " + tablespaceArquivo);
+			}
+			String origem = "from " + arquivo + " l where l.ano = :ano";
+			somarTotaisArquivados(origem, ano);
+			return contar(origem, ano);
+		}
+		
+		// sem partição própria: as linhas são copiadas e apagadas, e as que chegarem
+		// durante a cópia ficam para a próxima execução
+		executar("create table if not exists " + arquivo + " as select " + COLUNAS + " from financas.lancamento where 1 = 0");
+		// arquivos criados antes da coluna existir
+		executar("alter table " + arquivo + " add column if not exists id_recorrente bigint");
+		entityManager.createNativeQuery("insert into " + arquivo + " (" + COLUNAS + ") select " + COLUNAS
+					+ " from financas.lancamento where ano = :ano")
+				.setParameter("ano", ano)
+				.executeUpdate();
+		String origem = "from financas.lancamento l where l.ano = :ano "
+				+ "and exists (select 1 from " + arquivo + " a where a.id = l.id)";
+		somarTotaisArquivados(origem, ano);
+		return entityManager.createNativeQuery("delete " + origem)
+				.setParameter("ano", ano)
+				.executeUpdate();
+	}
+	
+	@Override
+	public void criarParticao(int ano) {
+		if(!isParticionada() || possuiParticao(ano)) {
+			return;
+		}
+		
+		String particao = "financas.lancamento_" + ano;
+		String criacao = "create table " + particao + " partition of financas.lancamento "
+				+ "for values from (" + ano + ") to (" + (ano + 1) + ")";
+		if(contar("from financas.lancamento_padrao l where l.ano = :ano", ano) == 0) {
+			executar(criacao);
+			return;
+		}
+		
+		// o PostgreSQL não cria a partição enquanto a padrão guarda linhas do ano: a padrão
+		// sai da tabela, as linhas do ano passam para a nova partição e a padrão volta.
+		// Os bloqueios do detach seguram as gravações até o fim da transação.
+		executar("alter table financas.lancamento detach partition financas.lancamento_padrao");
+		executar(criacao);
+		entityManager.createNativeQuery("insert into " + particao
+					+ " select * from financas.lancamento_padrao where ano = :ano")
+				.setParameter("ano", ano)
+				.executeUpdate();
+		entityManager.createNativeQuery("delete from financas.lancamento_padrao where ano = :ano")
+				.setParameter("ano", ano)
+				.executeUpdate();
+		executar("alter table financas.lancamento attach partition financas.lancamento_padrao default");
+	}
+	
+	/**
+	 * Soma em {@code total_anual_arquivado} os lançamentos de {@code origem},
+	 * um trecho {@code from ... l where ...}: primeiro nos totais já existentes
+	 * do ano, depois criando os que faltam. Lançamentos incompletos, que também
+	 * não entram no saldo, são ignorados.
+	 */
+	private void somarTotaisArquivados(String origem, int ano) {
+		String completos = origem + " and l.id_usuario is not null and l.tipo is not null and l.valor is not null";
+		String doTotal = " and l.id_usuario = t.id_usuario and l.tipo = t.tipo and coalesce(l.status, 'PENDENTE') = t.status";
+		
+		entityManager.createNativeQuery("update financas.total_anual_arquivado t set "
+					+ "total = total + (select coalesce(sum(l.valor), 0) " + completos + doTotal + "), "
+					+ "quantidade = quantidade + (select count(*) " + completos + doTotal + ") "
+					+ "where t.ano = :ano and exists (select 1 " + completos + doTotal + ")")
+				.setParameter("ano", ano)
+				.executeUpdate();
+		
+		entityManager.createNativeQuery("insert into financas.total_anual_arquivado "
+					+ "(id_usuario, ano, tipo, status, total, quantidade) "
+					+ "select l.id_usuario, l.ano, l.tipo, coalesce(l.status, 'PENDENTE'), sum(l.valor), count(*) " + completos
+					+ " and not exists (select 1 from financas.total_anual_arquivado t where t.ano = l.ano" + doTotal + ") "
+					+ "group by l.id_usuario, l.ano, l.tipo, coalesce(l.status, 'PENDENTE')")
+				.setParameter("ano", ano)
+				.executeUpdate();
+	}
+	
+	private long contar(String origem, int ano) {
+		return ((Number) entityManager.createNativeQuery("select count(*) " + origem)
+				.setParameter("ano", ano)
+				.getSingleResult()).longValue();
+	}
+	
+	private boolean possuiParticao(int ano) {
+		return !entityManager.createNativeQuery(PARTICOES + " and c.relname = :particao")
+				.setParameter("particao", "lancamento_" + ano)
+				.getResultList()
+				.isEmpty();
+	}
+	
+	private void executar(String comando) {
+		entityManager.createNativeQuery(comando).executeUpdate();
+	}
+	
+	/**
+	 * Alternativa sem índice textual (H2): cada termo, sem acentos, deve
+	 * aparecer na descrição.
+	 */
+	private Query criarBuscaPorTermos(String texto) {
+		String[] termos = removerAcentos(texto.toLowerCase()).trim().split("\\s+");
+		
+		StringBuilder sql = new StringBuilder("select l.* from financas.lancamento l where l.id_usuario = :idUsuario");
+		for(int i = 0; i < termos.length; i++) {
+			sql.append(" and translate(lower(l.descricao), '").append(COM_ACENTOS).append("', '").append(SEM_ACENTOS)
+				.append("') like :termo").append(i).append(" escape '\\'");
+		}
+		sql.append(" order by l.id desc");
+		
+		Query query = entityManager.createNativeQuery(sql.toString(), Lancamento.class);
+		for(int i = 0; i < termos.length; i++) {
+			query.setParameter("termo" + i, "%" + termos[i].replaceAll("([\\\\%_])", "\\\\$1") + "%");
+		}
+		return query;
+	}
+	
+	private static String removerAcentos(String texto) {
+		return Normalizer.normalize(texto, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+	}
+	
+	private boolean isParticionada() {
+		if(particionada == null) {
+			particionada = isPostgresql() && !entityManager.createNativeQuery("select 1 from pg_partitioned_table "
+					+ "where partrelid = 'financas.lancamento'::regclass").getResultList().isEmpty();
+		}
+		return particionada;
+	}
+	
+	private boolean isPostgresql() {
+		if(postgresql == null) {
+			postgresql = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+					.getJdbcServices().getDialect() instanceof PostgreSQL81Dialect;
+		}
+		return postgresql;
+	}
+}
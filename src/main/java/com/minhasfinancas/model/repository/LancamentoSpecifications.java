@@ -0,0 +1,139 @@
+package com.minhasfinancas.model.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Set;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.EscapeCharacter;
+
+import com.minhasfinancas.model.entity.Lancamento;
+
+/**
+ * Predicados da busca de lançamentos. Todos comparam colunas da própria tabela
+ * (o usuário é filtrado pela chave estrangeira, sem join), para que a consulta
+ * possa usar os índices por usuário; a descrição é a única comparação por
+ * trecho e, no PostgreSQL, é atendida pelo índice de trigramas.
+ */
+public final class LancamentoSpecifications {
+
+	/**
+	 * Campos aceitos na ordenação; o id é sempre acrescentado por último para
+	 * que a ordem seja estável.
+	 */
+	public static final Set<String> CAMPOS_ORDENAVEIS = Set.of("id", "descricao", "mes", "ano", "valor",
+			"dataCadastro", "tipo", "status");
+	
+	public static final Sort ORDENACAO_PADRAO = Sort.by("ano", "mes", "id");
+
+	private LancamentoSpecifications() {
+	}
+	
+	/**
+	 * Equivalente ao antigo filtro por exemplo: usuário, descrição, mês, ano,
+	 * tipo e status preenchidos no lançamento viram restrições.
+	 */
+	public static Specification<Lancamento> porFiltro(Lancamento filtro) {
+		return porFiltro(LancamentoFiltro.de(filtro));
+	}
+	
+	public static Specification<Lancamento> porFiltro(LancamentoFiltro filtro) {
+		Specification<Lancamento> specification = Specification.where(null);
+		
+		if(filtro.getIdUsuario() != null) {
+			specification = specification.and(doUsuario(filtro.getIdUsuario()));
+		}
+		
+		if(filtro.getDescricao() != null && !filtro.getDescricao().trim().isEmpty()) {
+			specification = specification.and(comDescricao(filtro.getDescricao()));
+		}
+		
+		if(filtro.getMes() != null) {
+			specification = specification.and((root, query, cb) -> cb.equal(root.get("mes"), filtro.getMes()));
+		}
+		
+		if(filtro.getAno() != null) {
+			specification = specification.and((root, query, cb) -> cb.equal(root.get("ano"), filtro.getAno()));
+		}
+		
+		if(filtro.getValorMinimo() != null || filtro.getValorMaximo() != null) {
+			specification = specification.and(comValorEntre(filtro.getValorMinimo(), filtro.getValorMaximo()));
+		}
+		
+		if(filtro.getDataCadastroInicial() != null || filtro.getDataCadastroFinal() != null) {
+			specification = specification.and(cadastradoEntre(filtro.getDataCadastroInicial(), filtro.getDataCadastroFinal()));
+		}
+		
+		if(filtro.getTipos() != null && !filtro.getTipos().isEmpty()) {
+			specification = specification.and(comValorEm("tipo", filtro.getTipos()));
+		}
+		
+		if(filtro.getStatus() != null && !filtro.getStatus().isEmpty()) {
+			specification = specification.and(comValorEm("status", filtro.getStatus()));
+		}
+		
+		return specification;
+	}
+	
+	public static Specification<Lancamento> doUsuario(Long idUsuario) {
+		return (root, query, cb) -> cb.equal(root.get("usuario").get("id"), idUsuario);
+	}
+	
+	/**
+	 * O trecho é comparado como texto: {@code %}, {@code _} e a barra invertida
+	 * informados pelo usuário não funcionam como curingas.
+	 */
+	public static Specification<Lancamento> comDescricao(String descricao) {
+		String trecho = "%" + EscapeCharacter.DEFAULT.escape(descricao.toLowerCase(Locale.ROOT)) + "%";
+		return (root, query, cb) -> cb.like(cb.lower(root.get("descricao")), trecho, EscapeCharacter.DEFAULT.getEscapeCharacter());
+	}
+	
+	public static Specification<Lancamento> comIdMaiorQue(Long id) {
+		return (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+	}
+	
+	public static Specification<Lancamento> comValorEntre(BigDecimal minimo, BigDecimal maximo) {
+		return (root, query, cb) -> {
+			if(minimo == null) {
+				return cb.lessThanOrEqualTo(root.get("valor"), maximo);
+			}
+			if(maximo == null) {
+				return cb.greaterThanOrEqualTo(root.get("valor"), minimo);
+			}
+			return cb.between(root.get("valor"), minimo, maximo);
+		};
+	}
+	
+	public static Specification<Lancamento> cadastradoEntre(LocalDate inicial, LocalDate dataFinal) {
+		return (root, query, cb) -> {
+			if(inicial == null) {
+				return cb.lessThanOrEqualTo(root.get("dataCadastro"), dataFinal);
+			}
+			if(dataFinal == null) {
+				return cb.greaterThanOrEqualTo(root.get("dataCadastro"), inicial);
+			}
+			return cb.between(root.get("dataCadastro"), inicial, dataFinal);
+		};
+	}
+	
+	private static Specification<Lancamento> comValorEm(String campo, Collection<?> valores) {
+		return (root, query, cb) -> valores.size() == 1
+				? cb.equal(root.get(campo), valores.iterator().next())
+				: root.get(campo).in(valores);
+	}
+	
+	/**
+	 * Ordenação informada (ou a padrão, por competência) com o id como
+	 * desempate.
+	 */
+	public static Sort ordenacao(Sort ordenacao) {
+		if(ordenacao == null || ordenacao.isUnsorted()) {
+			return ORDENACAO_PADRAO;
+		}
+		
+		return ordenacao.getOrderFor("id") == null ? ordenacao.and(Sort.by("id")) : ordenacao;
+	}
+}
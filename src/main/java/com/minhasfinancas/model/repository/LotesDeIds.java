@@ -0,0 +1,29 @@
+package com.minhasfinancas.model.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Divide listas de ids passadas a comandos com {@code in (:ids)}, que não podem
+ * crescer sem limite: cada lote vira um parâmetro por id.
+ */
+public final class LotesDeIds {
+	
+	/** limite de ids por comando, abaixo do máximo de parâmetros dos drivers */
+	public static final int TAMANHO = 1000;
+	
+	private LotesDeIds() {
+	}
+	
+	/**
+	 * Lotes consecutivos de até {@link #TAMANHO} ids, como visões da lista
+	 * original.
+	 */
+	public static List<List<Long>> dividir(List<Long> ids) {
+		List<List<Long>> lotes = new ArrayList<>();
+		for(int inicio = 0; inicio < ids.size(); inicio += TAMANHO) {
+			lotes.add(ids.subList(inicio, Math.min(inicio + TAMANHO, ids.size())));
+		}
+		return lotes;
+	}
+}
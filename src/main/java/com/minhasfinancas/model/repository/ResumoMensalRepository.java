@@ -0,0 +1,39 @@
+package com.minhasfinancas.model.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.minhasfinancas.model.entity.ResumoMensal;
+import com.minhasfinancas.model.entity.ResumoMensalId;
+import com.minhasfinancas.model.enums.StatusLancamento;
+import com.minhasfinancas.model.enums.TipoLancamento;
+
+public interface ResumoMensalRepository extends JpaRepository<ResumoMensal, ResumoMensalId> {
+
+	@Modifying
+	@Query("update ResumoMensal r set r.total = r.total + :total, r.quantidade = r.quantidade + :quantidade "
+			+ "where r.idUsuario = :idUsuario and r.ano = :ano and r.mes = :mes and r.tipo = :tipo and r.status = :status")
+	int somar(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano, @Param("mes") Integer mes,
+			@Param("tipo") TipoLancamento tipo, @Param("status") StatusLancamento status,
+			@Param("total") BigDecimal total, @Param("quantidade") Long quantidade);
+	
+	/**
+	 * Insert em vez de save, para que um resumo criado ao mesmo tempo por outra
+	 * transação seja recusado pela chave primária e não sobrescrito.
+	 */
+	@Modifying
+	@Query(value = "insert into financas.resumo_mensal (id_usuario, ano, mes, tipo, status, total, quantidade) "
+			+ "values (:idUsuario, :ano, :mes, :tipo, :status, 0, 0)", nativeQuery = true)
+	int inserirZerado(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano, @Param("mes") Integer mes,
+			@Param("tipo") String tipo, @Param("status") String status);
+	
+	@Query("select r from ResumoMensal r where r.idUsuario = :idUsuario and r.ano between :anoInicial and :anoFinal "
+			+ "order by r.ano, r.mes")
+	List<ResumoMensal> obterPorPeriodo(@Param("idUsuario") Long idUsuario,
+			@Param("anoInicial") Integer anoInicial, @Param("anoFinal") Integer anoFinal);
+}
@@ -0,0 +1,35 @@
+package com.minhasfinancas.model.repository;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import javax.persistence.LockModeType;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.minhasfinancas.model.entity.SaldoUsuario;
+
+public interface SaldoUsuarioRepository extends JpaRepository<SaldoUsuario, Long> {
+
+	@Modifying
+	@Query("update SaldoUsuario s set s.receitas = s.receitas + :receitas, s.despesas = s.despesas + :despesas "
+			+ "where s.idUsuario = :idUsuario")
+	int somar(@Param("idUsuario") Long idUsuario, @Param("receitas") BigDecimal receitas, @Param("despesas") BigDecimal despesas);
+	
+	/**
+	 * Insert em vez de save, para que um saldo criado ao mesmo tempo por outra
+	 * transação seja recusado pela chave primária e não sobrescrito.
+	 */
+	@Modifying
+	@Query(value = "insert into financas.saldo_usuario (id_usuario, receitas, despesas) values (:idUsuario, :receitas, :despesas)",
+			nativeQuery = true)
+	int inserir(@Param("idUsuario") Long idUsuario, @Param("receitas") BigDecimal receitas, @Param("despesas") BigDecimal despesas);
+	
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select s from SaldoUsuario s where s.idUsuario = :idUsuario")
+	Optional<SaldoUsuario> bloquear(@Param("idUsuario") Long idUsuario);
+}
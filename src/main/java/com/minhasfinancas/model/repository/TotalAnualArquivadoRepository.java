@@ -0,0 +1,22 @@
+package com.minhasfinancas.model.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.minhasfinancas.model.entity.TotalAnualArquivado;
+import com.minhasfinancas.model.entity.TotalAnualArquivadoId;
+import com.minhasfinancas.model.projection.TotalPorTipoEStatus;
+
+/**
+ * Os totais saem na mesma projeção dos totais de {@link LancamentoRepository},
+ * para que o saldo some os anos arquivados aos lançamentos ainda ativos.
+ */
+public interface TotalAnualArquivadoRepository extends JpaRepository<TotalAnualArquivado, TotalAnualArquivadoId> {
+
+	@Query("select t.idUsuario as idUsuario, t.tipo as tipo, t.status as status, sum(t.total) as total "
+			+ "from TotalAnualArquivado t where t.idUsuario = :idUsuario group by t.idUsuario, t.tipo, t.status")
+	List<TotalPorTipoEStatus> obterTotaisPorTipoEStatus(@Param("idUsuario") Long idUsuario);
+}
@@ -1,15 +1,34 @@
 package com.minhasfinancas.model.repository;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.minhasfinancas.model.entity.Usuario;
 
 @Repository
 public interface UsuarioRepository extends JpaRepository<Usuario, Long>{
+	@Cacheable(cacheNames = "usuariosPorEmail", key = "#p0", unless = "#result == null")
 	Optional<Usuario> findByEmail(String email);
 	
 	boolean existsByEmail(String email);
+	
+	@Query("select u.id from Usuario u order by u.id")
+	List<Long> obterIds();
+	
+	/**
+	 * Troca o hash da senha só se ainda for o lido, para que dois logins
+	 * simultâneos não regravem a senha um sobre o outro.
+	 */
+	@Transactional
+	@Modifying(clearAutomatically = true)
+	@Query("update Usuario u set u.senha = :nova, u.versao = u.versao + 1 where u.id = :id and u.senha = :atual")
+	int atualizarSenha(@Param("id") Long id, @Param("atual") String atual, @Param("nova") String nova);
 }
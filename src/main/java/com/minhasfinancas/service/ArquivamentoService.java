@@ -0,0 +1,16 @@
+package com.minhasfinancas.service;
+
+import java.util.List;
+
+public interface ArquivamentoService {
+
+	/**
+	 * Arquiva os anos encerrados, os anteriores aos {@code anos-ativos} mais
+	 * recentes a partir de {@code anoAtual}, um ano por transação, e cria com
+	 * antecedência as partições do ano atual e do próximo. Os lançamentos
+	 * arquivados deixam as consultas e continuam no saldo pelos totais anuais.
+	 * Se uma partição não puder ser criada, nada é arquivado e a falha é lançada.
+	 * Retorna os anos arquivados.
+	 */
+	List<Integer> arquivar(int anoAtual);
+}
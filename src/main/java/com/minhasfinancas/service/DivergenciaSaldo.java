@@ -0,0 +1,17 @@
+package com.minhasfinancas.service;
+
+import java.math.BigDecimal;
+
+import lombok.Value;
+
+/**
+ * Diferença encontrada entre o saldo consolidado e o saldo
+ * recalculado a partir dos lançamentos.
+ */
+@Value
+public class DivergenciaSaldo {
+
+	Long idUsuario;
+	BigDecimal saldoConsolidado;
+	BigDecimal saldoCalculado;
+}
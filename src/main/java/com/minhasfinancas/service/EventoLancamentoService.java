@@ -0,0 +1,39 @@
+package com.minhasfinancas.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.minhasfinancas.model.entity.Lancamento;
+
+/**
+ * Outbox das alterações de lançamento. Os eventos são registrados na mesma
+ * transação da alteração e só ficam visíveis aos consumidores depois de
+ * publicados, quando recebem uma posição crescente e sem lacunas.
+ * <p>
+ * Um consumidor novo pede a posição atual (cursor nulo), carrega os
+ * lançamentos pela busca e daí em diante segue os eventos a partir dela,
+ * aplicando cada um pela versão do lançamento.
+ */
+public interface EventoLancamentoService {
+
+	void registrar(Lancamento anterior, Lancamento atual);
+	
+	void registrarNovos(List<Lancamento> lancamentos);
+	
+	void registrarAlteracoes(List<Lancamento> atuais);
+	
+	/**
+	 * Publica até {@code limite} eventos pendentes, em ordem de registro.
+	 * Retorna quantos foram publicados.
+	 */
+	int publicar(int limite);
+	
+	/**
+	 * Eventos publicados do usuário com posição maior que {@code apos}. Lança
+	 * {@link com.minhasfinancas.exceptions.CursorExpiradoException} se eventos
+	 * posteriores ao cursor já foram removidos pela retenção.
+	 */
+	PaginaEventos buscar(Long idUsuario, Long apos, int limite);
+	
+	long removerPublicadosAntesDe(LocalDateTime limite);
+}
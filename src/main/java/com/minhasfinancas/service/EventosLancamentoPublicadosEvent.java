@@ -0,0 +1,18 @@
+package com.minhasfinancas.service;
+
+import java.util.List;
+
+import com.minhasfinancas.model.entity.EventoLancamento;
+
+import lombok.Value;
+
+/**
+ * Publicado a cada lote de eventos de lançamento que recebe posição, na
+ * ordem das posições, só depois que a transação da publicação é confirmada;
+ * um lote desfeito nunca chega aos ouvintes.
+ */
+@Value
+public class EventosLancamentoPublicadosEvent {
+	
+	List<EventoLancamento> eventos;
+}
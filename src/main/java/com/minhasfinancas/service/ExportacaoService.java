@@ -0,0 +1,11 @@
+package com.minhasfinancas.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.minhasfinancas.service.exportacao.FormatoExportacao;
+
+public interface ExportacaoService {
+
+	void exportar(Long idUsuario, FormatoExportacao formato, OutputStream saida) throws IOException;
+}
@@ -0,0 +1,62 @@
+package com.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.minhasfinancas.model.entity.ResumoMensal;
+import com.minhasfinancas.model.enums.StatusLancamento;
+import com.minhasfinancas.model.enums.TipoLancamento;
+
+import lombok.Value;
+
+/**
+ * Receitas e despesas de uma competência separadas por status.
+ * Lançamentos cancelados não entram no saldo.
+ */
+@Value
+public class FluxoMensal {
+
+	Integer ano;
+	Integer mes;
+	Map<StatusLancamento, BigDecimal> receitas;
+	Map<StatusLancamento, BigDecimal> despesas;
+	
+	public BigDecimal getSaldo() {
+		BigDecimal saldo = BigDecimal.ZERO;
+		for(StatusLancamento status : StatusLancamento.values()) {
+			if(status != StatusLancamento.CANCELADO) {
+				saldo = saldo.add(receitas.getOrDefault(status, BigDecimal.ZERO))
+						.subtract(despesas.getOrDefault(status, BigDecimal.ZERO));
+			}
+		}
+		return saldo;
+	}
+	
+	/**
+	 * Agrupa os resumos, que devem vir ordenados por ano e mês, em uma entrada por competência.
+	 */
+	public static List<FluxoMensal> de(List<ResumoMensal> resumos) {
+		Map<String, FluxoMensal> meses = new LinkedHashMap<>();
+		for(ResumoMensal resumo : resumos) {
+			FluxoMensal fluxo = meses.computeIfAbsent(resumo.getAno() + "/" + resumo.getMes(),
+					chave -> new FluxoMensal(resumo.getAno(), resumo.getMes(), zerado(), zerado()));
+			
+			Map<StatusLancamento, BigDecimal> totais = resumo.getTipo() == TipoLancamento.RECEITA
+					? fluxo.getReceitas() : fluxo.getDespesas();
+			totais.merge(resumo.getStatus(), resumo.getTotal(), BigDecimal::add);
+		}
+		return new ArrayList<>(meses.values());
+	}
+	
+	private static Map<StatusLancamento, BigDecimal> zerado() {
+		Map<StatusLancamento, BigDecimal> totais = new EnumMap<>(StatusLancamento.class);
+		for(StatusLancamento status : StatusLancamento.values()) {
+			totais.put(status, BigDecimal.ZERO);
+		}
+		return totais;
+	}
+}
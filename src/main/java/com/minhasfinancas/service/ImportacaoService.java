@@ -0,0 +1,12 @@
+package com.minhasfinancas.service;
+
+import java.io.Reader;
+
+import com.minhasfinancas.model.entity.Usuario;
+import com.minhasfinancas.service.importacao.FormatoImportacao;
+import com.minhasfinancas.service.importacao.ResultadoImportacao;
+
+public interface ImportacaoService {
+
+	ResultadoImportacao importar(Usuario usuario, FormatoImportacao formato, Reader entrada);
+}
@@ -0,0 +1,17 @@
+package com.minhasfinancas.service;
+
+import java.math.BigDecimal;
+
+import com.minhasfinancas.model.entity.Lancamento;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface LancamentoReativoService {
+
+	Flux<Lancamento> buscar(Lancamento lancamentoFiltro);
+	
+	Mono<Lancamento> obterPorId(Long id);
+	
+	Mono<BigDecimal> obterSaldoPorUsuario(Long idUsuario);
+}
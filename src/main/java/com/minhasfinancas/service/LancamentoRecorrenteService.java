@@ -0,0 +1,33 @@
+package com.minhasfinancas.service;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+import com.minhasfinancas.model.entity.LancamentoRecorrente;
+
+public interface LancamentoRecorrenteService {
+
+	/**
+	 * Grava o modelo e, se ele já vale na competência atual, gera o lançamento
+	 * dela na mesma transação; as competências seguintes ficam com a geração em lote.
+	 */
+	LancamentoRecorrente salvar(LancamentoRecorrente recorrente);
+	
+	List<LancamentoRecorrente> obterPorUsuario(Long idUsuario);
+	
+	/**
+	 * Encerra o modelo na competência atual; os lançamentos já gerados são mantidos.
+	 */
+	Optional<LancamentoRecorrente> encerrar(Long id, Long idUsuario);
+	
+	/**
+	 * Gera os lançamentos devidos na competência para todos os usuários, em
+	 * faixas de usuários processadas em paralelo. Pode ser chamada de novo após
+	 * uma falha: continua da última faixa registrada e não duplica lançamentos.
+	 * Retorna quantos lançamentos foram criados.
+	 */
+	long gerar(YearMonth competencia);
+	
+	void validar(LancamentoRecorrente recorrente);
+}
@@ -6,22 +6,59 @@ import java.util.Optional;
 
 import com.minhasfinancas.model.entity.Lancamento;
 import com.minhasfinancas.model.enums.StatusLancamento;
+import com.minhasfinancas.model.repository.LancamentoFiltro;
 
 public interface LancamentoService {
 
 	Lancamento salvar(Lancamento lancamento);
 	
+	List<Lancamento> salvarLote(List<Lancamento> lancamentos);
+	
 	Lancamento atualizar(Lancamento lancamento);
 	
+	/**
+	 * Aplica ao lançamento do usuário só os campos preenchidos em {@code alteracoes}; o
+	 * UPDATE gerado contém apenas as colunas que mudaram. Se {@code versao}
+	 * for informada e não for a atual, falha com
+	 * {@link org.springframework.dao.OptimisticLockingFailureException}.
+	 */
+	Optional<Lancamento> atualizarParcialmente(Long idUsuario, Long id, Long versao, Lancamento alteracoes);
+	
 	void apagar(Lancamento lancamento);
 	
 	List<Lancamento> buscar(Lancamento lancamentoFiltro);
 	
+	List<Lancamento> buscar(LancamentoFiltro filtro);
+	
+	/**
+	 * Até {@code limite} lançamentos do filtro com id maior que {@code aposId},
+	 * em ordem de id; a ordenação do filtro não se aplica.
+	 */
+	List<Lancamento> buscar(LancamentoFiltro filtro, Long aposId, int limite);
+	
+	List<Lancamento> buscarPorTexto(Long idUsuario, String texto, int deslocamento, int limite);
+	
 	void atualizarStatus(Lancamento lancamento, StatusLancamento status);
+	
+	/**
+	 * Leva ao status {@code novo} os lançamentos do usuário entre os ids
+	 * informados; se {@code esperado} for informado, só os que estiverem nele.
+	 */
+	ResultadoAtualizacaoStatus atualizarStatusEmLote(Long idUsuario, List<Long> ids, StatusLancamento esperado,
+			StatusLancamento novo);
+	
+	/**
+	 * Leva ao status {@code novo} todos os lançamentos do usuário na
+	 * competência que estiverem no status {@code atual}.
+	 */
+	ResultadoAtualizacaoStatus atualizarStatusEmLote(Long idUsuario, Integer ano, Integer mes, StatusLancamento atual,
+			StatusLancamento novo);
 
 	void validar(Lancamento lancamento);
 	
 	Optional<Lancamento> obterPorId(Long id);
 	
 	BigDecimal obterSaldoPorUsuario(Long id);
+	
+	SaldoDetalhado obterSaldoDetalhadoPorUsuario(Long id);
 }
@@ -0,0 +1,19 @@
+package com.minhasfinancas.service;
+
+import java.util.List;
+
+import com.minhasfinancas.model.entity.EventoLancamento;
+
+import lombok.Value;
+
+/**
+ * Eventos de um usuário após um cursor e o cursor da próxima consulta. Quando
+ * a página não vem cheia o cursor avança até a última posição publicada, de
+ * qualquer usuário, para que não fique para trás dos eventos retidos.
+ */
+@Value
+public class PaginaEventos {
+	
+	List<EventoLancamento> eventos;
+	long proximoCursor;
+}
@@ -0,0 +1,33 @@
+package com.minhasfinancas.service;
+
+import java.util.List;
+
+import lombok.Value;
+
+/**
+ * Resultado de uma alteração de status em lote, com a situação de cada
+ * lançamento envolvido.
+ */
+@Value
+public class ResultadoAtualizacaoStatus {
+
+	public enum Situacao {
+		/** status alterado */
+		ATUALIZADO,
+		/** o lançamento já estava no status pedido */
+		INALTERADO,
+		/** o status atual não é o esperado */
+		CONFLITO,
+		/** o lançamento não existe ou é de outro usuário */
+		NAO_ENCONTRADO
+	}
+	
+	@Value
+	public static class Item {
+		Long id;
+		Situacao situacao;
+	}
+	
+	int atualizados;
+	List<Item> itens;
+}
@@ -0,0 +1,20 @@
+package com.minhasfinancas.service;
+
+import java.util.List;
+
+import com.minhasfinancas.model.entity.Lancamento;
+
+public interface ResumoMensalService {
+
+	void contabilizar(Lancamento anterior, Lancamento atual);
+	
+	void contabilizarNovos(List<Lancamento> lancamentos);
+	
+	/**
+	 * Contabiliza de uma vez a troca de cada lançamento em {@code anteriores}
+	 * pelo de mesma posição em {@code atuais}.
+	 */
+	void contabilizarAlteracoes(List<Lancamento> anteriores, List<Lancamento> atuais);
+	
+	List<FluxoMensal> obterFluxoMensal(Long idUsuario, Integer anoInicial, Integer anoFinal);
+}
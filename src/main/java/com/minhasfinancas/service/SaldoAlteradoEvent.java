@@ -0,0 +1,12 @@
+package com.minhasfinancas.service;
+
+import lombok.Value;
+
+/**
+ * Publicado sempre que o saldo consolidado de um usuário é alterado.
+ */
+@Value
+public class SaldoAlteradoEvent {
+
+	Long idUsuario;
+}
@@ -0,0 +1,46 @@
+package com.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import com.minhasfinancas.model.enums.StatusLancamento;
+import com.minhasfinancas.model.enums.TipoLancamento;
+import com.minhasfinancas.model.projection.TotalPorTipoEStatus;
+
+import lombok.Value;
+
+/**
+ * Saldo (receitas menos despesas) de um usuário separado por status.
+ * Lançamentos cancelados não entram no saldo.
+ */
+@Value
+public class SaldoDetalhado {
+
+	BigDecimal efetivado;
+	BigDecimal pendente;
+	BigDecimal cancelado;
+	
+	public BigDecimal getSaldo() {
+		return efetivado.add(pendente);
+	}
+	
+	public static SaldoDetalhado de(List<TotalPorTipoEStatus> totais) {
+		BigDecimal efetivado = BigDecimal.ZERO;
+		BigDecimal pendente = BigDecimal.ZERO;
+		BigDecimal cancelado = BigDecimal.ZERO;
+		
+		for(TotalPorTipoEStatus total : totais) {
+			BigDecimal valor = total.getTipo() == TipoLancamento.RECEITA ? total.getTotal() : total.getTotal().negate();
+			
+			if(total.getStatus() == StatusLancamento.EFETIVADO) {
+				efetivado = efetivado.add(valor);
+			} else if(total.getStatus() == StatusLancamento.CANCELADO) {
+				cancelado = cancelado.add(valor);
+			} else {
+				pendente = pendente.add(valor);
+			}
+		}
+		
+		return new SaldoDetalhado(efetivado, pendente, cancelado);
+	}
+}
@@ -0,0 +1,24 @@
+package com.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import com.minhasfinancas.model.entity.Lancamento;
+
+public interface SaldoService {
+
+	void contabilizar(Lancamento anterior, Lancamento atual);
+	
+	void contabilizarNovos(List<Lancamento> lancamentos);
+	
+	/**
+	 * Contabiliza de uma vez a troca de cada lançamento em {@code anteriores}
+	 * pelo de mesma posição em {@code atuais}.
+	 */
+	void contabilizarAlteracoes(List<Lancamento> anteriores, List<Lancamento> atuais);
+	
+	Optional<BigDecimal> obterSaldo(Long idUsuario);
+	
+	List<DivergenciaSaldo> conciliar(boolean corrigir);
+}
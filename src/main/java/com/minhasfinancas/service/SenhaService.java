@@ -0,0 +1,22 @@
+package com.minhasfinancas.service;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Cálculo e conferência de hashes de senha fora da thread da requisição. Os
+ * futuros falham com
+ * {@link com.minhasfinancas.exceptions.ServicoSobrecarregadoException} quando
+ * a fila de cálculo está cheia.
+ */
+public interface SenhaService {
+	
+	CompletableFuture<String> codificar(String senha);
+	
+	CompletableFuture<Boolean> conferir(String senha, String senhaGravada);
+	
+	/**
+	 * Indica se a senha gravada está em texto puro ou com um custo menor que o
+	 * configurado, e deve ser recodificada no próximo login.
+	 */
+	boolean precisaRecodificar(String senhaGravada);
+}
@@ -0,0 +1,12 @@
+package com.minhasfinancas.service;
+
+import java.time.Instant;
+
+import lombok.Value;
+
+@Value
+public class TokenAcesso {
+	
+	String token;
+	Instant expiraEm;
+}
@@ -0,0 +1,17 @@
+package com.minhasfinancas.service;
+
+import java.util.Optional;
+
+/**
+ * Tokens de acesso assinados: a identidade do usuário é lida do próprio token,
+ * sem consulta ao banco.
+ */
+public interface TokenService {
+	
+	TokenAcesso emitir(Long idUsuario);
+	
+	/**
+	 * Id do usuário do token, se a assinatura confere e o token não expirou.
+	 */
+	Optional<Long> validar(String token);
+}
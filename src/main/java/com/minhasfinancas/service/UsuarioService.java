@@ -1,6 +1,7 @@
 package com.minhasfinancas.service;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import com.minhasfinancas.model.entity.Usuario;
 
@@ -8,9 +9,23 @@ public interface UsuarioService {
 	
 	Usuario autenticar(String email, String senha);
 	
+	/**
+	 * Autentica sem ocupar a thread chamadora durante o cálculo do hash. Falha
+	 * com {@link com.minhasfinancas.exceptions.ErroAutenticacao} ou, se a fila
+	 * de cálculo estiver cheia, com
+	 * {@link com.minhasfinancas.exceptions.ServicoSobrecarregadoException}.
+	 */
+	CompletableFuture<Usuario> autenticarAsync(String email, String senha);
+	
 	Usuario salvarUsuario(Usuario usuario);
 	
 	void validarEmail(String email);
 	
 	Optional<Usuario> obterPorId(Long id);
+	
+	/**
+	 * Referência ao usuário sem consultá-lo, para associar a outras entidades;
+	 * a existência só é verificada ao gravar.
+	 */
+	Usuario obterReferencia(Long id);
 }
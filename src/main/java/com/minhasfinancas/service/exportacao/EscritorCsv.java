@@ -0,0 +1,67 @@
+package com.minhasfinancas.service.exportacao;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+import com.minhasfinancas.model.entity.Lancamento;
+
+/**
+ * Escreve os lançamentos separados por ponto e vírgula, no mesmo
+ * formato aceito pela importação de CSV, acrescido das demais colunas.
+ */
+public class EscritorCsv implements EscritorLancamentos {
+
+	private static final String INICIO_FORMULA = "=+-@\t\r";
+
+	private final BufferedWriter writer;
+
+	public EscritorCsv(OutputStream saida) throws IOException {
+		this.writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+		writer.write(String.join(";", COLUNAS));
+		writer.newLine();
+	}
+
+	@Override
+	public void escrever(Lancamento lancamento) throws IOException {
+		writer.write(String.join(";",
+				texto(lancamento.getId()),
+				campo(lancamento.getDescricao()),
+				texto(lancamento.getMes()),
+				texto(lancamento.getAno()),
+				lancamento.getValor() == null ? "" : lancamento.getValor().toPlainString(),
+				texto(lancamento.getTipo()),
+				texto(lancamento.getStatus()),
+				texto(lancamento.getDataCadastro())));
+		writer.newLine();
+	}
+
+	@Override
+	public void finalizar() throws IOException {
+		writer.flush();
+	}
+	
+	private static String texto(Object valor) {
+		return valor == null ? "" : valor.toString();
+	}
+	
+	/**
+	 * Texto livre: entre aspas quando tem separador, aspas ou quebra de linha,
+	 * e com um apóstrofo na frente quando começa como uma fórmula, para que a
+	 * planilha o mostre como texto em vez de executá-lo.
+	 */
+	private static String campo(String texto) {
+		if(texto == null) {
+			return "";
+		}
+		if(!texto.isEmpty() && INICIO_FORMULA.indexOf(texto.charAt(0)) >= 0) {
+			return "\"'" + texto.replace("\"", "\"\"") + "\"";
+		}
+		if(texto.contains(";") || texto.contains("\"") || texto.contains("\n") || texto.contains("\r")) {
+			return "\"" + texto.replace("\"", "\"\"") + "\"";
+		}
+		return texto;
+	}
+}
@@ -0,0 +1,14 @@
+package com.minhasfinancas.service.exportacao;
+
+import java.io.IOException;
+
+import com.minhasfinancas.model.entity.Lancamento;
+
+public interface EscritorLancamentos {
+
+	String[] COLUNAS = { "id", "descricao", "mes", "ano", "valor", "tipo", "status", "data_cadastro" };
+	
+	void escrever(Lancamento lancamento) throws IOException;
+	
+	void finalizar() throws IOException;
+}
@@ -0,0 +1,69 @@
+package com.minhasfinancas.service.exportacao;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import com.minhasfinancas.model.entity.Lancamento;
+
+/**
+ * Usa a planilha em streaming do POI, que mantém em memória apenas as
+ * últimas linhas escritas e descarrega as anteriores em arquivo temporário.
+ */
+public class EscritorXlsx implements EscritorLancamentos {
+
+	private static final int LINHAS_EM_MEMORIA = 100;
+	
+	private final OutputStream saida;
+	
+	private final SXSSFWorkbook planilha = new SXSSFWorkbook(LINHAS_EM_MEMORIA);
+	
+	private final Sheet aba;
+	
+	private int linha;
+
+	public EscritorXlsx(OutputStream saida) {
+		this.saida = saida;
+		this.aba = planilha.createSheet("Lançamentos");
+		
+		Row cabecalho = aba.createRow(linha++);
+		for(int coluna = 0; coluna < COLUNAS.length; coluna++) {
+			cabecalho.createCell(coluna).setCellValue(COLUNAS[coluna]);
+		}
+	}
+
+	@Override
+	public void escrever(Lancamento lancamento) {
+		Row registro = aba.createRow(linha++);
+		registro.createCell(0).setCellValue(lancamento.getId());
+		registro.createCell(1).setCellValue(lancamento.getDescricao());
+		if(lancamento.getMes() != null) {
+			registro.createCell(2).setCellValue(lancamento.getMes());
+		}
+		if(lancamento.getAno() != null) {
+			registro.createCell(3).setCellValue(lancamento.getAno());
+		}
+		if(lancamento.getValor() != null) {
+			registro.createCell(4).setCellValue(lancamento.getValor().doubleValue());
+		}
+		registro.createCell(5).setCellValue(lancamento.getTipo() == null ? null : lancamento.getTipo().name());
+		registro.createCell(6).setCellValue(lancamento.getStatus() == null ? null : lancamento.getStatus().name());
+		if(lancamento.getDataCadastro() != null) {
+			registro.createCell(7).setCellValue(lancamento.getDataCadastro().toString());
+		}
+	}
+
+	@Override
+	public void finalizar() throws IOException {
+		try {
+			planilha.write(saida);
+			saida.flush();
+		} finally {
+			planilha.dispose();
+			planilha.close();
+		}
+	}
+}
@@ -0,0 +1,14 @@
+package com.minhasfinancas.service.exportacao;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum FormatoExportacao {
+	CSV("text/csv", "csv"),
+	XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx");
+	
+	private final String tipoConteudo;
+	private final String extensao;
+}
@@ -0,0 +1,58 @@
+package com.minhasfinancas.service.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.minhasfinancas.model.repository.LancamentoRepository;
+import com.minhasfinancas.service.ArquivamentoService;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+public class ArquivamentoServiceImpl implements ArquivamentoService {
+	
+	private LancamentoRepository repository;
+	
+	private TransactionTemplate transactionTemplate;
+	
+	private int anosAtivos;
+	
+	public ArquivamentoServiceImpl(LancamentoRepository repository, PlatformTransactionManager transactionManager,
+			@Value("${minhasfinancas.arquivamento.anos-ativos:2}") int anosAtivos) {
+		this.repository = repository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.anosAtivos = Math.max(anosAtivos, 1);
+	}
+	
+	@Override
+	public List<Integer> arquivar(int anoAtual) {
+		for(int ano = anoAtual; ano <= anoAtual + 1; ano++) {
+			criarParticao(ano);
+		}
+		
+		List<Integer> arquivados = new ArrayList<>();
+		int primeiroAnoAtivo = anoAtual - anosAtivos + 1;
+		for(Integer ano : repository.obterAnosAnterioresA(primeiroAnoAtivo)) {
+			long inicio = System.nanoTime();
+			Long lancamentos = transactionTemplate.execute(status -> repository.arquivarAno(ano));
+			arquivados.add(ano);
+			log.info("Ano {} arquivado: {} lançamento(s) em {} ms", ano, lancamentos,
+					(System.nanoTime() - inicio) / 1_000_000);
+		}
+		return arquivados;
+	}
+	
+	/**
+	 * Uma falha interrompe o arquivamento: sem a partição o ano nunca poderia ser
+	 * desanexado, e o job precisa falhar para que alguém veja.
+	 */
+	private void criarParticao(int ano) {
+		transactionTemplate.executeWithoutResult(status -> repository.criarParticao(ano));
+	}
+}
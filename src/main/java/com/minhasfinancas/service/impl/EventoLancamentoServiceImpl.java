@@ -0,0 +1,134 @@
+package com.minhasfinancas.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.minhasfinancas.exceptions.CursorExpiradoException;
+import com.minhasfinancas.model.entity.EventoLancamento;
+import com.minhasfinancas.model.entity.Lancamento;
+import com.minhasfinancas.model.enums.OperacaoLancamento;
+import com.minhasfinancas.model.repository.EventoLancamentoRepository;
+import com.minhasfinancas.model.repository.LotesDeIds;
+import com.minhasfinancas.service.EventoLancamentoService;
+import com.minhasfinancas.service.EventosLancamentoPublicadosEvent;
+import com.minhasfinancas.service.PaginaEventos;
+
+@Service
+public class EventoLancamentoServiceImpl implements EventoLancamentoService {
+	
+	private EventoLancamentoRepository repository;
+	
+	private ApplicationEventPublisher eventPublisher;
+	
+	public EventoLancamentoServiceImpl(EventoLancamentoRepository repository, ApplicationEventPublisher eventPublisher) {
+		this.repository = repository;
+		this.eventPublisher = eventPublisher;
+	}
+	
+	@Override
+	@Transactional
+	public void registrar(Lancamento anterior, Lancamento atual) {
+		if(atual != null) {
+			OperacaoLancamento operacao = anterior == null ? OperacaoLancamento.CRIADO : OperacaoLancamento.ATUALIZADO;
+			repository.registrarEstadoAtual(operacao.name(), Collections.singletonList(atual.getId()));
+		} else if(anterior != null && anterior.getUsuario() != null) {
+			repository.registrarRemocao(anterior.getId(), anterior.getUsuario().getId(), anterior.getVersao());
+		}
+	}
+	
+	@Override
+	@Transactional
+	public void registrarNovos(List<Lancamento> lancamentos) {
+		registrarEstadoAtual(OperacaoLancamento.CRIADO, lancamentos);
+	}
+	
+	@Override
+	@Transactional
+	public void registrarAlteracoes(List<Lancamento> atuais) {
+		registrarEstadoAtual(OperacaoLancamento.ATUALIZADO, atuais);
+	}
+	
+	@Override
+	@Transactional
+	public int publicar(int limite) {
+		List<EventoLancamento> pendentes = repository.bloquearPendentes(PageRequest.of(0, limite));
+		if(pendentes.isEmpty()) {
+			return 0;
+		}
+		
+		// lida depois do bloqueio: uma publicação simultânea já terminou e a
+		// posição dela é visível; se não, o índice único da posição recusa esta
+		Long ultimaPosicao = repository.obterUltimaPosicao();
+		long posicao = ultimaPosicao == null ? 0 : ultimaPosicao;
+		LocalDateTime agora = LocalDateTime.now();
+		for(EventoLancamento evento : pendentes) {
+			evento.setPosicao(++posicao);
+			evento.setPublicadoEm(agora);
+		}
+		repository.flush();
+		
+		notificarAposConfirmacao(new EventosLancamentoPublicadosEvent(pendentes));
+		return pendentes.size();
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public PaginaEventos buscar(Long idUsuario, Long apos, int limite) {
+		// lida antes dos eventos: nada publicado depois dela entra nesta página
+		Long ultimaPosicao = repository.obterUltimaPosicao();
+		long posicaoAtual = ultimaPosicao == null ? 0 : ultimaPosicao;
+		if(apos == null) {
+			return new PaginaEventos(Collections.emptyList(), posicaoAtual);
+		}
+		
+		Long primeiraPosicao = repository.obterPrimeiraPosicao();
+		if(primeiraPosicao != null && apos < primeiraPosicao - 1) {
+			throw new CursorExpiradoException("Os eventos posteriores ao cursor já foram removidos, "
+					+ "carregue os lançamentos novamente.");
+		}
+		
+		List<EventoLancamento> eventos = repository.buscarPublicados(idUsuario, apos, posicaoAtual, PageRequest.of(0, limite));
+		long proximoCursor = eventos.size() == limite ? eventos.get(limite - 1).getPosicao() : Math.max(apos, posicaoAtual);
+		return new PaginaEventos(eventos, proximoCursor);
+	}
+	
+	@Override
+	@Transactional
+	public long removerPublicadosAntesDe(LocalDateTime limite) {
+		return repository.removerPublicadosAntesDe(limite);
+	}
+	
+	/**
+	 * As posições só valem depois do commit: até lá o índice único ainda pode
+	 * recusar este lote por causa de uma publicação simultânea.
+	 */
+	private void notificarAposConfirmacao(EventosLancamentoPublicadosEvent publicados) {
+		if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+			eventPublisher.publishEvent(publicados);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			
+			@Override
+			public void afterCommit() {
+				eventPublisher.publishEvent(publicados);
+			}
+		});
+	}
+	
+	private void registrarEstadoAtual(OperacaoLancamento operacao, List<Lancamento> lancamentos) {
+		List<Long> ids = lancamentos.stream().map(Lancamento::getId).collect(Collectors.toList());
+		for(List<Long> lote : LotesDeIds.dividir(ids)) {
+			repository.registrarEstadoAtual(operacao.name(), lote);
+		}
+	}
+}
@@ -0,0 +1,45 @@
+package com.minhasfinancas.service.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.minhasfinancas.model.repository.LancamentoRepository;
+import com.minhasfinancas.service.ExportacaoService;
+import com.minhasfinancas.service.exportacao.EscritorCsv;
+import com.minhasfinancas.service.exportacao.EscritorLancamentos;
+import com.minhasfinancas.service.exportacao.EscritorXlsx;
+import com.minhasfinancas.service.exportacao.FormatoExportacao;
+
+@Service
+public class ExportacaoServiceImpl implements ExportacaoService {
+	
+	private LancamentoRepository repository;
+
+	public ExportacaoServiceImpl(LancamentoRepository repository) {
+		this.repository = repository;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public void exportar(Long idUsuario, FormatoExportacao formato, OutputStream saida) throws IOException {
+		EscritorLancamentos escritor = formato == FormatoExportacao.XLSX ? new EscritorXlsx(saida) : new EscritorCsv(saida);
+		
+		try {
+			repository.percorrerPorUsuario(idUsuario, lancamento -> {
+				try {
+					escritor.escrever(lancamento);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		
+		escritor.finalizar();
+	}
+}
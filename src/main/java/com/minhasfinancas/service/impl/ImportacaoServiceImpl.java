@@ -0,0 +1,127 @@
+package com.minhasfinancas.service.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minhasfinancas.exceptions.RegraNegocioException;
+import com.minhasfinancas.model.entity.Lancamento;
+import com.minhasfinancas.model.entity.Usuario;
+import com.minhasfinancas.service.ImportacaoService;
+import com.minhasfinancas.service.LancamentoService;
+import com.minhasfinancas.service.importacao.FormatoImportacao;
+import com.minhasfinancas.service.importacao.LeitorCsv;
+import com.minhasfinancas.service.importacao.LeitorJsonLinhas;
+import com.minhasfinancas.service.importacao.LeitorLancamentos;
+import com.minhasfinancas.service.importacao.LeitorOfx;
+import com.minhasfinancas.service.importacao.RegistroImportado;
+import com.minhasfinancas.service.importacao.ResultadoImportacao;
+
+/**
+ * Importa o arquivo à medida que ele é lido, gravando um lote por transação.
+ * Se um lote falhar na gravação, seus lançamentos são regravados um a um
+ * para que apenas as linhas problemáticas sejam reportadas como erro.
+ */
+@Service
+public class ImportacaoServiceImpl implements ImportacaoService {
+	
+	private LancamentoService lancamentoService;
+	
+	private ObjectMapper objectMapper;
+	
+	private int tamanhoLote;
+
+	public ImportacaoServiceImpl(LancamentoService lancamentoService, ObjectMapper objectMapper,
+			@Value("${minhasfinancas.importacao.tamanho-lote:500}") int tamanhoLote) {
+		this.lancamentoService = lancamentoService;
+		this.objectMapper = objectMapper;
+		this.tamanhoLote = tamanhoLote;
+	}
+
+	@Override
+	public ResultadoImportacao importar(Usuario usuario, FormatoImportacao formato, Reader entrada) {
+		LeitorLancamentos leitor = criarLeitor(formato, new BufferedReader(entrada));
+		ResultadoImportacao resultado = new ResultadoImportacao();
+		List<RegistroImportado> lote = new ArrayList<>(tamanhoLote);
+		
+		RegistroImportado registro;
+		while((registro = ler(leitor)) != null) {
+			if(registro.getErro() != null) {
+				resultado.adicionarErro(registro.getLinha(), registro.getErro());
+				continue;
+			}
+			
+			Lancamento lancamento = registro.getLancamento();
+			lancamento.setUsuario(usuario);
+			lancamento.setDataCadastro(LocalDate.now());
+			
+			try {
+				lancamentoService.validar(lancamento);
+			} catch (RegraNegocioException e) {
+				resultado.adicionarErro(registro.getLinha(), e.getMessage());
+				continue;
+			}
+			
+			lote.add(registro);
+			if(lote.size() == tamanhoLote) {
+				gravar(lote, resultado);
+				lote.clear();
+			}
+		}
+		
+		gravar(lote, resultado);
+		return resultado;
+	}
+	
+	private void gravar(List<RegistroImportado> lote, ResultadoImportacao resultado) {
+		if(lote.isEmpty()) {
+			return;
+		}
+		
+		List<Lancamento> lancamentos = new ArrayList<>(lote.size());
+		lote.forEach(registro -> lancamentos.add(registro.getLancamento()));
+		
+		try {
+			lancamentoService.salvarLote(lancamentos);
+			resultado.somarImportados(lancamentos.size());
+		} catch (RuntimeException e) {
+			for(RegistroImportado registro : lote) {
+				Lancamento lancamento = registro.getLancamento();
+				lancamento.setId(null);
+				try {
+					lancamentoService.salvarLote(Collections.singletonList(lancamento));
+					resultado.somarImportados(1);
+				} catch (RuntimeException erro) {
+					resultado.adicionarErro(registro.getLinha(), "Não foi possível gravar o lançamento.");
+				}
+			}
+		}
+	}
+	
+	private LeitorLancamentos criarLeitor(FormatoImportacao formato, BufferedReader reader) {
+		switch (formato) {
+		case OFX:
+			return new LeitorOfx(reader);
+		case JSONL:
+			return new LeitorJsonLinhas(reader, objectMapper);
+		default:
+			return new LeitorCsv(reader);
+		}
+	}
+	
+	private static RegistroImportado ler(LeitorLancamentos leitor) {
+		try {
+			return leitor.proximo();
+		} catch (IOException e) {
+			throw new RegraNegocioException("Não foi possível ler o arquivo de importação.");
+		}
+	}
+}
@@ -0,0 +1,21 @@
+package com.minhasfinancas.service.impl;
+
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.minhasfinancas.service.SaldoAlteradoEvent;
+
+/**
+ * Remove o saldo do cache somente depois do commit, para que nenhuma leitura
+ * volte a guardar o valor anterior enquanto a transação ainda está aberta.
+ */
+@Component
+public class InvalidacaoSaldoListener {
+
+	@CacheEvict(cacheNames = "saldos", key = "#evento.idUsuario")
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+	public void saldoAlterado(SaldoAlteradoEvent evento) {
+	}
+}
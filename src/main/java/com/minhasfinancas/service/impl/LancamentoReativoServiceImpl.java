@@ -0,0 +1,128 @@
+package com.minhasfinancas.service.impl;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.jpa.repository.query.EscapeCharacter;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.stereotype.Service;
+
+import com.minhasfinancas.model.entity.Lancamento;
+import com.minhasfinancas.model.entity.Usuario;
+import com.minhasfinancas.model.enums.StatusLancamento;
+import com.minhasfinancas.model.enums.TipoLancamento;
+import com.minhasfinancas.service.LancamentoReativoService;
+
+import io.r2dbc.spi.Row;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Consultas de leitura sem bloqueio sobre as mesmas tabelas mantidas pelo JPA.
+ * O resultado é lido do banco em lotes de {@code tamanho-leitura} conforme o
+ * cliente consome, então uma busca grande não é carregada inteira na memória.
+ */
+@Service
+@Profile("reativo")
+public class LancamentoReativoServiceImpl implements LancamentoReativoService {
+	
+	private static final String SELECT_LANCAMENTO = "select l.id, l.descricao, l.mes, l.ano, l.valor, l.tipo, l.status, "
+			+ "l.data_cadastro, l.versao, l.id_usuario from financas.lancamento l ";
+	
+	/** os anos já arquivados entram pelos totais gravados no arquivamento */
+	private static final String SALDO_CALCULADO = "select coalesce(sum(case when tipo = 'RECEITA' then valor else -valor end), 0) as saldo "
+			+ "from (select id_usuario, tipo, valor, status from financas.lancamento "
+			+ "union all select id_usuario, tipo, total, status from financas.total_anual_arquivado) totais "
+			+ "where id_usuario = :idUsuario and (status is null or status <> 'CANCELADO')";
+	
+	private static final char ESCAPE = EscapeCharacter.DEFAULT.getEscapeCharacter();
+	
+	private DatabaseClient databaseClient;
+	
+	private int tamanhoLeitura;
+
+	public LancamentoReativoServiceImpl(DatabaseClient databaseClient,
+			@Value("${minhasfinancas.r2dbc.tamanho-leitura:256}") int tamanhoLeitura) {
+		this.databaseClient = databaseClient;
+		this.tamanhoLeitura = tamanhoLeitura;
+	}
+
+	@Override
+	public Flux<Lancamento> buscar(Lancamento lancamentoFiltro) {
+		StringBuilder sql = new StringBuilder(SELECT_LANCAMENTO).append("where l.id_usuario = :idUsuario");
+		Map<String, Object> parametros = new LinkedHashMap<>();
+		parametros.put("idUsuario", lancamentoFiltro.getUsuario().getId());
+		
+		if(lancamentoFiltro.getDescricao() != null) {
+			// o mesmo tratamento da busca bloqueante: curingas digitados são texto
+			sql.append(" and lower(l.descricao) like :descricao escape '").append(ESCAPE).append("'");
+			parametros.put("descricao", "%" + EscapeCharacter.DEFAULT.escape(
+					lancamentoFiltro.getDescricao().toLowerCase(Locale.ROOT)) + "%");
+		}
+		if(lancamentoFiltro.getMes() != null) {
+			sql.append(" and l.mes = :mes");
+			parametros.put("mes", lancamentoFiltro.getMes());
+		}
+		if(lancamentoFiltro.getAno() != null) {
+			sql.append(" and l.ano = :ano");
+			parametros.put("ano", lancamentoFiltro.getAno());
+		}
+		sql.append(" order by l.id");
+		
+		GenericExecuteSpec consulta = databaseClient.sql(sql.toString())
+				.filter((statement, execucao) -> execucao.execute(statement.fetchSize(tamanhoLeitura)));
+		for(Map.Entry<String, Object> parametro : parametros.entrySet()) {
+			consulta = consulta.bind(parametro.getKey(), parametro.getValue());
+		}
+		
+		return consulta.map((row, metadados) -> converter(row)).all();
+	}
+
+	@Override
+	public Mono<Lancamento> obterPorId(Long id) {
+		return databaseClient.sql(SELECT_LANCAMENTO + "where l.id = :id")
+				.bind("id", id)
+				.map((row, metadados) -> converter(row))
+				.one();
+	}
+
+	@Override
+	public Mono<BigDecimal> obterSaldoPorUsuario(Long idUsuario) {
+		Mono<BigDecimal> consolidado = databaseClient.sql("select receitas - despesas as saldo from financas.saldo_usuario "
+					+ "where id_usuario = :idUsuario")
+				.bind("idUsuario", idUsuario)
+				.map((row, metadados) -> row.get("saldo", BigDecimal.class))
+				.one();
+		
+		Mono<BigDecimal> calculado = databaseClient.sql(SALDO_CALCULADO)
+				.bind("idUsuario", idUsuario)
+				.map((row, metadados) -> row.get("saldo", BigDecimal.class))
+				.one();
+		
+		return consolidado.switchIfEmpty(calculado);
+	}
+	
+	private static Lancamento converter(Row row) {
+		String tipo = row.get("tipo", String.class);
+		String status = row.get("status", String.class);
+		
+		return Lancamento.builder()
+				.id(row.get("id", Long.class))
+				.descricao(row.get("descricao", String.class))
+				.mes(row.get("mes", Integer.class))
+				.ano(row.get("ano", Integer.class))
+				.valor(row.get("valor", BigDecimal.class))
+				.tipo(tipo == null ? null : TipoLancamento.valueOf(tipo))
+				.status(status == null ? null : StatusLancamento.valueOf(status))
+				.dataCadastro(row.get("data_cadastro", LocalDate.class))
+				.versao(row.get("versao", Long.class))
+				.usuario(Usuario.builder().id(row.get("id_usuario", Long.class)).build())
+				.build();
+	}
+}
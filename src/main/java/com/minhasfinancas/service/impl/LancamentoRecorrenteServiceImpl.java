@@ -0,0 +1,244 @@
+package com.minhasfinancas.service.impl;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.minhasfinancas.exceptions.RegraNegocioException;
+import com.minhasfinancas.model.entity.GeracaoRecorrencia;
+import com.minhasfinancas.model.entity.Lancamento;
+import com.minhasfinancas.model.entity.LancamentoRecorrente;
+import com.minhasfinancas.model.repository.GeracaoRecorrenciaRepository;
+import com.minhasfinancas.model.repository.LancamentoRecorrenteRepository;
+import com.minhasfinancas.service.LancamentoRecorrenteService;
+import com.minhasfinancas.service.LancamentoService;
+import com.minhasfinancas.service.SaldoAlteradoEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A geração divide os usuários em faixas de ids; cada faixa é uma transação
+ * com um punhado de comandos que agem sobre todos os seus modelos de uma vez
+ * (lançamentos, saldo consolidado, resumo mensal e eventos). Como todos os modelos de
+ * um usuário caem na mesma faixa, as faixas em paralelo nunca disputam as
+ * mesmas linhas de saldo e resumo.
+ */
+@Slf4j
+@Service
+public class LancamentoRecorrenteServiceImpl implements LancamentoRecorrenteService {
+	
+	private LancamentoRecorrenteRepository repository;
+	
+	private GeracaoRecorrenciaRepository geracaoRepository;
+	
+	private LancamentoService lancamentoService;
+	
+	private ApplicationEventPublisher eventPublisher;
+	
+	private TransactionTemplate transactionTemplate;
+	
+	private int usuariosPorLote;
+	
+	private int threads;
+
+	public LancamentoRecorrenteServiceImpl(LancamentoRecorrenteRepository repository,
+			GeracaoRecorrenciaRepository geracaoRepository, LancamentoService lancamentoService,
+			ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+			@Value("${minhasfinancas.recorrencia.usuarios-por-lote:1000}") int usuariosPorLote,
+			@Value("${minhasfinancas.recorrencia.threads:4}") int threads) {
+		this.repository = repository;
+		this.geracaoRepository = geracaoRepository;
+		this.lancamentoService = lancamentoService;
+		this.eventPublisher = eventPublisher;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.usuariosPorLote = usuariosPorLote;
+		this.threads = threads;
+	}
+
+	@Override
+	@Transactional
+	public LancamentoRecorrente salvar(LancamentoRecorrente recorrente) {
+		validar(recorrente);
+		recorrente.setDataCadastro(LocalDate.now());
+		recorrente.setUltimaCompetenciaGerada(null);
+		
+		YearMonth atual = YearMonth.now();
+		int competencia = LancamentoRecorrente.competencia(atual.getYear(), atual.getMonthValue());
+		if(valeNa(recorrente, competencia)) {
+			lancamentoService.salvar(Lancamento.builder()
+					.descricao(recorrente.getDescricao())
+					.mes(atual.getMonthValue())
+					.ano(atual.getYear())
+					.valor(recorrente.getValor())
+					.tipo(recorrente.getTipo())
+					.usuario(recorrente.getUsuario())
+					.dataCadastro(LocalDate.now())
+					.build());
+			recorrente.setUltimaCompetenciaGerada(competencia);
+		}
+		
+		return repository.save(recorrente);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<LancamentoRecorrente> obterPorUsuario(Long idUsuario) {
+		return repository.findByUsuarioIdOrderById(idUsuario);
+	}
+
+	@Override
+	@Transactional
+	public Optional<LancamentoRecorrente> encerrar(Long id, Long idUsuario) {
+		YearMonth atual = YearMonth.now();
+		int competencia = LancamentoRecorrente.competencia(atual.getYear(), atual.getMonthValue());
+		
+		return repository.findByIdAndUsuarioId(id, idUsuario).map(recorrente -> {
+			if(recorrente.getCompetenciaFinal() == null || recorrente.getCompetenciaFinal() > competencia) {
+				recorrente.setCompetenciaFinal(competencia);
+			}
+			return recorrente;
+		});
+	}
+
+	@Override
+	public long gerar(YearMonth competencia) {
+		int codigo = LancamentoRecorrente.competencia(competencia.getYear(), competencia.getMonthValue());
+		GeracaoRecorrencia geracao = geracaoRepository.findById(codigo).orElseGet(() ->
+				GeracaoRecorrencia.builder().competencia(codigo).ultimoUsuario(0L).build());
+		if(geracao.isConcluida()) {
+			return 0;
+		}
+		
+		Long menorUsuario = repository.obterMenorIdUsuario();
+		Long maiorUsuario = repository.obterMaiorIdUsuario();
+		List<long[]> faixas = new ArrayList<>();
+		if(menorUsuario != null) {
+			for(long inicio = Math.max(geracao.getUltimoUsuario(), menorUsuario); inicio <= maiorUsuario; inicio += usuariosPorLote) {
+				faixas.add(new long[] {inicio, Math.min(inicio + usuariosPorLote, maiorUsuario + 1)});
+			}
+		}
+		
+		long inicio = System.nanoTime();
+		long gerados = 0;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Integer>> lotes = new ArrayList<>(faixas.size());
+			faixas.forEach(faixa -> lotes.add(executor.submit(() ->
+					gerarLote(competencia, codigo, faixa[0], faixa[1]))));
+			
+			// o ponto de retomada só avança sobre faixas contíguas já concluídas
+			for(int i = 0; i < lotes.size(); i++) {
+				gerados += aguardar(lotes.get(i));
+				geracao.setUltimoUsuario(faixas.get(i)[1]);
+				registrar(geracao);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		
+		geracao.setConcluida(true);
+		registrar(geracao);
+		log.info("Lançamentos recorrentes de {} gerados: {} lançamento(s) em {} lote(s), {} ms", competencia,
+				gerados, faixas.size(), (System.nanoTime() - inicio) / 1_000_000);
+		return gerados;
+	}
+
+	@Override
+	public void validar(LancamentoRecorrente recorrente) {
+		if(recorrente.getDescricao() == null || recorrente.getDescricao().trim().equals("")) {
+			throw new RegraNegocioException("Informe uma Descrição válida.");
+		}
+		
+		if(recorrente.getUsuario() == null || recorrente.getUsuario().getId() == null) {
+			throw new RegraNegocioException("Informe um Usuário válido.");
+		}
+		
+		if(recorrente.getValor() == null || recorrente.getValor().compareTo(BigDecimal.ZERO)<1) {
+			throw new RegraNegocioException("Informe um Valor válido.");
+		}
+		
+		if(recorrente.getTipo() == null) {
+			throw new RegraNegocioException("Informe um tipo de Lançamento.");
+		}
+		
+		if(!competenciaValida(recorrente.getCompetenciaInicial())) {
+			throw new RegraNegocioException("Informe um Mês e Ano iniciais válidos.");
+		}
+		
+		if(recorrente.getCompetenciaFinal() != null && (!competenciaValida(recorrente.getCompetenciaFinal())
+				|| recorrente.getCompetenciaFinal() < recorrente.getCompetenciaInicial())) {
+			throw new RegraNegocioException("Informe um Mês e Ano finais válidos, a partir dos iniciais.");
+		}
+	}
+	
+	private int gerarLote(YearMonth competencia, int codigo, long usuarioInicial, long usuarioFinal) {
+		return transactionTemplate.execute(status -> {
+			List<Number> usuarios = repository.bloquearDevidos(codigo, usuarioInicial, usuarioFinal);
+			if(usuarios.isEmpty()) {
+				return 0;
+			}
+			
+			int ano = competencia.getYear();
+			int mes = competencia.getMonthValue();
+			int gerados = repository.gerarLancamentos(codigo, ano, mes, usuarioInicial, usuarioFinal);
+			repository.somarNosSaldos(codigo, usuarioInicial, usuarioFinal);
+			repository.criarSaldosAusentes(codigo, usuarioInicial, usuarioFinal);
+			repository.somarNosResumos(codigo, ano, mes, usuarioInicial, usuarioFinal);
+			repository.criarResumosAusentes(codigo, ano, mes, usuarioInicial, usuarioFinal);
+			repository.registrarEventosGerados(codigo, ano, mes, usuarioInicial, usuarioFinal);
+			repository.marcarGerados(codigo, usuarioInicial, usuarioFinal);
+			
+			usuarios.stream().map(Number::longValue).distinct()
+				.forEach(idUsuario -> eventPublisher.publishEvent(new SaldoAlteradoEvent(idUsuario)));
+			return gerados;
+		});
+	}
+	
+	private void registrar(GeracaoRecorrencia geracao) {
+		geracao.setAtualizadaEm(LocalDateTime.now());
+		geracaoRepository.save(geracao);
+	}
+	
+	private static int aguardar(Future<Integer> lote) {
+		try {
+			return lote.get();
+		} catch (ExecutionException e) {
+			if(e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Geração de lançamentos recorrentes interrompida", e);
+		}
+	}
+	
+	private static boolean valeNa(LancamentoRecorrente recorrente, int competencia) {
+		return recorrente.getCompetenciaInicial() <= competencia
+				&& (recorrente.getCompetenciaFinal() == null || recorrente.getCompetenciaFinal() >= competencia);
+	}
+	
+	private static boolean competenciaValida(Integer competencia) {
+		if(competencia == null) {
+			return false;
+		}
+		int mes = competencia % 100;
+		int ano = competencia / 100;
+		return mes >= 1 && mes <= 12 && ano >= 1000 && ano <= 9999;
+	}
+}
@@ -1,30 +1,64 @@
 package com.minhasfinancas.service.impl;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
-import org.springframework.data.domain.Example;
-import org.springframework.data.domain.ExampleMatcher;
-import org.springframework.data.domain.ExampleMatcher.StringMatcher;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.minhasfinancas.exceptions.RegraNegocioException;
 import com.minhasfinancas.model.entity.Lancamento;
+import com.minhasfinancas.model.entity.Usuario;
 import com.minhasfinancas.model.enums.StatusLancamento;
-import com.minhasfinancas.model.enums.TipoLancamento;
+import com.minhasfinancas.model.projection.SituacaoLancamento;
+import com.minhasfinancas.model.projection.TotalPorTipoEStatus;
+import com.minhasfinancas.model.repository.LancamentoFiltro;
 import com.minhasfinancas.model.repository.LancamentoRepository;
+import com.minhasfinancas.model.repository.LancamentoSpecifications;
+import com.minhasfinancas.model.repository.LotesDeIds;
+import com.minhasfinancas.model.repository.TotalAnualArquivadoRepository;
+import com.minhasfinancas.service.EventoLancamentoService;
 import com.minhasfinancas.service.LancamentoService;
+import com.minhasfinancas.service.ResultadoAtualizacaoStatus;
+import com.minhasfinancas.service.ResultadoAtualizacaoStatus.Situacao;
+import com.minhasfinancas.service.ResumoMensalService;
+import com.minhasfinancas.service.SaldoDetalhado;
+import com.minhasfinancas.service.SaldoService;
 
 @Service
 public class LancamentoServiceImpl implements LancamentoService {
 	
 	private LancamentoRepository repository;
+	
+	private SaldoService saldoService;
+	
+	private ResumoMensalService resumoMensalService;
+	
+	private TotalAnualArquivadoRepository arquivadoRepository;
+	
+	private EventoLancamentoService eventoService;
 
-	public LancamentoServiceImpl(LancamentoRepository repository) {
+	public LancamentoServiceImpl(LancamentoRepository repository, SaldoService saldoService,
+			ResumoMensalService resumoMensalService, TotalAnualArquivadoRepository arquivadoRepository,
+			EventoLancamentoService eventoService) {
 		this.repository = repository;
+		this.saldoService = saldoService;
+		this.resumoMensalService = resumoMensalService;
+		this.arquivadoRepository = arquivadoRepository;
+		this.eventoService = eventoService;
 	}
 
 	@Override
@@ -32,39 +66,237 @@ public class LancamentoServiceImpl implements LancamentoService {
 	public Lancamento salvar(Lancamento lancamento) {
 		validar(lancamento);
 		lancamento.setStatus(StatusLancamento.PENDENTE);
-		return repository.save(lancamento);
+		Lancamento lancamentoSalvo = repository.save(lancamento);
+		saldoService.contabilizar(null, lancamentoSalvo);
+		resumoMensalService.contabilizar(null, lancamentoSalvo);
+		eventoService.registrar(null, lancamentoSalvo);
+		return lancamentoSalvo;
+	}
+
+	@Override
+	@Transactional
+	public List<Lancamento> salvarLote(List<Lancamento> lancamentos) {
+		lancamentos.forEach(lancamento -> {
+			validar(lancamento);
+			lancamento.setStatus(StatusLancamento.PENDENTE);
+		});
+		repository.salvarEmLote(lancamentos);
+		saldoService.contabilizarNovos(lancamentos);
+		resumoMensalService.contabilizarNovos(lancamentos);
+		eventoService.registrarNovos(lancamentos);
+		return lancamentos;
 	}
 
 	@Override
 	@Transactional
 	public Lancamento atualizar(Lancamento lancamento) {
 		Objects.requireNonNull(lancamento.getId());
-		return repository.save(lancamento);
+		Lancamento anterior = obterEstadoPersistido(lancamento);
+		if(lancamento.getVersao() == null && anterior != null) {
+			lancamento.setVersao(anterior.getVersao());
+		}
+		Lancamento lancamentoAtualizado = repository.save(lancamento);
+		saldoService.contabilizar(anterior, lancamentoAtualizado);
+		resumoMensalService.contabilizar(anterior, lancamentoAtualizado);
+		eventoService.registrar(anterior, lancamentoAtualizado);
+		if(lancamentoAtualizado != null) {
+			lancamentoAtualizado.registrarEstadoPersistido();
+		}
+		return lancamentoAtualizado;
+	}
+
+	@Override
+	@Transactional
+	public Optional<Lancamento> atualizarParcialmente(Long idUsuario, Long id, Long versao, Lancamento alteracoes) {
+		Objects.requireNonNull(id);
+		return repository.findById(id)
+				.filter(lancamento -> lancamento.getUsuario() != null && lancamento.getUsuario().getId().equals(idUsuario))
+				.map(lancamento -> {
+					if(versao != null && !versao.equals(lancamento.getVersao())) {
+						throw new ObjectOptimisticLockingFailureException(Lancamento.class, id);
+					}
+					
+					Lancamento anterior = lancamento.getEstadoPersistido();
+					aplicarAlteracoes(lancamento, alteracoes);
+					validar(lancamento);
+					repository.flush();
+					
+					saldoService.contabilizar(anterior, lancamento);
+					resumoMensalService.contabilizar(anterior, lancamento);
+					eventoService.registrar(anterior, lancamento);
+					return lancamento;
+				});
 	}
 
 	@Override
 	@Transactional
 	public void apagar(Lancamento lancamento) {
 		Objects.requireNonNull(lancamento.getId());
+		Lancamento anterior = obterEstadoPersistido(lancamento);
 		repository.delete(lancamento);
+		saldoService.contabilizar(anterior, null);
+		resumoMensalService.contabilizar(anterior, null);
+		eventoService.registrar(anterior, null);
 	}
 
 	@Override
 	@Transactional(readOnly = true)
 	public List<Lancamento> buscar(Lancamento lancamentoFiltro) {
-		Example example = Example.of(lancamentoFiltro,
-				ExampleMatcher.matching()
-					.withIgnoreCase()
-						.withStringMatcher(StringMatcher.CONTAINING));
-		return repository.findAll(example);
+		return buscar(LancamentoFiltro.de(lancamentoFiltro));
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public List<Lancamento> buscar(LancamentoFiltro filtro) {
+		validarFiltro(filtro);
+		return repository.findAll(LancamentoSpecifications.porFiltro(filtro),
+				LancamentoSpecifications.ordenacao(filtro.getOrdenacao()));
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public List<Lancamento> buscar(LancamentoFiltro filtro, Long aposId, int limite) {
+		validarFiltro(filtro);
+		return repository.buscarAposId(LancamentoSpecifications.porFiltro(filtro), aposId, limite);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<Lancamento> buscarPorTexto(Long idUsuario, String texto, int deslocamento, int limite) {
+		if(texto == null || texto.trim().isEmpty()) {
+			throw new RegraNegocioException("Informe um texto para a busca.");
 		}
+		
+		if(deslocamento < 0) {
+			throw new RegraNegocioException("Informe uma página válida.");
+		}
+		
+		return repository.buscarPorTexto(idUsuario, texto.trim(), deslocamento, limite);
+	}
 
 	@Override
+	@Transactional
 	public void atualizarStatus(Lancamento lancamento, StatusLancamento status) {
 		lancamento.setStatus(status);
 		atualizar(lancamento);
 	}
 	
+	@Override
+	@Transactional
+	public ResultadoAtualizacaoStatus atualizarStatusEmLote(Long idUsuario, List<Long> ids, StatusLancamento esperado,
+			StatusLancamento novo) {
+		if(ids == null || ids.isEmpty()) {
+			throw new RegraNegocioException("Informe os lançamentos a atualizar.");
+		}
+		validarAtualizacaoEmLote(idUsuario, novo);
+		
+		Set<Long> distintos = new LinkedHashSet<>(ids);
+		Map<Long, SituacaoLancamento> encontrados = new HashMap<>();
+		for(List<Long> lote : LotesDeIds.dividir(new ArrayList<>(distintos))) {
+			repository.bloquearPorIds(idUsuario, lote).forEach(situacao -> encontrados.put(situacao.getId(), situacao));
+		}
+		
+		List<ResultadoAtualizacaoStatus.Item> itens = new ArrayList<>(distintos.size());
+		List<SituacaoLancamento> alterados = new ArrayList<>();
+		for(Long id : distintos) {
+			SituacaoLancamento situacao = encontrados.get(id);
+			Situacao resultado;
+			if(situacao == null) {
+				resultado = Situacao.NAO_ENCONTRADO;
+			} else if(situacao.getStatus() == novo) {
+				resultado = Situacao.INALTERADO;
+			} else if(esperado != null && situacao.getStatus() != esperado) {
+				resultado = Situacao.CONFLITO;
+			} else {
+				resultado = Situacao.ATUALIZADO;
+				alterados.add(situacao);
+			}
+			itens.add(new ResultadoAtualizacaoStatus.Item(id, resultado));
+		}
+		
+		aplicarStatus(idUsuario, alterados, novo);
+		return new ResultadoAtualizacaoStatus(alterados.size(), itens);
+	}
+	
+	@Override
+	@Transactional
+	public ResultadoAtualizacaoStatus atualizarStatusEmLote(Long idUsuario, Integer ano, Integer mes,
+			StatusLancamento atual, StatusLancamento novo) {
+		if(ano == null || mes == null || atual == null) {
+			throw new RegraNegocioException("Informe o ano, o mês e o status atual dos lançamentos.");
+		}
+		validarAtualizacaoEmLote(idUsuario, novo);
+		if(atual == novo) {
+			throw new RegraNegocioException("O novo status deve ser diferente do status atual.");
+		}
+		
+		List<SituacaoLancamento> alterados = repository.bloquearPorCompetencia(idUsuario, ano, mes, atual);
+		aplicarStatus(idUsuario, alterados, novo);
+		
+		List<ResultadoAtualizacaoStatus.Item> itens = alterados.stream()
+				.map(situacao -> new ResultadoAtualizacaoStatus.Item(situacao.getId(), Situacao.ATUALIZADO))
+				.collect(Collectors.toList());
+		return new ResultadoAtualizacaoStatus(alterados.size(), itens);
+	}
+	
+	private void validarAtualizacaoEmLote(Long idUsuario, StatusLancamento novo) {
+		if(idUsuario == null) {
+			throw new RegraNegocioException("Informe um Usuário válido.");
+		}
+		
+		if(novo == null) {
+			throw new RegraNegocioException("Informe o novo status dos lançamentos.");
+		}
+	}
+	
+	/**
+	 * Um UPDATE por status de origem (e por lote de ids), condicionado a esse
+	 * status; como as linhas já estão bloqueadas, qualquer diferença na
+	 * contagem indica uma alteração concorrente e desfaz a transação.
+	 */
+	private void aplicarStatus(Long idUsuario, List<SituacaoLancamento> alterados, StatusLancamento novo) {
+		if(alterados.isEmpty()) {
+			return;
+		}
+		
+		Map<StatusLancamento, List<Long>> idsPorStatus = alterados.stream().collect(Collectors.groupingBy(
+				SituacaoLancamento::getStatus, () -> new EnumMap<>(StatusLancamento.class),
+				Collectors.mapping(SituacaoLancamento::getId, Collectors.toList())));
+		
+		idsPorStatus.forEach((atual, ids) -> {
+			for(List<Long> lote : LotesDeIds.dividir(ids)) {
+				int atualizados = repository.atualizarStatus(lote, atual, novo);
+				if(atualizados != lote.size()) {
+					throw new OptimisticLockingFailureException("Lançamentos alterados durante a atualização de status: "
+							+ atualizados + " de " + lote.size() + " atualizados.");
+				}
+			}
+		});
+		
+		Usuario usuario = Usuario.builder().id(idUsuario).build();
+		List<Lancamento> anteriores = new ArrayList<>(alterados.size());
+		List<Lancamento> atuais = new ArrayList<>(alterados.size());
+		for(SituacaoLancamento situacao : alterados) {
+			anteriores.add(paraContabilizar(situacao, usuario, situacao.getStatus()));
+			atuais.add(paraContabilizar(situacao, usuario, novo));
+		}
+		saldoService.contabilizarAlteracoes(anteriores, atuais);
+		resumoMensalService.contabilizarAlteracoes(anteriores, atuais);
+		eventoService.registrarAlteracoes(atuais);
+	}
+	
+	private static Lancamento paraContabilizar(SituacaoLancamento situacao, Usuario usuario, StatusLancamento status) {
+		return Lancamento.builder()
+				.id(situacao.getId())
+				.ano(situacao.getAno())
+				.mes(situacao.getMes())
+				.tipo(situacao.getTipo())
+				.valor(situacao.getValor())
+				.usuario(usuario)
+				.status(status)
+				.build();
+	}
+	
 	@Override
 	public void validar(Lancamento lancamento) {
 		if(lancamento.getDescricao() == null || lancamento.getDescricao().trim().equals("")) {
@@ -92,26 +324,91 @@ public class LancamentoServiceImpl implements LancamentoService {
 		}
 	}
 
+	private void validarFiltro(LancamentoFiltro filtro) {
+		if(filtro.getIdUsuario() == null) {
+			throw new RegraNegocioException("Informe um Usuário válido.");
+		}
+		
+		if(filtro.getValorMinimo() != null && filtro.getValorMaximo() != null
+				&& filtro.getValorMinimo().compareTo(filtro.getValorMaximo()) > 0) {
+			throw new RegraNegocioException("O valor mínimo deve ser menor ou igual ao valor máximo.");
+		}
+		
+		if(filtro.getDataCadastroInicial() != null && filtro.getDataCadastroFinal() != null
+				&& filtro.getDataCadastroInicial().isAfter(filtro.getDataCadastroFinal())) {
+			throw new RegraNegocioException("A data inicial deve ser anterior ou igual à data final.");
+		}
+		
+		if(filtro.getOrdenacao() != null) {
+			for(Sort.Order ordem : filtro.getOrdenacao()) {
+				if(!LancamentoSpecifications.CAMPOS_ORDENAVEIS.contains(ordem.getProperty())) {
+					throw new RegraNegocioException("Não é possível ordenar por " + ordem.getProperty() + ".");
+				}
+			}
+		}
+	}
+
 	@Override
+	@Transactional(readOnly = true)
 	public Optional<Lancamento> obterPorId(Long id) {
 		return repository.findById(id);
 	}
 
+	/**
+	 * Com sync o cálculo de uma mesma chave roda uma única vez, mesmo com várias
+	 * requisições simultâneas, e a remoção feita após o commit aguarda um cálculo
+	 * em andamento terminar antes de descartá-lo.
+	 */
 	@Override
 	@Transactional(readOnly = true)
+	@Cacheable(cacheNames = "saldos", key = "#id", sync = true)
 	public BigDecimal obterSaldoPorUsuario(Long id) {
-		BigDecimal receitas = repository.obterSaldoPorTipoLancamentoEUsuario(id, TipoLancamento.RECEITA);
-		BigDecimal despesas = repository.obterSaldoPorTipoLancamentoEUsuario(id, TipoLancamento.DESPESA);
-		
-		if(receitas == null) {
-			receitas = BigDecimal.ZERO;
+		return saldoService.obterSaldo(id).orElseGet(() -> obterSaldoDetalhadoPorUsuario(id).getSaldo());
+	}
+	
+	/**
+	 * Os anos já arquivados entram pelos totais gravados no arquivamento.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public SaldoDetalhado obterSaldoDetalhadoPorUsuario(Long id) {
+		List<TotalPorTipoEStatus> totais = new ArrayList<>(repository.obterTotaisPorTipoEStatus(id));
+		totais.addAll(arquivadoRepository.obterTotaisPorTipoEStatus(id));
+		return SaldoDetalhado.de(totais);
+	}
+	
+	private static void aplicarAlteracoes(Lancamento lancamento, Lancamento alteracoes) {
+		if(alteracoes.getDescricao() != null) {
+			lancamento.setDescricao(alteracoes.getDescricao());
 		}
-		
-		if(despesas == null) {
-			despesas = BigDecimal.ZERO;
+		if(alteracoes.getMes() != null) {
+			lancamento.setMes(alteracoes.getMes());
 		}
-		
-		return receitas.subtract(despesas);
+		if(alteracoes.getAno() != null) {
+			lancamento.setAno(alteracoes.getAno());
+		}
+		if(alteracoes.getValor() != null) {
+			lancamento.setValor(alteracoes.getValor());
+		}
+		if(alteracoes.getTipo() != null) {
+			lancamento.setTipo(alteracoes.getTipo());
+		}
+		if(alteracoes.getStatus() != null) {
+			lancamento.setStatus(alteracoes.getStatus());
+		}
+	}
+	
+	/**
+	 * O lançamento recebido pode ser a própria entidade gerenciada já alterada,
+	 * por isso o estado anterior vem da cópia registrada ao carregar da base.
+	 */
+	private Lancamento obterEstadoPersistido(Lancamento lancamento) {
+		if(lancamento.getEstadoPersistido() != null) {
+			return lancamento.getEstadoPersistido();
+		}
+		return repository.findById(lancamento.getId())
+				.map(Lancamento::getEstadoPersistido)
+				.orElse(null);
 	}
 
 }
@@ -0,0 +1,117 @@
+package com.minhasfinancas.service.impl;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.minhasfinancas.model.entity.Lancamento;
+import com.minhasfinancas.model.entity.ResumoMensal;
+import com.minhasfinancas.model.entity.ResumoMensalId;
+import com.minhasfinancas.model.repository.ResumoMensalRepository;
+import com.minhasfinancas.service.FluxoMensal;
+import com.minhasfinancas.service.ResumoMensalService;
+
+@Service
+public class ResumoMensalServiceImpl implements ResumoMensalService {
+	
+	private ResumoMensalRepository repository;
+	
+	private TransactionTemplate novaTransacao;
+
+	public ResumoMensalServiceImpl(ResumoMensalRepository repository, PlatformTransactionManager transactionManager) {
+		this.repository = repository;
+		this.novaTransacao = new TransactionTemplate(transactionManager);
+		this.novaTransacao.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+	}
+
+	@Override
+	@Transactional
+	public void contabilizar(Lancamento anterior, Lancamento atual) {
+		Map<ResumoMensalId, ResumoMensal> diferencas = new HashMap<>();
+		acumular(diferencas, anterior, -1);
+		acumular(diferencas, atual, 1);
+		aplicar(diferencas);
+	}
+
+	@Override
+	@Transactional
+	public void contabilizarNovos(List<Lancamento> lancamentos) {
+		Map<ResumoMensalId, ResumoMensal> diferencas = new HashMap<>();
+		lancamentos.forEach(lancamento -> acumular(diferencas, lancamento, 1));
+		aplicar(diferencas);
+	}
+
+	@Override
+	@Transactional
+	public void contabilizarAlteracoes(List<Lancamento> anteriores, List<Lancamento> atuais) {
+		Map<ResumoMensalId, ResumoMensal> diferencas = new HashMap<>();
+		anteriores.forEach(lancamento -> acumular(diferencas, lancamento, -1));
+		atuais.forEach(lancamento -> acumular(diferencas, lancamento, 1));
+		aplicar(diferencas);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<FluxoMensal> obterFluxoMensal(Long idUsuario, Integer anoInicial, Integer anoFinal) {
+		return FluxoMensal.de(repository.obterPorPeriodo(idUsuario, anoInicial, anoFinal));
+	}
+	
+	private void aplicar(Map<ResumoMensalId, ResumoMensal> diferencas) {
+		diferencas.values().forEach(diferenca -> {
+			if(diferenca.getTotal().signum() == 0 && diferenca.getQuantidade() == 0) {
+				return;
+			}
+			
+			if(somar(diferenca) == 0) {
+				// primeira ocorrência desta combinação
+				criarResumo(diferenca);
+				if(somar(diferenca) == 0) {
+					// o usuário ainda não foi confirmado e só esta transação o vê
+					repository.save(diferenca);
+				}
+			}
+		});
+	}
+	
+	private int somar(ResumoMensal diferenca) {
+		return repository.somar(diferenca.getIdUsuario(), diferenca.getAno(), diferenca.getMes(),
+				diferenca.getTipo(), diferenca.getStatus(), diferenca.getTotal(), diferenca.getQuantidade());
+	}
+	
+	/**
+	 * Cria a linha zerada numa transação à parte e ignora a chave duplicada
+	 * quando outra escrita concorrente a criou antes; cada uma soma depois a
+	 * sua própria diferença.
+	 */
+	private void criarResumo(ResumoMensal diferenca) {
+		try {
+			novaTransacao.executeWithoutResult(status -> repository.inserirZerado(diferenca.getIdUsuario(),
+					diferenca.getAno(), diferenca.getMes(), diferenca.getTipo().name(), diferenca.getStatus().name()));
+		} catch (DataIntegrityViolationException e) {
+			// já criado por outra transação, ou o usuário ainda não está confirmado
+		}
+	}
+	
+	private void acumular(Map<ResumoMensalId, ResumoMensal> diferencas, Lancamento lancamento, int sinal) {
+		if(lancamento == null || lancamento.getUsuario() == null || lancamento.getUsuario().getId() == null
+				|| lancamento.getAno() == null || lancamento.getMes() == null || lancamento.getValor() == null
+				|| lancamento.getTipo() == null || lancamento.getStatus() == null) {
+			return;
+		}
+		
+		ResumoMensalId chave = new ResumoMensalId(lancamento.getUsuario().getId(), lancamento.getAno(),
+				lancamento.getMes(), lancamento.getTipo(), lancamento.getStatus());
+		ResumoMensal diferenca = diferencas.computeIfAbsent(chave, id -> new ResumoMensal(id.getIdUsuario(),
+				id.getAno(), id.getMes(), id.getTipo(), id.getStatus(), BigDecimal.ZERO, 0L));
+		diferenca.setTotal(diferenca.getTotal().add(lancamento.getValor().multiply(BigDecimal.valueOf(sinal))));
+		diferenca.setQuantidade(diferenca.getQuantidade() + sinal);
+	}
+}
@@ -0,0 +1,223 @@
+package com.minhasfinancas.service.impl;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.minhasfinancas.model.entity.Lancamento;
+import com.minhasfinancas.model.entity.SaldoUsuario;
+import com.minhasfinancas.model.enums.StatusLancamento;
+import com.minhasfinancas.model.enums.TipoLancamento;
+import com.minhasfinancas.model.projection.TotalPorTipoEStatus;
+import com.minhasfinancas.model.repository.LancamentoRepository;
+import com.minhasfinancas.model.repository.SaldoUsuarioRepository;
+import com.minhasfinancas.model.repository.TotalAnualArquivadoRepository;
+import com.minhasfinancas.model.repository.UsuarioRepository;
+import com.minhasfinancas.service.DivergenciaSaldo;
+import com.minhasfinancas.service.SaldoAlteradoEvent;
+import com.minhasfinancas.service.SaldoService;
+
+@Service
+public class SaldoServiceImpl implements SaldoService {
+	
+	private SaldoUsuarioRepository saldoRepository;
+	
+	private LancamentoRepository lancamentoRepository;
+	
+	private TotalAnualArquivadoRepository arquivadoRepository;
+	
+	private UsuarioRepository usuarioRepository;
+	
+	private ApplicationEventPublisher eventPublisher;
+	
+	private TransactionTemplate transactionTemplate;
+	
+	private TransactionTemplate novaTransacao;
+	
+	public SaldoServiceImpl(SaldoUsuarioRepository saldoRepository, LancamentoRepository lancamentoRepository,
+			TotalAnualArquivadoRepository arquivadoRepository, UsuarioRepository usuarioRepository,
+			ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager) {
+		this.saldoRepository = saldoRepository;
+		this.lancamentoRepository = lancamentoRepository;
+		this.arquivadoRepository = arquivadoRepository;
+		this.usuarioRepository = usuarioRepository;
+		this.eventPublisher = eventPublisher;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.novaTransacao = new TransactionTemplate(transactionManager);
+		this.novaTransacao.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+	}
+	
+	@Override
+	@Transactional
+	public void contabilizar(Lancamento anterior, Lancamento atual) {
+		Map<Long, SaldoUsuario> diferencas = new HashMap<>();
+		acumular(diferencas, anterior, BigDecimal.ONE.negate());
+		acumular(diferencas, atual, BigDecimal.ONE);
+		aplicar(diferencas);
+	}
+	
+	@Override
+	@Transactional
+	public void contabilizarNovos(List<Lancamento> lancamentos) {
+		Map<Long, SaldoUsuario> diferencas = new HashMap<>();
+		lancamentos.forEach(lancamento -> acumular(diferencas, lancamento, BigDecimal.ONE));
+		aplicar(diferencas);
+	}
+	
+	@Override
+	@Transactional
+	public void contabilizarAlteracoes(List<Lancamento> anteriores, List<Lancamento> atuais) {
+		Map<Long, SaldoUsuario> diferencas = new HashMap<>();
+		anteriores.forEach(lancamento -> acumular(diferencas, lancamento, BigDecimal.ONE.negate()));
+		atuais.forEach(lancamento -> acumular(diferencas, lancamento, BigDecimal.ONE));
+		aplicar(diferencas);
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public Optional<BigDecimal> obterSaldo(Long idUsuario) {
+		return saldoRepository.findById(idUsuario).map(SaldoUsuario::getSaldo);
+	}
+	
+	/**
+	 * Cada usuário é conciliado na sua própria transação, com o saldo bloqueado
+	 * antes de somar os lançamentos: uma escrita concorrente ou já terminou e
+	 * entra na soma, ou espera o bloqueio para aplicar a sua diferença depois
+	 * da correção.
+	 */
+	@Override
+	public List<DivergenciaSaldo> conciliar(boolean corrigir) {
+		List<DivergenciaSaldo> divergencias = new ArrayList<>();
+		for(Long idUsuario : usuarioRepository.obterIds()) {
+			try {
+				transactionTemplate.execute(status -> conciliar(idUsuario, corrigir)).ifPresent(divergencias::add);
+			} catch (DataIntegrityViolationException e) {
+				// o saldo foi criado por uma escrita do usuário durante a conciliação,
+				// já com os totais corretos
+			}
+		}
+		return divergencias;
+	}
+	
+	private Optional<DivergenciaSaldo> conciliar(Long idUsuario, boolean corrigir) {
+		Optional<SaldoUsuario> consolidado = saldoRepository.bloquear(idUsuario);
+		List<TotalPorTipoEStatus> totais = obterTotais(idUsuario);
+		if(!consolidado.isPresent() && totais.isEmpty()) {
+			return Optional.empty();
+		}
+		
+		SaldoUsuario calculado = calcular(idUsuario, totais);
+		if(consolidado.isPresent()
+				&& consolidado.get().getReceitas().compareTo(calculado.getReceitas()) == 0
+				&& consolidado.get().getDespesas().compareTo(calculado.getDespesas()) == 0) {
+			return Optional.empty();
+		}
+		
+		if(corrigir) {
+			if(consolidado.isPresent()) {
+				saldoRepository.save(calculado);
+			} else {
+				saldoRepository.inserir(idUsuario, calculado.getReceitas(), calculado.getDespesas());
+			}
+			eventPublisher.publishEvent(new SaldoAlteradoEvent(idUsuario));
+		}
+		return Optional.of(new DivergenciaSaldo(idUsuario,
+				consolidado.map(SaldoUsuario::getSaldo).orElse(null), calculado.getSaldo()));
+	}
+	
+	private void aplicar(Map<Long, SaldoUsuario> diferencas) {
+		diferencas.values().forEach(diferenca -> {
+			if(diferenca.getReceitas().signum() == 0 && diferenca.getDespesas().signum() == 0) {
+				return;
+			}
+			
+			Long idUsuario = diferenca.getIdUsuario();
+			if(somar(diferenca) == 0) {
+				// primeira escrita do usuário desde a criação do saldo consolidado
+				criarSaldo(idUsuario);
+				if(somar(diferenca) == 0) {
+					// o usuário ainda não foi confirmado e só esta transação o vê; os
+					// lançamentos dela já refletem esta alteração
+					saldoRepository.save(recalcular(idUsuario));
+				}
+			}
+			eventPublisher.publishEvent(new SaldoAlteradoEvent(idUsuario));
+		});
+	}
+	
+	private int somar(SaldoUsuario diferenca) {
+		return saldoRepository.somar(diferenca.getIdUsuario(), diferenca.getReceitas(), diferenca.getDespesas());
+	}
+	
+	/**
+	 * Cria o saldo numa transação à parte, com os lançamentos já confirmados, e
+	 * ignora a chave duplicada quando outra escrita concorrente o criou antes.
+	 * Assim nenhuma das duas escritas falha, e cada uma aplica depois a sua
+	 * própria diferença.
+	 */
+	private void criarSaldo(Long idUsuario) {
+		try {
+			novaTransacao.executeWithoutResult(status -> {
+				SaldoUsuario saldo = recalcular(idUsuario);
+				saldoRepository.inserir(idUsuario, saldo.getReceitas(), saldo.getDespesas());
+			});
+		} catch (DataIntegrityViolationException e) {
+			// já criado por outra transação, ou o usuário ainda não está confirmado
+		}
+	}
+	
+	private SaldoUsuario recalcular(Long idUsuario) {
+		return calcular(idUsuario, obterTotais(idUsuario));
+	}
+	
+	private List<TotalPorTipoEStatus> obterTotais(Long idUsuario) {
+		// os anos arquivados entram pelos totais gravados no arquivamento
+		List<TotalPorTipoEStatus> totais = new ArrayList<>(lancamentoRepository.obterTotaisPorTipoEStatus(idUsuario));
+		totais.addAll(arquivadoRepository.obterTotaisPorTipoEStatus(idUsuario));
+		return totais;
+	}
+	
+	private static SaldoUsuario calcular(Long idUsuario, List<TotalPorTipoEStatus> totais) {
+		SaldoUsuario saldo = saldoZerado(idUsuario);
+		for(TotalPorTipoEStatus total : totais) {
+			if(total.getStatus() != StatusLancamento.CANCELADO) {
+				somar(saldo, total.getTipo(), total.getTotal());
+			}
+		}
+		return saldo;
+	}
+	
+	private void acumular(Map<Long, SaldoUsuario> diferencas, Lancamento lancamento, BigDecimal sinal) {
+		if(lancamento == null || lancamento.getUsuario() == null || lancamento.getUsuario().getId() == null
+				|| lancamento.getValor() == null || lancamento.getTipo() == null
+				|| lancamento.getStatus() == StatusLancamento.CANCELADO) {
+			return;
+		}
+		
+		SaldoUsuario diferenca = diferencas.computeIfAbsent(lancamento.getUsuario().getId(), SaldoServiceImpl::saldoZerado);
+		somar(diferenca, lancamento.getTipo(), lancamento.getValor().multiply(sinal));
+	}
+	
+	private static void somar(SaldoUsuario saldo, TipoLancamento tipo, BigDecimal valor) {
+		if(tipo == TipoLancamento.RECEITA) {
+			saldo.setReceitas(saldo.getReceitas().add(valor));
+		} else {
+			saldo.setDespesas(saldo.getDespesas().add(valor));
+		}
+	}
+	
+	private static SaldoUsuario saldoZerado(Long idUsuario) {
+		return new SaldoUsuario(idUsuario, BigDecimal.ZERO, BigDecimal.ZERO);
+	}
+}
@@ -0,0 +1,84 @@
+package com.minhasfinancas.service.impl;
+
+import java.util.Collections;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import com.minhasfinancas.exceptions.ServicoSobrecarregadoException;
+import com.minhasfinancas.service.SenhaService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/**
+ * O hash roda num executor próprio, por padrão com uma thread por processador
+ * e fila limitada: um pico de logins não disputa CPU com as demais requisições
+ * além desse limite, e o excedente é recusado de imediato em vez de acumular
+ * espera. A ocupação aparece nas métricas {@code executor.*} com o nome
+ * {@code hash.senha}.
+ */
+@Service
+public class SenhaServiceImpl implements SenhaService {
+	
+	private PasswordEncoder codificadorSenha;
+	
+	private ThreadPoolExecutor executor;
+
+	public SenhaServiceImpl(PasswordEncoder codificadorSenha,
+			@Value("${minhasfinancas.senha.threads:0}") int threads,
+			@Value("${minhasfinancas.senha.fila:256}") int fila,
+			ObjectProvider<MeterRegistry> registro) {
+		this.codificadorSenha = codificadorSenha;
+		int tamanho = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+		AtomicInteger contador = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(tamanho, tamanho, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(fila), tarefa -> {
+					Thread thread = new Thread(tarefa, "hash-senha-" + contador.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		registro.ifAvailable(metricas ->
+				new ExecutorServiceMetrics(executor, "hash.senha", Collections.emptyList()).bindTo(metricas));
+	}
+
+	@Override
+	public CompletableFuture<String> codificar(String senha) {
+		return executar(() -> codificadorSenha.encode(senha));
+	}
+
+	@Override
+	public CompletableFuture<Boolean> conferir(String senha, String senhaGravada) {
+		return executar(() -> codificadorSenha.matches(senha, senhaGravada));
+	}
+
+	@Override
+	public boolean precisaRecodificar(String senhaGravada) {
+		return senhaGravada != null && codificadorSenha.upgradeEncoding(senhaGravada);
+	}
+	
+	@PreDestroy
+	public void encerrar() {
+		executor.shutdown();
+	}
+	
+	private <T> CompletableFuture<T> executar(Supplier<T> calculo) {
+		try {
+			return CompletableFuture.supplyAsync(calculo, executor);
+		} catch (RejectedExecutionException e) {
+			return CompletableFuture.failedFuture(
+					new ServicoSobrecarregadoException("Muitas autenticações simultâneas, tente novamente.", e));
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package com.minhasfinancas.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.minhasfinancas.service.TokenAcesso;
+import com.minhasfinancas.service.TokenService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Token no formato {@code idUsuario.expiraEm.assinatura}, com a expiração em
+ * segundos desde a época e a assinatura HMAC-SHA256 das duas primeiras partes
+ * em Base64 URL. O segredo vem de {@code minhasfinancas.token.segredo} (Base64,
+ * ao menos 32 bytes); sem ele é gerado um a cada inicialização, e os tokens
+ * emitidos deixam de valer quando a aplicação reinicia.
+ */
+@Slf4j
+@Service
+public class TokenServiceImpl implements TokenService {
+	
+	private static final String ALGORITMO = "HmacSHA256";
+	
+	private static final int TAMANHO_MINIMO_SEGREDO = 32;
+	
+	private final SecretKeySpec chave;
+	
+	private final Duration validade;
+	
+	private final Clock relogio;
+	
+	@Autowired
+	public TokenServiceImpl(@Value("${minhasfinancas.token.segredo:}") String segredo,
+			@Value("${minhasfinancas.token.validade:8h}") Duration validade) {
+		this(segredo, validade, Clock.systemUTC());
+	}
+	
+	public TokenServiceImpl(String segredo, Duration validade, Clock relogio) {
+		this.chave = new SecretKeySpec(decodificarSegredo(segredo), ALGORITMO);
+		this.validade = validade;
+		this.relogio = relogio;
+	}
+
+	@Override
+	public TokenAcesso emitir(Long idUsuario) {
+		Instant expiraEm = relogio.instant().plus(validade);
+		String conteudo = idUsuario + "." + expiraEm.getEpochSecond();
+		return new TokenAcesso(conteudo + "." + assinar(conteudo), expiraEm);
+	}
+
+	@Override
+	public Optional<Long> validar(String token) {
+		if(token == null) {
+			return Optional.empty();
+		}
+		
+		int fimConteudo = token.lastIndexOf('.');
+		int fimId = token.indexOf('.');
+		if(fimId < 1 || fimConteudo <= fimId) {
+			return Optional.empty();
+		}
+		
+		String conteudo = token.substring(0, fimConteudo);
+		byte[] assinatura = token.substring(fimConteudo + 1).getBytes(StandardCharsets.US_ASCII);
+		if(!MessageDigest.isEqual(assinatura, assinar(conteudo).getBytes(StandardCharsets.US_ASCII))) {
+			return Optional.empty();
+		}
+		
+		try {
+			long expiraEm = Long.parseLong(conteudo.substring(fimId + 1));
+			if(relogio.instant().getEpochSecond() >= expiraEm) {
+				return Optional.empty();
+			}
+			return Optional.of(Long.valueOf(conteudo.substring(0, fimId)));
+		} catch (NumberFormatException e) {
+			return Optional.empty();
+		}
+	}
+	
+	private String assinar(String conteudo) {
+		try {
+			Mac mac = Mac.getInstance(ALGORITMO);
+			mac.init(chave);
+			byte[] assinatura = mac.doFinal(conteudo.getBytes(StandardCharsets.US_ASCII));
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(assinatura);
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("Não foi possível assinar o token", e);
+		}
+	}
+	
+	private static byte[] decodificarSegredo(String segredo) {
+		if(segredo == null || segredo.trim().isEmpty()) {
+			log.warn("minhasfinancas.token.segredo não configurado: os tokens emitidos não valerão após reiniciar a aplicação");
+			byte[] gerado = new byte[TAMANHO_MINIMO_SEGREDO];
+			new SecureRandom().nextBytes(gerado);
+			return gerado;
+		}
+		
+		byte[] decodificado = Base64.getDecoder().decode(segredo.trim());
+		if(decodificado.length < TAMANHO_MINIMO_SEGREDO) {
+			throw new IllegalStateException("minhasfinancas.token.segredo deve ter ao menos "
+					+ TAMANHO_MINIMO_SEGREDO + " bytes");
+		}
+		return decodificado;
+	}
+}
@@ -1,16 +1,22 @@
 package com.minhasfinancas.service.impl;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
-import javax.transaction.Transactional;
-
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 
+import com.minhasfinancas.config.AutenticacaoConfig;
 import com.minhasfinancas.exceptions.ErroAutenticacao;
 import com.minhasfinancas.exceptions.RegraNegocioException;
 import com.minhasfinancas.model.entity.Usuario;
 import com.minhasfinancas.model.repository.UsuarioRepository;
+import com.minhasfinancas.service.SenhaService;
 import com.minhasfinancas.service.UsuarioService;
 
 @Service
@@ -18,30 +24,62 @@ public class UsuarioServiceImpl implements UsuarioService{
 	
 	private UsuarioRepository usuarioRepository;
 	
-	public UsuarioServiceImpl(UsuarioRepository usuarioRepository) {
+	private SenhaService senhaService;
+	
+	private CacheManager cacheManager;
+	
+	public UsuarioServiceImpl(UsuarioRepository usuarioRepository, SenhaService senhaService, CacheManager cacheManager) {
 		super();
 		this.usuarioRepository = usuarioRepository;
+		this.senhaService = senhaService;
+		this.cacheManager = cacheManager;
 	}
 
 	@Override
 	public Usuario autenticar(String email, String senha) {
-		Optional<Usuario> usuario = usuarioRepository.findByEmail(email);
-		
-		if(!usuario.isPresent()) {
-			throw new ErroAutenticacao("Usuário não encontrado");
-		}
-		
-		if(!usuario.get().getSenha().equals(senha)) {
-			throw new ErroAutenticacao("Senha inválida");
+		return aguardar(autenticarAsync(email, senha));
+	}
+	
+	@Override
+	public CompletableFuture<Usuario> autenticarAsync(String email, String senha) {
+		Usuario usuario;
+		try {
+			usuario = buscarPorEmail(email);
+		} catch (ErroAutenticacao e) {
+			return CompletableFuture.failedFuture(e);
 		}
 		
-		return usuario.get();
+		String senhaGravada = usuario.getSenha();
+		return senhaService.conferir(senha, senhaGravada).thenCompose(confere -> {
+			if(!confere) {
+				throw new ErroAutenticacao("Senha inválida");
+			}
+			
+			if(!senhaService.precisaRecodificar(senhaGravada)) {
+				return CompletableFuture.completedFuture(usuario);
+			}
+			return senhaService.codificar(senha).thenApply(novaSenha -> {
+				recodificarSenha(usuario, senhaGravada, novaSenha);
+				return usuario;
+			});
+		});
 	}
 
+	/**
+	 * Sem transação própria: o hash é calculado antes de gravar, sem manter uma
+	 * conexão do pool presa durante o cálculo.
+	 */
 	@Override
-	@Transactional
+	@Caching(evict = {
+			@CacheEvict(cacheNames = "usuarios", key = "#result.id"),
+			@CacheEvict(cacheNames = "usuariosPorEmail", key = "#usuario.email", condition = "#usuario.email != null"),
+			@CacheEvict(cacheNames = AutenticacaoConfig.USUARIOS_INEXISTENTES, key = "#usuario.email", condition = "#usuario.email != null")
+	})
 	public Usuario salvarUsuario(Usuario usuario) {
 		validarEmail(usuario.getEmail());
+		if(usuario.getSenha() != null) {
+			usuario.setSenha(aguardar(senhaService.codificar(usuario.getSenha())));
+		}
 		return usuarioRepository.save(usuario);
 	}
 
@@ -54,8 +92,60 @@ public class UsuarioServiceImpl implements UsuarioService{
 	}
 
 	@Override
+	@Cacheable(cacheNames = "usuarios", key = "#id", unless = "#result == null")
 	public Optional<Usuario> obterPorId(Long id) {
 		return usuarioRepository.findById(id);
 	}
+	
+	@Override
+	public Usuario obterReferencia(Long id) {
+		return usuarioRepository.getById(id);
+	}
+	
+	private Usuario buscarPorEmail(String email) {
+		Cache inexistentes = cacheManager.getCache(AutenticacaoConfig.USUARIOS_INEXISTENTES);
+		if(email == null || (inexistentes != null && inexistentes.get(email) != null)) {
+			throw new ErroAutenticacao("Usuário não encontrado");
+		}
+		
+		Optional<Usuario> usuario = usuarioRepository.findByEmail(email);
+		if(!usuario.isPresent()) {
+			if(inexistentes != null) {
+				inexistentes.put(email, Boolean.TRUE);
+			}
+			throw new ErroAutenticacao("Usuário não encontrado");
+		}
+		return usuario.get();
+	}
+	
+	/**
+	 * Grava o hash no formato atual da senha que acabou de ser conferida. O
+	 * usuário em memória pode estar no cache e ser lido por outras threads,
+	 * por isso não é alterado: só sai do cache.
+	 */
+	private void recodificarSenha(Usuario usuario, String senhaGravada, String novaSenha) {
+		if(usuarioRepository.atualizarSenha(usuario.getId(), senhaGravada, novaSenha) > 0) {
+			evict("usuarios", usuario.getId());
+			evict("usuariosPorEmail", usuario.getEmail());
+		}
+	}
+	
+	private static <T> T aguardar(CompletableFuture<T> resultado) {
+		try {
+			return resultado.join();
+		} catch (CompletionException e) {
+			if(e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+	
+	private void evict(String nome, Object chave) {
+		Cache cache = cacheManager.getCache(nome);
+		if(cache != null && chave != null) {
+			cache.evict(chave);
+		}
+	}
 
 }
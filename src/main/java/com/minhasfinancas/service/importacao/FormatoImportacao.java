@@ -0,0 +1,7 @@
+package com.minhasfinancas.service.importacao;
+
+public enum FormatoImportacao {
+	CSV,
+	OFX,
+	JSONL
+}
@@ -0,0 +1,91 @@
+package com.minhasfinancas.service.importacao;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.minhasfinancas.model.entity.Lancamento;
+import com.minhasfinancas.model.enums.TipoLancamento;
+
+/**
+ * Lê linhas no formato {@code descricao;mes;ano;valor;tipo}. Um cabeçalho
+ * com esses nomes na primeira linha é ignorado, e o valor aceita vírgula
+ * como separador decimal.
+ */
+public class LeitorCsv implements LeitorLancamentos {
+
+	private static final char SEPARADOR = ';';
+	
+	private final BufferedReader reader;
+	
+	private int linha;
+
+	public LeitorCsv(BufferedReader reader) {
+		this.reader = reader;
+	}
+
+	@Override
+	public RegistroImportado proximo() throws IOException {
+		String conteudo;
+		while((conteudo = reader.readLine()) != null) {
+			linha++;
+			if(conteudo.trim().isEmpty() || (linha == 1 && conteudo.toLowerCase().startsWith("descricao"))) {
+				continue;
+			}
+			return interpretar(conteudo);
+		}
+		return null;
+	}
+	
+	private RegistroImportado interpretar(String conteudo) {
+		List<String> campos = separarCampos(conteudo);
+		if(campos.size() != 5) {
+			return RegistroImportado.invalido(linha, "Informe os campos descricao;mes;ano;valor;tipo.");
+		}
+		
+		try {
+			Lancamento lancamento = Lancamento.builder()
+					.descricao(campos.get(0))
+					.mes(Integer.valueOf(campos.get(1)))
+					.ano(Integer.valueOf(campos.get(2)))
+					.valor(new BigDecimal(campos.get(3).replace(',', '.')))
+					.tipo(TipoLancamento.valueOf(campos.get(4).toUpperCase()))
+					.build();
+			return RegistroImportado.lido(linha, lancamento);
+		} catch (IllegalArgumentException e) {
+			return RegistroImportado.invalido(linha, "Não foi possível interpretar a linha: " + conteudo);
+		}
+	}
+	
+	/**
+	 * Separa os campos respeitando aspas, onde o separador pode aparecer
+	 * dentro do texto e aspas duplicadas representam uma aspa literal.
+	 */
+	private static List<String> separarCampos(String conteudo) {
+		List<String> campos = new ArrayList<>();
+		StringBuilder campo = new StringBuilder();
+		boolean entreAspas = false;
+		
+		for(int i = 0; i < conteudo.length(); i++) {
+			char caractere = conteudo.charAt(i);
+			if(caractere == '"') {
+				if(entreAspas && i + 1 < conteudo.length() && conteudo.charAt(i + 1) == '"') {
+					campo.append('"');
+					i++;
+				} else {
+					entreAspas = !entreAspas;
+				}
+			} else if(caractere == SEPARADOR && !entreAspas) {
+				campos.add(campo.toString().trim());
+				campo.setLength(0);
+			} else {
+				campo.append(caractere);
+			}
+		}
+		
+		campos.add(campo.toString().trim());
+		return campos;
+	}
+}
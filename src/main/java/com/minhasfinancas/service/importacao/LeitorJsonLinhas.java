@@ -0,0 +1,55 @@
+package com.minhasfinancas.service.importacao;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minhasfinancas.model.entity.Lancamento;
+import com.minhasfinancas.model.enums.TipoLancamento;
+
+/**
+ * Lê um objeto JSON por linha, com os mesmos campos de {@code LancamentoDto}.
+ */
+public class LeitorJsonLinhas implements LeitorLancamentos {
+
+	private final BufferedReader reader;
+	
+	private final ObjectMapper objectMapper;
+	
+	private int linha;
+
+	public LeitorJsonLinhas(BufferedReader reader, ObjectMapper objectMapper) {
+		this.reader = reader;
+		this.objectMapper = objectMapper;
+	}
+
+	@Override
+	public RegistroImportado proximo() throws IOException {
+		String conteudo;
+		while((conteudo = reader.readLine()) != null) {
+			linha++;
+			if(!conteudo.trim().isEmpty()) {
+				return interpretar(conteudo);
+			}
+		}
+		return null;
+	}
+	
+	private RegistroImportado interpretar(String conteudo) {
+		try {
+			JsonNode json = objectMapper.readTree(conteudo);
+			Lancamento lancamento = Lancamento.builder()
+					.descricao(json.hasNonNull("descricao") ? json.get("descricao").asText() : null)
+					.mes(json.hasNonNull("mes") ? json.get("mes").asInt() : null)
+					.ano(json.hasNonNull("ano") ? json.get("ano").asInt() : null)
+					.valor(json.hasNonNull("valor") ? json.get("valor").decimalValue() : null)
+					.tipo(json.hasNonNull("tipo") ? TipoLancamento.valueOf(json.get("tipo").asText().toUpperCase()) : null)
+					.build();
+			return RegistroImportado.lido(linha, lancamento);
+		} catch (JsonProcessingException | IllegalArgumentException e) {
+			return RegistroImportado.invalido(linha, "Não foi possível interpretar a linha: " + conteudo);
+		}
+	}
+}
@@ -0,0 +1,11 @@
+package com.minhasfinancas.service.importacao;
+
+import java.io.IOException;
+
+public interface LeitorLancamentos {
+
+	/**
+	 * Lê o próximo registro do arquivo, ou retorna {@code null} ao final dele.
+	 */
+	RegistroImportado proximo() throws IOException;
+}
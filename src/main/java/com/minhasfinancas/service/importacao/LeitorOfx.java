@@ -0,0 +1,95 @@
+package com.minhasfinancas.service.importacao;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.minhasfinancas.model.entity.Lancamento;
+import com.minhasfinancas.model.enums.TipoLancamento;
+
+/**
+ * Lê as transações ({@code <STMTTRN>}) de um extrato OFX, tanto no formato
+ * SGML quanto XML. Valores negativos viram despesas e positivos receitas.
+ * Como o OFX não tem uma transação por linha, a "linha" informada nos
+ * registros é a posição da transação no extrato.
+ */
+public class LeitorOfx implements LeitorLancamentos {
+
+	private final BufferedReader reader;
+	
+	private final Deque<String> marcacoes = new ArrayDeque<>();
+	
+	private int transacao;
+
+	public LeitorOfx(BufferedReader reader) {
+		this.reader = reader;
+	}
+
+	@Override
+	public RegistroImportado proximo() throws IOException {
+		Map<String, String> campos = null;
+		
+		String marcacao;
+		while((marcacao = proximaMarcacao()) != null) {
+			int fim = marcacao.indexOf('>');
+			if(fim < 0) {
+				continue;
+			}
+			
+			String nome = marcacao.substring(0, fim).trim().toUpperCase();
+			String valor = marcacao.substring(fim + 1).trim();
+			
+			if(nome.equals("STMTTRN")) {
+				transacao++;
+				campos = new HashMap<>();
+			} else if(nome.equals("/STMTTRN") && campos != null) {
+				return interpretar(campos);
+			} else if(campos != null && !nome.startsWith("/")) {
+				campos.put(nome, valor);
+			}
+		}
+		
+		return campos == null ? null : interpretar(campos);
+	}
+	
+	private String proximaMarcacao() throws IOException {
+		while(marcacoes.isEmpty()) {
+			String conteudo = reader.readLine();
+			if(conteudo == null) {
+				return null;
+			}
+			for(String marcacao : conteudo.split("<")) {
+				if(!marcacao.trim().isEmpty()) {
+					marcacoes.add(marcacao);
+				}
+			}
+		}
+		return marcacoes.poll();
+	}
+	
+	private RegistroImportado interpretar(Map<String, String> campos) {
+		String data = campos.get("DTPOSTED");
+		String quantia = campos.get("TRNAMT");
+		if(data == null || data.length() < 8 || quantia == null) {
+			return RegistroImportado.invalido(transacao, "Transação sem data (DTPOSTED) ou valor (TRNAMT).");
+		}
+		
+		try {
+			BigDecimal valor = new BigDecimal(quantia.replace(',', '.'));
+			Lancamento lancamento = Lancamento.builder()
+					.descricao(campos.getOrDefault("MEMO", campos.get("NAME")))
+					.ano(Integer.valueOf(data.substring(0, 4)))
+					.mes(Integer.valueOf(data.substring(4, 6)))
+					.valor(valor.abs())
+					.tipo(valor.signum() < 0 ? TipoLancamento.DESPESA : TipoLancamento.RECEITA)
+					.build();
+			return RegistroImportado.lido(transacao, lancamento);
+		} catch (NumberFormatException e) {
+			return RegistroImportado.invalido(transacao, "Não foi possível interpretar a data ou o valor da transação.");
+		}
+	}
+}
@@ -0,0 +1,25 @@
+package com.minhasfinancas.service.importacao;
+
+import com.minhasfinancas.model.entity.Lancamento;
+
+import lombok.Value;
+
+/**
+ * Um registro lido do arquivo de importação: ou o lançamento
+ * interpretado, ou o motivo pelo qual não foi possível interpretá-lo.
+ */
+@Value
+public class RegistroImportado {
+
+	int linha;
+	Lancamento lancamento;
+	String erro;
+	
+	public static RegistroImportado lido(int linha, Lancamento lancamento) {
+		return new RegistroImportado(linha, lancamento, null);
+	}
+	
+	public static RegistroImportado invalido(int linha, String erro) {
+		return new RegistroImportado(linha, null, erro);
+	}
+}
@@ -0,0 +1,41 @@
+package com.minhasfinancas.service.importacao;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Value;
+
+/**
+ * Quantidade de lançamentos importados e os erros por linha. Apenas os
+ * primeiros {@value #MAXIMO_ERROS_DETALHADOS} erros são detalhados, para
+ * que um arquivo inteiro inválido não gere uma resposta do mesmo tamanho.
+ */
+@Getter
+public class ResultadoImportacao {
+
+	public static final int MAXIMO_ERROS_DETALHADOS = 1000;
+	
+	private int importados;
+	
+	private int totalErros;
+	
+	private final List<Erro> erros = new ArrayList<>();
+	
+	public void somarImportados(int quantidade) {
+		importados += quantidade;
+	}
+	
+	public void adicionarErro(int linha, String mensagem) {
+		totalErros++;
+		if(erros.size() < MAXIMO_ERROS_DETALHADOS) {
+			erros.add(new Erro(linha, mensagem));
+		}
+	}
+	
+	@Value
+	public static class Erro {
+		int linha;
+		String mensagem;
+	}
+}
@@ -0,0 +1,3 @@
+-- a senha passa a ser gravada como hash BCrypt com prefixo ({bcrypt}$2a$...);
+-- as senhas já gravadas em texto puro são convertidas no próximo login
+alter table financas.usuario alter column senha set data type varchar(100);
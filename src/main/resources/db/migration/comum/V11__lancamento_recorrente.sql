@@ -0,0 +1,25 @@
+-- modelos de lançamentos que se repetem todo mês; as competências são
+-- gravadas como ano * 100 + mês (202205) para que os intervalos sejam
+-- comparados direto no banco pela geração em lote
+create table financas.lancamento_recorrente (
+	id bigint generated by default as identity primary key,
+	id_usuario bigint not null references financas.usuario (id),
+	descricao varchar(100) not null,
+	valor numeric(16,2) not null,
+	tipo varchar(20) not null,
+	competencia_inicial integer not null,
+	competencia_final integer,
+	ultima_competencia_gerada integer,
+	data_cadastro date default current_date
+);
+
+create index idx_lancamento_recorrente_usuario on financas.lancamento_recorrente (id_usuario);
+
+-- ponto de retomada da geração de cada competência: os usuários com id
+-- menor que ultimo_usuario já tiveram seus lançamentos gerados
+create table financas.geracao_recorrencia (
+	competencia integer primary key,
+	ultimo_usuario bigint not null,
+	concluida boolean not null default false,
+	atualizada_em timestamp
+);
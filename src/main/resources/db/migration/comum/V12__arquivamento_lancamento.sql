@@ -0,0 +1,15 @@
+-- anos encerrados saem de financas.lancamento para tabelas próprias neste
+-- schema (financas_arquivo.lancamento_2019, ...), fora das consultas do dia a dia
+create schema if not exists financas_arquivo;
+
+-- totais por usuário, ano, tipo e status dos lançamentos arquivados, para que
+-- os anos arquivados continuem contando no saldo
+create table financas.total_anual_arquivado (
+	id_usuario bigint not null references financas.usuario (id),
+	ano integer not null,
+	tipo varchar(20) not null,
+	status varchar(20) not null,
+	total numeric(16,2) not null default 0,
+	quantidade bigint not null default 0,
+	primary key (id_usuario, ano, tipo, status)
+);
@@ -0,0 +1,25 @@
+-- outbox das alterações de lançamento, gravado na mesma transação da
+-- alteração; a posição é atribuída na publicação, em ordem, e é o cursor de
+-- quem consome os eventos. Sem chave estrangeira: é um registro histórico.
+create sequence financas.evento_lancamento_seq start with 1 increment by 1;
+
+create table financas.evento_lancamento (
+	id bigint primary key,
+	posicao bigint,
+	id_lancamento bigint not null,
+	id_usuario bigint not null,
+	operacao varchar(20) not null,
+	descricao varchar(100),
+	mes integer,
+	ano integer,
+	valor numeric(16,2),
+	tipo varchar(20),
+	status varchar(20),
+	versao bigint,
+	registrado_em timestamp not null,
+	publicado_em timestamp
+);
+
+create unique index idx_evento_lancamento_posicao on financas.evento_lancamento (posicao);
+
+create index idx_evento_lancamento_usuario on financas.evento_lancamento (id_usuario, posicao);
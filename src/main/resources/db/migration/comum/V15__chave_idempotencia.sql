@@ -0,0 +1,14 @@
+-- respostas das requisições com Idempotency-Key, usadas só com o perfil
+-- idempotencia-banco; status e corpo ficam nulos enquanto uma importação
+-- com a chave reservada está em andamento
+create table financas.chave_idempotencia (
+	id_usuario bigint not null,
+	chave varchar(100) not null,
+	impressao varchar(64) not null,
+	status integer,
+	corpo text,
+	criada_em timestamp not null,
+	primary key (id_usuario, chave)
+);
+
+create index idx_chave_idempotencia_criada_em on financas.chave_idempotencia (criada_em);
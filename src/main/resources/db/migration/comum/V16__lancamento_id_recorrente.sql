@@ -0,0 +1,4 @@
+-- modelo que gerou o lançamento na geração em lote, para que os eventos da
+-- geração sejam registrados só para as linhas inseridas por ela; nulo nos
+-- lançamentos criados pelo usuário
+alter table financas.lancamento add column id_recorrente bigint;
@@ -0,0 +1,21 @@
+create schema if not exists financas;
+
+create table financas.usuario (
+	id bigint generated by default as identity primary key,
+	nome varchar(150),
+	email varchar(100),
+	senha varchar(20),
+	data_cadastro date default current_date
+);
+
+create table financas.lancamento (
+	id bigint generated by default as identity primary key,
+	descricao varchar(100),
+	mes integer,
+	ano integer,
+	valor numeric(16,2),
+	tipo varchar(20),
+	status varchar(20),
+	id_usuario bigint references financas.usuario (id),
+	data_cadastro date default current_date
+);
@@ -0,0 +1,5 @@
+create index idx_lancamento_usuario_ano_mes on financas.lancamento (id_usuario, ano, mes);
+
+create index idx_lancamento_usuario_tipo_status on financas.lancamento (id_usuario, tipo, status);
+
+create unique index uk_usuario_email on financas.usuario (email);
@@ -0,0 +1,3 @@
+-- ids de lançamento passam a vir de uma sequência para que o Hibernate
+-- possa agrupar os inserts em lote (o que não é possível com identity)
+create sequence financas.lancamento_seq start with 1 increment by 50;
@@ -0,0 +1,19 @@
+-- totais por usuário, competência, tipo e status mantidos a cada escrita de
+-- lançamento, para que o relatório mensal não precise varrer os lançamentos
+create table financas.resumo_mensal (
+	id_usuario bigint not null references financas.usuario (id),
+	ano integer not null,
+	mes integer not null,
+	tipo varchar(20) not null,
+	status varchar(20) not null,
+	total numeric(16,2) not null default 0,
+	quantidade bigint not null default 0,
+	primary key (id_usuario, ano, mes, tipo, status)
+);
+
+insert into financas.resumo_mensal (id_usuario, ano, mes, tipo, status, total, quantidade)
+select id_usuario, ano, mes, tipo, status, sum(valor), count(*)
+from financas.lancamento
+where id_usuario is not null and ano is not null and mes is not null
+	and tipo is not null and status is not null and valor is not null
+group by id_usuario, ano, mes, tipo, status;
@@ -0,0 +1,5 @@
+-- versão para controle de concorrência otimista: cada UPDATE confere e
+-- incrementa a versão lida, em vez de sobrescrever a escrita de outro cliente
+alter table financas.lancamento add column versao bigint not null default 0;
+
+alter table financas.usuario add column versao bigint not null default 0;
@@ -0,0 +1,67 @@
+-- financas.lancamento passa a ser particionada por ano (PostgreSQL 12+): consultas
+-- com o ano no filtro leem só as partições do período e um ano encerrado pode ser
+-- arquivado desanexando a sua partição, sem mover linha a linha
+
+-- a chave de partição faz parte da chave primária e não pode ser nula; a competência
+-- de um lançamento sem ano não é inventada aqui, cabe a quem migra corrigi-la antes
+do $$
+declare
+	sem_ano bigint;
+begin
+	select count(*) into sem_ano from financas.lancamento where ano is null;
+	if sem_ano > 0 then
+		raise exception 'Há % lançamento(s) sem ano em financas.lancamento; informe o ano deles antes de particionar a tabela.',
+			sem_ano;
+	end if;
+end $$;
+
+alter table financas.lancamento rename to lancamento_sem_particao;
+
+create table financas.lancamento (
+	id bigint not null default nextval('financas.lancamento_seq'),
+	descricao varchar(100),
+	mes integer,
+	ano integer not null,
+	valor numeric(16,2),
+	tipo varchar(20),
+	status varchar(20),
+	id_usuario bigint references financas.usuario (id),
+	data_cadastro date default current_date,
+	versao bigint not null default 0,
+	descricao_tsv tsvector
+		generated always as (to_tsvector('portuguese', financas.sem_acentos(coalesce(descricao, '')))) stored,
+	primary key (id, ano)
+) partition by range (ano);
+
+-- anos sem partição própria (lançamentos fora do período esperado) caem aqui;
+-- o job de arquivamento cria com antecedência as partições do ano atual e do próximo
+create table financas.lancamento_padrao partition of financas.lancamento default;
+
+do $$
+declare
+	ano_particao integer;
+begin
+	for ano_particao in
+		select ano from financas.lancamento_sem_particao
+		union
+		select cast(extract(year from current_date) as integer) + adicional from generate_series(0, 1) adicional
+	loop
+		execute format('create table financas.%I partition of financas.lancamento for values from (%s) to (%s)',
+			'lancamento_' || ano_particao, ano_particao, ano_particao + 1);
+	end loop;
+end $$;
+
+insert into financas.lancamento (id, descricao, mes, ano, valor, tipo, status, id_usuario, data_cadastro, versao)
+select id, descricao, mes, ano, valor, tipo, status, id_usuario, data_cadastro, versao
+from financas.lancamento_sem_particao;
+
+drop table financas.lancamento_sem_particao;
+
+-- criados na tabela particionada, os índices valem para todas as partições, inclusive as futuras
+create index idx_lancamento_usuario_ano_mes on financas.lancamento (id_usuario, ano, mes);
+
+create index idx_lancamento_usuario_tipo_status on financas.lancamento (id_usuario, tipo, status);
+
+create index idx_lancamento_descricao_trgm on financas.lancamento using gin (lower(descricao) gin_trgm_ops);
+
+create index idx_lancamento_usuario_descricao_tsv on financas.lancamento using gin (id_usuario, descricao_tsv);
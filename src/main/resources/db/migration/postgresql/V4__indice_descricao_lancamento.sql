@@ -0,0 +1,4 @@
+-- busca por trecho da descrição (lower(descricao) like '%x%') usando trigramas
+create extension if not exists pg_trgm;
+
+create index idx_lancamento_descricao_trgm on financas.lancamento using gin (lower(descricao) gin_trgm_ops);
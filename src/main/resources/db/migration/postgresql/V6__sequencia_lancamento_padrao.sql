@@ -0,0 +1,6 @@
+-- com o otimizador pooled do Hibernate, cada valor da sequência reserva os 50 ids anteriores a ele
+select setval('financas.lancamento_seq', coalesce((select max(id) from financas.lancamento), 0) + 50);
+
+alter table financas.lancamento alter column id drop identity if exists;
+
+alter table financas.lancamento alter column id set default nextval('financas.lancamento_seq');
@@ -0,0 +1,17 @@
+-- busca textual na descrição: vetor em português, sem acentos, mantido pelo próprio banco (PostgreSQL 12+)
+create extension if not exists unaccent;
+
+create extension if not exists btree_gin;
+
+-- unaccent() não é imutável e por isso não pode ser usada em coluna gerada ou índice;
+-- o search_path fixo resolve a extensão esteja ela em financas (schema padrão do Flyway) ou em public
+create or replace function financas.sem_acentos(texto text) returns text
+	language sql immutable parallel safe strict
+	set search_path = financas, public
+	as $$ select unaccent('unaccent'::regdictionary, texto) $$;
+
+alter table financas.lancamento add column descricao_tsv tsvector
+	generated always as (to_tsvector('portuguese', financas.sem_acentos(coalesce(descricao, '')))) stored;
+
+-- a busca é sempre por usuário: id_usuario entra no mesmo índice GIN (btree_gin)
+create index idx_lancamento_usuario_descricao_tsv on financas.lancamento using gin (id_usuario, descricao_tsv);
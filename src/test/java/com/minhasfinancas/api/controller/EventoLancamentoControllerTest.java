@@ -0,0 +1,92 @@
+package com.minhasfinancas.api.controller;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.minhasfinancas.exceptions.CursorExpiradoException;
+import com.minhasfinancas.model.entity.EventoLancamento;
+import com.minhasfinancas.model.enums.OperacaoLancamento;
+import com.minhasfinancas.model.enums.StatusLancamento;
+import com.minhasfinancas.model.enums.TipoLancamento;
+import com.minhasfinancas.service.EventoLancamentoService;
+import com.minhasfinancas.service.PaginaEventos;
+import com.minhasfinancas.service.TokenService;
+
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@WebMvcTest(controllers = EventoLancamentoController.class)
+@AutoConfigureMockMvc
+public class EventoLancamentoControllerTest {
+	
+	static final String API = "/api/lancamentos/eventos";
+	
+	static final String TOKEN = "Bearer token-do-usuario-1";
+	
+	@Autowired
+	MockMvc mvc;
+	
+	@MockBean
+	EventoLancamentoService service;
+	
+	@MockBean
+	TokenService tokenService;
+	
+	@Before
+	public void autenticar() {
+		Mockito.when(tokenService.validar("token-do-usuario-1")).thenReturn(Optional.of(1l));
+	}
+	
+	@Test
+	public void deveRetornarOsEventosDoUsuarioAutenticadoAposOCursor() throws Exception {
+		//cenario
+		EventoLancamento evento = EventoLancamento.builder()
+				.id(7l).posicao(42l).operacao(OperacaoLancamento.CRIADO).idLancamento(3l).idUsuario(1l)
+				.descricao("Mercado").mes(5).ano(2022).valor(BigDecimal.TEN)
+				.tipo(TipoLancamento.DESPESA).status(StatusLancamento.PENDENTE).versao(0l)
+				.build();
+		Mockito.when(service.buscar(1l, 41l, 100)).thenReturn(new PaginaEventos(Collections.singletonList(evento), 50));
+		
+		//execucao e verificacao
+		mvc.perform(MockMvcRequestBuilders.get(API).header(HttpHeaders.AUTHORIZATION, TOKEN).param("cursor", "41"))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("conteudo[0].posicao").value(42))
+			.andExpect(MockMvcResultMatchers.jsonPath("conteudo[0].operacao").value("CRIADO"))
+			.andExpect(MockMvcResultMatchers.jsonPath("conteudo[0].lancamento").value(3))
+			.andExpect(MockMvcResultMatchers.jsonPath("conteudo[0].tipo").value("DESPESA"))
+			.andExpect(MockMvcResultMatchers.jsonPath("proximoCursor").value(50));
+	}
+	
+	@Test
+	public void deveRetornarGoneQuandoOCursorExpirou() throws Exception {
+		//cenario
+		Mockito.when(service.buscar(1l, 1l, 100)).thenThrow(new CursorExpiradoException("Cursor expirado"));
+		
+		//execucao e verificacao
+		mvc.perform(MockMvcRequestBuilders.get(API).header(HttpHeaders.AUTHORIZATION, TOKEN).param("cursor", "1"))
+			.andExpect(MockMvcResultMatchers.status().isGone());
+	}
+	
+	@Test
+	public void deveRecusarUmTamanhoDePaginaForaDoLimite() throws Exception {
+		//execucao e verificacao
+		mvc.perform(MockMvcRequestBuilders.get(API).header(HttpHeaders.AUTHORIZATION, TOKEN).param("tamanho", "1001"))
+			.andExpect(MockMvcResultMatchers.status().isBadRequest());
+		Mockito.verifyNoInteractions(service);
+	}
+}
@@ -0,0 +1,171 @@
+package com.minhasfinancas.api.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.minhasfinancas.model.entity.Lancamento;
+import com.minhasfinancas.model.entity.Usuario;
+import com.minhasfinancas.model.repository.LancamentoRepository;
+import com.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import com.minhasfinancas.model.repository.UsuarioRepository;
+import com.minhasfinancas.model.repository.UsuarioRepositoryTest;
+import com.minhasfinancas.service.TokenService;
+
+/**
+ * Quantidade de comandos SQL por requisição, medida pelas estatísticas do
+ * Hibernate: não deve crescer com o número de lançamentos retornados.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+public class LancamentoControllerConsultasTest {
+	
+	static final String API = "/api/lancamentos";
+	
+	static final int QUANTIDADE = 20;
+
+	@Autowired
+	MockMvc mvc;
+	
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	
+	@Autowired
+	LancamentoRepository lancamentoRepository;
+	
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	@Autowired
+	TransactionTemplate transactionTemplate;
+	
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+	
+	@Autowired
+	TokenService tokenService;
+	
+	Statistics estatisticas;
+	
+	Usuario usuario;
+	
+	String autorizacao;
+	
+	@Before
+	public void setUp() {
+		usuario = usuarioRepository.save(UsuarioRepositoryTest.criarUsuario());
+		autorizacao = "Bearer " + tokenService.emitir(usuario.getId()).getToken();
+		
+		List<Lancamento> lancamentos = new ArrayList<>();
+		for(int i = 0; i < QUANTIDADE; i++) {
+			Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+			lancamento.setUsuario(usuario);
+			lancamentos.add(lancamento);
+		}
+		lancamentoRepository.saveAll(lancamentos);
+		
+		estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		estatisticas.clear();
+	}
+	
+	@After
+	public void tearDown() {
+		jdbcTemplate.update("delete from financas.resumo_mensal where id_usuario = ?", usuario.getId());
+		jdbcTemplate.update("delete from financas.saldo_usuario where id_usuario = ?", usuario.getId());
+		jdbcTemplate.update("delete from financas.lancamento where id_usuario = ?", usuario.getId());
+		jdbcTemplate.update("delete from financas.usuario where id = ?", usuario.getId());
+	}
+	
+	@Test
+	public void deveBuscarOsLancamentosComUmaUnicaConsulta() throws Exception {
+		//execucao
+		mvc.perform(MockMvcRequestBuilders.get(API).header(HttpHeaders.AUTHORIZATION, autorizacao))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("length()").value(QUANTIDADE))
+			.andExpect(MockMvcResultMatchers.jsonPath("[0].usuario").value(usuario.getId()));
+		
+		//verificacao
+		Assertions.assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(1);
+		Assertions.assertThat(estatisticas.getEntityLoadCount()).isEqualTo(QUANTIDADE);
+	}
+	
+	@Test
+	public void devePaginarSemCarregarOUsuario() throws Exception {
+		//execucao
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/pagina"))
+				.header(HttpHeaders.AUTHORIZATION, autorizacao)
+				.param("tamanho", "10"))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("conteudo.length()").value(10));
+		
+		//verificacao
+		Assertions.assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(1);
+		Assertions.assertThat(estatisticas.getEntityStatistics(Usuario.class.getName()).getLoadCount()).isZero();
+	}
+	
+	@Test
+	public void devePercorrerOsLancamentosComUmaUnicaConsulta() {
+		//execucao
+		List<Lancamento> percorridos = new ArrayList<>();
+		transactionTemplate.executeWithoutResult(status ->
+				lancamentoRepository.percorrerPorUsuario(usuario.getId(), percorridos::add));
+		
+		//verificacao
+		Assertions.assertThat(percorridos).hasSize(QUANTIDADE);
+		Assertions.assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(1);
+	}
+	
+	@Test
+	public void deveSalvarUmLancamentoSemConsultarOUsuario() throws Exception {
+		//cenario
+		String json = "{\"descricao\": \"Luz\", \"mes\": 3, \"ano\": 2022, \"valor\": 120.5, "
+				+ "\"tipo\": \"DESPESA\"}";
+		
+		//execucao
+		mvc.perform(MockMvcRequestBuilders.post(API).header(HttpHeaders.AUTHORIZATION, autorizacao)
+				.contentType(MediaType.APPLICATION_JSON).content(json))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("usuario").value(usuario.getId()));
+		
+		//verificacao
+		Assertions.assertThat(estatisticas.getEntityStatistics(Usuario.class.getName()).getLoadCount()).isZero();
+		Assertions.assertThat(estatisticas.getEntityStatistics(Usuario.class.getName()).getFetchCount()).isZero();
+	}
+	
+	@Test
+	public void deveRecusarLancamentoDeUsuarioInexistente() throws Exception {
+		//cenario
+		String json = "{\"descricao\": \"Luz\", \"mes\": 3, \"ano\": 2022, \"valor\": 120.5, "
+				+ "\"tipo\": \"DESPESA\"}";
+		String tokenDeUsuarioExcluido = "Bearer " + tokenService.emitir(usuario.getId() + 1000).getToken();
+		
+		//execucao e verificacao
+		mvc.perform(MockMvcRequestBuilders.post(API).header(HttpHeaders.AUTHORIZATION, tokenDeUsuarioExcluido)
+				.contentType(MediaType.APPLICATION_JSON).content(json))
+			.andExpect(MockMvcResultMatchers.status().isBadRequest())
+			.andExpect(MockMvcResultMatchers.content().string("Usuário não encontrado para o Id informado"));
+	}
+}
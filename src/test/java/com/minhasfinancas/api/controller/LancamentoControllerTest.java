@@ -0,0 +1,592 @@
+package com.minhasfinancas.api.controller;
+
+import java.io.OutputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Optional;
+
+import org.assertj.core.api.Assertions;
+import org.hamcrest.Matchers;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.minhasfinancas.api.idempotencia.RegistroIdempotencia;
+import com.minhasfinancas.model.entity.Lancamento;
+import com.minhasfinancas.model.entity.Usuario;
+import com.minhasfinancas.model.enums.StatusLancamento;
+import com.minhasfinancas.model.enums.TipoLancamento;
+import com.minhasfinancas.model.repository.LancamentoFiltro;
+import com.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import com.minhasfinancas.service.ExportacaoService;
+import com.minhasfinancas.service.FluxoMensal;
+import com.minhasfinancas.service.ImportacaoService;
+import com.minhasfinancas.service.LancamentoService;
+import com.minhasfinancas.service.ResultadoAtualizacaoStatus;
+import com.minhasfinancas.service.ResumoMensalService;
+import com.minhasfinancas.service.TokenService;
+import com.minhasfinancas.service.UsuarioService;
+import com.minhasfinancas.service.exportacao.FormatoExportacao;
+import com.minhasfinancas.service.importacao.FormatoImportacao;
+import com.minhasfinancas.service.importacao.ResultadoImportacao;
+
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@WebMvcTest(controllers = LancamentoController.class, properties = "minhasfinancas.lancamentos.pagina.tamanho-maximo=2")
+@AutoConfigureMockMvc
+@Import(RegistroIdempotencia.class)
+public class LancamentoControllerTest {
+	
+	static final String API = "/api/lancamentos";
+	
+	static final MediaType JSON = MediaType.APPLICATION_JSON;
+	
+	static final String TOKEN = "Bearer token-do-usuario-1";
+	
+	@Autowired
+	MockMvc mvc;
+	
+	@MockBean
+	LancamentoService service;
+	
+	@MockBean
+	UsuarioService usuarioService;
+	
+	@MockBean
+	ImportacaoService importacaoService;
+	
+	@MockBean
+	ExportacaoService exportacaoService;
+	
+	@MockBean
+	ResumoMensalService resumoMensalService;
+	
+	@MockBean
+	TokenService tokenService;
+	
+	@Before
+	public void autenticar() {
+		Mockito.when(tokenService.validar("token-do-usuario-1")).thenReturn(Optional.of(1l));
+	}
+	
+	@Test
+	public void deveRetornarNaoAutorizadoSemTokenDeAcesso() throws Exception {
+		mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", "1").accept(JSON))
+			.andExpect(MockMvcResultMatchers.status().isUnauthorized())
+			.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.WWW_AUTHENTICATE, "Bearer"));
+		
+		Mockito.verifyNoInteractions(service, usuarioService);
+	}
+	
+	@Test
+	public void deveRetornarNaoAutorizadoComTokenInvalido() throws Exception {
+		mvc.perform(MockMvcRequestBuilders.get(API).header(HttpHeaders.AUTHORIZATION, "Bearer adulterado").accept(JSON))
+			.andExpect(MockMvcResultMatchers.status().isUnauthorized());
+		
+		Mockito.verifyNoInteractions(service);
+	}
+	
+	@Test
+	public void naoDeveApagarLancamentoDeOutroUsuario() throws Exception {
+		//cenario
+		Lancamento lancamento = Lancamento.builder().id(7l).usuario(Usuario.builder().id(2l).build()).build();
+		Mockito.when(service.obterPorId(7l)).thenReturn(Optional.of(lancamento));
+		
+		//execucao e verificacao
+		mvc.perform(MockMvcRequestBuilders.delete(API.concat("/7")).header(HttpHeaders.AUTHORIZATION, TOKEN))
+			.andExpect(MockMvcResultMatchers.status().isBadRequest());
+		
+		Mockito.verify(service, Mockito.never()).apagar(Mockito.any(Lancamento.class));
+	}
+	
+	@Test
+	public void deveBuscarLancamentosComOsCriteriosInformados() throws Exception {
+		//cenario
+		Mockito.when(service.buscar(Mockito.any(LancamentoFiltro.class))).thenReturn(criarLancamentos(1l, 2l));
+		
+		//execucao
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API)
+								.header(HttpHeaders.AUTHORIZATION, TOKEN)
+								.param("valorMinimo", "10")
+								.param("valorMaximo", "100.50")
+								.param("dataInicial", "2022-01-01")
+								.param("dataFinal", "2022-06-30")
+								.param("tipo", "receita")
+								.param("status", "PENDENTE", "EFETIVADO")
+								.param("ordenacao", "valor:desc", "ano")
+								.accept(JSON);
+		
+		mvc.perform(request)
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("length()").value(2));
+		
+		//verificacao
+		ArgumentCaptor<LancamentoFiltro> filtro = ArgumentCaptor.forClass(LancamentoFiltro.class);
+		Mockito.verify(service).buscar(filtro.capture());
+		Assertions.assertThat(filtro.getValue().getIdUsuario()).isEqualTo(1l);
+		Assertions.assertThat(filtro.getValue().getValorMinimo()).isEqualByComparingTo("10");
+		Assertions.assertThat(filtro.getValue().getValorMaximo()).isEqualByComparingTo("100.50");
+		Assertions.assertThat(filtro.getValue().getDataCadastroInicial()).isEqualTo(LocalDate.of(2022, 1, 1));
+		Assertions.assertThat(filtro.getValue().getDataCadastroFinal()).isEqualTo(LocalDate.of(2022, 6, 30));
+		Assertions.assertThat(filtro.getValue().getTipos()).containsExactly(TipoLancamento.RECEITA);
+		Assertions.assertThat(filtro.getValue().getStatus()).containsExactlyInAnyOrder(StatusLancamento.PENDENTE, StatusLancamento.EFETIVADO);
+		Assertions.assertThat(filtro.getValue().getOrdenacao()).containsExactly(Sort.Order.desc("valor"), Sort.Order.asc("ano"));
+	}
+	
+	@Test
+	public void deveRetornarBadRequestAoBuscarComStatusInvalido() throws Exception {
+		//cenario
+		
+		//execucao e verificacao
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API)
+								.header(HttpHeaders.AUTHORIZATION, TOKEN)
+								.param("status", "ARQUIVADO")
+								.accept(JSON);
+		
+		mvc.perform(request)
+			.andExpect(MockMvcResultMatchers.status().isBadRequest());
+		Mockito.verify(service, Mockito.never()).buscar(Mockito.any(LancamentoFiltro.class));
+	}
+	
+	@Test
+	public void deveRetornarABuscaTextualComAProximaPagina() throws Exception {
+		//cenario
+		Mockito.when(service.buscarPorTexto(1l, "alimentação", 2, 3)).thenReturn(criarLancamentos(5l, 4l, 3l));
+		
+		//execucao e verificacao
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/busca"))
+								.header(HttpHeaders.AUTHORIZATION, TOKEN)
+								.param("texto", "alimentação")
+								.param("pagina", "1")
+								.param("tamanho", "2")
+								.accept(JSON);
+		
+		mvc.perform(request)
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("conteudo.length()").value(2))
+			.andExpect(MockMvcResultMatchers.jsonPath("pagina").value(1))
+			.andExpect(MockMvcResultMatchers.jsonPath("proximaPagina").value(2));
+	}
+	
+	@Test
+	public void deveRetornarUmaPaginaComOCursorDaProxima() throws Exception {
+		//cenario
+		Mockito.when(service.buscar(Mockito.any(LancamentoFiltro.class), Mockito.eq(10l), Mockito.eq(3)))
+			.thenReturn(criarLancamentos(11l, 12l, 13l));
+		
+		//execucao e verificacao
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/pagina"))
+								.header(HttpHeaders.AUTHORIZATION, TOKEN)
+								.param("cursor", "10")
+								.param("tamanho", "2")
+								.param("valorMinimo", "10")
+								.param("tipo", "despesa")
+								.param("status", "PENDENTE", "EFETIVADO")
+								.accept(JSON);
+		
+		mvc.perform(request)
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("conteudo.length()").value(2))
+			.andExpect(MockMvcResultMatchers.jsonPath("proximoCursor").value(12));
+		
+		ArgumentCaptor<LancamentoFiltro> filtro = ArgumentCaptor.forClass(LancamentoFiltro.class);
+		Mockito.verify(service).buscar(filtro.capture(), Mockito.eq(10l), Mockito.eq(3));
+		Assertions.assertThat(filtro.getValue().getIdUsuario()).isEqualTo(1l);
+		Assertions.assertThat(filtro.getValue().getValorMinimo()).isEqualByComparingTo("10");
+		Assertions.assertThat(filtro.getValue().getTipos()).containsExactly(TipoLancamento.DESPESA);
+		Assertions.assertThat(filtro.getValue().getStatus())
+			.containsExactlyInAnyOrder(StatusLancamento.PENDENTE, StatusLancamento.EFETIVADO);
+	}
+	
+	@Test
+	public void deveRetornarBadRequestQuandoOTamanhoDaPaginaExcederOLimite() throws Exception {
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/pagina"))
+								.header(HttpHeaders.AUTHORIZATION, TOKEN)
+								.param("tamanho", "3")
+								.accept(JSON);
+		
+		mvc.perform(request)
+			.andExpect(MockMvcResultMatchers.status().isBadRequest());
+	}
+	
+	@Test
+	public void deveTransmitirTodasAsPaginasNoFluxo() throws Exception {
+		//cenario
+		Mockito.when(service.buscar(Mockito.any(LancamentoFiltro.class), Mockito.isNull(), Mockito.eq(2)))
+			.thenReturn(criarLancamentos(1l, 2l));
+		Mockito.when(service.buscar(Mockito.any(LancamentoFiltro.class), Mockito.eq(2l), Mockito.eq(2)))
+			.thenReturn(criarLancamentos(3l));
+		
+		//execucao e verificacao
+		MvcResult resultado = mvc.perform(MockMvcRequestBuilders.get(API.concat("/stream")).header(HttpHeaders.AUTHORIZATION, TOKEN))
+			.andExpect(MockMvcResultMatchers.request().asyncStarted())
+			.andReturn();
+		
+		mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(3))
+			.andExpect(MockMvcResultMatchers.jsonPath("$[2].id").value(3));
+	}
+	
+	@Test
+	public void deveRecusarOFluxoComFiltroInvalidoAntesDeComecarAResposta() throws Exception {
+		//execucao e verificacao
+		MvcResult resultado = mvc.perform(MockMvcRequestBuilders.get(API.concat("/stream"))
+					.header(HttpHeaders.AUTHORIZATION, TOKEN)
+					.param("tipo", "TRANSFERENCIA"))
+			.andExpect(MockMvcResultMatchers.status().isBadRequest())
+			.andReturn();
+		
+		mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
+			.andExpect(MockMvcResultMatchers.content().string(Matchers.endsWith("TipoLancamento: TRANSFERENCIA")));
+		
+		Mockito.verify(service, Mockito.never()).buscar(Mockito.any(LancamentoFiltro.class), Mockito.any(), Mockito.anyInt());
+	}
+	
+	@Test
+	public void deveDevolverARespostaOriginalAoRepetirAIdempotencyKey() throws Exception {
+		//cenario
+		Mockito.when(usuarioService.obterReferencia(1l)).thenReturn(Usuario.builder().id(1l).build());
+		Mockito.when(service.salvar(Mockito.any(Lancamento.class))).thenAnswer(invocacao -> {
+			Lancamento lancamento = invocacao.getArgument(0);
+			lancamento.setId(9l);
+			return lancamento;
+		});
+		String json = "{\"descricao\":\"Mercado\",\"mes\":1,\"ano\":2022,\"valor\":10,\"tipo\":\"DESPESA\"}";
+		
+		//execucao e verificacao
+		for(int tentativa = 0; tentativa < 2; tentativa++) {
+			mvc.perform(MockMvcRequestBuilders.post(API).header(HttpHeaders.AUTHORIZATION, TOKEN)
+						.header(RegistroIdempotencia.CABECALHO, "chave-repetida").contentType(JSON).content(json))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.jsonPath("id").value(9));
+		}
+		
+		mvc.perform(MockMvcRequestBuilders.post(API).header(HttpHeaders.AUTHORIZATION, TOKEN)
+					.header(RegistroIdempotencia.CABECALHO, "chave-repetida").contentType(JSON).content(json))
+			.andExpect(MockMvcResultMatchers.header().string(RegistroIdempotencia.CABECALHO_REPETIDA, "true"));
+		Mockito.verify(service, Mockito.times(1)).salvar(Mockito.any(Lancamento.class));
+	}
+	
+	@Test
+	public void naoDeveAceitarAIdempotencyKeyDeOutraRequisicao() throws Exception {
+		//cenario
+		Mockito.when(usuarioService.obterReferencia(1l)).thenReturn(Usuario.builder().id(1l).build());
+		Mockito.when(service.salvar(Mockito.any(Lancamento.class))).thenAnswer(invocacao -> invocacao.getArgument(0));
+		mvc.perform(MockMvcRequestBuilders.post(API).header(HttpHeaders.AUTHORIZATION, TOKEN)
+					.header(RegistroIdempotencia.CABECALHO, "chave-reutilizada").contentType(JSON)
+					.content("{\"descricao\":\"Mercado\",\"valor\":10}"))
+			.andExpect(MockMvcResultMatchers.status().isOk());
+		
+		//execucao e verificacao
+		mvc.perform(MockMvcRequestBuilders.post(API).header(HttpHeaders.AUTHORIZATION, TOKEN)
+					.header(RegistroIdempotencia.CABECALHO, "chave-reutilizada").contentType(JSON)
+					.content("{\"descricao\":\"Farmácia\",\"valor\":10}"))
+			.andExpect(MockMvcResultMatchers.status().isUnprocessableEntity());
+		Mockito.verify(service, Mockito.times(1)).salvar(Mockito.any(Lancamento.class));
+	}
+	
+	@Test
+	public void deveImportarOCorpoDaRequisicaoNoFormatoInformado() throws Exception {
+		//cenario
+		Usuario usuario = Usuario.builder().id(1l).build();
+		ResultadoImportacao resultado = new ResultadoImportacao();
+		resultado.somarImportados(1);
+		resultado.adicionarErro(2, "Informe um Mês válido.");
+		
+		Mockito.when(usuarioService.obterReferencia(1l)).thenReturn(usuario);
+		Mockito.when(importacaoService.importar(Mockito.eq(usuario), Mockito.eq(FormatoImportacao.CSV), Mockito.any(Reader.class)))
+			.thenReturn(resultado);
+		
+		//execucao e verificacao
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(API.concat("/importar"))
+								.header(HttpHeaders.AUTHORIZATION, TOKEN)
+								.param("formato", "csv")
+								.contentType("text/csv")
+								.content("Salário;1;2022;5000;RECEITA\nMercado;13;2022;10;DESPESA\n");
+		
+		mvc.perform(request)
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("importados").value(1))
+			.andExpect(MockMvcResultMatchers.jsonPath("erros[0].linha").value(2))
+			.andExpect(MockMvcResultMatchers.jsonPath("erros[0].mensagem").value("Informe um Mês válido."));
+	}
+	
+	@Test
+	public void deveExigirOTamanhoParaImportarComChaveDeIdempotencia() throws Exception {
+		//execucao e verificacao
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(API.concat("/importar"))
+								.header(HttpHeaders.AUTHORIZATION, TOKEN)
+								.header(RegistroIdempotencia.CABECALHO, "importacao-sem-tamanho")
+								.param("formato", "csv")
+								.contentType("text/csv")
+								.content("Salário;1;2022;5000;RECEITA\n")
+								// um envio em partes não informa o tamanho
+								.with(requisicao -> {
+									requisicao.removeHeader(HttpHeaders.CONTENT_LENGTH);
+									return requisicao;
+								});
+		
+		mvc.perform(request)
+			.andExpect(MockMvcResultMatchers.status().isLengthRequired());
+		Mockito.verifyNoInteractions(importacaoService);
+	}
+	
+	@Test
+	public void deveImportarComChaveDeIdempotenciaQuandoOTamanhoForInformado() throws Exception {
+		//cenario
+		Usuario usuario = Usuario.builder().id(1l).build();
+		byte[] conteudo = "Salário;1;2022;5000;RECEITA\n".getBytes(StandardCharsets.UTF_8);
+		ResultadoImportacao resultado = new ResultadoImportacao();
+		resultado.somarImportados(1);
+		
+		Mockito.when(usuarioService.obterReferencia(1l)).thenReturn(usuario);
+		Mockito.when(importacaoService.importar(Mockito.eq(usuario), Mockito.eq(FormatoImportacao.CSV), Mockito.any(Reader.class)))
+			.thenReturn(resultado);
+		
+		//execucao e verificacao
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(API.concat("/importar"))
+								.header(HttpHeaders.AUTHORIZATION, TOKEN)
+								.header(RegistroIdempotencia.CABECALHO, "importacao-com-tamanho")
+								.header(HttpHeaders.CONTENT_LENGTH, conteudo.length)
+								.param("formato", "csv")
+								.contentType("text/csv")
+								.content(conteudo);
+		
+		mvc.perform(request)
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("importados").value(1));
+	}
+	
+	@Test
+	public void deveRetornarBadRequestParaFormatoDeImportacaoDesconhecido() throws Exception {
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(API.concat("/importar"))
+								.header(HttpHeaders.AUTHORIZATION, TOKEN)
+								.param("formato", "xls")
+								.content("qualquer coisa");
+		
+		mvc.perform(request)
+			.andExpect(MockMvcResultMatchers.status().isBadRequest());
+	}
+	
+	@Test
+	public void deveRetornarOResumoMensalDoPeriodo() throws Exception {
+		//cenario
+		EnumMap<StatusLancamento, BigDecimal> receitas = new EnumMap<>(StatusLancamento.class);
+		receitas.put(StatusLancamento.EFETIVADO, BigDecimal.valueOf(100));
+		EnumMap<StatusLancamento, BigDecimal> despesas = new EnumMap<>(StatusLancamento.class);
+		despesas.put(StatusLancamento.EFETIVADO, BigDecimal.valueOf(40));
+		Mockito.when(resumoMensalService.obterFluxoMensal(1l, 2020, 2020))
+			.thenReturn(Collections.singletonList(new FluxoMensal(2020, 3, receitas, despesas)));
+		
+		//execucao e verificacao
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/resumo-mensal"))
+				.header(HttpHeaders.AUTHORIZATION, TOKEN)
+				.param("anoInicial", "2020"))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("$[0].mes").value(3))
+			.andExpect(MockMvcResultMatchers.jsonPath("$[0].receitas.EFETIVADO").value(100))
+			.andExpect(MockMvcResultMatchers.jsonPath("$[0].despesas.EFETIVADO").value(40));
+	}
+	
+	@Test
+	public void naoDeveRetornarOResumoMensalComPeriodoInvertido() throws Exception {
+		//execucao e verificacao
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/resumo-mensal"))
+				.header(HttpHeaders.AUTHORIZATION, TOKEN)
+				.param("anoInicial", "2021")
+				.param("anoFinal", "2020"))
+			.andExpect(MockMvcResultMatchers.status().isBadRequest());
+		
+		Mockito.verifyNoInteractions(resumoMensalService);
+	}
+	
+	@Test
+	public void deveExportarOsLancamentosComoAnexo() throws Exception {
+		//cenario
+		Mockito.doAnswer(invocacao -> {
+			OutputStream saida = invocacao.getArgument(2);
+			saida.write("id;descricao\n".getBytes());
+			return null;
+		}).when(exportacaoService).exportar(Mockito.eq(1l), Mockito.eq(FormatoExportacao.CSV), Mockito.any(OutputStream.class));
+		
+		//execucao e verificacao
+		MvcResult resultado = mvc.perform(MockMvcRequestBuilders.get(API.concat("/exportar")).header(HttpHeaders.AUTHORIZATION, TOKEN))
+			.andExpect(MockMvcResultMatchers.request().asyncStarted())
+			.andReturn();
+		
+		mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.header().string("Content-Disposition", "attachment; filename=\"lancamentos.csv\""))
+			.andExpect(MockMvcResultMatchers.content().contentType("text/csv"))
+			.andExpect(MockMvcResultMatchers.content().string("id;descricao\n"));
+	}
+	
+	@Test
+	public void deveAtualizarOStatusEmLoteEInformarASituacaoDeCadaId() throws Exception {
+		//cenario
+		Mockito.when(service.atualizarStatusEmLote(1l, Arrays.asList(10l, 11l), StatusLancamento.PENDENTE, StatusLancamento.EFETIVADO))
+			.thenReturn(new ResultadoAtualizacaoStatus(1, Arrays.asList(
+					new ResultadoAtualizacaoStatus.Item(10l, ResultadoAtualizacaoStatus.Situacao.ATUALIZADO),
+					new ResultadoAtualizacaoStatus.Item(11l, ResultadoAtualizacaoStatus.Situacao.CONFLITO))));
+		
+		//execucao e verificacao
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.put(API.concat("/status"))
+								.header(HttpHeaders.AUTHORIZATION, TOKEN)
+								.contentType(JSON)
+								.content("{\"ids\": [10, 11], \"statusAtual\": \"PENDENTE\", \"status\": \"EFETIVADO\"}")
+								.accept(JSON);
+		
+		mvc.perform(request)
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("atualizados").value(1))
+			.andExpect(MockMvcResultMatchers.jsonPath("itens[1].id").value(11))
+			.andExpect(MockMvcResultMatchers.jsonPath("itens[1].situacao").value("CONFLITO"));
+	}
+	
+	@Test
+	public void deveAtualizarOStatusDaCompetenciaERetornarConflitoEmAlteracaoConcorrente() throws Exception {
+		//cenario
+		Mockito.when(service.atualizarStatusEmLote(1l, 2022, 5, StatusLancamento.PENDENTE, StatusLancamento.EFETIVADO))
+			.thenThrow(new OptimisticLockingFailureException("Lançamentos alterados durante a atualização de status"));
+		
+		//execucao e verificacao
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.put(API.concat("/status"))
+								.header(HttpHeaders.AUTHORIZATION, TOKEN)
+								.contentType(JSON)
+								.content("{\"ano\": 2022, \"mes\": 5, \"statusAtual\": \"PENDENTE\", \"status\": \"EFETIVADO\"}")
+								.accept(JSON);
+		
+		mvc.perform(request)
+			.andExpect(MockMvcResultMatchers.status().isConflict());
+	}
+	
+	@Test
+	public void deveRetornarBadRequestAoAtualizarEmLoteParaUmStatusInvalido() throws Exception {
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.put(API.concat("/status"))
+								.header(HttpHeaders.AUTHORIZATION, TOKEN)
+								.contentType(JSON)
+								.content("{\"ids\": [10], \"status\": \"PAGO\"}")
+								.accept(JSON);
+		
+		mvc.perform(request)
+			.andExpect(MockMvcResultMatchers.status().isBadRequest())
+			.andExpect(MockMvcResultMatchers.content().string(Matchers.containsString("PAGO")));
+	}
+	
+	@Test
+	public void deveAtualizarParcialmenteSomenteOsCamposEnviados() throws Exception {
+		//cenario
+		Lancamento atualizado = Lancamento.builder().id(7l).descricao("aluguel").mes(5).ano(2022)
+				.valor(BigDecimal.TEN).status(StatusLancamento.EFETIVADO).versao(3l).build();
+		Mockito.when(service.atualizarParcialmente(Mockito.eq(1l), Mockito.eq(7l), Mockito.eq(2l), Mockito.any(Lancamento.class)))
+			.thenReturn(Optional.of(atualizado));
+		
+		//execucao e verificacao
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.patch(API.concat("/7"))
+								.header(HttpHeaders.AUTHORIZATION, TOKEN)
+								.contentType(JSON)
+								.content("{\"status\": \"EFETIVADO\", \"versao\": 2}")
+								.accept(JSON);
+		
+		mvc.perform(request)
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("status").value("EFETIVADO"))
+			.andExpect(MockMvcResultMatchers.jsonPath("versao").value(3));
+		
+		ArgumentCaptor<Lancamento> alteracoes = ArgumentCaptor.forClass(Lancamento.class);
+		Mockito.verify(service).atualizarParcialmente(Mockito.eq(1l), Mockito.eq(7l), Mockito.eq(2l), alteracoes.capture());
+		Assertions.assertThat(alteracoes.getValue().getStatus()).isEqualTo(StatusLancamento.EFETIVADO);
+		Assertions.assertThat(alteracoes.getValue().getDescricao()).isNull();
+		Assertions.assertThat(alteracoes.getValue().getValor()).isNull();
+	}
+	
+	@Test
+	public void deveRetornarConflitoAoAtualizarParcialmenteUmaVersaoDesatualizada() throws Exception {
+		//cenario
+		Mockito.when(service.atualizarParcialmente(Mockito.eq(1l), Mockito.eq(7l), Mockito.eq(2l), Mockito.any(Lancamento.class)))
+			.thenThrow(new ObjectOptimisticLockingFailureException(Lancamento.class, 7l));
+		
+		//execucao e verificacao
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.patch(API.concat("/7"))
+								.header(HttpHeaders.AUTHORIZATION, TOKEN)
+								.contentType(JSON)
+								.content("{\"valor\": 15, \"versao\": 2}")
+								.accept(JSON);
+		
+		mvc.perform(request)
+			.andExpect(MockMvcResultMatchers.status().isConflict());
+	}
+	
+	@Test
+	public void deveRetornarConflitoQuandoOStatusFoiAlteradoPorOutroCliente() throws Exception {
+		//cenario
+		Lancamento lancamento = Lancamento.builder().id(7l).status(StatusLancamento.PENDENTE).versao(1l)
+				.usuario(Usuario.builder().id(1l).build()).build();
+		Mockito.when(service.obterPorId(7l)).thenReturn(Optional.of(lancamento));
+		Mockito.when(service.atualizar(lancamento)).thenThrow(new ObjectOptimisticLockingFailureException(Lancamento.class, 7l));
+		
+		//execucao e verificacao
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.put(API.concat("/7/atualizarStatus"))
+								.header(HttpHeaders.AUTHORIZATION, TOKEN)
+								.contentType(JSON)
+								.content("{\"status\": \"CANCELADO\"}")
+								.accept(JSON);
+		
+		mvc.perform(request)
+			.andExpect(MockMvcResultMatchers.status().isConflict());
+	}
+	
+	@Test
+	public void deveRetornarBadRequestAoAtualizarParcialmenteUmLancamentoInexistente() throws Exception {
+		//cenario
+		Mockito.when(service.atualizarParcialmente(Mockito.eq(1l), Mockito.eq(7l), Mockito.isNull(), Mockito.any(Lancamento.class)))
+			.thenReturn(Optional.empty());
+		
+		//execucao e verificacao
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.patch(API.concat("/7"))
+								.header(HttpHeaders.AUTHORIZATION, TOKEN)
+								.contentType(JSON)
+								.content("{\"descricao\": \"mercado\"}")
+								.accept(JSON);
+		
+		mvc.perform(request)
+			.andExpect(MockMvcResultMatchers.status().isBadRequest());
+	}
+	
+	private static List<Lancamento> criarLancamentos(Long... ids) {
+		List<Lancamento> lancamentos = new ArrayList<>();
+		Arrays.stream(ids).forEach(id -> {
+			Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+			lancamento.setId(id);
+			lancamentos.add(lancamento);
+		});
+		return lancamentos;
+	}
+}
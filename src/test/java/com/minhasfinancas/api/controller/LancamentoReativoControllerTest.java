@@ -0,0 +1,120 @@
+package com.minhasfinancas.api.controller;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.minhasfinancas.model.entity.Lancamento;
+import com.minhasfinancas.model.entity.Usuario;
+import com.minhasfinancas.service.LancamentoReativoService;
+import com.minhasfinancas.service.TokenService;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RunWith(SpringRunner.class)
+@ActiveProfiles({"test", "reativo"})
+@WebMvcTest(controllers = LancamentoReativoController.class)
+@AutoConfigureMockMvc
+public class LancamentoReativoControllerTest {
+
+	static final String API = "/api/reativo";
+	
+	static final String TOKEN = "Bearer token";
+	
+	@Autowired
+	MockMvc mvc;
+	
+	@MockBean
+	LancamentoReativoService service;
+	
+	@MockBean
+	TokenService tokenService;
+	
+	@Before
+	public void autenticar() {
+		Mockito.when(tokenService.validar("token")).thenReturn(Optional.of(1l));
+	}
+	
+	@Test
+	public void deveEscreverOsLancamentosComoNdjson() throws Exception {
+		//cenario
+		Mockito.when(service.buscar(Mockito.any(Lancamento.class))).thenReturn(Flux.just(
+				Lancamento.builder().id(1l).descricao("Aluguel").build(),
+				Lancamento.builder().id(2l).descricao("Mercado").build()));
+		
+		//execucao e verificacao
+		MvcResult resultado = mvc.perform(MockMvcRequestBuilders.get(API.concat("/lancamentos")).header(HttpHeaders.AUTHORIZATION, TOKEN))
+			.andExpect(MockMvcResultMatchers.request().asyncStarted())
+			.andReturn();
+		resultado.getAsyncResult();
+		
+		mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
+			.andExpect(MockMvcResultMatchers.status().isOk());
+		
+		String[] linhas = resultado.getResponse().getContentAsString().trim().split("\n");
+		Assertions.assertThat(linhas).hasSize(2);
+		Assertions.assertThat(linhas[1]).contains("\"descricao\":\"Mercado\"");
+	}
+	
+	@Test
+	public void deveRetornarNaoEncontradoParaLancamentoInexistente() throws Exception {
+		//cenario
+		Mockito.when(service.obterPorId(1l)).thenReturn(Mono.empty());
+		
+		//execucao e verificacao
+		MvcResult resultado = mvc.perform(MockMvcRequestBuilders.get(API.concat("/lancamentos/1")).header(HttpHeaders.AUTHORIZATION, TOKEN))
+			.andExpect(MockMvcResultMatchers.request().asyncStarted())
+			.andReturn();
+		
+		mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
+			.andExpect(MockMvcResultMatchers.status().isNotFound());
+	}
+	
+	@Test
+	public void deveRetornarOSaldoDoUsuario() throws Exception {
+		//cenario
+		Mockito.when(service.obterSaldoPorUsuario(1l)).thenReturn(Mono.just(BigDecimal.TEN));
+		
+		//execucao e verificacao
+		MvcResult resultado = mvc.perform(MockMvcRequestBuilders.get(API.concat("/usuarios/1/saldo")).header(HttpHeaders.AUTHORIZATION, TOKEN))
+			.andExpect(MockMvcResultMatchers.request().asyncStarted())
+			.andReturn();
+		
+		mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.content().string("10"));
+	}
+	
+	@Test
+	public void deveRetornarNaoEncontradoParaLancamentoDeOutroUsuario() throws Exception {
+		//cenario
+		Mockito.when(service.obterPorId(1l)).thenReturn(Mono.just(
+				Lancamento.builder().id(1l).usuario(Usuario.builder().id(2l).build()).build()));
+		
+		//execucao e verificacao
+		MvcResult resultado = mvc.perform(MockMvcRequestBuilders.get(API.concat("/lancamentos/1")).header(HttpHeaders.AUTHORIZATION, TOKEN))
+			.andExpect(MockMvcResultMatchers.request().asyncStarted())
+			.andReturn();
+		
+		mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
+			.andExpect(MockMvcResultMatchers.status().isNotFound());
+	}
+}
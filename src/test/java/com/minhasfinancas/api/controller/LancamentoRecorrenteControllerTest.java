@@ -0,0 +1,102 @@
+package com.minhasfinancas.api.controller;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minhasfinancas.api.dto.LancamentoRecorrenteDto;
+import com.minhasfinancas.model.entity.LancamentoRecorrente;
+import com.minhasfinancas.model.entity.Usuario;
+import com.minhasfinancas.model.enums.TipoLancamento;
+import com.minhasfinancas.service.LancamentoRecorrenteService;
+import com.minhasfinancas.service.TokenService;
+import com.minhasfinancas.service.UsuarioService;
+
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@WebMvcTest(controllers = LancamentoRecorrenteController.class)
+@AutoConfigureMockMvc
+public class LancamentoRecorrenteControllerTest {
+
+	static final String API = "/api/lancamentos-recorrentes";
+	
+	static final MediaType JSON = MediaType.APPLICATION_JSON;
+	
+	static final String TOKEN = "Bearer token-do-usuario-1";
+	
+	@Autowired
+	MockMvc mvc;
+	
+	@MockBean
+	LancamentoRecorrenteService service;
+	
+	@MockBean
+	UsuarioService usuarioService;
+	
+	@MockBean
+	TokenService tokenService;
+	
+	@Before
+	public void autenticar() {
+		Mockito.when(tokenService.validar("token-do-usuario-1")).thenReturn(Optional.of(1l));
+	}
+	
+	@Test
+	public void deveSalvarUmModeloDoUsuarioAutenticado() throws Exception {
+		//cenario
+		Usuario usuario = Usuario.builder().id(1l).build();
+		Mockito.when(usuarioService.obterReferencia(1l)).thenReturn(usuario);
+		Mockito.when(service.salvar(Mockito.any(LancamentoRecorrente.class))).thenAnswer(invocacao -> {
+			LancamentoRecorrente recorrente = invocacao.getArgument(0);
+			recorrente.setId(3l);
+			return recorrente;
+		});
+		
+		LancamentoRecorrenteDto dto = LancamentoRecorrenteDto.builder()
+				.descricao("Aluguel").valor(BigDecimal.valueOf(1500)).tipo("DESPESA")
+				.mesInicial(1).anoInicial(2022).mesFinal(12).anoFinal(2022).build();
+		String json = new ObjectMapper().writeValueAsString(dto);
+		
+		//execucao e verificacao
+		mvc.perform(MockMvcRequestBuilders.post(API).header(HttpHeaders.AUTHORIZATION, TOKEN)
+					.accept(JSON).contentType(JSON).content(json))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("id").value(3))
+			.andExpect(MockMvcResultMatchers.jsonPath("mesFinal").value(12));
+		
+		ArgumentCaptor<LancamentoRecorrente> captor = ArgumentCaptor.forClass(LancamentoRecorrente.class);
+		Mockito.verify(service).salvar(captor.capture());
+		Assertions.assertThat(captor.getValue().getUsuario()).isSameAs(usuario);
+		Assertions.assertThat(captor.getValue().getTipo()).isEqualTo(TipoLancamento.DESPESA);
+		Assertions.assertThat(captor.getValue().getCompetenciaInicial()).isEqualTo(202201);
+		Assertions.assertThat(captor.getValue().getCompetenciaFinal()).isEqualTo(202212);
+	}
+	
+	@Test
+	public void naoDeveEncerrarModeloDeOutroUsuario() throws Exception {
+		//cenario
+		Mockito.when(service.encerrar(7l, 1l)).thenReturn(Optional.empty());
+		
+		//execucao e verificacao
+		mvc.perform(MockMvcRequestBuilders.delete(API.concat("/7")).header(HttpHeaders.AUTHORIZATION, TOKEN))
+			.andExpect(MockMvcResultMatchers.status().isBadRequest());
+	}
+}
@@ -1,5 +1,10 @@
 package com.minhasfinancas.api.controller;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
@@ -7,10 +12,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
@@ -19,8 +26,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.minhasfinancas.api.dto.UsuarioDto;
 import com.minhasfinancas.exceptions.ErroAutenticacao;
 import com.minhasfinancas.exceptions.RegraNegocioException;
+import com.minhasfinancas.exceptions.ServicoSobrecarregadoException;
 import com.minhasfinancas.model.entity.Usuario;
 import com.minhasfinancas.service.LancamentoService;
+import com.minhasfinancas.service.SaldoDetalhado;
+import com.minhasfinancas.service.TokenAcesso;
+import com.minhasfinancas.service.TokenService;
 import com.minhasfinancas.service.UsuarioService;
 
 @RunWith(SpringRunner.class)
@@ -42,6 +53,9 @@ public class UsuarioControllerTest {
 	@MockBean
 	LancamentoService lancamentoService;
 	
+	@MockBean
+	TokenService tokenService;
+	
 	@Test
 	public void deveAutenticarUmUsuario() throws Exception {
 		//cenario
@@ -54,7 +68,8 @@ public class UsuarioControllerTest {
 		UsuarioDto dto = UsuarioDto.builder().email(email).senha(senha).build();
 		Usuario usuario = Usuario.builder().id(1l).email(email).senha(senha).build();
 		
-		Mockito.when(service.autenticar(email, senha)).thenReturn(usuario);
+		Mockito.when(service.autenticarAsync(email, senha)).thenReturn(CompletableFuture.completedFuture(usuario));
+		Mockito.when(tokenService.emitir(1l)).thenReturn(new TokenAcesso("1.1700000000.assinatura", Instant.ofEpochSecond(1700000000)));
 		
 		String json = new ObjectMapper().writeValueAsString(dto);
 		
@@ -64,11 +79,16 @@ public class UsuarioControllerTest {
 								.contentType(JSON)
 								.content(json);
 		
-		mvc.perform(request)
+		MvcResult resultado = mvc.perform(request)
+			.andExpect(MockMvcResultMatchers.request().asyncStarted())
+			.andReturn();
+		
+		mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
 			.andExpect(MockMvcResultMatchers.status().isOk())
 			.andExpect(MockMvcResultMatchers.jsonPath("id").value(usuario.getId()))
 			.andExpect(MockMvcResultMatchers.jsonPath("nome").value(usuario.getNome()))
-			.andExpect(MockMvcResultMatchers.jsonPath("email").value(usuario.getEmail()));
+			.andExpect(MockMvcResultMatchers.jsonPath("email").value(usuario.getEmail()))
+			.andExpect(MockMvcResultMatchers.jsonPath("token").value("1.1700000000.assinatura"));
 	}
 	
 	@Test
@@ -81,7 +101,8 @@ public class UsuarioControllerTest {
 		
 		UsuarioDto dto = UsuarioDto.builder().email(email).senha(senha).build();
 		
-		Mockito.when(service.autenticar(email, senha)).thenThrow(ErroAutenticacao.class);
+		Mockito.when(service.autenticarAsync(email, senha))
+			.thenReturn(CompletableFuture.failedFuture(new ErroAutenticacao("Senha inválida")));
 		
 		String json = new ObjectMapper().writeValueAsString(dto);
 		
@@ -91,10 +112,31 @@ public class UsuarioControllerTest {
 								.contentType(JSON)
 								.content(json);
 		
-		mvc.perform(request)
+		MvcResult resultado = mvc.perform(request).andReturn();
+		
+		mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
 			.andExpect(MockMvcResultMatchers.status().isBadRequest());
 		}
 	
+	@Test
+	public void deveRetornarServiceUnavailableQuandoAFilaDeHashEstiverCheia() throws Exception {
+		//cenario
+		UsuarioDto dto = UsuarioDto.builder().email("usuario@email.com").senha("123").build();
+		Mockito.when(service.autenticarAsync("usuario@email.com", "123"))
+			.thenReturn(CompletableFuture.failedFuture(new ServicoSobrecarregadoException("Muitas autenticações simultâneas", null)));
+		
+		//execucao e verificacao
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(API.concat("/autenticar"))
+								.accept(JSON)
+								.contentType(JSON)
+								.content(new ObjectMapper().writeValueAsString(dto));
+		
+		MvcResult resultado = mvc.perform(request).andReturn();
+		
+		mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
+			.andExpect(MockMvcResultMatchers.status().isServiceUnavailable());
+	}
+	
 	
 	@Test
 	public void deveCriarUmNovoUsuario() throws Exception {
@@ -143,4 +185,44 @@ public class UsuarioControllerTest {
 		mvc.perform(request)
 			.andExpect(MockMvcResultMatchers.status().isBadRequest());
 	}
+	
+	@Test
+	public void deveRetornarOSaldoDetalhadoDoUsuario() throws Exception {
+		//cenario
+		SaldoDetalhado saldo = new SaldoDetalhado(BigDecimal.valueOf(60), BigDecimal.valueOf(-15), BigDecimal.valueOf(500));
+		
+		Mockito.when(tokenService.validar("token")).thenReturn(Optional.of(1l));
+		Mockito.when(lancamentoService.obterSaldoDetalhadoPorUsuario(1l)).thenReturn(saldo);
+		
+		//execucao e verificacao
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/1/saldo/detalhado"))
+								.header(HttpHeaders.AUTHORIZATION, "Bearer token")
+								.accept(JSON);
+		
+		mvc.perform(request)
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("efetivado").value(60))
+			.andExpect(MockMvcResultMatchers.jsonPath("pendente").value(-15))
+			.andExpect(MockMvcResultMatchers.jsonPath("cancelado").value(500))
+			.andExpect(MockMvcResultMatchers.jsonPath("saldo").value(45));
+	}
+	
+	@Test
+	public void deveRetornarNotFoundAoObterSaldoDetalhadoDeOutroUsuario() throws Exception {
+		Mockito.when(tokenService.validar("token")).thenReturn(Optional.of(2l));
+		
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/1/saldo/detalhado"))
+				.header(HttpHeaders.AUTHORIZATION, "Bearer token").accept(JSON))
+			.andExpect(MockMvcResultMatchers.status().isNotFound());
+		
+		Mockito.verifyNoInteractions(lancamentoService);
+	}
+	
+	@Test
+	public void deveExigirTokenAoObterSaldo() throws Exception {
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/1/saldo")).accept(JSON))
+			.andExpect(MockMvcResultMatchers.status().isUnauthorized());
+		
+		Mockito.verifyNoInteractions(lancamentoService);
+	}
 }
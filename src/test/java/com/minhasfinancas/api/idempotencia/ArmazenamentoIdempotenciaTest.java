@@ -0,0 +1,130 @@
+package com.minhasfinancas.api.idempotencia;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.minhasfinancas.model.entity.ChaveIdempotenciaId;
+import com.minhasfinancas.model.entity.Usuario;
+import com.minhasfinancas.model.repository.ChaveIdempotenciaRepository;
+import com.minhasfinancas.model.repository.UsuarioRepository;
+import com.minhasfinancas.model.repository.UsuarioRepositoryTest;
+
+@SpringBootTest
+@RunWith(SpringRunner.class)
+@ActiveProfiles({"test", "idempotencia-banco"})
+public class ArmazenamentoIdempotenciaTest {
+	
+	static final Long ID_USUARIO = 900_000_101l;
+	
+	static final String PREFIXO_EMAIL = "idempotencia";
+	
+	@Autowired
+	ArmazenamentoIdempotencia armazenamento;
+	
+	@Autowired
+	ChaveIdempotenciaRepository repository;
+	
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	AtomicInteger execucoes = new AtomicInteger();
+	
+	@After
+	public void tearDown() {
+		jdbcTemplate.update("delete from financas.chave_idempotencia where id_usuario = ?", ID_USUARIO);
+		jdbcTemplate.update("delete from financas.usuario where email like ?", PREFIXO_EMAIL + "%");
+	}
+	
+	@Test
+	public void deveDesfazerARepeticaoEDevolverARespostaGravada() {
+		//cenario
+		ChaveIdempotenciaId id = new ChaveIdempotenciaId(ID_USUARIO, "chave");
+		ResponseEntity original = armazenamento.executar(id, "a", this::salvarUsuario, false);
+		
+		//execucao: outra instância, sem a chave em memória, repete a requisição
+		ResponseEntity repetida = armazenamento.executar(id, "a", this::salvarUsuario, false);
+		
+		//verificacao
+		Assertions.assertThat(original.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+		Assertions.assertThat(repetida.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+		Assertions.assertThat(repetida.getBody()).isEqualTo("{\"execucao\":1}");
+		Assertions.assertThat(repetida.getHeaders().getFirst(RegistroIdempotencia.CABECALHO_REPETIDA)).isEqualTo("true");
+		Assertions.assertThat(execucoes.get()).isEqualTo(2);
+		Assertions.assertThat(jdbcTemplate.queryForObject("select count(*) from financas.usuario where email like ?",
+				Long.class, PREFIXO_EMAIL + "%")).isEqualTo(1);
+	}
+	
+	@Test
+	public void naoDeveGravarAChaveDeUmaRequisicaoRecusada() {
+		//cenario
+		ChaveIdempotenciaId id = new ChaveIdempotenciaId(ID_USUARIO, "chave");
+		
+		//execucao
+		armazenamento.executar(id, "a", () -> ResponseEntity.badRequest().body("recusada"), false);
+		armazenamento.executar(id, "a", () -> ResponseEntity.badRequest().body("recusada"), true);
+		
+		//verificacao
+		Assertions.assertThat(repository.findById(id)).isEmpty();
+	}
+	
+	@Test
+	public void deveRecusarARepeticaoDeUmaImportacaoEmAndamento() {
+		//cenario
+		ChaveIdempotenciaId id = new ChaveIdempotenciaId(ID_USUARIO, "importacao");
+		jdbcTemplate.update("insert into financas.chave_idempotencia (id_usuario, chave, impressao, criada_em) "
+				+ "values (?, 'importacao', 'a', current_timestamp)", ID_USUARIO);
+		
+		//execucao
+		ResponseEntity emAndamento = armazenamento.executar(id, "a", this::contar, true);
+		ResponseEntity deOutraRequisicao = armazenamento.executar(id, "b", this::contar, true);
+		
+		//verificacao
+		Assertions.assertThat(emAndamento.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+		Assertions.assertThat(deOutraRequisicao.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+		Assertions.assertThat(execucoes.get()).isZero();
+	}
+	
+	@Test
+	public void deveConcluirAReservaERemoverAsChavesExpiradas() {
+		//cenario
+		ChaveIdempotenciaId id = new ChaveIdempotenciaId(ID_USUARIO, "importacao");
+		armazenamento.executar(id, "a", this::contar, true);
+		
+		//execucao
+		ResponseEntity repetida = armazenamento.executar(id, "a", this::contar, true);
+		long removidas = armazenamento.removerCriadasAntesDe(LocalDateTime.now().plusMinutes(1));
+		
+		//verificacao
+		Assertions.assertThat(repetida.getBody()).isEqualTo("{\"execucao\":1}");
+		Assertions.assertThat(execucoes.get()).isEqualTo(1);
+		Assertions.assertThat(removidas).isEqualTo(1);
+	}
+	
+	private ResponseEntity contar() {
+		return ResponseEntity.ok(Collections.singletonMap("execucao", execucoes.incrementAndGet()));
+	}
+	
+	private ResponseEntity salvarUsuario() {
+		int execucao = execucoes.incrementAndGet();
+		Usuario usuario = UsuarioRepositoryTest.criarUsuario();
+		usuario.setEmail(PREFIXO_EMAIL + execucao + "@email.com");
+		usuarioRepository.save(usuario);
+		return ResponseEntity.status(HttpStatus.CREATED).body(Collections.singletonMap("execucao", execucao));
+	}
+}
@@ -0,0 +1,132 @@
+package com.minhasfinancas.api.idempotencia;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+public class RegistroIdempotenciaTest {
+	
+	AtomicInteger execucoes = new AtomicInteger();
+	
+	ExecutorService executor = Executors.newSingleThreadExecutor();
+	
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+	
+	@Test
+	public void deveExecutarUmaVezPorUsuarioEChave() {
+		//cenario
+		RegistroIdempotencia registro = criarRegistro(Duration.ofSeconds(1));
+		
+		//execucao
+		ResponseEntity original = registro.executar(1l, "chave", "a", () -> ResponseEntity.ok(execucoes.incrementAndGet()));
+		ResponseEntity repetida = registro.executar(1l, "chave", "a", () -> ResponseEntity.ok(execucoes.incrementAndGet()));
+		ResponseEntity deOutroUsuario = registro.executar(2l, "chave", "a", () -> ResponseEntity.ok(execucoes.incrementAndGet()));
+		ResponseEntity semChave = registro.executar(1l, null, null, () -> ResponseEntity.ok(execucoes.incrementAndGet()));
+		
+		//verificacao
+		Assertions.assertThat(original.getBody()).isEqualTo(1);
+		Assertions.assertThat(repetida.getBody()).isEqualTo(1);
+		Assertions.assertThat(repetida.getHeaders().getFirst(RegistroIdempotencia.CABECALHO_REPETIDA)).isEqualTo("true");
+		Assertions.assertThat(deOutroUsuario.getBody()).isEqualTo(2);
+		Assertions.assertThat(semChave.getBody()).isEqualTo(3);
+	}
+	
+	@Test
+	public void deveLiberarAChaveAposUmErro() {
+		//cenario
+		RegistroIdempotencia registro = criarRegistro(Duration.ofSeconds(1));
+		Assertions.assertThatThrownBy(() -> registro.executar(1l, "chave", "a", () -> {
+			throw new IllegalStateException("falha");
+		})).isInstanceOf(IllegalStateException.class);
+		registro.executar(1l, "chave", "a", () -> ResponseEntity.badRequest().body("recusada"));
+		
+		//execucao
+		ResponseEntity resposta = registro.executar(1l, "chave", "a", () -> ResponseEntity.ok(execucoes.incrementAndGet()));
+		
+		//verificacao
+		Assertions.assertThat(resposta.getStatusCode()).isEqualTo(HttpStatus.OK);
+		Assertions.assertThat(resposta.getHeaders().containsKey(RegistroIdempotencia.CABECALHO_REPETIDA)).isFalse();
+	}
+	
+	@Test
+	public void deveEsperarARequisicaoOriginalEmAndamento() throws Exception {
+		//cenario
+		RegistroIdempotencia registro = criarRegistro(Duration.ofSeconds(5));
+		CountDownLatch iniciada = new CountDownLatch(1);
+		CountDownLatch liberada = new CountDownLatch(1);
+		Future<ResponseEntity> original = executor.submit(() -> registro.executar(1l, "chave", "a", () -> {
+			iniciada.countDown();
+			aguardar(liberada);
+			return ResponseEntity.ok(execucoes.incrementAndGet());
+		}));
+		iniciada.await();
+		
+		//execucao
+		new Thread(() -> {
+			aguardar(new CountDownLatch(1), 100);
+			liberada.countDown();
+		}).start();
+		ResponseEntity repetida = registro.executar(1l, "chave", "a", () -> ResponseEntity.ok(execucoes.incrementAndGet()));
+		
+		//verificacao
+		Assertions.assertThat(repetida.getBody()).isEqualTo(1);
+		Assertions.assertThat(original.get(5, TimeUnit.SECONDS).getBody()).isEqualTo(1);
+		Assertions.assertThat(execucoes.get()).isEqualTo(1);
+	}
+	
+	@Test
+	public void deveRecusarARepeticaoQueNaoTerminaDentroDaEspera() throws Exception {
+		//cenario
+		RegistroIdempotencia registro = criarRegistro(Duration.ofMillis(50));
+		CountDownLatch iniciada = new CountDownLatch(1);
+		CountDownLatch liberada = new CountDownLatch(1);
+		executor.submit(() -> registro.executar(1l, "chave", "a", () -> {
+			iniciada.countDown();
+			aguardar(liberada);
+			return ResponseEntity.ok(1);
+		}));
+		iniciada.await();
+		
+		//execucao
+		ResponseEntity repetida = registro.executar(1l, "chave", "a", () -> ResponseEntity.ok(2));
+		ResponseEntity outra = registro.executar(1l, "chave", "b", () -> ResponseEntity.ok(3));
+		liberada.countDown();
+		
+		//verificacao
+		Assertions.assertThat(repetida.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+		Assertions.assertThat(outra.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static RegistroIdempotencia criarRegistro(Duration espera) {
+		ObjectProvider<ArmazenamentoIdempotencia> semArmazenamento = Mockito.mock(ObjectProvider.class);
+		return new RegistroIdempotencia(semArmazenamento, Duration.ofMinutes(1), 100, espera);
+	}
+	
+	private static void aguardar(CountDownLatch trava) {
+		aguardar(trava, 5000);
+	}
+	
+	private static void aguardar(CountDownLatch trava, long milissegundos) {
+		try {
+			trava.await(milissegundos, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
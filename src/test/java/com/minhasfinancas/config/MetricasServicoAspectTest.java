@@ -0,0 +1,91 @@
+package com.minhasfinancas.config;
+
+import java.util.Optional;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.cache.support.NoOpCacheManager;
+
+import com.minhasfinancas.exceptions.ErroAutenticacao;
+import com.minhasfinancas.model.entity.Usuario;
+import com.minhasfinancas.model.repository.UsuarioRepository;
+import com.minhasfinancas.service.SenhaService;
+import com.minhasfinancas.service.UsuarioService;
+import com.minhasfinancas.service.impl.UsuarioServiceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class MetricasServicoAspectTest {
+	
+	SimpleMeterRegistry registry;
+	
+	UsuarioRepository usuarioRepository;
+	
+	UsuarioService usuarioService;
+	
+	@Before
+	public void setUp() {
+		registry = new SimpleMeterRegistry();
+		usuarioRepository = Mockito.mock(UsuarioRepository.class);
+		
+		AspectJProxyFactory fabrica = new AspectJProxyFactory(new UsuarioServiceImpl(usuarioRepository,
+				Mockito.mock(SenhaService.class), new NoOpCacheManager()));
+		fabrica.addAspect(new MetricasServicoAspect(registry));
+		usuarioService = fabrica.getProxy();
+	}
+
+	@Test
+	public void deveMedirOTempoDosMetodosDoServico() {
+		//cenario
+		Mockito.when(usuarioRepository.findById(1l)).thenReturn(Optional.of(new Usuario()));
+		
+		//execucao
+		usuarioService.obterPorId(1l);
+		usuarioService.obterPorId(1l);
+		
+		//verificacao
+		Assertions.assertThat(registry.get(MetricasServicoAspect.TEMPO_SERVICO)
+				.tags("servico", "UsuarioService", "metodo", "obterPorId", "excecao", "none")
+				.timer().count()).isEqualTo(2);
+	}
+	
+	@Test
+	public void deveContarAsExcecoesDeNegocioPeloTipoSemAMensagem() {
+		//cenario
+		Mockito.when(usuarioRepository.findByEmail(Mockito.anyString())).thenReturn(Optional.empty());
+		
+		//execucao
+		Throwable erro = Assertions.catchThrowable(() -> usuarioService.autenticar("email@email.com", "senha"));
+		
+		//verificacao
+		Assertions.assertThat(erro).isInstanceOf(ErroAutenticacao.class);
+		Assertions.assertThat(registry.get(MetricasServicoAspect.ERROS)
+				.tags("tipo", "ErroAutenticacao", "servico", "UsuarioService", "metodo", "autenticar")
+				.counter().count()).isEqualTo(1);
+		Assertions.assertThat(registry.get(MetricasServicoAspect.ERROS).counter().getId().getTag("mensagem")).isNull();
+		Assertions.assertThat(registry.get(MetricasServicoAspect.TEMPO_SERVICO)
+				.tags("metodo", "autenticar", "excecao", "ErroAutenticacao")
+				.timer().count()).isEqualTo(1);
+	}
+	
+	@Test
+	public void deveMedirOsMetodosAssincronosAteOFuturoTerminar() {
+		//cenario
+		Mockito.when(usuarioRepository.findByEmail(Mockito.anyString())).thenReturn(Optional.empty());
+		
+		//execucao
+		Throwable erro = Assertions.catchThrowable(() -> usuarioService.autenticarAsync("email@email.com", "senha").join());
+		
+		//verificacao
+		Assertions.assertThat(erro).hasCauseInstanceOf(ErroAutenticacao.class);
+		Assertions.assertThat(registry.get(MetricasServicoAspect.TEMPO_SERVICO)
+				.tags("metodo", "autenticarAsync", "excecao", "ErroAutenticacao")
+				.timer().count()).isEqualTo(1);
+		Assertions.assertThat(registry.get(MetricasServicoAspect.ERROS)
+				.tags("tipo", "ErroAutenticacao", "servico", "UsuarioService", "metodo", "autenticarAsync")
+				.counter().count()).isEqualTo(1);
+	}
+}
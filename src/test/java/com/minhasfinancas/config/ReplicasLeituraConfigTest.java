@@ -0,0 +1,159 @@
+package com.minhasfinancas.config;
+
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.assertj.core.api.Assertions;
+import org.flywaydb.core.Flyway;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.minhasfinancas.api.seguranca.TokenAutenticacaoFilter;
+import com.minhasfinancas.model.entity.Lancamento;
+import com.minhasfinancas.model.entity.Usuario;
+import com.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import com.minhasfinancas.model.repository.UsuarioRepository;
+import com.minhasfinancas.model.repository.UsuarioRepositoryTest;
+import com.minhasfinancas.service.LancamentoService;
+
+/**
+ * Perfil {@code replicas} com dois bancos H2 independentes no papel de primário
+ * e réplica. Como não há replicação entre eles, cada leitura mostra de qual
+ * banco veio.
+ */
+@SpringBootTest(properties = "minhasfinancas.replicas.urls=" + ReplicasLeituraConfigTest.URL_REPLICA)
+@RunWith(SpringRunner.class)
+@ActiveProfiles({"test", "replicas"})
+public class ReplicasLeituraConfigTest {
+	
+	static final String URL_REPLICA = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS financas";
+	
+	static final long ID_LANCAMENTO_REPLICA = 900_000_001l;
+	
+	static final JdbcTemplate REPLICA = new JdbcTemplate(new DriverManagerDataSource(URL_REPLICA, "sa", "sa"));
+	
+	@Autowired
+	LancamentoService service;
+	
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+	
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	Usuario usuario;
+	
+	@BeforeClass
+	public static void migrarReplica() {
+		Flyway.configure()
+			.dataSource(REPLICA.getDataSource())
+			.schemas("financas")
+			.locations("classpath:db/migration/comum")
+			.load()
+			.migrate();
+	}
+	
+	@Before
+	public void setUp() {
+		usuario = usuarioRepository.save(UsuarioRepositoryTest.criarUsuario());
+		REPLICA.update("insert into financas.usuario (id, nome, email) values (?, ?, ?)",
+				usuario.getId(), usuario.getNome(), usuario.getEmail());
+		REPLICA.update("insert into financas.lancamento (id, descricao, mes, ano, valor, tipo, status, id_usuario, versao) "
+				+ "values (?, 'Somente na réplica', 1, 2022, 10, 'DESPESA', 'PENDENTE', ?, 0)", ID_LANCAMENTO_REPLICA, usuario.getId());
+	}
+	
+	@After
+	public void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+		for(JdbcTemplate banco : new JdbcTemplate[] {jdbcTemplate, REPLICA}) {
+			banco.update("delete from financas.resumo_mensal where id_usuario = ?", usuario.getId());
+			banco.update("delete from financas.saldo_usuario where id_usuario = ?", usuario.getId());
+			banco.update("delete from financas.lancamento where id_usuario = ?", usuario.getId());
+			banco.update("delete from financas.usuario where id = ?", usuario.getId());
+		}
+	}
+	
+	@Test
+	public void deveLerDaReplicaNasTransacoesSomenteLeitura() {
+		//execucao
+		List<Lancamento> lancamentos = service.buscar(filtro());
+		
+		//verificacao
+		Assertions.assertThat(lancamentos).extracting(Lancamento::getDescricao).containsExactly("Somente na réplica");
+		Assertions.assertThat(service.obterPorId(ID_LANCAMENTO_REPLICA)).isPresent();
+	}
+	
+	@Test
+	public void deveGravarNoPrimarioELerDeleLogoAposAEscritaDoUsuario() {
+		//cenario
+		autenticar(usuario.getId());
+		
+		//execucao
+		Lancamento salvo = service.salvar(lancamento());
+		List<Lancamento> lancamentos = service.buscar(filtro());
+		
+		//verificacao
+		Assertions.assertThat(lancamentos).extracting(Lancamento::getId).containsExactly(salvo.getId());
+		Assertions.assertThat(contarLancamentos(REPLICA)).isEqualTo(1);
+	}
+	
+	@Test
+	public void naoDeveGravarNaReplicaAposUmaLeituraNaMesmaRequisicao() {
+		//cenario: a sessão aberta durante toda a requisição, como no open-in-view
+		TransactionSynchronizationManager.bindResource(entityManagerFactory,
+				new EntityManagerHolder(entityManagerFactory.createEntityManager()));
+		try {
+			Assertions.assertThat(service.obterPorId(ID_LANCAMENTO_REPLICA)).isPresent();
+			
+			//execucao
+			service.salvar(lancamento());
+		} finally {
+			((EntityManagerHolder) TransactionSynchronizationManager.unbindResource(entityManagerFactory))
+				.getEntityManager().close();
+		}
+		
+		//verificacao
+		Assertions.assertThat(contarLancamentos(jdbcTemplate)).isEqualTo(1);
+		Assertions.assertThat(contarLancamentos(REPLICA)).isEqualTo(1);
+	}
+	
+	private Lancamento filtro() {
+		Lancamento filtro = new Lancamento();
+		filtro.setUsuario(usuario);
+		return filtro;
+	}
+	
+	private Lancamento lancamento() {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(usuario);
+		return lancamento;
+	}
+	
+	private Long contarLancamentos(JdbcTemplate banco) {
+		return banco.queryForObject("select count(*) from financas.lancamento where id_usuario = ?", Long.class, usuario.getId());
+	}
+	
+	private static void autenticar(Long idUsuario) {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setAttribute(TokenAutenticacaoFilter.ID_USUARIO, idUsuario);
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+	}
+}
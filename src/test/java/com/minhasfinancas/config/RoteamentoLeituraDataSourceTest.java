@@ -0,0 +1,164 @@
+package com.minhasfinancas.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Arrays;
+
+import javax.sql.DataSource;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.minhasfinancas.api.seguranca.TokenAutenticacaoFilter;
+
+public class RoteamentoLeituraDataSourceTest {
+	
+	DataSource primario = Mockito.mock(DataSource.class);
+	
+	DataSource replica1 = Mockito.mock(DataSource.class);
+	
+	DataSource replica2 = Mockito.mock(DataSource.class);
+	
+	Connection conexaoPrimario = Mockito.mock(Connection.class);
+	
+	Connection conexaoReplica1 = Mockito.mock(Connection.class);
+	
+	Connection conexaoReplica2 = Mockito.mock(Connection.class);
+	
+	JanelaLeituraPropria janela = new JanelaLeituraPropria(Duration.ofMinutes(1));
+	
+	@Before
+	public void setUp() throws SQLException {
+		Mockito.when(primario.getConnection()).thenReturn(conexaoPrimario);
+		Mockito.when(replica1.getConnection()).thenReturn(conexaoReplica1);
+		Mockito.when(replica2.getConnection()).thenReturn(conexaoReplica2);
+	}
+	
+	@After
+	public void tearDown() {
+		if(TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+		TransactionSynchronizationManager.setActualTransactionActive(false);
+		RequestContextHolder.resetRequestAttributes();
+	}
+	
+	@Test
+	public void deveAlternarEntreAsReplicasNasTransacoesSomenteLeitura() throws SQLException {
+		//cenario
+		RoteamentoLeituraDataSource roteamento = criarRoteamento(Duration.ofMinutes(1));
+		iniciarTransacao(true);
+		
+		//execucao e verificacao
+		Assertions.assertThat(roteamento.getConnection()).isSameAs(conexaoReplica1);
+		Assertions.assertThat(roteamento.getConnection()).isSameAs(conexaoReplica2);
+		Assertions.assertThat(roteamento.getConnection()).isSameAs(conexaoReplica1);
+		Mockito.verifyNoInteractions(primario);
+	}
+	
+	@Test
+	public void deveUsarOPrimarioNasEscritasEForaDeTransacao() throws SQLException {
+		//cenario
+		RoteamentoLeituraDataSource roteamento = criarRoteamento(Duration.ofMinutes(1));
+		
+		//execucao e verificacao
+		Assertions.assertThat(roteamento.getConnection()).isSameAs(conexaoPrimario);
+		iniciarTransacao(false);
+		Assertions.assertThat(roteamento.getConnection()).isSameAs(conexaoPrimario);
+		Mockito.verifyNoInteractions(replica1, replica2);
+	}
+	
+	@Test
+	public void deveLerDoPrimarioAposUmaEscritaDoProprioUsuario() throws SQLException {
+		//cenario
+		RoteamentoLeituraDataSource roteamento = criarRoteamento(Duration.ofMinutes(1));
+		autenticar(1l);
+		iniciarTransacao(false);
+		roteamento.getConnection();
+		
+		//a janela só começa quando a transação de escrita termina
+		Assertions.assertThat(janela.escreveuRecentemente(1l)).isFalse();
+		concluirTransacao();
+		
+		//execucao
+		iniciarTransacao(true);
+		Connection doAutor = roteamento.getConnection();
+		autenticar(2l);
+		Connection deOutroUsuario = roteamento.getConnection();
+		
+		//verificacao
+		Assertions.assertThat(doAutor).isSameAs(conexaoPrimario);
+		Assertions.assertThat(deOutroUsuario).isSameAs(conexaoReplica1);
+	}
+	
+	@Test
+	public void deveVoltarAoPrimarioQuandoAReplicaRecusaConexao() throws SQLException {
+		//cenario
+		Mockito.when(replica1.getConnection()).thenThrow(new SQLException("Connection refused"));
+		RoteamentoLeituraDataSource roteamento = new RoteamentoLeituraDataSource(primario, Arrays.asList(replica1),
+				janela, Duration.ofMinutes(1));
+		iniciarTransacao(true);
+		
+		//execucao
+		Connection primeira = roteamento.getConnection();
+		Connection segunda = roteamento.getConnection();
+		
+		//verificacao
+		Assertions.assertThat(primeira).isSameAs(conexaoPrimario);
+		Assertions.assertThat(segunda).isSameAs(conexaoPrimario);
+		// durante a quarentena a réplica nem é tentada
+		Mockito.verify(replica1, Mockito.times(1)).getConnection();
+	}
+	
+	@Test
+	public void deveTentarAReplicaNovamenteAposAQuarentena() throws SQLException {
+		//cenario
+		Mockito.when(replica1.getConnection()).thenThrow(new SQLException("Connection refused")).thenReturn(conexaoReplica1);
+		RoteamentoLeituraDataSource roteamento = new RoteamentoLeituraDataSource(primario, Arrays.asList(replica1),
+				janela, Duration.ZERO);
+		iniciarTransacao(true);
+		
+		//execucao
+		Connection primeira = roteamento.getConnection();
+		Connection segunda = roteamento.getConnection();
+		
+		//verificacao
+		Assertions.assertThat(primeira).isSameAs(conexaoPrimario);
+		Assertions.assertThat(segunda).isSameAs(conexaoReplica1);
+	}
+	
+	private RoteamentoLeituraDataSource criarRoteamento(Duration quarentena) {
+		return new RoteamentoLeituraDataSource(primario, Arrays.asList(replica1, replica2), janela, quarentena);
+	}
+	
+	private static void iniciarTransacao(boolean somenteLeitura) {
+		if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.initSynchronization();
+		}
+		TransactionSynchronizationManager.setActualTransactionActive(true);
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(somenteLeitura);
+	}
+	
+	private static void concluirTransacao() {
+		TransactionSynchronizationManager.getSynchronizations()
+			.forEach(sincronizacao -> sincronizacao.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+		TransactionSynchronizationManager.clearSynchronization();
+		TransactionSynchronizationManager.setActualTransactionActive(false);
+	}
+	
+	private static void autenticar(Long idUsuario) {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setAttribute(TokenAutenticacaoFilter.ID_USUARIO, idUsuario);
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+	}
+}
@@ -0,0 +1,34 @@
+package com.minhasfinancas.config;
+
+import java.util.concurrent.ExecutorService;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class ThreadsVirtuaisConfigTest {
+
+	@Test
+	public void deveExecutarTarefasEmThreadsVirtuais() throws Exception {
+		Assume.assumeTrue(Runtime.version().feature() >= 21);
+		
+		//execucao
+		ExecutorService executor = ThreadsVirtuaisConfig.criarExecutor();
+		Object virtual = executor.submit(() -> Thread.class.getMethod("isVirtual").invoke(Thread.currentThread())).get();
+		executor.shutdown();
+		
+		//verificacao
+		Assertions.assertThat(virtual).isEqualTo(true);
+	}
+	
+	@Test
+	public void deveRecusarOPerfilEmVersoesSemThreadsVirtuais() {
+		Assume.assumeTrue(Runtime.version().feature() < 21);
+		
+		//execucao
+		Throwable erro = Assertions.catchThrowable(ThreadsVirtuaisConfig::criarExecutor);
+		
+		//verificacao
+		Assertions.assertThat(erro).isInstanceOf(IllegalStateException.class).hasMessageContaining("Java 21");
+	}
+}
@@ -0,0 +1,62 @@
+package com.minhasfinancas.model.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+public class IndicesLancamentoTest {
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	
+	@Test
+	public void deveUsarOIndiceDeUsuarioAnoEMesNaConsultaPorPeriodo() {
+		String plano = explicar("select * from financas.lancamento where id_usuario = 1 and ano = 2022 and mes = 5");
+		
+		assertThat(plano).containsIgnoringCase("idx_lancamento_usuario_ano_mes");
+	}
+	
+	@Test
+	public void deveUsarOIndiceDeUsuarioTipoEStatusNaConsultaDeSaldo() {
+		String plano = explicar("select tipo, status, sum(valor) from financas.lancamento "
+				+ "where id_usuario = 1 and tipo = 'RECEITA' and status = 'EFETIVADO' group by tipo, status");
+		
+		assertThat(plano).containsIgnoringCase("idx_lancamento_usuario_tipo_status");
+	}
+	
+	@Test
+	public void deveUsarOIndiceUnicoNaBuscaPorEmail() {
+		String plano = explicar("select * from financas.usuario where email = 'usuario@email.com'");
+		
+		assertThat(plano).containsIgnoringCase("uk_usuario_email");
+	}
+	
+	@Test
+	public void naoDevePermitirDoisUsuariosComOMesmoEmail() {
+		usuarioRepository.saveAndFlush(UsuarioRepositoryTest.criarUsuario());
+		
+		Throwable erro = catchThrowable(() -> usuarioRepository.saveAndFlush(UsuarioRepositoryTest.criarUsuario()));
+		
+		assertThat(erro).isInstanceOf(DataIntegrityViolationException.class);
+	}
+	
+	private String explicar(String sql) {
+		return jdbcTemplate.queryForObject("explain " + sql, String.class);
+	}
+}
@@ -2,6 +2,9 @@ package com.minhasfinancas.model.repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
@@ -16,8 +19,10 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 
 import com.minhasfinancas.model.entity.Lancamento;
+import com.minhasfinancas.model.entity.Usuario;
 import com.minhasfinancas.model.enums.StatusLancamento;
 import com.minhasfinancas.model.enums.TipoLancamento;
+import com.minhasfinancas.model.projection.TotalPorTipoEStatus;
 
 @RunWith(SpringRunner.class)
 @ActiveProfiles("test")
@@ -78,6 +83,130 @@ public class LancamentoRepositoryTest {
 		assertThat(lancamentoAtualizado.getStatus()).isEqualTo(StatusLancamento.CANCELADO);
 	}
 
+	@Test
+	public void deveSomarOsLancamentosDoUsuarioPorTipoEStatus() {
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		
+		Lancamento receita = criarLancamento();
+		receita.setUsuario(usuario);
+		entityManager.persist(receita);
+		
+		Lancamento outraReceita = criarLancamento();
+		outraReceita.setUsuario(usuario);
+		entityManager.persist(outraReceita);
+		
+		Lancamento despesa = criarLancamento();
+		despesa.setUsuario(usuario);
+		despesa.setTipo(TipoLancamento.DESPESA);
+		despesa.setStatus(StatusLancamento.CANCELADO);
+		entityManager.persist(despesa);
+		
+		List<TotalPorTipoEStatus> totais = repository.obterTotaisPorTipoEStatus(usuario.getId());
+		
+		assertThat(totais).hasSize(2);
+		assertThat(totais).anySatisfy(total -> {
+			assertThat(total.getTipo()).isEqualTo(TipoLancamento.RECEITA);
+			assertThat(total.getStatus()).isEqualTo(StatusLancamento.PENDENTE);
+			assertThat(total.getTotal()).isEqualByComparingTo("20");
+		});
+		assertThat(totais).anySatisfy(total -> {
+			assertThat(total.getTipo()).isEqualTo(TipoLancamento.DESPESA);
+			assertThat(total.getStatus()).isEqualTo(StatusLancamento.CANCELADO);
+			assertThat(total.getTotal()).isEqualByComparingTo("10");
+		});
+	}
+
+	@Test
+	public void deveBuscarLancamentosAposOCursorInformado() {
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		
+		Lancamento primeiro = criarLancamento();
+		primeiro.setUsuario(usuario);
+		entityManager.persist(primeiro);
+		
+		Lancamento segundo = criarLancamento();
+		segundo.setUsuario(usuario);
+		entityManager.persist(segundo);
+		
+		Lancamento terceiro = criarLancamento();
+		terceiro.setUsuario(usuario);
+		entityManager.persist(terceiro);
+		
+		List<Lancamento> pagina = repository.buscarAposId(LancamentoSpecifications.doUsuario(usuario.getId()), primeiro.getId(), 1);
+		
+		assertThat(pagina).extracting(Lancamento::getId).containsExactly(segundo.getId());
+		assertThat(entityManager.getEntityManager().contains(pagina.get(0))).isFalse();
+	}
+
+	@Test
+	public void deveSalvarLancamentosEmLote() {
+		List<Lancamento> lancamentos = Arrays.asList(criarLancamento(), criarLancamento(), criarLancamento());
+		
+		repository.salvarEmLote(lancamentos);
+		
+		assertThat(lancamentos).extracting(Lancamento::getId).doesNotContainNull().doesNotHaveDuplicates();
+		assertThat(entityManager.getEntityManager().contains(lancamentos.get(0))).isFalse();
+		assertThat(repository.count()).isEqualTo(3);
+	}
+
+	@Test
+	public void devePercorrerOsLancamentosDoUsuarioDesanexandoCadaUm() {
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		
+		Lancamento fevereiro = criarLancamento();
+		fevereiro.setMes(2);
+		fevereiro.setUsuario(usuario);
+		entityManager.persist(fevereiro);
+		
+		Lancamento janeiro = criarLancamento();
+		janeiro.setUsuario(usuario);
+		entityManager.persist(janeiro);
+		
+		entityManager.persist(criarLancamento());
+		entityManager.flush();
+		entityManager.clear();
+		
+		List<Lancamento> percorridos = new ArrayList<>();
+		repository.percorrerPorUsuario(usuario.getId(), percorridos::add);
+		
+		assertThat(percorridos).extracting(Lancamento::getId).containsExactly(janeiro.getId(), fevereiro.getId());
+		assertThat(percorridos).noneMatch(entityManager.getEntityManager()::contains);
+	}
+
+	@Test
+	public void deveBuscarPorTextoIgnorandoAcentosEMaiusculas() {
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		
+		Lancamento escolar = criarLancamento();
+		escolar.setDescricao("Alimentação escolar");
+		escolar.setUsuario(usuario);
+		entityManager.persist(escolar);
+		
+		Lancamento mercado = criarLancamento();
+		mercado.setDescricao("ALIMENTACAO - mercado");
+		mercado.setUsuario(usuario);
+		entityManager.persist(mercado);
+		
+		Lancamento aluguel = criarLancamento();
+		aluguel.setDescricao("Aluguel");
+		aluguel.setUsuario(usuario);
+		entityManager.persist(aluguel);
+		
+		Lancamento deOutroUsuario = criarLancamento();
+		deOutroUsuario.setDescricao("Alimentação");
+		entityManager.persist(deOutroUsuario);
+		entityManager.flush();
+		
+		List<Lancamento> todos = repository.buscarPorTexto(usuario.getId(), "alimentação", 0, 10);
+		List<Lancamento> todosOsTermos = repository.buscarPorTexto(usuario.getId(), "Alimentacao  Escolar", 0, 10);
+		List<Lancamento> segundaPagina = repository.buscarPorTexto(usuario.getId(), "alimentacao", 1, 1);
+		
+		assertThat(todos).extracting(Lancamento::getId).containsExactly(mercado.getId(), escolar.getId());
+		assertThat(todosOsTermos).extracting(Lancamento::getId).containsExactly(escolar.getId());
+		assertThat(segundaPagina).extracting(Lancamento::getId).containsExactly(escolar.getId());
+		assertThat(repository.buscarPorTexto(usuario.getId(), "100%", 0, 10)).isEmpty();
+	}
+
 	public static Lancamento criarLancamento() {
 		return Lancamento.builder()
 				.ano(2019)
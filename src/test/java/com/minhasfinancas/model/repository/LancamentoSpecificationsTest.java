@@ -0,0 +1,202 @@
+package com.minhasfinancas.model.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.minhasfinancas.model.entity.Lancamento;
+import com.minhasfinancas.model.entity.Usuario;
+import com.minhasfinancas.model.enums.StatusLancamento;
+import com.minhasfinancas.model.enums.TipoLancamento;
+
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+		+ "com.minhasfinancas.model.repository.LancamentoSpecificationsTest$ConsultasExecutadas")
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+public class LancamentoSpecificationsTest {
+
+	@Autowired
+	LancamentoRepository repository;
+	
+	@Autowired
+	TestEntityManager entityManager;
+	
+	Usuario usuario;
+	
+	@Before
+	public void setUp() {
+		usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		persistir("Aluguel", 2022, 5, "1500", TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, LocalDate.of(2022, 5, 5));
+		persistir("Salário", 2022, 5, "5000", TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, LocalDate.of(2022, 5, 1));
+		persistir("Mercado", 2022, 5, "800", TipoLancamento.DESPESA, StatusLancamento.PENDENTE, LocalDate.of(2022, 5, 20));
+		persistir("Mercado", 2022, 6, "750", TipoLancamento.DESPESA, StatusLancamento.CANCELADO, LocalDate.of(2022, 6, 2));
+		entityManager.flush();
+		entityManager.clear();
+		ConsultasExecutadas.limpar();
+	}
+	
+	@Test
+	public void deveFiltrarPorFaixaDeValorDataTiposEStatus() {
+		LancamentoFiltro filtro = LancamentoFiltro.builder()
+				.idUsuario(usuario.getId())
+				.valorMinimo(new BigDecimal("700"))
+				.valorMaximo(new BigDecimal("2000"))
+				.dataCadastroInicial(LocalDate.of(2022, 5, 1))
+				.dataCadastroFinal(LocalDate.of(2022, 5, 31))
+				.tipos(Set.of(TipoLancamento.DESPESA))
+				.status(Set.of(StatusLancamento.PENDENTE, StatusLancamento.EFETIVADO))
+				.build();
+		
+		List<Lancamento> lancamentos = buscar(filtro);
+		
+		assertThat(lancamentos).extracting(Lancamento::getDescricao).containsExactly("Aluguel", "Mercado");
+		assertThat(ConsultasExecutadas.unica()).endsWith("where lancamento0_.id_usuario=? "
+				+ "and (lancamento0_.valor between ? and ?) "
+				+ "and (lancamento0_.data_cadastro between ? and ?) "
+				+ "and lancamento0_.tipo=? "
+				+ "and (lancamento0_.status in (? , ?)) "
+				+ "order by lancamento0_.ano asc, lancamento0_.mes asc, lancamento0_.id asc");
+	}
+	
+	@Test
+	public void deveUsarComparacoesAbertasQuandoSoUmLadoDoIntervaloForInformado() {
+		LancamentoFiltro filtro = LancamentoFiltro.builder()
+				.idUsuario(usuario.getId())
+				.valorMinimo(new BigDecimal("1000"))
+				.dataCadastroFinal(LocalDate.of(2022, 5, 10))
+				.build();
+		
+		List<Lancamento> lancamentos = buscar(filtro);
+		
+		assertThat(lancamentos).extracting(Lancamento::getDescricao).containsExactlyInAnyOrder("Aluguel", "Salário");
+		assertThat(ConsultasExecutadas.unica()).contains("where lancamento0_.id_usuario=? "
+				+ "and lancamento0_.valor>=? "
+				+ "and lancamento0_.data_cadastro<=? ");
+	}
+	
+	@Test
+	public void naoDeveFazerJoinComUsuarioNemCompararCamposDoUsuario() {
+		Lancamento exemplo = Lancamento.builder()
+				.usuario(usuario)
+				.ano(2022)
+				.mes(5)
+				.build();
+		
+		List<Lancamento> lancamentos = repository.findAll(LancamentoSpecifications.porFiltro(exemplo),
+				LancamentoSpecifications.ordenacao(null));
+		
+		assertThat(lancamentos).hasSize(3);
+		String sql = ConsultasExecutadas.unica();
+		assertThat(sql).endsWith("where lancamento0_.id_usuario=? and lancamento0_.mes=? and lancamento0_.ano=? "
+				+ "order by lancamento0_.ano asc, lancamento0_.mes asc, lancamento0_.id asc");
+		assertThat(sql.substring(0, sql.indexOf(" where "))).doesNotContain("join");
+	}
+	
+	@Test
+	public void deveBuscarADescricaoPorTrechoSemDiferenciarMaiusculas() {
+		LancamentoFiltro filtro = LancamentoFiltro.builder()
+				.idUsuario(usuario.getId())
+				.descricao("MERC")
+				.ordenacao(Sort.by(Sort.Direction.DESC, "valor"))
+				.build();
+		
+		List<Lancamento> lancamentos = buscar(filtro);
+		
+		assertThat(lancamentos).extracting(Lancamento::getValor)
+			.usingElementComparator(BigDecimal::compareTo)
+			.containsExactly(new BigDecimal("800"), new BigDecimal("750"));
+		assertThat(ConsultasExecutadas.unica()).endsWith("where lancamento0_.id_usuario=? "
+				+ "and (lower(lancamento0_.descricao) like ? escape ?) "
+				+ "order by lancamento0_.valor desc, lancamento0_.id asc");
+	}
+	
+	@Test
+	public void deveTratarOsCuringasDaDescricaoComoTexto() {
+		persistir("Desconto 50%", 2022, 7, "10", TipoLancamento.RECEITA, StatusLancamento.PENDENTE, LocalDate.of(2022, 7, 1));
+		persistir("Desconto 500", 2022, 7, "10", TipoLancamento.RECEITA, StatusLancamento.PENDENTE, LocalDate.of(2022, 7, 1));
+		persistir("Taxa a_b", 2022, 7, "10", TipoLancamento.DESPESA, StatusLancamento.PENDENTE, LocalDate.of(2022, 7, 1));
+		persistir("Taxa axb", 2022, 7, "10", TipoLancamento.DESPESA, StatusLancamento.PENDENTE, LocalDate.of(2022, 7, 1));
+		
+		assertThat(buscar(comDescricao("50%"))).extracting(Lancamento::getDescricao).containsExactly("Desconto 50%");
+		assertThat(buscar(comDescricao("a_b"))).extracting(Lancamento::getDescricao).containsExactly("Taxa a_b");
+		assertThat(buscar(comDescricao("\\"))).isEmpty();
+	}
+	
+	@Test
+	public void deveIgnorarMaiusculasIndependenteDoIdiomaPadrao() {
+		Locale padrao = Locale.getDefault();
+		Locale.setDefault(new Locale("tr", "TR"));
+		try {
+			assertThat(buscar(comDescricao("SALÁRIO"))).extracting(Lancamento::getDescricao).containsExactly("Salário");
+		} finally {
+			Locale.setDefault(padrao);
+		}
+	}
+	
+	private LancamentoFiltro comDescricao(String descricao) {
+		return LancamentoFiltro.builder()
+				.idUsuario(usuario.getId())
+				.descricao(descricao)
+				.build();
+	}
+	
+	private List<Lancamento> buscar(LancamentoFiltro filtro) {
+		return repository.findAll(LancamentoSpecifications.porFiltro(filtro),
+				LancamentoSpecifications.ordenacao(filtro.getOrdenacao()));
+	}
+	
+	private void persistir(String descricao, int ano, int mes, String valor, TipoLancamento tipo,
+			StatusLancamento status, LocalDate dataCadastro) {
+		entityManager.persist(Lancamento.builder()
+				.usuario(usuario)
+				.descricao(descricao)
+				.ano(ano)
+				.mes(mes)
+				.valor(new BigDecimal(valor))
+				.tipo(tipo)
+				.status(status)
+				.dataCadastro(dataCadastro)
+				.build());
+	}
+	
+	public static class ConsultasExecutadas implements StatementInspector {
+		
+		private static final List<String> CONSULTAS = new CopyOnWriteArrayList<>();
+		
+		@Override
+		public String inspect(String sql) {
+			if(sql.contains("from financas.lancamento")) {
+				CONSULTAS.add(sql);
+			}
+			return sql;
+		}
+		
+		static void limpar() {
+			CONSULTAS.clear();
+		}
+		
+		static String unica() {
+			assertThat(CONSULTAS).hasSize(1);
+			return CONSULTAS.get(0);
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package com.minhasfinancas.model.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.minhasfinancas.model.entity.ResumoMensal;
+import com.minhasfinancas.model.entity.Usuario;
+import com.minhasfinancas.model.enums.StatusLancamento;
+import com.minhasfinancas.model.enums.TipoLancamento;
+
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+public class ResumoMensalRepositoryTest {
+
+	@Autowired
+	ResumoMensalRepository repository;
+	
+	@Autowired
+	TestEntityManager entityManager;
+	
+	@Test
+	public void deveSomarADiferencaAoResumoExistente() {
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		entityManager.persist(resumo(usuario, 2020, 1, 100));
+		entityManager.flush();
+		
+		int atualizados = repository.somar(usuario.getId(), 2020, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE,
+				BigDecimal.valueOf(-30), -1l);
+		entityManager.clear();
+		
+		assertThat(atualizados).isEqualTo(1);
+		List<ResumoMensal> resumos = repository.obterPorPeriodo(usuario.getId(), 2020, 2020);
+		assertThat(resumos).hasSize(1);
+		assertThat(resumos.get(0).getTotal()).isEqualByComparingTo("70");
+		assertThat(resumos.get(0).getQuantidade()).isEqualTo(1l);
+	}
+	
+	@Test
+	public void naoDeveSomarQuandoOResumoNaoExistir() {
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		
+		int atualizados = repository.somar(usuario.getId(), 2020, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE,
+				BigDecimal.TEN, 1l);
+		
+		assertThat(atualizados).isZero();
+	}
+	
+	@Test
+	public void deveObterOsResumosDoPeriodoOrdenadosPorCompetencia() {
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		entityManager.persist(resumo(usuario, 2021, 2, 10));
+		entityManager.persist(resumo(usuario, 2020, 11, 10));
+		entityManager.persist(resumo(usuario, 2021, 1, 10));
+		entityManager.persist(resumo(usuario, 2022, 1, 10));
+		
+		List<ResumoMensal> resumos = repository.obterPorPeriodo(usuario.getId(), 2020, 2021);
+		
+		assertThat(resumos).extracting(ResumoMensal::getMes).containsExactly(11, 1, 2);
+	}
+	
+	private static ResumoMensal resumo(Usuario usuario, int ano, int mes, int total) {
+		return new ResumoMensal(usuario.getId(), ano, mes, TipoLancamento.RECEITA, StatusLancamento.PENDENTE,
+				BigDecimal.valueOf(total), 2l);
+	}
+}
@@ -89,6 +89,23 @@ public class UsuarioRepositoryTest {
 		
 	}
 	
+	@Test
+	public void deveTrocarASenhaSomenteSeAindaForALida() {
+		//cenário
+		Usuario usuario = entityManager.persist(criarUsuario());
+		
+		//execucao
+		int primeira = usuarioRepository.atualizarSenha(usuario.getId(), "senha", "{bcrypt}nova");
+		int segunda = usuarioRepository.atualizarSenha(usuario.getId(), "senha", "{bcrypt}outra");
+		
+		//verificacao
+		Assertions.assertThat(primeira).isEqualTo(1);
+		Assertions.assertThat(segunda).isZero();
+		Usuario gravado = entityManager.find(Usuario.class, usuario.getId());
+		Assertions.assertThat(gravado.getSenha()).isEqualTo("{bcrypt}nova");
+		Assertions.assertThat(gravado.getVersao()).isEqualTo(1l);
+	}
+	
 	public static Usuario criarUsuario() {
 		return Usuario
 				.builder().nome("usuario").email("usuario@email.com")
@@ -0,0 +1,185 @@
+package com.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.time.Year;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.minhasfinancas.model.entity.Lancamento;
+import com.minhasfinancas.model.entity.Usuario;
+import com.minhasfinancas.model.enums.StatusLancamento;
+import com.minhasfinancas.model.enums.TipoLancamento;
+import com.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import com.minhasfinancas.model.repository.UsuarioRepository;
+import com.minhasfinancas.model.repository.UsuarioRepositoryTest;
+
+/**
+ * Arquivamento contra o H2, que não tem partições: os anos encerrados saem de
+ * {@code financas.lancamento} para {@code financas_arquivo} e o saldo continua
+ * o mesmo pelos totais anuais.
+ */
+@SpringBootTest
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+public class ArquivamentoServiceTest {
+	
+	private static final int ANO_ATUAL = Year.now().getValue();
+	
+	private static final int ANO_ENCERRADO = ANO_ATUAL - 5;
+	
+	private static final int OUTRO_ANO_ENCERRADO = ANO_ATUAL - 4;
+	
+	@Autowired
+	ArquivamentoService service;
+	
+	@Autowired
+	LancamentoService lancamentoService;
+	
+	@Autowired
+	SaldoService saldoService;
+	
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	Usuario usuario;
+	
+	SaldoDetalhado saldoAntes;
+	
+	@Before
+	public void setUp() {
+		usuario = usuarioRepository.save(UsuarioRepositoryTest.criarUsuario());
+		salvar(ANO_ENCERRADO, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 1000);
+		salvar(ANO_ENCERRADO, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, 300);
+		salvar(ANO_ENCERRADO, TipoLancamento.DESPESA, StatusLancamento.CANCELADO, 50);
+		salvar(OUTRO_ANO_ENCERRADO, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 200);
+		salvar(ANO_ATUAL, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 100);
+		saldoAntes = lancamentoService.obterSaldoDetalhadoPorUsuario(usuario.getId());
+	}
+	
+	@After
+	public void tearDown() {
+		for(int ano : new int[] {ANO_ENCERRADO, OUTRO_ANO_ENCERRADO}) {
+			jdbcTemplate.update("drop table if exists financas_arquivo.lancamento_" + ano);
+		}
+		jdbcTemplate.update("delete from financas.total_anual_arquivado where id_usuario = ?", usuario.getId());
+		jdbcTemplate.update("delete from financas.resumo_mensal where id_usuario = ?", usuario.getId());
+		jdbcTemplate.update("delete from financas.saldo_usuario where id_usuario = ?", usuario.getId());
+		jdbcTemplate.update("delete from financas.lancamento where id_usuario = ?", usuario.getId());
+		jdbcTemplate.update("delete from financas.usuario where id = ?", usuario.getId());
+	}
+	
+	@Test
+	public void deveArquivarOsAnosEncerradosMantendoOSaldo() {
+		//execucao
+		service.arquivar(ANO_ATUAL);
+		
+		//verificacao
+		Assertions.assertThat(contar("financas.lancamento")).isEqualTo(1);
+		Assertions.assertThat(contar("financas_arquivo.lancamento_" + ANO_ENCERRADO)).isEqualTo(3);
+		Assertions.assertThat(contar("financas_arquivo.lancamento_" + OUTRO_ANO_ENCERRADO)).isEqualTo(1);
+		Assertions.assertThat(totalArquivado(ANO_ENCERRADO, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO))
+			.isEqualByComparingTo("1000");
+		Assertions.assertThat(totalArquivado(ANO_ENCERRADO, TipoLancamento.DESPESA, StatusLancamento.CANCELADO))
+			.isEqualByComparingTo("50");
+		assertSaldoMantido();
+	}
+	
+	@Test
+	public void deveManterOLancamentoRecorrenteDeOrigemNoArquivo() {
+		//cenario
+		jdbcTemplate.update("update financas.lancamento set id_recorrente = 42 where id_usuario = ? and ano = ? and valor = 1000",
+				usuario.getId(), ANO_ENCERRADO);
+		
+		//execucao
+		service.arquivar(ANO_ATUAL);
+		
+		//verificacao
+		Assertions.assertThat(jdbcTemplate.queryForList("select id_recorrente from financas_arquivo.lancamento_" + ANO_ENCERRADO
+				+ " where id_usuario = ? order by valor desc", Long.class, usuario.getId()))
+			.containsExactly(42l, null, null);
+	}
+	
+	@Test
+	public void naoDeveArquivarNovamenteOsAnosJaArquivados() {
+		//cenario
+		service.arquivar(ANO_ATUAL);
+		
+		//execucao
+		service.arquivar(ANO_ATUAL);
+		
+		//verificacao
+		Assertions.assertThat(contar("financas_arquivo.lancamento_" + ANO_ENCERRADO)).isEqualTo(3);
+		Assertions.assertThat(totalArquivado(ANO_ENCERRADO, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO))
+			.isEqualByComparingTo("1000");
+		assertSaldoMantido();
+	}
+	
+	@Test
+	public void deveSomarAosTotaisOsLancamentosQueChegaramAposOArquivamento() {
+		//cenario
+		service.arquivar(ANO_ATUAL);
+		salvar(ANO_ENCERRADO, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 500);
+		saldoAntes = lancamentoService.obterSaldoDetalhadoPorUsuario(usuario.getId());
+		
+		//execucao
+		service.arquivar(ANO_ATUAL);
+		
+		//verificacao
+		Assertions.assertThat(contar("financas.lancamento")).isEqualTo(1);
+		Assertions.assertThat(contar("financas_arquivo.lancamento_" + ANO_ENCERRADO)).isEqualTo(4);
+		Assertions.assertThat(totalArquivado(ANO_ENCERRADO, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO))
+			.isEqualByComparingTo("1500");
+		assertSaldoMantido();
+	}
+	
+	@Test
+	public void deveManterOsAnosAtivos() {
+		//execucao
+		service.arquivar(OUTRO_ANO_ENCERRADO + 1);
+		
+		//verificacao
+		Assertions.assertThat(contar("financas.lancamento")).isEqualTo(2);
+		Assertions.assertThat(contar("financas_arquivo.lancamento_" + ANO_ENCERRADO)).isEqualTo(3);
+		assertSaldoMantido();
+	}
+	
+	private void salvar(int ano, TipoLancamento tipo, StatusLancamento status, int valor) {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(usuario);
+		lancamento.setAno(ano);
+		lancamento.setTipo(tipo);
+		lancamento.setValor(BigDecimal.valueOf(valor));
+		Lancamento salvo = lancamentoService.salvar(lancamento);
+		if(status != StatusLancamento.PENDENTE) {
+			lancamentoService.atualizarStatus(salvo, status);
+		}
+	}
+	
+	private Long contar(String tabela) {
+		return jdbcTemplate.queryForObject("select count(*) from " + tabela + " where id_usuario = ?", Long.class, usuario.getId());
+	}
+	
+	private BigDecimal totalArquivado(int ano, TipoLancamento tipo, StatusLancamento status) {
+		return jdbcTemplate.queryForObject("select total from financas.total_anual_arquivado "
+				+ "where id_usuario = ? and ano = ? and tipo = ? and status = ?", BigDecimal.class,
+				usuario.getId(), ano, tipo.name(), status.name());
+	}
+	
+	private void assertSaldoMantido() {
+		Assertions.assertThat(lancamentoService.obterSaldoDetalhadoPorUsuario(usuario.getId())).isEqualTo(saldoAntes);
+		Assertions.assertThat(saldoService.conciliar(false)).noneMatch(divergencia ->
+				divergencia.getIdUsuario().equals(usuario.getId()));
+	}
+}
@@ -0,0 +1,177 @@
+package com.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.assertj.core.api.Assertions;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.minhasfinancas.model.entity.Lancamento;
+import com.minhasfinancas.model.entity.Usuario;
+import com.minhasfinancas.model.enums.StatusLancamento;
+import com.minhasfinancas.model.repository.LancamentoRepository;
+import com.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import com.minhasfinancas.model.repository.UsuarioRepository;
+import com.minhasfinancas.model.repository.UsuarioRepositoryTest;
+
+/**
+ * Controle de versão e atualização parcial de lançamentos contra o banco.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+		+ "com.minhasfinancas.service.AtualizacaoParcialLancamentoTest$ComandosExecutados")
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+public class AtualizacaoParcialLancamentoTest {
+
+	@Autowired
+	LancamentoService service;
+	
+	@Autowired
+	SaldoService saldoService;
+	
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	
+	@Autowired
+	LancamentoRepository lancamentoRepository;
+	
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	Usuario usuario;
+	
+	Lancamento lancamento;
+	
+	@Before
+	public void setUp() {
+		usuario = usuarioRepository.save(UsuarioRepositoryTest.criarUsuario());
+		lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(usuario);
+		lancamento = service.salvar(lancamento);
+		ComandosExecutados.limpar();
+	}
+	
+	@After
+	public void tearDown() {
+		jdbcTemplate.update("delete from financas.resumo_mensal where id_usuario = ?", usuario.getId());
+		jdbcTemplate.update("delete from financas.saldo_usuario where id_usuario = ?", usuario.getId());
+		jdbcTemplate.update("delete from financas.lancamento where id_usuario = ?", usuario.getId());
+		jdbcTemplate.update("delete from financas.usuario where id = ?", usuario.getId());
+	}
+	
+	@Test
+	public void deveAtualizarSomenteAsColunasAlteradasConferindoAVersao() {
+		//execucao
+		Lancamento atualizado = service.atualizarParcialmente(usuario.getId(), lancamento.getId(), 0l,
+				Lancamento.builder().status(StatusLancamento.EFETIVADO).build()).get();
+		
+		//verificacao
+		Assertions.assertThat(atualizado.getVersao()).isEqualTo(1l);
+		Assertions.assertThat(ComandosExecutados.unico())
+			.isEqualTo("update financas.lancamento set status=?, versao=? where id=? and versao=?");
+		
+		Lancamento persistido = lancamentoRepository.findById(lancamento.getId()).get();
+		Assertions.assertThat(persistido.getStatus()).isEqualTo(StatusLancamento.EFETIVADO);
+		Assertions.assertThat(persistido.getDescricao()).isEqualTo(lancamento.getDescricao());
+		Assertions.assertThat(saldoService.conciliar(false)).noneMatch(divergencia ->
+				divergencia.getIdUsuario().equals(usuario.getId()));
+	}
+	
+	@Test
+	public void deveRecusarAtualizacaoParcialComVersaoDesatualizada() {
+		//cenario
+		service.atualizarParcialmente(usuario.getId(), lancamento.getId(), 0l, Lancamento.builder().valor(BigDecimal.valueOf(20)).build());
+		ComandosExecutados.limpar();
+		
+		//execucao
+		Throwable erro = Assertions.catchThrowable(() -> service.atualizarParcialmente(usuario.getId(), lancamento.getId(), 0l,
+				Lancamento.builder().valor(BigDecimal.valueOf(30)).build()));
+		
+		//verificacao
+		Assertions.assertThat(erro).isInstanceOf(OptimisticLockingFailureException.class);
+		Assertions.assertThat(ComandosExecutados.todos()).isEmpty();
+		Assertions.assertThat(lancamentoRepository.findById(lancamento.getId()).get().getValor())
+			.isEqualByComparingTo("20");
+		Assertions.assertThat(saldoService.obterSaldo(usuario.getId())).hasValueSatisfying(saldo ->
+				Assertions.assertThat(saldo).isEqualByComparingTo("20"));
+	}
+	
+	@Test
+	public void naoDeveAtualizarParcialmenteLancamentoDeOutroUsuario() {
+		//execucao
+		Optional<Lancamento> atualizado = service.atualizarParcialmente(usuario.getId() + 1000, lancamento.getId(), 0l,
+				Lancamento.builder().valor(BigDecimal.valueOf(30)).build());
+		
+		//verificacao
+		Assertions.assertThat(atualizado).isEmpty();
+		Assertions.assertThat(ComandosExecutados.todos()).isEmpty();
+	}
+	
+	@Test
+	public void naoDeveSobrescreverAlteracaoDeOutroClienteLidoAntes() {
+		//cenario
+		Lancamento primeiroCliente = lancamentoRepository.findById(lancamento.getId()).get();
+		Lancamento segundoCliente = lancamentoRepository.findById(lancamento.getId()).get();
+		
+		service.atualizarStatus(primeiroCliente, StatusLancamento.EFETIVADO);
+		
+		//execucao
+		Throwable erro = Assertions.catchThrowable(() ->
+				service.atualizarStatus(segundoCliente, StatusLancamento.CANCELADO));
+		
+		//verificacao
+		Assertions.assertThat(erro).isInstanceOf(OptimisticLockingFailureException.class);
+		Lancamento persistido = lancamentoRepository.findById(lancamento.getId()).get();
+		Assertions.assertThat(persistido.getStatus()).isEqualTo(StatusLancamento.EFETIVADO);
+		Assertions.assertThat(persistido.getVersao()).isEqualTo(1l);
+		Assertions.assertThat(saldoService.conciliar(false)).noneMatch(divergencia ->
+				divergencia.getIdUsuario().equals(usuario.getId()));
+	}
+	
+	@Test
+	public void deveIncrementarAVersaoNaAtualizacaoDeStatusEmLote() {
+		//execucao
+		service.atualizarStatusEmLote(usuario.getId(), List.of(lancamento.getId()), null, StatusLancamento.CANCELADO);
+		
+		//verificacao
+		Assertions.assertThat(lancamentoRepository.findById(lancamento.getId()).get().getVersao()).isEqualTo(1l);
+	}
+	
+	public static class ComandosExecutados implements StatementInspector {
+		
+		private static final List<String> COMANDOS = new CopyOnWriteArrayList<>();
+		
+		@Override
+		public String inspect(String sql) {
+			if(sql.startsWith("update financas.lancamento")) {
+				COMANDOS.add(sql);
+			}
+			return sql;
+		}
+		
+		static void limpar() {
+			COMANDOS.clear();
+		}
+		
+		static List<String> todos() {
+			return COMANDOS;
+		}
+		
+		static String unico() {
+			Assertions.assertThat(COMANDOS).hasSize(1);
+			return COMANDOS.get(0);
+		}
+	}
+}
@@ -0,0 +1,167 @@
+package com.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.minhasfinancas.model.entity.Lancamento;
+import com.minhasfinancas.model.entity.Usuario;
+import com.minhasfinancas.model.enums.StatusLancamento;
+import com.minhasfinancas.model.enums.TipoLancamento;
+import com.minhasfinancas.model.repository.LancamentoRepository;
+import com.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import com.minhasfinancas.model.repository.UsuarioRepository;
+import com.minhasfinancas.model.repository.UsuarioRepositoryTest;
+
+/**
+ * Atualização de status em lote contra o banco: os UPDATEs condicionais e as
+ * diferenças aplicadas ao saldo consolidado e ao resumo mensal.
+ */
+@SpringBootTest
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+public class AtualizacaoStatusEmLoteTest {
+	
+	private static final String RESUMO_RECALCULADO = "select ano, mes, tipo, status, sum(valor) total, count(*) quantidade "
+			+ "from financas.lancamento where id_usuario = ? group by ano, mes, tipo, status order by ano, mes, tipo, status";
+	
+	private static final String RESUMO_CONSOLIDADO = "select ano, mes, tipo, status, total, quantidade "
+			+ "from financas.resumo_mensal where id_usuario = ? and quantidade > 0 order by ano, mes, tipo, status";
+
+	@Autowired
+	LancamentoService service;
+	
+	@Autowired
+	SaldoService saldoService;
+	
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	
+	@Autowired
+	LancamentoRepository lancamentoRepository;
+	
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	Usuario usuario;
+	
+	Lancamento salario;
+	
+	Lancamento aluguel;
+	
+	Lancamento mercado;
+	
+	Lancamento deJunho;
+	
+	@Before
+	public void setUp() {
+		usuario = usuarioRepository.save(UsuarioRepositoryTest.criarUsuario());
+		salario = salvar(TipoLancamento.RECEITA, 5, 5000);
+		aluguel = salvar(TipoLancamento.DESPESA, 5, 1500);
+		mercado = salvar(TipoLancamento.DESPESA, 5, 800);
+		deJunho = salvar(TipoLancamento.DESPESA, 6, 100);
+	}
+	
+	@After
+	public void tearDown() {
+		jdbcTemplate.update("delete from financas.resumo_mensal where id_usuario = ?", usuario.getId());
+		jdbcTemplate.update("delete from financas.saldo_usuario where id_usuario = ?", usuario.getId());
+		jdbcTemplate.update("delete from financas.lancamento where id_usuario = ?", usuario.getId());
+		jdbcTemplate.update("delete from financas.usuario where id = ?", usuario.getId());
+	}
+	
+	@Test
+	public void deveEfetivarOsPendentesDaCompetenciaMantendoSaldoEResumo() {
+		//execucao
+		ResultadoAtualizacaoStatus resultado = service.atualizarStatusEmLote(usuario.getId(), 2019, 5,
+				StatusLancamento.PENDENTE, StatusLancamento.EFETIVADO);
+		
+		//verificacao
+		Assertions.assertThat(resultado.getAtualizados()).isEqualTo(3);
+		Assertions.assertThat(resultado.getItens()).extracting(ResultadoAtualizacaoStatus.Item::getId)
+			.containsExactly(salario.getId(), aluguel.getId(), mercado.getId());
+		Assertions.assertThat(status(salario)).isEqualTo(StatusLancamento.EFETIVADO);
+		Assertions.assertThat(status(deJunho)).isEqualTo(StatusLancamento.PENDENTE);
+		assertSaldoEResumoConsistentes();
+	}
+	
+	@Test
+	public void deveCancelarPorIdsRetirandoDoSaldo() {
+		//execucao
+		ResultadoAtualizacaoStatus resultado = service.atualizarStatusEmLote(usuario.getId(),
+				Arrays.asList(aluguel.getId(), mercado.getId(), -1l), StatusLancamento.PENDENTE, StatusLancamento.CANCELADO);
+		
+		//verificacao
+		Assertions.assertThat(resultado.getAtualizados()).isEqualTo(2);
+		Assertions.assertThat(resultado.getItens()).extracting(ResultadoAtualizacaoStatus.Item::getSituacao).containsExactly(
+				ResultadoAtualizacaoStatus.Situacao.ATUALIZADO,
+				ResultadoAtualizacaoStatus.Situacao.ATUALIZADO,
+				ResultadoAtualizacaoStatus.Situacao.NAO_ENCONTRADO);
+		Assertions.assertThat(saldoService.obterSaldo(usuario.getId())).hasValueSatisfying(saldo ->
+				Assertions.assertThat(saldo).isEqualByComparingTo("4900"));
+		assertSaldoEResumoConsistentes();
+	}
+	
+	@Test
+	public void naoDeveAlterarLancamentosDeOutroUsuario() {
+		//cenario
+		Usuario outro = UsuarioRepositoryTest.criarUsuario();
+		outro.setEmail("outro@email.com");
+		outro = usuarioRepository.save(outro);
+		
+		try {
+			//execucao
+			ResultadoAtualizacaoStatus resultado = service.atualizarStatusEmLote(outro.getId(),
+					Arrays.asList(salario.getId()), null, StatusLancamento.CANCELADO);
+			
+			//verificacao
+			Assertions.assertThat(resultado.getAtualizados()).isZero();
+			Assertions.assertThat(resultado.getItens()).extracting(ResultadoAtualizacaoStatus.Item::getSituacao)
+				.containsExactly(ResultadoAtualizacaoStatus.Situacao.NAO_ENCONTRADO);
+			Assertions.assertThat(status(salario)).isEqualTo(StatusLancamento.PENDENTE);
+		} finally {
+			usuarioRepository.delete(outro);
+		}
+	}
+	
+	private void assertSaldoEResumoConsistentes() {
+		Assertions.assertThat(saldoService.conciliar(false)).noneMatch(divergencia ->
+				divergencia.getIdUsuario().equals(usuario.getId()));
+		
+		List<Map<String, Object>> consolidado = jdbcTemplate.queryForList(RESUMO_CONSOLIDADO, usuario.getId());
+		List<Map<String, Object>> recalculado = jdbcTemplate.queryForList(RESUMO_RECALCULADO, usuario.getId());
+		Assertions.assertThat(consolidado).hasSameSizeAs(recalculado);
+		for(int i = 0; i < recalculado.size(); i++) {
+			Assertions.assertThat(consolidado.get(i).get("STATUS")).isEqualTo(recalculado.get(i).get("STATUS"));
+			Assertions.assertThat(((Number) consolidado.get(i).get("QUANTIDADE")).longValue())
+				.isEqualTo(((Number) recalculado.get(i).get("QUANTIDADE")).longValue());
+			Assertions.assertThat((BigDecimal) consolidado.get(i).get("TOTAL"))
+				.isEqualByComparingTo((BigDecimal) recalculado.get(i).get("TOTAL"));
+		}
+	}
+	
+	private StatusLancamento status(Lancamento lancamento) {
+		return lancamentoRepository.findById(lancamento.getId()).get().getStatus();
+	}
+	
+	private Lancamento salvar(TipoLancamento tipo, int mes, int valor) {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(usuario);
+		lancamento.setTipo(tipo);
+		lancamento.setMes(mes);
+		lancamento.setValor(BigDecimal.valueOf(valor));
+		return service.salvar(lancamento);
+	}
+}
@@ -0,0 +1,205 @@
+package com.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.minhasfinancas.exceptions.CursorExpiradoException;
+import com.minhasfinancas.model.entity.EventoLancamento;
+import com.minhasfinancas.model.entity.Lancamento;
+import com.minhasfinancas.model.entity.Usuario;
+import com.minhasfinancas.model.enums.OperacaoLancamento;
+import com.minhasfinancas.model.enums.StatusLancamento;
+import com.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import com.minhasfinancas.model.repository.UsuarioRepository;
+import com.minhasfinancas.model.repository.UsuarioRepositoryTest;
+
+/**
+ * Outbox contra o banco: eventos gravados junto com cada escrita de
+ * lançamento, invisíveis até a publicação e lidos por cursor.
+ */
+@SpringBootTest
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@RecordApplicationEvents
+public class EventoLancamentoServiceTest {
+	
+	@Autowired
+	EventoLancamentoService service;
+	
+	@Autowired
+	LancamentoService lancamentoService;
+	
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	
+	@Autowired
+	PlatformTransactionManager transactionManager;
+	
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	@Autowired
+	ApplicationEvents eventosAplicacao;
+	
+	Usuario usuario;
+	
+	Usuario outroUsuario;
+	
+	long cursor;
+	
+	@Before
+	public void setUp() {
+		usuario = usuarioRepository.save(UsuarioRepositoryTest.criarUsuario());
+		Usuario outro = UsuarioRepositoryTest.criarUsuario();
+		outro.setEmail("outro@email.com");
+		outroUsuario = usuarioRepository.save(outro);
+		publicarTudo();
+		cursor = service.buscar(usuario.getId(), null, 100).getProximoCursor();
+	}
+	
+	@After
+	public void tearDown() {
+		for(Usuario usuario : new Usuario[] {usuario, outroUsuario}) {
+			jdbcTemplate.update("delete from financas.evento_lancamento where id_usuario = ?", usuario.getId());
+			jdbcTemplate.update("delete from financas.resumo_mensal where id_usuario = ?", usuario.getId());
+			jdbcTemplate.update("delete from financas.saldo_usuario where id_usuario = ?", usuario.getId());
+			jdbcTemplate.update("delete from financas.lancamento where id_usuario = ?", usuario.getId());
+			jdbcTemplate.update("delete from financas.usuario where id = ?", usuario.getId());
+		}
+	}
+	
+	@Test
+	public void deveRegistrarCadaEscritaEPublicarEmOrdem() {
+		//cenario
+		Lancamento lancamento = lancamentoService.salvar(lancamento(usuario));
+		lancamento.setValor(BigDecimal.valueOf(25));
+		lancamentoService.atualizar(lancamento);
+		lancamentoService.atualizarStatusEmLote(usuario.getId(), Arrays.asList(lancamento.getId()),
+				StatusLancamento.PENDENTE, StatusLancamento.EFETIVADO);
+		lancamentoService.apagar(lancamentoService.obterPorId(lancamento.getId()).get());
+		lancamentoService.salvar(lancamento(outroUsuario));
+		
+		//antes da publicação nada aparece
+		Assertions.assertThat(service.buscar(usuario.getId(), cursor, 100).getEventos()).isEmpty();
+		
+		//execucao
+		publicarTudo();
+		PaginaEventos pagina = service.buscar(usuario.getId(), cursor, 100);
+		
+		//verificacao
+		List<EventoLancamento> eventos = pagina.getEventos();
+		Assertions.assertThat(eventos).extracting(EventoLancamento::getOperacao).containsExactly(OperacaoLancamento.CRIADO,
+				OperacaoLancamento.ATUALIZADO, OperacaoLancamento.ATUALIZADO, OperacaoLancamento.APAGADO);
+		Assertions.assertThat(eventos).extracting(EventoLancamento::getIdLancamento).containsOnly(lancamento.getId());
+		Assertions.assertThat(eventos).extracting(EventoLancamento::getPosicao).isSorted();
+		Assertions.assertThat(eventos.get(0).getValor()).isEqualByComparingTo("10");
+		Assertions.assertThat(eventos.get(1).getValor()).isEqualByComparingTo("25");
+		Assertions.assertThat(eventos.get(2).getStatus()).isEqualTo(StatusLancamento.EFETIVADO);
+		Assertions.assertThat(eventos.get(2).getVersao()).isGreaterThan(eventos.get(1).getVersao());
+		Assertions.assertThat(eventos.get(3).getDescricao()).isNull();
+		Assertions.assertThat(pagina.getProximoCursor()).isGreaterThan(eventos.get(3).getPosicao());
+	}
+	
+	@Test
+	public void naoDeveRegistrarEventosDeUmaEscritaDesfeita() {
+		//execucao
+		try {
+			new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+				lancamentoService.salvar(lancamento(usuario));
+				throw new IllegalStateException("falha depois da escrita");
+			});
+		} catch (IllegalStateException e) {
+		}
+		publicarTudo();
+		
+		//verificacao
+		Assertions.assertThat(service.buscar(usuario.getId(), cursor, 100).getEventos()).isEmpty();
+	}
+	
+	@Test
+	public void deveAvisarDaPublicacaoSoDepoisDoCommit() {
+		//cenario
+		lancamentoService.salvar(lancamento(usuario));
+		eventosAplicacao.clear();
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		
+		//execucao: a primeira publicação é desfeita, a segunda confirmada
+		transactionTemplate.executeWithoutResult(status -> {
+			Assertions.assertThat(service.publicar(100)).isEqualTo(1);
+			status.setRollbackOnly();
+		});
+		long avisosAntesDoCommit = transactionTemplate.execute(status -> {
+			service.publicar(100);
+			return eventosAplicacao.stream(EventosLancamentoPublicadosEvent.class).count();
+		});
+		
+		//verificacao
+		Assertions.assertThat(avisosAntesDoCommit).isZero();
+		Assertions.assertThat(eventosAplicacao.stream(EventosLancamentoPublicadosEvent.class))
+			.singleElement()
+			.satisfies(publicados -> Assertions.assertThat(publicados.getEventos()).extracting(EventoLancamento::getPosicao)
+					.containsExactly(service.buscar(usuario.getId(), null, 1).getProximoCursor()));
+	}
+	
+	@Test
+	public void deveContinuarDoCursorDaPaginaAnterior() {
+		//cenario
+		lancamentoService.salvarLote(Arrays.asList(lancamento(usuario), lancamento(usuario), lancamento(usuario)));
+		publicarTudo();
+		
+		//execucao
+		PaginaEventos primeira = service.buscar(usuario.getId(), cursor, 2);
+		PaginaEventos segunda = service.buscar(usuario.getId(), primeira.getProximoCursor(), 2);
+		
+		//verificacao
+		Assertions.assertThat(primeira.getEventos()).hasSize(2);
+		Assertions.assertThat(primeira.getProximoCursor()).isEqualTo(primeira.getEventos().get(1).getPosicao());
+		Assertions.assertThat(segunda.getEventos()).hasSize(1);
+		Assertions.assertThat(service.buscar(usuario.getId(), segunda.getProximoCursor(), 2).getEventos()).isEmpty();
+	}
+	
+	@Test
+	public void deveRecusarUmCursorAnteriorAosEventosRetidos() {
+		//cenario
+		lancamentoService.salvar(lancamento(usuario));
+		lancamentoService.salvar(lancamento(usuario));
+		publicarTudo();
+		
+		//execucao
+		service.removerPublicadosAntesDe(LocalDateTime.now().plusDays(1));
+		
+		//verificacao
+		Assertions.assertThatThrownBy(() -> service.buscar(usuario.getId(), cursor, 100))
+			.isInstanceOf(CursorExpiradoException.class);
+		PaginaEventos atual = service.buscar(usuario.getId(), null, 100);
+		Assertions.assertThat(service.buscar(usuario.getId(), atual.getProximoCursor(), 100).getEventos()).isEmpty();
+	}
+	
+	private void publicarTudo() {
+		while(service.publicar(100) > 0) {
+		}
+	}
+	
+	private static Lancamento lancamento(Usuario usuario) {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(usuario);
+		return lancamento;
+	}
+}
@@ -0,0 +1,87 @@
+package com.minhasfinancas.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.minhasfinancas.model.entity.Lancamento;
+import com.minhasfinancas.model.repository.LancamentoRepository;
+import com.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import com.minhasfinancas.service.exportacao.FormatoExportacao;
+import com.minhasfinancas.service.impl.ExportacaoServiceImpl;
+
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+public class ExportacaoServiceTest {
+
+	@SpyBean
+	ExportacaoServiceImpl service;
+	
+	@MockBean
+	LancamentoRepository repository;
+	
+	@Before
+	@SuppressWarnings("unchecked")
+	public void setUp() {
+		Lancamento salario = LancamentoRepositoryTest.criarLancamento();
+		salario.setId(1l);
+		salario.setDescricao("Salário; janeiro");
+		salario.setValor(new BigDecimal("5000.50"));
+		
+		Lancamento mercado = LancamentoRepositoryTest.criarLancamento();
+		mercado.setId(2l);
+		mercado.setDescricao("Mercado");
+		
+		Mockito.doAnswer(invocacao -> {
+			Consumer<Lancamento> consumidor = invocacao.getArgument(1);
+			consumidor.accept(salario);
+			consumidor.accept(mercado);
+			return null;
+		}).when(repository).percorrerPorUsuario(Mockito.eq(1l), Mockito.any(Consumer.class));
+	}
+	
+	@Test
+	public void deveExportarOsLancamentosEmCsv() throws Exception {
+		//execucao
+		ByteArrayOutputStream saida = new ByteArrayOutputStream();
+		service.exportar(1l, FormatoExportacao.CSV, saida);
+		
+		//verificacao
+		String[] linhas = new String(saida.toByteArray(), StandardCharsets.UTF_8).split("\n");
+		Assertions.assertThat(linhas).hasSize(3);
+		Assertions.assertThat(linhas[0]).isEqualTo("id;descricao;mes;ano;valor;tipo;status;data_cadastro");
+		Assertions.assertThat(linhas[1]).startsWith("1;\"Salário; janeiro\";1;2019;5000.50;RECEITA;PENDENTE;");
+		Assertions.assertThat(linhas[2]).startsWith("2;Mercado;");
+	}
+	
+	@Test
+	public void deveExportarOsLancamentosEmXlsx() throws Exception {
+		//execucao
+		ByteArrayOutputStream saida = new ByteArrayOutputStream();
+		service.exportar(1l, FormatoExportacao.XLSX, saida);
+		
+		//verificacao
+		try (XSSFWorkbook planilha = new XSSFWorkbook(new ByteArrayInputStream(saida.toByteArray()))) {
+			Sheet aba = planilha.getSheetAt(0);
+			Assertions.assertThat(aba.getLastRowNum()).isEqualTo(2);
+			Assertions.assertThat(aba.getRow(0).getCell(1).getStringCellValue()).isEqualTo("descricao");
+			Assertions.assertThat(aba.getRow(1).getCell(1).getStringCellValue()).isEqualTo("Salário; janeiro");
+			Assertions.assertThat(aba.getRow(1).getCell(4).getNumericCellValue()).isEqualTo(5000.50);
+			Assertions.assertThat(aba.getRow(2).getCell(0).getNumericCellValue()).isEqualTo(2);
+		}
+	}
+}
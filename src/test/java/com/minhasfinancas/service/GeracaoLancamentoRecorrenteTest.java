@@ -0,0 +1,251 @@
+package com.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.minhasfinancas.model.entity.GeracaoRecorrencia;
+import com.minhasfinancas.model.entity.Lancamento;
+import com.minhasfinancas.model.entity.LancamentoRecorrente;
+import com.minhasfinancas.model.entity.Usuario;
+import com.minhasfinancas.model.enums.StatusLancamento;
+import com.minhasfinancas.model.enums.TipoLancamento;
+import com.minhasfinancas.model.repository.GeracaoRecorrenciaRepository;
+import com.minhasfinancas.model.repository.LancamentoRecorrenteRepository;
+import com.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import com.minhasfinancas.model.repository.UsuarioRepository;
+import com.minhasfinancas.model.repository.UsuarioRepositoryTest;
+
+/**
+ * Geração em lote da competência atual contra o banco, com uma faixa de um
+ * usuário por lote e duas threads: lançamentos criados, saldo e resumo mensal
+ * consistentes, retomada a partir do ponto registrado e nenhuma duplicação ao
+ * repetir a geração.
+ */
+@SpringBootTest(properties = {"minhasfinancas.recorrencia.usuarios-por-lote=1", "minhasfinancas.recorrencia.threads=2"})
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+public class GeracaoLancamentoRecorrenteTest {
+	
+	private static final String RESUMO_RECALCULADO = "select ano, mes, tipo, status, sum(valor) total, count(*) quantidade "
+			+ "from financas.lancamento where id_usuario = ? group by ano, mes, tipo, status order by ano, mes, tipo, status";
+	
+	private static final String RESUMO_CONSOLIDADO = "select ano, mes, tipo, status, total, quantidade "
+			+ "from financas.resumo_mensal where id_usuario = ? and quantidade > 0 order by ano, mes, tipo, status";
+	
+	private static final YearMonth ATUAL = YearMonth.now();
+	
+	private static final int COMPETENCIA_ATUAL = LancamentoRecorrente.competencia(ATUAL.getYear(), ATUAL.getMonthValue());
+	
+	private static final int COMPETENCIA_ANTERIOR = LancamentoRecorrente.competencia(
+			ATUAL.minusMonths(1).getYear(), ATUAL.minusMonths(1).getMonthValue());
+	
+	@Autowired
+	LancamentoRecorrenteService service;
+	
+	@Autowired
+	LancamentoService lancamentoService;
+	
+	@Autowired
+	SaldoService saldoService;
+	
+	@Autowired
+	LancamentoRecorrenteRepository repository;
+	
+	@Autowired
+	GeracaoRecorrenciaRepository geracaoRepository;
+	
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	Usuario inquilino;
+	
+	Usuario assalariado;
+	
+	LancamentoRecorrente aluguel;
+	
+	LancamentoRecorrente assinaturaEncerrada;
+	
+	LancamentoRecorrente salario;
+	
+	@Before
+	public void setUp() {
+		inquilino = usuarioRepository.save(UsuarioRepositoryTest.criarUsuario());
+		Usuario usuario = UsuarioRepositoryTest.criarUsuario();
+		usuario.setEmail("assalariado@email.com");
+		assalariado = usuarioRepository.save(usuario);
+		
+		// o inquilino já tem saldo e resumo do mês; o assalariado ainda não tem nenhum
+		Lancamento mercado = LancamentoRepositoryTest.criarLancamento();
+		mercado.setUsuario(inquilino);
+		mercado.setAno(ATUAL.getYear());
+		mercado.setMes(ATUAL.getMonthValue());
+		mercado.setTipo(TipoLancamento.DESPESA);
+		lancamentoService.salvar(mercado);
+		
+		// modelos cadastrados antes da virada do mês
+		aluguel = criarModelo(inquilino, "Aluguel", TipoLancamento.DESPESA, 1500, 202001, null, COMPETENCIA_ANTERIOR);
+		assinaturaEncerrada = criarModelo(inquilino, "Assinatura", TipoLancamento.DESPESA, 50, 202001,
+				COMPETENCIA_ANTERIOR, COMPETENCIA_ANTERIOR);
+		salario = criarModelo(assalariado, "Salário", TipoLancamento.RECEITA, 5000, COMPETENCIA_ATUAL, null, null);
+	}
+	
+	@After
+	public void tearDown() {
+		jdbcTemplate.update("delete from financas.geracao_recorrencia");
+		for(Usuario usuario : new Usuario[] {inquilino, assalariado}) {
+			jdbcTemplate.update("delete from financas.lancamento_recorrente where id_usuario = ?", usuario.getId());
+			jdbcTemplate.update("delete from financas.evento_lancamento where id_usuario = ?", usuario.getId());
+			jdbcTemplate.update("delete from financas.resumo_mensal where id_usuario = ?", usuario.getId());
+			jdbcTemplate.update("delete from financas.saldo_usuario where id_usuario = ?", usuario.getId());
+			jdbcTemplate.update("delete from financas.lancamento where id_usuario = ?", usuario.getId());
+			jdbcTemplate.update("delete from financas.usuario where id = ?", usuario.getId());
+		}
+	}
+	
+	@Test
+	public void deveGerarOsLancamentosDevidosMantendoSaldoEResumo() {
+		//execucao
+		long gerados = service.gerar(ATUAL);
+		
+		//verificacao
+		Assertions.assertThat(gerados).isEqualTo(2);
+		Assertions.assertThat(descricoes(inquilino)).containsExactlyInAnyOrder("Aluguel", LancamentoRepositoryTest.criarLancamento().getDescricao());
+		Assertions.assertThat(descricoes(assalariado)).containsExactly("Salário");
+		Assertions.assertThat(competenciaGerada(aluguel)).isEqualTo(COMPETENCIA_ATUAL);
+		Assertions.assertThat(competenciaGerada(assinaturaEncerrada)).isEqualTo(COMPETENCIA_ANTERIOR);
+		Assertions.assertThat(saldoService.obterSaldo(assalariado.getId())).hasValueSatisfying(saldo ->
+				Assertions.assertThat(saldo).isEqualByComparingTo("5000"));
+		assertSaldoEResumoConsistentes(inquilino);
+		assertSaldoEResumoConsistentes(assalariado);
+		Assertions.assertThat(geracaoRepository.findById(COMPETENCIA_ATUAL)).hasValueSatisfying(geracao ->
+				Assertions.assertThat(geracao.isConcluida()).isTrue());
+		Assertions.assertThat(jdbcTemplate.queryForList("select l.descricao from financas.evento_lancamento e "
+				+ "join financas.lancamento l on l.id = e.id_lancamento where e.id_usuario = ? and e.operacao = 'CRIADO'",
+				String.class, inquilino.getId())).containsExactlyInAnyOrder("Aluguel", LancamentoRepositoryTest.criarLancamento().getDescricao());
+	}
+	
+	@Test
+	public void naoDeveRegistrarEventoDaGeracaoParaUmLancamentoIgualCriadoPeloUsuario() {
+		//cenario
+		lancamentoService.salvar(Lancamento.builder()
+				.usuario(assalariado)
+				.descricao("Salário")
+				.tipo(TipoLancamento.RECEITA)
+				.valor(BigDecimal.valueOf(5000))
+				.ano(ATUAL.getYear())
+				.mes(ATUAL.getMonthValue())
+				.build());
+		
+		//execucao
+		service.gerar(ATUAL);
+		
+		//verificacao
+		Assertions.assertThat(jdbcTemplate.queryForList("select count(*) from financas.evento_lancamento "
+				+ "where id_usuario = ? and operacao = 'CRIADO' group by id_lancamento", Long.class, assalariado.getId()))
+			.containsExactly(1l, 1l);
+	}
+	
+	@Test
+	public void naoDeveDuplicarLancamentosAoGerarNovamente() {
+		//cenario
+		service.gerar(ATUAL);
+		jdbcTemplate.update("delete from financas.geracao_recorrencia");
+		
+		//execucao
+		long gerados = service.gerar(ATUAL);
+		
+		//verificacao
+		Assertions.assertThat(gerados).isZero();
+		Assertions.assertThat(descricoes(assalariado)).containsExactly("Salário");
+		assertSaldoEResumoConsistentes(assalariado);
+	}
+	
+	@Test
+	public void deveRetomarAGeracaoDoPontoRegistrado() {
+		//cenario
+		geracaoRepository.save(GeracaoRecorrencia.builder().competencia(COMPETENCIA_ATUAL)
+				.ultimoUsuario(assalariado.getId()).build());
+		
+		//execucao
+		long gerados = service.gerar(ATUAL);
+		
+		//verificacao
+		Assertions.assertThat(gerados).isEqualTo(1);
+		Assertions.assertThat(descricoes(assalariado)).containsExactly("Salário");
+		Assertions.assertThat(competenciaGerada(aluguel)).isEqualTo(COMPETENCIA_ANTERIOR);
+	}
+	
+	@Test
+	public void deveGerarACompetenciaAtualAoSalvarUmModeloVigenteSemDuplicarNaGeracao() {
+		//execucao
+		LancamentoRecorrente internet = service.salvar(LancamentoRecorrente.builder()
+				.usuario(assalariado)
+				.descricao("Internet")
+				.tipo(TipoLancamento.DESPESA)
+				.valor(BigDecimal.valueOf(100))
+				.competenciaInicial(202001)
+				.build());
+		long gerados = service.gerar(ATUAL);
+		
+		//verificacao
+		Assertions.assertThat(competenciaGerada(internet)).isEqualTo(COMPETENCIA_ATUAL);
+		Assertions.assertThat(gerados).isEqualTo(2);
+		Assertions.assertThat(descricoes(assalariado)).containsExactlyInAnyOrder("Internet", "Salário");
+		Assertions.assertThat(jdbcTemplate.queryForObject("select count(*) from financas.lancamento where id_usuario = ? "
+				+ "and status = ?", Long.class, assalariado.getId(), StatusLancamento.PENDENTE.name())).isEqualTo(2);
+		assertSaldoEResumoConsistentes(assalariado);
+	}
+	
+	private LancamentoRecorrente criarModelo(Usuario usuario, String descricao, TipoLancamento tipo, int valor,
+			Integer competenciaInicial, Integer competenciaFinal, Integer ultimaCompetenciaGerada) {
+		return repository.save(LancamentoRecorrente.builder()
+				.usuario(usuario)
+				.descricao(descricao)
+				.tipo(tipo)
+				.valor(BigDecimal.valueOf(valor))
+				.competenciaInicial(competenciaInicial)
+				.competenciaFinal(competenciaFinal)
+				.ultimaCompetenciaGerada(ultimaCompetenciaGerada)
+				.build());
+	}
+	
+	private Integer competenciaGerada(LancamentoRecorrente recorrente) {
+		return repository.findById(recorrente.getId()).get().getUltimaCompetenciaGerada();
+	}
+	
+	private List<String> descricoes(Usuario usuario) {
+		return jdbcTemplate.queryForList("select descricao from financas.lancamento where id_usuario = ? and ano = ? and mes = ?",
+				String.class, usuario.getId(), ATUAL.getYear(), ATUAL.getMonthValue());
+	}
+	
+	private void assertSaldoEResumoConsistentes(Usuario usuario) {
+		Assertions.assertThat(saldoService.conciliar(false)).noneMatch(divergencia ->
+				divergencia.getIdUsuario().equals(usuario.getId()));
+		
+		List<Map<String, Object>> consolidado = jdbcTemplate.queryForList(RESUMO_CONSOLIDADO, usuario.getId());
+		List<Map<String, Object>> recalculado = jdbcTemplate.queryForList(RESUMO_RECALCULADO, usuario.getId());
+		Assertions.assertThat(consolidado).hasSameSizeAs(recalculado);
+		for(int i = 0; i < recalculado.size(); i++) {
+			Assertions.assertThat(((Number) consolidado.get(i).get("QUANTIDADE")).longValue())
+				.isEqualTo(((Number) recalculado.get(i).get("QUANTIDADE")).longValue());
+			Assertions.assertThat((BigDecimal) consolidado.get(i).get("TOTAL"))
+				.isEqualByComparingTo((BigDecimal) recalculado.get(i).get("TOTAL"));
+		}
+	}
+}
@@ -0,0 +1,154 @@
+package com.minhasfinancas.service;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.minhasfinancas.exceptions.RegraNegocioException;
+import com.minhasfinancas.model.entity.Lancamento;
+import com.minhasfinancas.model.entity.Usuario;
+import com.minhasfinancas.model.enums.TipoLancamento;
+import com.minhasfinancas.service.impl.ImportacaoServiceImpl;
+import com.minhasfinancas.service.importacao.FormatoImportacao;
+import com.minhasfinancas.service.importacao.ResultadoImportacao;
+
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@Import(JacksonAutoConfiguration.class)
+@TestPropertySource(properties = "minhasfinancas.importacao.tamanho-lote=2")
+public class ImportacaoServiceTest {
+
+	@SpyBean
+	ImportacaoServiceImpl service;
+	
+	@MockBean
+	LancamentoService lancamentoService;
+	
+	Usuario usuario = Usuario.builder().id(1l).build();
+	
+	@Test
+	@SuppressWarnings("unchecked")
+	public void deveImportarUmCsvEmLotes() {
+		//cenario
+		String csv = "descricao;mes;ano;valor;tipo\n"
+				+ "Salário;1;2022;5000,00;RECEITA\n"
+				+ "\"Aluguel; apto\";1;2022;1500.50;despesa\n"
+				+ "Mercado;1;2022;320;DESPESA\n";
+		
+		//execucao
+		ResultadoImportacao resultado = service.importar(usuario, FormatoImportacao.CSV, new StringReader(csv));
+		
+		//verificacao
+		Assertions.assertThat(resultado.getImportados()).isEqualTo(3);
+		Assertions.assertThat(resultado.getErros()).isEmpty();
+		
+		ArgumentCaptor<List<Lancamento>> captor = ArgumentCaptor.forClass(List.class);
+		Mockito.verify(lancamentoService, Mockito.times(2)).salvarLote(captor.capture());
+		Assertions.assertThat(captor.getAllValues().get(0)).hasSize(2);
+		Assertions.assertThat(captor.getAllValues().get(1)).hasSize(1);
+		
+		Lancamento salario = captor.getAllValues().get(0).get(0);
+		Assertions.assertThat(salario.getValor()).isEqualByComparingTo("5000");
+		Assertions.assertThat(salario.getUsuario()).isEqualTo(usuario);
+		Assertions.assertThat(salario.getDataCadastro()).isNotNull();
+	}
+	
+	@Test
+	public void deveReportarAsLinhasInvalidasSemInterromperAImportacao() {
+		//cenario
+		String csv = "Salário;1;2022;5000;RECEITA\n"
+				+ "Linha quebrada;1\n"
+				+ "Sem valor;1;2022;abc;DESPESA\n"
+				+ ";1;2022;10;DESPESA\n";
+		Mockito.doThrow(new RegraNegocioException("Informe uma Descrição válida."))
+			.when(lancamentoService).validar(Mockito.argThat(lancamento -> lancamento.getDescricao().isEmpty()));
+		
+		//execucao
+		ResultadoImportacao resultado = service.importar(usuario, FormatoImportacao.CSV, new StringReader(csv));
+		
+		//verificacao
+		Assertions.assertThat(resultado.getImportados()).isEqualTo(1);
+		Assertions.assertThat(resultado.getTotalErros()).isEqualTo(3);
+		Assertions.assertThat(resultado.getErros()).extracting(ResultadoImportacao.Erro::getLinha).containsExactly(2, 3, 4);
+		Assertions.assertThat(resultado.getErros().get(2).getMensagem()).isEqualTo("Informe uma Descrição válida.");
+	}
+	
+	@Test
+	@SuppressWarnings("unchecked")
+	public void deveImportarJsonPorLinha() {
+		//cenario
+		String json = "{\"descricao\":\"Salário\",\"mes\":2,\"ano\":2022,\"valor\":5000.10,\"tipo\":\"RECEITA\"}\n"
+				+ "{nao e json}\n";
+		
+		//execucao
+		ResultadoImportacao resultado = service.importar(usuario, FormatoImportacao.JSONL, new StringReader(json));
+		
+		//verificacao
+		Assertions.assertThat(resultado.getImportados()).isEqualTo(1);
+		Assertions.assertThat(resultado.getErros()).extracting(ResultadoImportacao.Erro::getLinha).containsExactly(2);
+		
+		ArgumentCaptor<List<Lancamento>> captor = ArgumentCaptor.forClass(List.class);
+		Mockito.verify(lancamentoService).salvarLote(captor.capture());
+		Assertions.assertThat(captor.getValue().get(0).getValor()).isEqualByComparingTo("5000.10");
+		Assertions.assertThat(captor.getValue().get(0).getMes()).isEqualTo(2);
+	}
+	
+	@Test
+	@SuppressWarnings("unchecked")
+	public void deveImportarAsTransacoesDeUmExtratoOfx() {
+		//cenario
+		String ofx = "OFXHEADER:100\nDATA:OFXSGML\n<OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST>\n"
+				+ "<STMTTRN>\n<TRNTYPE>DEBIT\n<DTPOSTED>20220315120000[-3:BRT]\n<TRNAMT>-42.90\n<MEMO>Padaria\n</STMTTRN>\n"
+				+ "<STMTTRN><TRNTYPE>CREDIT<DTPOSTED>20220305<TRNAMT>1000,00<NAME>Pix recebido</STMTTRN>\n"
+				+ "</BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>";
+		
+		//execucao
+		ResultadoImportacao resultado = service.importar(usuario, FormatoImportacao.OFX, new StringReader(ofx));
+		
+		//verificacao
+		Assertions.assertThat(resultado.getImportados()).isEqualTo(2);
+		
+		ArgumentCaptor<List<Lancamento>> captor = ArgumentCaptor.forClass(List.class);
+		Mockito.verify(lancamentoService).salvarLote(captor.capture());
+		Lancamento padaria = captor.getValue().get(0);
+		Assertions.assertThat(padaria.getDescricao()).isEqualTo("Padaria");
+		Assertions.assertThat(padaria.getTipo()).isEqualTo(TipoLancamento.DESPESA);
+		Assertions.assertThat(padaria.getValor()).isEqualByComparingTo("42.90");
+		Assertions.assertThat(padaria.getMes()).isEqualTo(3);
+		Assertions.assertThat(padaria.getAno()).isEqualTo(2022);
+		
+		Lancamento pix = captor.getValue().get(1);
+		Assertions.assertThat(pix.getDescricao()).isEqualTo("Pix recebido");
+		Assertions.assertThat(pix.getTipo()).isEqualTo(TipoLancamento.RECEITA);
+		Assertions.assertThat(pix.getValor()).isEqualByComparingTo(BigDecimal.valueOf(1000));
+	}
+	
+	@Test
+	public void deveRegravarUmAUmQuandoOLoteFalhar() {
+		//cenario
+		String csv = "Salário;1;2022;5000;RECEITA\n"
+				+ "Aluguel;1;2022;1500;DESPESA\n";
+		Mockito.when(lancamentoService.salvarLote(Mockito.argThat(lote -> lote.size() > 1
+				|| lote.get(0).getDescricao().equals("Aluguel")))).thenThrow(new IllegalStateException());
+		
+		//execucao
+		ResultadoImportacao resultado = service.importar(usuario, FormatoImportacao.CSV, new StringReader(csv));
+		
+		//verificacao
+		Assertions.assertThat(resultado.getImportados()).isEqualTo(1);
+		Assertions.assertThat(resultado.getErros()).extracting(ResultadoImportacao.Erro::getLinha).containsExactly(2);
+	}
+}
@@ -0,0 +1,175 @@
+package com.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.minhasfinancas.model.entity.Lancamento;
+import com.minhasfinancas.model.entity.Usuario;
+import com.minhasfinancas.model.enums.StatusLancamento;
+import com.minhasfinancas.model.enums.TipoLancamento;
+import com.minhasfinancas.model.repository.LancamentoRepository;
+import com.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import com.minhasfinancas.model.repository.UsuarioRepository;
+import com.minhasfinancas.model.repository.UsuarioRepositoryTest;
+
+@SpringBootTest
+@RunWith(SpringRunner.class)
+@ActiveProfiles({"test", "reativo"})
+@TestPropertySource(properties = "minhasfinancas.r2dbc.url=r2dbc:h2:mem:///db?options=DB_CLOSE_DELAY=-1")
+public class LancamentoReativoServiceTest {
+
+	@Autowired
+	LancamentoReativoService service;
+	
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	
+	@Autowired
+	LancamentoRepository lancamentoRepository;
+	
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	Usuario usuario;
+	
+	Lancamento receita;
+	
+	Lancamento despesa;
+	
+	@Before
+	public void setUp() {
+		Usuario novo = UsuarioRepositoryTest.criarUsuario();
+		novo.setEmail("reativo@email.com");
+		usuario = usuarioRepository.save(novo);
+		
+		receita = LancamentoRepositoryTest.criarLancamento();
+		receita.setUsuario(usuario);
+		receita.setDescricao("Salário de março");
+		receita.setMes(3);
+		receita.setValor(BigDecimal.valueOf(1000));
+		receita = lancamentoRepository.save(receita);
+		
+		despesa = LancamentoRepositoryTest.criarLancamento();
+		despesa.setUsuario(usuario);
+		despesa.setDescricao("Mercado");
+		despesa.setTipo(TipoLancamento.DESPESA);
+		despesa.setValor(BigDecimal.valueOf(300));
+		despesa = lancamentoRepository.save(despesa);
+		
+		Lancamento cancelado = LancamentoRepositoryTest.criarLancamento();
+		cancelado.setUsuario(usuario);
+		cancelado.setStatus(StatusLancamento.CANCELADO);
+		cancelado.setValor(BigDecimal.valueOf(50));
+		lancamentoRepository.save(cancelado);
+	}
+	
+	@After
+	public void tearDown() {
+		jdbcTemplate.update("delete from financas.saldo_usuario where id_usuario = ?", usuario.getId());
+		jdbcTemplate.update("delete from financas.lancamento where id_usuario = ?", usuario.getId());
+		jdbcTemplate.update("delete from financas.usuario where id = ?", usuario.getId());
+	}
+	
+	@Test
+	public void deveBuscarOsLancamentosDoUsuarioPeloFiltro() {
+		//cenario
+		Lancamento filtro = new Lancamento();
+		filtro.setUsuario(usuario);
+		filtro.setDescricao("SALÁRIO");
+		filtro.setMes(3);
+		
+		//execucao
+		List<Lancamento> lancamentos = service.buscar(filtro).collectList().block();
+		
+		//verificacao
+		Assertions.assertThat(lancamentos).extracting(Lancamento::getId).containsExactly(receita.getId());
+		Assertions.assertThat(lancamentos.get(0).getValor()).isEqualByComparingTo("1000");
+		Assertions.assertThat(lancamentos.get(0).getTipo()).isEqualTo(TipoLancamento.RECEITA);
+		Assertions.assertThat(lancamentos.get(0).getUsuario().getId()).isEqualTo(usuario.getId());
+	}
+	
+	@Test
+	public void deveTratarOsCuringasDaDescricaoComoTexto() {
+		//cenario
+		Lancamento desconto = LancamentoRepositoryTest.criarLancamento();
+		desconto.setUsuario(usuario);
+		desconto.setDescricao("Desconto de 50% no mercado");
+		desconto = lancamentoRepository.save(desconto);
+		Lancamento parcela = LancamentoRepositoryTest.criarLancamento();
+		parcela.setUsuario(usuario);
+		parcela.setDescricao("Parcela 50 de 60");
+		lancamentoRepository.save(parcela);
+		
+		Lancamento filtro = new Lancamento();
+		filtro.setUsuario(usuario);
+		filtro.setDescricao("50%");
+		
+		Lancamento semCuringa = new Lancamento();
+		semCuringa.setUsuario(usuario);
+		semCuringa.setDescricao("m_rcado");
+		
+		//execucao
+		List<Lancamento> lancamentos = service.buscar(filtro).collectList().block();
+		List<Lancamento> nenhum = service.buscar(semCuringa).collectList().block();
+		
+		//verificacao
+		Assertions.assertThat(lancamentos).extracting(Lancamento::getId).containsExactly(desconto.getId());
+		Assertions.assertThat(nenhum).isEmpty();
+	}
+	
+	@Test
+	public void deveEntregarOsLancamentosConformeADemanda() {
+		//cenario
+		Lancamento filtro = new Lancamento();
+		filtro.setUsuario(usuario);
+		
+		//execucao
+		List<Lancamento> primeiro = service.buscar(filtro).take(1).collectList().block();
+		
+		//verificacao
+		Assertions.assertThat(primeiro).extracting(Lancamento::getId).containsExactly(receita.getId());
+	}
+	
+	@Test
+	public void deveObterUmLancamentoPorId() {
+		//execucao
+		Lancamento lancamento = service.obterPorId(despesa.getId()).block();
+		
+		//verificacao
+		Assertions.assertThat(lancamento.getDescricao()).isEqualTo("Mercado");
+		Assertions.assertThat(service.obterPorId(-1l).blockOptional()).isEmpty();
+	}
+	
+	@Test
+	public void deveCalcularOSaldoQuandoNaoHouverSaldoConsolidado() {
+		//execucao
+		BigDecimal saldo = service.obterSaldoPorUsuario(usuario.getId()).block();
+		
+		//verificacao
+		Assertions.assertThat(saldo).isEqualByComparingTo("700");
+	}
+	
+	@Test
+	public void deveUsarOSaldoConsolidado() {
+		//cenario
+		jdbcTemplate.update("insert into financas.saldo_usuario (id_usuario, receitas, despesas) values (?, 10, 4)", usuario.getId());
+		
+		//execucao
+		BigDecimal saldo = service.obterSaldoPorUsuario(usuario.getId()).block();
+		
+		//verificacao
+		Assertions.assertThat(saldo).isEqualByComparingTo("6");
+	}
+}
@@ -16,6 +16,9 @@ import org.mockito.Mockito;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 
@@ -24,8 +27,14 @@ import com.minhasfinancas.exceptions.RegraNegocioException;
 import com.minhasfinancas.model.entity.Lancamento;
 import com.minhasfinancas.model.entity.Usuario;
 import com.minhasfinancas.model.enums.StatusLancamento;
+import com.minhasfinancas.model.enums.TipoLancamento;
+import com.minhasfinancas.model.projection.SituacaoLancamento;
+import com.minhasfinancas.model.projection.TotalPorTipoEStatus;
+import com.minhasfinancas.model.repository.LancamentoFiltro;
 import com.minhasfinancas.model.repository.LancamentoRepository;
 import com.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import com.minhasfinancas.model.repository.LancamentoSpecifications;
+import com.minhasfinancas.model.repository.TotalAnualArquivadoRepository;
 import com.minhasfinancas.service.impl.LancamentoServiceImpl;
 
 @RunWith(SpringRunner.class)
@@ -38,6 +47,18 @@ public class LancamentoServiceTest {
 	@MockBean
 	LancamentoRepository repository;
 	
+	@MockBean
+	SaldoService saldoService;
+	
+	@MockBean
+	ResumoMensalService resumoMensalService;
+	
+	@MockBean
+	TotalAnualArquivadoRepository arquivadoRepository;
+	
+	@MockBean
+	EventoLancamentoService eventoService;
+	
 	@Test
 	public void deveSalvarUmLancamento() {
 		//cenário
@@ -54,6 +75,8 @@ public class LancamentoServiceTest {
 		//verificacao
 		Assertions.assertThat(lancamento.getId()).isEqualTo(lancamentoSalvo.getId());
 		Assertions.assertThat(lancamento.getStatus()).isEqualTo(StatusLancamento.PENDENTE);
+		Mockito.verify(saldoService).contabilizar(null, lancamentoSalvo);
+		Mockito.verify(eventoService).registrar(null, lancamentoSalvo);
 	}
 	
 	@Test
@@ -105,6 +128,76 @@ public class LancamentoServiceTest {
 		
 		//verificacao
 		Mockito.verify(repository).delete(lancamento);
+		Mockito.verify(saldoService).contabilizar(Mockito.isNull(), Mockito.isNull());
+	}
+	
+	@Test
+	public void deveContabilizarADiferencaEntreOEstadoPersistidoEOAtualizado() {
+		//cenario
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setId(1l);
+		lancamento.registrarEstadoPersistido();
+		Lancamento anterior = lancamento.getEstadoPersistido();
+		
+		lancamento.setValor(BigDecimal.valueOf(25));
+		Mockito.when(repository.save(lancamento)).thenReturn(lancamento);
+		
+		//execucao
+		service.atualizar(lancamento);
+		
+		//verificacao
+		Mockito.verify(saldoService).contabilizar(anterior, lancamento);
+		Mockito.verify(resumoMensalService).contabilizar(anterior, lancamento);
+		Mockito.verify(eventoService).registrar(anterior, lancamento);
+		Assertions.assertThat(anterior.getValor()).isEqualTo(BigDecimal.valueOf(10));
+		Assertions.assertThat(lancamento.getEstadoPersistido().getValor()).isEqualTo(BigDecimal.valueOf(25));
+	}
+	
+	@Test
+	public void deveObterOSaldoConsolidadoDoUsuario() {
+		//cenario
+		Mockito.when(saldoService.obterSaldo(1l)).thenReturn(Optional.of(BigDecimal.valueOf(100)));
+		
+		//execucao
+		BigDecimal saldo = service.obterSaldoPorUsuario(1l);
+		
+		//verificacao
+		Assertions.assertThat(saldo).isEqualTo(BigDecimal.valueOf(100));
+		Mockito.verify(repository, never()).obterTotaisPorTipoEStatus(Mockito.anyLong());
+	}
+	
+	@Test
+	public void deveCalcularOSaldoQuandoNaoHouverSaldoConsolidado() {
+		//cenario
+		Mockito.when(saldoService.obterSaldo(1l)).thenReturn(Optional.empty());
+		Mockito.when(repository.obterTotaisPorTipoEStatus(1l)).thenReturn(Arrays.asList(
+				total(TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 100),
+				total(TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 30)));
+		
+		//execucao
+		BigDecimal saldo = service.obterSaldoPorUsuario(1l);
+		
+		//verificacao
+		Assertions.assertThat(saldo).isEqualTo(BigDecimal.valueOf(70));
+	}
+	
+	@Test
+	public void deveDetalharOSaldoPorStatusSemContarLancamentosCancelados() {
+		//cenario
+		Mockito.when(repository.obterTotaisPorTipoEStatus(1l)).thenReturn(Arrays.asList(
+				total(TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 100),
+				total(TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, 40),
+				total(TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 15),
+				total(TipoLancamento.RECEITA, StatusLancamento.CANCELADO, 500)));
+		
+		//execucao
+		SaldoDetalhado saldo = service.obterSaldoDetalhadoPorUsuario(1l);
+		
+		//verificacao
+		Assertions.assertThat(saldo.getEfetivado()).isEqualTo(BigDecimal.valueOf(60));
+		Assertions.assertThat(saldo.getPendente()).isEqualTo(BigDecimal.valueOf(-15));
+		Assertions.assertThat(saldo.getCancelado()).isEqualTo(BigDecimal.valueOf(500));
+		Assertions.assertThat(saldo.getSaldo()).isEqualTo(BigDecimal.valueOf(45));
 	}
 	
 	@Test
@@ -124,9 +217,10 @@ public class LancamentoServiceTest {
 		//cenario
 		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
 		lancamento.setId(1l);
+		lancamento.setUsuario(Usuario.builder().id(1l).build());
 		
 		List<Lancamento> lista = Arrays.asList(lancamento);
-		Mockito.when(repository.findAll(Mockito.any(org.springframework.data.domain.Example.class))).thenReturn(lista);
+		Mockito.when(repository.findAll(Mockito.any(Specification.class), Mockito.any(Sort.class))).thenReturn(lista);
 		
 		//execucao
 		List<Lancamento> resultado = service.buscar(lancamento);
@@ -137,6 +231,68 @@ public class LancamentoServiceTest {
 			.isNotEmpty()
 			.hasSize(1)
 			.contains(lancamento);
+		Mockito.verify(repository).findAll(Mockito.any(Specification.class), Mockito.eq(LancamentoSpecifications.ORDENACAO_PADRAO));
+	}
+	
+	@Test
+	public void deveOrdenarPeloIdDepoisDaOrdenacaoInformada() {
+		//cenario
+		LancamentoFiltro filtro = LancamentoFiltro.builder()
+				.idUsuario(1l)
+				.ordenacao(Sort.by(Sort.Direction.DESC, "valor"))
+				.build();
+		
+		//execucao
+		service.buscar(filtro);
+		
+		//verificacao
+		Mockito.verify(repository).findAll(Mockito.any(Specification.class),
+				Mockito.eq(Sort.by(Sort.Order.desc("valor"), Sort.Order.asc("id"))));
+	}
+	
+	@Test
+	public void naoDeveBuscarComValorMinimoMaiorQueOMaximo() {
+		//cenario
+		LancamentoFiltro filtro = LancamentoFiltro.builder()
+				.idUsuario(1l)
+				.valorMinimo(BigDecimal.valueOf(100))
+				.valorMaximo(BigDecimal.TEN)
+				.build();
+		
+		//execucao
+		Throwable erro = Assertions.catchThrowable(() -> service.buscar(filtro));
+		
+		//verificacao
+		Assertions.assertThat(erro).isInstanceOf(RegraNegocioException.class)
+			.hasMessage("O valor mínimo deve ser menor ou igual ao valor máximo.");
+		Mockito.verify(repository, never()).findAll(Mockito.any(Specification.class), Mockito.any(Sort.class));
+	}
+	
+	@Test
+	public void naoDeveOrdenarPorCampoNaoPermitido() {
+		//cenario
+		LancamentoFiltro filtro = LancamentoFiltro.builder()
+				.idUsuario(1l)
+				.ordenacao(Sort.by("usuario.senha"))
+				.build();
+		
+		//execucao
+		Throwable erro = Assertions.catchThrowable(() -> service.buscar(filtro));
+		
+		//verificacao
+		Assertions.assertThat(erro).isInstanceOf(RegraNegocioException.class)
+			.hasMessage("Não é possível ordenar por usuario.senha.");
+		Mockito.verify(repository, never()).findAll(Mockito.any(Specification.class), Mockito.any(Sort.class));
+	}
+	
+	@Test
+	public void naoDeveBuscarPorTextoEmBranco() {
+		//execucao
+		Throwable erro = Assertions.catchThrowable(() -> service.buscarPorTexto(1l, "  ", 0, 10));
+		
+		//verificacao
+		Assertions.assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Informe um texto para a busca.");
+		Mockito.verify(repository, never()).buscarPorTexto(Mockito.anyLong(), Mockito.anyString(), Mockito.anyInt(), Mockito.anyInt());
 	}
 	
 	@Test
@@ -157,6 +313,63 @@ public class LancamentoServiceTest {
 		Mockito.verify(service).atualizar(lancamento);
 	}
 	
+	@Test
+	public void deveInformarASituacaoDeCadaLancamentoNaAtualizacaoEmLote() {
+		//cenario
+		List<SituacaoLancamento> encontrados = Arrays.asList(
+				situacao(10l, StatusLancamento.PENDENTE),
+				situacao(11l, StatusLancamento.EFETIVADO),
+				situacao(12l, StatusLancamento.CANCELADO));
+		Mockito.when(repository.bloquearPorIds(Mockito.eq(1l), Mockito.anyCollection())).thenReturn(encontrados);
+		Mockito.when(repository.atualizarStatus(Arrays.asList(10l), StatusLancamento.PENDENTE, StatusLancamento.EFETIVADO))
+			.thenReturn(1);
+		
+		//execucao
+		ResultadoAtualizacaoStatus resultado = service.atualizarStatusEmLote(1l, Arrays.asList(10l, 11l, 12l, 13l, 10l),
+				StatusLancamento.PENDENTE, StatusLancamento.EFETIVADO);
+		
+		//verificacao
+		Assertions.assertThat(resultado.getAtualizados()).isEqualTo(1);
+		Assertions.assertThat(resultado.getItens()).containsExactly(
+				new ResultadoAtualizacaoStatus.Item(10l, ResultadoAtualizacaoStatus.Situacao.ATUALIZADO),
+				new ResultadoAtualizacaoStatus.Item(11l, ResultadoAtualizacaoStatus.Situacao.INALTERADO),
+				new ResultadoAtualizacaoStatus.Item(12l, ResultadoAtualizacaoStatus.Situacao.CONFLITO),
+				new ResultadoAtualizacaoStatus.Item(13l, ResultadoAtualizacaoStatus.Situacao.NAO_ENCONTRADO));
+		Mockito.verify(saldoService).contabilizarAlteracoes(Mockito.argThat(anteriores -> anteriores.size() == 1
+				&& anteriores.get(0).getStatus() == StatusLancamento.PENDENTE),
+				Mockito.argThat(atuais -> atuais.size() == 1 && atuais.get(0).getStatus() == StatusLancamento.EFETIVADO));
+	}
+	
+	@Test
+	public void deveDesfazerAAtualizacaoEmLoteQuandoUmLancamentoMudouNoMeioDoCaminho() {
+		//cenario
+		List<SituacaoLancamento> pendentes = Arrays.asList(
+				situacao(10l, StatusLancamento.PENDENTE),
+				situacao(11l, StatusLancamento.PENDENTE));
+		Mockito.when(repository.bloquearPorCompetencia(1l, 2022, 5, StatusLancamento.PENDENTE)).thenReturn(pendentes);
+		Mockito.when(repository.atualizarStatus(Mockito.anyCollection(), Mockito.any(), Mockito.any())).thenReturn(1);
+		
+		//execucao
+		Throwable erro = Assertions.catchThrowable(() -> service.atualizarStatusEmLote(1l, 2022, 5,
+				StatusLancamento.PENDENTE, StatusLancamento.EFETIVADO));
+		
+		//verificacao
+		Assertions.assertThat(erro).isInstanceOf(OptimisticLockingFailureException.class);
+		Mockito.verify(saldoService, never()).contabilizarAlteracoes(Mockito.anyList(), Mockito.anyList());
+	}
+	
+	@Test
+	public void naoDeveAtualizarEmLoteParaOMesmoStatus() {
+		//execucao
+		Throwable erro = Assertions.catchThrowable(() -> service.atualizarStatusEmLote(1l, 2022, 5,
+				StatusLancamento.PENDENTE, StatusLancamento.PENDENTE));
+		
+		//verificacao
+		Assertions.assertThat(erro).isInstanceOf(RegraNegocioException.class)
+			.hasMessage("O novo status deve ser diferente do status atual.");
+		Mockito.verify(repository, never()).bloquearPorCompetencia(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+	}
+	
 	@Test
 	public void deveObterUmLancamentoPorId() {
 		//cenario
@@ -253,4 +466,24 @@ public class LancamentoServiceTest {
 		erro = Assertions.catchThrowable(() -> service.validar(lancamento));
 		Assertions.assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Informe um tipo de Lançamento.");
 	}
+	
+	private static TotalPorTipoEStatus total(TipoLancamento tipo, StatusLancamento status, int valor) {
+		return new TotalPorTipoEStatus() {
+			public Long getIdUsuario() { return 1l; }
+			public TipoLancamento getTipo() { return tipo; }
+			public StatusLancamento getStatus() { return status; }
+			public BigDecimal getTotal() { return BigDecimal.valueOf(valor); }
+		};
+	}
+	
+	private static SituacaoLancamento situacao(Long id, StatusLancamento status) {
+		SituacaoLancamento situacao = Mockito.mock(SituacaoLancamento.class);
+		Mockito.when(situacao.getId()).thenReturn(id);
+		Mockito.when(situacao.getStatus()).thenReturn(status);
+		Mockito.when(situacao.getAno()).thenReturn(2022);
+		Mockito.when(situacao.getMes()).thenReturn(5);
+		Mockito.when(situacao.getTipo()).thenReturn(TipoLancamento.DESPESA);
+		Mockito.when(situacao.getValor()).thenReturn(BigDecimal.TEN);
+		return situacao;
+	}
 }
@@ -0,0 +1,118 @@
+package com.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.minhasfinancas.model.entity.Lancamento;
+import com.minhasfinancas.model.entity.Usuario;
+import com.minhasfinancas.model.enums.StatusLancamento;
+import com.minhasfinancas.model.enums.TipoLancamento;
+import com.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import com.minhasfinancas.model.repository.ResumoMensalRepository;
+import com.minhasfinancas.model.repository.UsuarioRepository;
+import com.minhasfinancas.model.repository.UsuarioRepositoryTest;
+
+/**
+ * Duas escritas que fazem ao mesmo tempo a primeira contabilização da mesma
+ * competência: as duas encontram o resumo ausente antes de qualquer uma criá-lo.
+ */
+@SpringBootTest
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+public class ResumoMensalConcorrenciaTest {
+	
+	@Autowired
+	ResumoMensalService service;
+	
+	@SpyBean
+	ResumoMensalRepository repository;
+	
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	Usuario usuario;
+	
+	@Before
+	public void setUp() {
+		usuario = usuarioRepository.save(UsuarioRepositoryTest.criarUsuario());
+	}
+	
+	@After
+	public void tearDown() {
+		jdbcTemplate.update("delete from financas.resumo_mensal where id_usuario = ?", usuario.getId());
+		jdbcTemplate.update("delete from financas.usuario where id = ?", usuario.getId());
+	}
+	
+	@Test
+	public void deveSomarAsDuasPrimeirasEscritasConcorrentesDaMesmaCompetencia() throws Exception {
+		//cenario
+		// as duas escritas só seguem depois de ambas encontrarem o resumo ausente
+		CountDownLatch ausentes = new CountDownLatch(2);
+		// o espião de um repositório delega ao original pela resposta padrão
+		Answer<?> somarReal = Mockito.mockingDetails(repository).getMockCreationSettings().getDefaultAnswer();
+		Mockito.doAnswer(invocacao -> {
+			Object atualizados = somarReal.answer(invocacao);
+			if(Integer.valueOf(0).equals(atualizados)) {
+				ausentes.countDown();
+				ausentes.await(5, TimeUnit.SECONDS);
+			}
+			return atualizados;
+		}).when(repository).somar(Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt(), Mockito.any(),
+				Mockito.any(), Mockito.any(), Mockito.anyLong());
+		
+		//execucao
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		List<Future<?>> escritas = new ArrayList<>();
+		try {
+			for(int valor : new int[] {30, 70}) {
+				Lancamento lancamento = criarLancamento(valor);
+				escritas.add(executor.submit(() -> service.contabilizarNovos(Collections.singletonList(lancamento))));
+			}
+			for(Future<?> escrita : escritas) {
+				escrita.get(10, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		
+		//verificacao
+		Assertions.assertThat(ausentes.getCount()).isZero();
+		Assertions.assertThat(jdbcTemplate.queryForObject("select total from financas.resumo_mensal where id_usuario = ?",
+				BigDecimal.class, usuario.getId())).isEqualByComparingTo("100");
+		Assertions.assertThat(jdbcTemplate.queryForObject("select quantidade from financas.resumo_mensal where id_usuario = ?",
+				Long.class, usuario.getId())).isEqualTo(2l);
+	}
+	
+	private Lancamento criarLancamento(int valor) {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(usuario);
+		lancamento.setTipo(TipoLancamento.DESPESA);
+		lancamento.setStatus(StatusLancamento.PENDENTE);
+		lancamento.setValor(BigDecimal.valueOf(valor));
+		return lancamento;
+	}
+}
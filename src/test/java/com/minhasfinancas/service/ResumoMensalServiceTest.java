@@ -0,0 +1,142 @@
+package com.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.minhasfinancas.model.entity.Lancamento;
+import com.minhasfinancas.model.entity.ResumoMensal;
+import com.minhasfinancas.model.entity.Usuario;
+import com.minhasfinancas.model.enums.StatusLancamento;
+import com.minhasfinancas.model.enums.TipoLancamento;
+import com.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import com.minhasfinancas.model.repository.ResumoMensalRepository;
+import com.minhasfinancas.service.impl.ResumoMensalServiceImpl;
+
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+public class ResumoMensalServiceTest {
+
+	@SpyBean
+	ResumoMensalServiceImpl service;
+	
+	@MockBean
+	ResumoMensalRepository repository;
+	
+	@MockBean
+	PlatformTransactionManager transactionManager;
+	
+	@Test
+	public void deveMoverOValorEntreStatusAoAtualizarUmLancamento() {
+		//cenario
+		Lancamento anterior = criarLancamento(TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 100);
+		Lancamento atual = criarLancamento(TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 100);
+		Mockito.when(repository.somar(Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt(), Mockito.any(),
+				Mockito.any(), Mockito.any(), Mockito.anyLong())).thenReturn(1);
+		
+		//execucao
+		service.contabilizar(anterior, atual);
+		
+		//verificacao
+		Mockito.verify(repository).somar(1l, 2019, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE,
+				BigDecimal.valueOf(-100), -1l);
+		Mockito.verify(repository).somar(1l, 2019, 1, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO,
+				BigDecimal.valueOf(100), 1l);
+	}
+	
+	@Test
+	public void naoDeveAlterarOResumoQuandoNaoHouverDiferenca() {
+		//cenario
+		Lancamento anterior = criarLancamento(TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 100);
+		Lancamento atual = criarLancamento(TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 100);
+		
+		//execucao
+		service.contabilizar(anterior, atual);
+		
+		//verificacao
+		Mockito.verifyNoInteractions(repository);
+	}
+	
+	@Test
+	public void deveCriarOResumoNaPrimeiraOcorrenciaDaCompetencia() {
+		//cenario
+		Lancamento primeiro = criarLancamento(TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 30);
+		Lancamento segundo = criarLancamento(TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 20);
+		Mockito.when(repository.somar(Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt(), Mockito.any(),
+				Mockito.any(), Mockito.any(), Mockito.anyLong())).thenReturn(0);
+		
+		//execucao
+		service.contabilizarNovos(Arrays.asList(primeiro, segundo));
+		
+		//verificacao
+		Mockito.verify(repository).inserirZerado(1l, 2019, 1, "DESPESA", "PENDENTE");
+		ArgumentCaptor<ResumoMensal> captor = ArgumentCaptor.forClass(ResumoMensal.class);
+		Mockito.verify(repository).save(captor.capture());
+		Assertions.assertThat(captor.getValue().getTotal()).isEqualTo(BigDecimal.valueOf(50));
+		Assertions.assertThat(captor.getValue().getQuantidade()).isEqualTo(2l);
+	}
+	
+	@Test
+	public void deveSomarAoResumoCriadoPorOutraEscritaConcorrente() {
+		//cenario
+		Lancamento lancamento = criarLancamento(TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 40);
+		Mockito.when(repository.somar(Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt(), Mockito.any(),
+				Mockito.any(), Mockito.any(), Mockito.anyLong())).thenReturn(0, 1);
+		Mockito.when(repository.inserirZerado(1l, 2019, 1, "RECEITA", "PENDENTE"))
+			.thenThrow(new DataIntegrityViolationException("chave duplicada"));
+		
+		//execucao
+		service.contabilizarNovos(Arrays.asList(lancamento));
+		
+		//verificacao
+		Mockito.verify(repository, Mockito.times(2)).somar(1l, 2019, 1, TipoLancamento.RECEITA,
+				StatusLancamento.PENDENTE, BigDecimal.valueOf(40), 1l);
+		Mockito.verify(repository, Mockito.never()).save(Mockito.any(ResumoMensal.class));
+	}
+	
+	@Test
+	public void deveAgruparOsResumosPorCompetencia() {
+		//cenario
+		Mockito.when(repository.obterPorPeriodo(1l, 2019, 2020)).thenReturn(Arrays.asList(
+				resumo(2019, 12, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 500),
+				resumo(2019, 12, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 120),
+				resumo(2019, 12, TipoLancamento.DESPESA, StatusLancamento.CANCELADO, 80),
+				resumo(2020, 1, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, 60)));
+		
+		//execucao
+		List<FluxoMensal> fluxo = service.obterFluxoMensal(1l, 2019, 2020);
+		
+		//verificacao
+		Assertions.assertThat(fluxo).hasSize(2);
+		Assertions.assertThat(fluxo.get(0).getMes()).isEqualTo(12);
+		Assertions.assertThat(fluxo.get(0).getDespesas().get(StatusLancamento.CANCELADO)).isEqualTo(BigDecimal.valueOf(80));
+		Assertions.assertThat(fluxo.get(0).getSaldo()).isEqualTo(BigDecimal.valueOf(380));
+		Assertions.assertThat(fluxo.get(1).getReceitas().get(StatusLancamento.EFETIVADO)).isEqualTo(BigDecimal.ZERO);
+		Assertions.assertThat(fluxo.get(1).getSaldo()).isEqualTo(BigDecimal.valueOf(-60));
+	}
+	
+	private static Lancamento criarLancamento(TipoLancamento tipo, StatusLancamento status, int valor) {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(Usuario.builder().id(1l).build());
+		lancamento.setTipo(tipo);
+		lancamento.setStatus(status);
+		lancamento.setValor(BigDecimal.valueOf(valor));
+		return lancamento;
+	}
+	
+	private static ResumoMensal resumo(int ano, int mes, TipoLancamento tipo, StatusLancamento status, int total) {
+		return new ResumoMensal(1l, ano, mes, tipo, status, BigDecimal.valueOf(total), 1l);
+	}
+}
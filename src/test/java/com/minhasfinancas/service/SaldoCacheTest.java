@@ -0,0 +1,90 @@
+package com.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.cache.type=caffeine")
+public class SaldoCacheTest {
+
+	@Autowired
+	LancamentoService lancamentoService;
+	
+	@Autowired
+	ApplicationEventPublisher eventPublisher;
+	
+	@Autowired
+	TransactionTemplate transactionTemplate;
+	
+	@Autowired
+	CacheManager cacheManager;
+	
+	@MockBean
+	SaldoService saldoService;
+	
+	@Before
+	public void setUp() {
+		cacheManager.getCache("saldos").clear();
+		Mockito.when(saldoService.obterSaldo(1l)).thenReturn(Optional.of(BigDecimal.TEN));
+	}
+	
+	@Test
+	public void deveCalcularOSaldoUmaUnicaVezEntreAlteracoes() {
+		//execucao
+		lancamentoService.obterSaldoPorUsuario(1l);
+		BigDecimal saldo = lancamentoService.obterSaldoPorUsuario(1l);
+		
+		//verificacao
+		Assertions.assertThat(saldo).isEqualTo(BigDecimal.TEN);
+		Mockito.verify(saldoService, Mockito.times(1)).obterSaldo(1l);
+	}
+	
+	@Test
+	public void deveInvalidarOSaldoSomenteAposOCommit() {
+		//cenario
+		lancamentoService.obterSaldoPorUsuario(1l);
+		
+		//execucao
+		transactionTemplate.executeWithoutResult(status -> {
+			eventPublisher.publishEvent(new SaldoAlteradoEvent(1l));
+			Assertions.assertThat(cacheManager.getCache("saldos").get(1l)).isNotNull();
+		});
+		lancamentoService.obterSaldoPorUsuario(1l);
+		
+		//verificacao
+		Mockito.verify(saldoService, Mockito.times(2)).obterSaldo(1l);
+	}
+	
+	@Test
+	public void naoDeveInvalidarOSaldoQuandoATransacaoForDesfeita() {
+		//cenario
+		lancamentoService.obterSaldoPorUsuario(1l);
+		
+		//execucao
+		transactionTemplate.executeWithoutResult(status -> {
+			eventPublisher.publishEvent(new SaldoAlteradoEvent(1l));
+			status.setRollbackOnly();
+		});
+		lancamentoService.obterSaldoPorUsuario(1l);
+		
+		//verificacao
+		Mockito.verify(saldoService, Mockito.times(1)).obterSaldo(1l);
+	}
+}
@@ -0,0 +1,222 @@
+package com.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.minhasfinancas.model.entity.Lancamento;
+import com.minhasfinancas.model.entity.SaldoUsuario;
+import com.minhasfinancas.model.entity.Usuario;
+import com.minhasfinancas.model.enums.StatusLancamento;
+import com.minhasfinancas.model.enums.TipoLancamento;
+import com.minhasfinancas.model.projection.TotalPorTipoEStatus;
+import com.minhasfinancas.model.repository.LancamentoRepository;
+import com.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import com.minhasfinancas.model.repository.SaldoUsuarioRepository;
+import com.minhasfinancas.model.repository.TotalAnualArquivadoRepository;
+import com.minhasfinancas.model.repository.UsuarioRepository;
+import com.minhasfinancas.service.impl.SaldoServiceImpl;
+
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@RecordApplicationEvents
+public class SaldoServiceTest {
+
+	@SpyBean
+	SaldoServiceImpl service;
+	
+	@MockBean
+	SaldoUsuarioRepository saldoRepository;
+	
+	@MockBean
+	LancamentoRepository lancamentoRepository;
+	
+	@MockBean
+	TotalAnualArquivadoRepository arquivadoRepository;
+	
+	@MockBean
+	UsuarioRepository usuarioRepository;
+	
+	@MockBean
+	PlatformTransactionManager transactionManager;
+	
+	@Autowired
+	ApplicationEvents eventos;
+	
+	@Test
+	public void deveSomarUmNovoLancamentoAoSaldo() {
+		//cenario
+		Lancamento lancamento = criarLancamento(1l, TipoLancamento.DESPESA, 40);
+		Mockito.when(saldoRepository.somar(Mockito.anyLong(), Mockito.any(), Mockito.any())).thenReturn(1);
+		
+		//execucao
+		service.contabilizar(null, lancamento);
+		
+		//verificacao
+		Mockito.verify(saldoRepository).somar(1l, BigDecimal.ZERO, BigDecimal.valueOf(40));
+		Assertions.assertThat(eventos.stream(SaldoAlteradoEvent.class)).containsExactly(new SaldoAlteradoEvent(1l));
+	}
+	
+	@Test
+	public void deveAplicarApenasADiferencaAoAtualizarUmLancamento() {
+		//cenario
+		Lancamento anterior = criarLancamento(1l, TipoLancamento.RECEITA, 100);
+		Lancamento atual = criarLancamento(1l, TipoLancamento.DESPESA, 30);
+		Mockito.when(saldoRepository.somar(Mockito.anyLong(), Mockito.any(), Mockito.any())).thenReturn(1);
+		
+		//execucao
+		service.contabilizar(anterior, atual);
+		
+		//verificacao
+		Mockito.verify(saldoRepository).somar(1l, BigDecimal.valueOf(-100), BigDecimal.valueOf(30));
+	}
+	
+	@Test
+	public void naoDeveAlterarOSaldoQuandoNaoHouverDiferenca() {
+		//cenario
+		Lancamento anterior = criarLancamento(1l, TipoLancamento.RECEITA, 100);
+		Lancamento atual = criarLancamento(1l, TipoLancamento.RECEITA, 100);
+		
+		//execucao
+		service.contabilizar(anterior, atual);
+		
+		//verificacao
+		Mockito.verifyNoInteractions(saldoRepository);
+		Assertions.assertThat(eventos.stream(SaldoAlteradoEvent.class)).isEmpty();
+	}
+	
+	@Test
+	public void naoDeveContarLancamentosCanceladosNoSaldo() {
+		//cenario
+		Lancamento anterior = criarLancamento(1l, TipoLancamento.RECEITA, 100);
+		Lancamento atual = criarLancamento(1l, TipoLancamento.RECEITA, 100);
+		atual.setStatus(StatusLancamento.CANCELADO);
+		Mockito.when(saldoRepository.somar(Mockito.anyLong(), Mockito.any(), Mockito.any())).thenReturn(1);
+		
+		//execucao
+		service.contabilizar(anterior, atual);
+		
+		//verificacao
+		Mockito.verify(saldoRepository).somar(1l, BigDecimal.valueOf(-100), BigDecimal.ZERO);
+	}
+	
+	@Test
+	public void deveCriarOSaldoEAplicarADiferencaQuandoOUsuarioAindaNaoPossuirSaldoConsolidado() {
+		//cenario
+		Lancamento lancamento = criarLancamento(1l, TipoLancamento.RECEITA, 10);
+		Mockito.when(saldoRepository.somar(Mockito.anyLong(), Mockito.any(), Mockito.any())).thenReturn(0, 1);
+		Mockito.when(lancamentoRepository.obterTotaisPorTipoEStatus(1l)).thenReturn(Arrays.asList(
+				total(1l, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 500),
+				total(1l, TipoLancamento.DESPESA, StatusLancamento.CANCELADO, 70)));
+		
+		//execucao
+		service.contabilizar(null, lancamento);
+		
+		//verificacao
+		Mockito.verify(saldoRepository).inserir(1l, BigDecimal.valueOf(500), BigDecimal.ZERO);
+		Mockito.verify(saldoRepository, Mockito.times(2)).somar(1l, BigDecimal.valueOf(10), BigDecimal.ZERO);
+		Mockito.verify(saldoRepository, Mockito.never()).save(Mockito.any());
+	}
+	
+	@Test
+	public void deveAplicarADiferencaAoSaldoCriadoPorUmaEscritaConcorrente() {
+		//cenario
+		Lancamento lancamento = criarLancamento(1l, TipoLancamento.RECEITA, 10);
+		Mockito.when(saldoRepository.somar(Mockito.anyLong(), Mockito.any(), Mockito.any())).thenReturn(0, 1);
+		Mockito.when(saldoRepository.inserir(Mockito.anyLong(), Mockito.any(), Mockito.any()))
+			.thenThrow(new DataIntegrityViolationException("chave duplicada"));
+		
+		//execucao
+		service.contabilizar(null, lancamento);
+		
+		//verificacao
+		Mockito.verify(saldoRepository, Mockito.times(2)).somar(1l, BigDecimal.valueOf(10), BigDecimal.ZERO);
+		Assertions.assertThat(eventos.stream(SaldoAlteradoEvent.class)).containsExactly(new SaldoAlteradoEvent(1l));
+	}
+	
+	@Test
+	public void deveRecalcularNaTransacaoOSaldoDeUmUsuarioAindaNaoConfirmado() {
+		//cenario
+		Lancamento lancamento = criarLancamento(1l, TipoLancamento.RECEITA, 10);
+		Mockito.when(saldoRepository.somar(Mockito.anyLong(), Mockito.any(), Mockito.any())).thenReturn(0);
+		Mockito.when(saldoRepository.inserir(Mockito.anyLong(), Mockito.any(), Mockito.any()))
+			.thenThrow(new DataIntegrityViolationException("usuario inexistente"));
+		Mockito.when(lancamentoRepository.obterTotaisPorTipoEStatus(1l)).thenReturn(Arrays.asList(
+				total(1l, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 510),
+				total(1l, TipoLancamento.DESPESA, StatusLancamento.CANCELADO, 70)));
+		
+		//execucao
+		service.contabilizar(null, lancamento);
+		
+		//verificacao
+		ArgumentCaptor<SaldoUsuario> captor = ArgumentCaptor.forClass(SaldoUsuario.class);
+		Mockito.verify(saldoRepository).save(captor.capture());
+		Assertions.assertThat(captor.getValue().getReceitas()).isEqualTo(BigDecimal.valueOf(510));
+		Assertions.assertThat(captor.getValue().getDespesas()).isEqualTo(BigDecimal.ZERO);
+	}
+	
+	@Test
+	public void deveReportarECorrigirSaldosDivergentes() {
+		//cenario
+		Mockito.when(usuarioRepository.obterIds()).thenReturn(Arrays.asList(1l, 2l, 3l, 4l));
+		Mockito.when(lancamentoRepository.obterTotaisPorTipoEStatus(1l)).thenReturn(Arrays.asList(
+				total(1l, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 100),
+				total(1l, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 40),
+				total(1l, TipoLancamento.DESPESA, StatusLancamento.CANCELADO, 20)));
+		Mockito.when(lancamentoRepository.obterTotaisPorTipoEStatus(2l)).thenReturn(Arrays.asList(
+				total(2l, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 50)));
+		Mockito.when(lancamentoRepository.obterTotaisPorTipoEStatus(3l)).thenReturn(Arrays.asList(
+				total(3l, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 30)));
+		Mockito.when(saldoRepository.bloquear(1l)).thenReturn(Optional.of(
+				new SaldoUsuario(1l, BigDecimal.valueOf(100), BigDecimal.valueOf(40))));
+		Mockito.when(saldoRepository.bloquear(2l)).thenReturn(Optional.of(
+				new SaldoUsuario(2l, BigDecimal.valueOf(80), BigDecimal.ZERO)));
+		
+		//execucao
+		List<DivergenciaSaldo> divergencias = service.conciliar(true);
+		
+		//verificacao
+		Assertions.assertThat(divergencias).extracting(DivergenciaSaldo::getIdUsuario).containsExactly(2l, 3l);
+		Assertions.assertThat(divergencias.get(0).getSaldoConsolidado()).isEqualTo(BigDecimal.valueOf(80));
+		Assertions.assertThat(divergencias.get(0).getSaldoCalculado()).isEqualTo(BigDecimal.valueOf(50));
+		Assertions.assertThat(divergencias.get(1).getSaldoConsolidado()).isNull();
+		Assertions.assertThat(divergencias.get(1).getSaldoCalculado()).isEqualTo(BigDecimal.valueOf(-30));
+		Mockito.verify(saldoRepository).save(new SaldoUsuario(2l, BigDecimal.valueOf(50), BigDecimal.ZERO));
+		Mockito.verify(saldoRepository).inserir(3l, BigDecimal.ZERO, BigDecimal.valueOf(30));
+		Assertions.assertThat(eventos.stream(SaldoAlteradoEvent.class))
+			.containsExactly(new SaldoAlteradoEvent(2l), new SaldoAlteradoEvent(3l));
+	}
+	
+	private static Lancamento criarLancamento(Long idUsuario, TipoLancamento tipo, int valor) {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(Usuario.builder().id(idUsuario).build());
+		lancamento.setTipo(tipo);
+		lancamento.setValor(BigDecimal.valueOf(valor));
+		return lancamento;
+	}
+	
+	private static TotalPorTipoEStatus total(Long idUsuario, TipoLancamento tipo, StatusLancamento status, int valor) {
+		return new TotalPorTipoEStatus() {
+			public Long getIdUsuario() { return idUsuario; }
+			public TipoLancamento getTipo() { return tipo; }
+			public StatusLancamento getStatus() { return status; }
+			public BigDecimal getTotal() { return BigDecimal.valueOf(valor); }
+		};
+	}
+}
@@ -0,0 +1,61 @@
+package com.minhasfinancas.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.minhasfinancas.exceptions.ServicoSobrecarregadoException;
+import com.minhasfinancas.service.impl.SenhaServiceImpl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+public class SenhaServiceTest {
+	
+	CountDownLatch liberar = new CountDownLatch(1);
+	
+	SenhaServiceImpl senhaService;
+	
+	@After
+	public void tearDown() {
+		liberar.countDown();
+		if(senhaService != null) {
+			senhaService.encerrar();
+		}
+	}
+	
+	@Test
+	public void deveRecusarDeImediatoQuandoAFilaDeCalculoEstiverCheia() throws Exception {
+		//cenario
+		CountDownLatch calculando = new CountDownLatch(1);
+		PasswordEncoder codificador = Mockito.mock(PasswordEncoder.class);
+		Mockito.when(codificador.encode(Mockito.anyString())).then(invocacao -> {
+			calculando.countDown();
+			liberar.await();
+			return "hash";
+		});
+		senhaService = new SenhaServiceImpl(codificador, 1, 1,
+				new DefaultListableBeanFactory().getBeanProvider(MeterRegistry.class));
+		
+		CompletableFuture<String> emCalculo = senhaService.codificar("a");
+		calculando.await(5, TimeUnit.SECONDS);
+		CompletableFuture<String> naFila = senhaService.codificar("b");
+		
+		//execucao
+		CompletableFuture<String> recusada = senhaService.codificar("c");
+		
+		//verificacao
+		Assertions.assertThat(recusada).isCompletedExceptionally();
+		Assertions.assertThatThrownBy(recusada::join).hasCauseInstanceOf(ServicoSobrecarregadoException.class);
+		
+		liberar.countDown();
+		Assertions.assertThat(emCalculo.get(5, TimeUnit.SECONDS)).isEqualTo("hash");
+		Assertions.assertThat(naFila.get(5, TimeUnit.SECONDS)).isEqualTo("hash");
+	}
+}
@@ -0,0 +1,84 @@
+package com.minhasfinancas.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import com.minhasfinancas.service.impl.TokenServiceImpl;
+
+public class TokenServiceTest {
+	
+	static final String SEGREDO = Base64.getEncoder().encodeToString(new byte[32]);
+	
+	static final Instant AGORA = Instant.parse("2022-05-10T12:00:00Z");
+	
+	TokenService tokenService = criarTokenService(AGORA);
+	
+	@Test
+	public void deveValidarOTokenEmitidoERetornarOIdDoUsuario() {
+		//execucao
+		TokenAcesso token = tokenService.emitir(42l);
+		
+		//verificacao
+		Assertions.assertThat(token.getExpiraEm()).isEqualTo(AGORA.plus(Duration.ofHours(1)));
+		Assertions.assertThat(tokenService.validar(token.getToken())).contains(42l);
+	}
+	
+	@Test
+	public void deveRecusarTokenComIdAdulterado() {
+		//cenario
+		String token = tokenService.emitir(42l).getToken();
+		
+		//execucao e verificacao
+		Assertions.assertThat(tokenService.validar("43" + token.substring(2))).isEmpty();
+	}
+	
+	@Test
+	public void deveRecusarTokenAssinadoComOutroSegredo() {
+		//cenario
+		String outroSegredo = Base64.getEncoder().encodeToString(new byte[] {
+				1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16,
+				17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31, 32});
+		String token = new TokenServiceImpl(outroSegredo, Duration.ofHours(1), Clock.fixed(AGORA, ZoneOffset.UTC))
+				.emitir(42l).getToken();
+		
+		//execucao e verificacao
+		Assertions.assertThat(tokenService.validar(token)).isEmpty();
+	}
+	
+	@Test
+	public void deveRecusarTokenExpirado() {
+		//cenario
+		String token = tokenService.emitir(42l).getToken();
+		
+		//execucao e verificacao
+		Assertions.assertThat(criarTokenService(AGORA.plus(Duration.ofMinutes(59))).validar(token)).contains(42l);
+		Assertions.assertThat(criarTokenService(AGORA.plus(Duration.ofHours(1))).validar(token)).isEmpty();
+	}
+	
+	@Test
+	public void deveRecusarTokenMalFormado() {
+		Assertions.assertThat(tokenService.validar(null)).isEmpty();
+		Assertions.assertThat(tokenService.validar("")).isEmpty();
+		Assertions.assertThat(tokenService.validar("semPontos")).isEmpty();
+		Assertions.assertThat(tokenService.validar(".1652191200.assinatura")).isEmpty();
+		Assertions.assertThat(tokenService.validar("abc.def.ghi")).isEmpty();
+	}
+	
+	@Test
+	public void naoDeveAceitarSegredoCurto() {
+		Throwable erro = Assertions.catchThrowable(() -> new TokenServiceImpl(
+				Base64.getEncoder().encodeToString(new byte[16]), Duration.ofHours(1), Clock.systemUTC()));
+		
+		Assertions.assertThat(erro).isInstanceOf(IllegalStateException.class);
+	}
+	
+	private static TokenService criarTokenService(Instant agora) {
+		return new TokenServiceImpl(SEGREDO, Duration.ofHours(1), Clock.fixed(agora, ZoneOffset.UTC));
+	}
+}
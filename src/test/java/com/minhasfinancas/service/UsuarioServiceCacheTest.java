@@ -0,0 +1,123 @@
+package com.minhasfinancas.service;
+
+import java.util.Optional;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.minhasfinancas.exceptions.ErroAutenticacao;
+import com.minhasfinancas.model.entity.Usuario;
+import com.minhasfinancas.model.repository.UsuarioRepository;
+
+@SpringBootTest
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.cache.type=caffeine")
+public class UsuarioServiceCacheTest {
+
+	@Autowired
+	UsuarioService usuarioService;
+	
+	@Autowired
+	CacheManager cacheManager;
+	
+	@MockBean
+	UsuarioRepository usuarioRepository;
+	
+	@Before
+	public void setUp() {
+		cacheManager.getCacheNames().forEach(nome -> cacheManager.getCache(nome).clear());
+	}
+	
+	@Test
+	public void deveConsultarOUsuarioPorIdUmaUnicaVez() {
+		//cenario
+		Usuario usuario = Usuario.builder().id(1l).email("email@email.com").build();
+		Mockito.when(usuarioRepository.findById(1l)).thenReturn(Optional.of(usuario));
+		
+		//execucao
+		usuarioService.obterPorId(1l);
+		Optional<Usuario> resultado = usuarioService.obterPorId(1l);
+		
+		//verificacao
+		Assertions.assertThat(resultado).contains(usuario);
+		Mockito.verify(usuarioRepository, Mockito.times(1)).findById(1l);
+	}
+	
+	@Test
+	public void naoDeveGuardarUsuarioInexistente() {
+		//cenario
+		Mockito.when(usuarioRepository.findById(1l)).thenReturn(Optional.empty());
+		
+		//execucao
+		usuarioService.obterPorId(1l);
+		usuarioService.obterPorId(1l);
+		
+		//verificacao
+		Mockito.verify(usuarioRepository, Mockito.times(2)).findById(1l);
+	}
+	
+	@Test
+	public void deveInvalidarOUsuarioAoSalvar() {
+		//cenario
+		Usuario usuario = Usuario.builder().id(1l).email("email@email.com").senha("senha").build();
+		Mockito.when(usuarioRepository.findById(1l)).thenReturn(Optional.of(usuario));
+		Mockito.when(usuarioRepository.save(Mockito.any(Usuario.class))).thenReturn(usuario);
+		usuarioService.obterPorId(1l);
+		cacheManager.getCache("usuariosPorEmail").put("email@email.com", usuario);
+		
+		//execucao
+		usuarioService.salvarUsuario(usuario);
+		usuarioService.obterPorId(1l);
+		
+		//verificacao
+		Mockito.verify(usuarioRepository, Mockito.times(2)).findById(1l);
+		Assertions.assertThat(cacheManager.getCache("usuariosPorEmail").get("email@email.com")).isNull();
+	}
+	
+	@Test
+	public void deveGuardarOsEmailsSemCadastroAteOCadastro() {
+		//cenario
+		Mockito.when(usuarioRepository.findByEmail("novo@email.com")).thenReturn(Optional.empty());
+		Mockito.when(usuarioRepository.save(Mockito.any(Usuario.class))).then(invocacao -> invocacao.getArgument(0));
+		
+		//execucao
+		Assertions.catchThrowable(() -> usuarioService.autenticar("novo@email.com", "senha"));
+		Throwable erro = Assertions.catchThrowable(() -> usuarioService.autenticar("novo@email.com", "senha"));
+		
+		//verificacao
+		Assertions.assertThat(erro).isInstanceOf(ErroAutenticacao.class).hasMessage("Usuário não encontrado");
+		Mockito.verify(usuarioRepository, Mockito.times(1)).findByEmail("novo@email.com");
+		
+		usuarioService.salvarUsuario(Usuario.builder().id(2l).email("novo@email.com").senha("senha").build());
+		Assertions.catchThrowable(() -> usuarioService.autenticar("novo@email.com", "senha"));
+		Mockito.verify(usuarioRepository, Mockito.times(2)).findByEmail("novo@email.com");
+	}
+	
+	@Test
+	public void deveInvalidarOUsuarioAoRecodificarASenha() {
+		//cenario
+		Usuario usuario = Usuario.builder().id(1l).email("email@email.com").senha("senha").build();
+		Mockito.when(usuarioRepository.findByEmail("email@email.com")).thenReturn(Optional.of(usuario));
+		Mockito.when(usuarioRepository.atualizarSenha(Mockito.eq(1l), Mockito.eq("senha"), Mockito.anyString())).thenReturn(1);
+		cacheManager.getCache("usuarios").put(1l, usuario);
+		cacheManager.getCache("usuariosPorEmail").put("email@email.com", usuario);
+		
+		//execucao
+		usuarioService.autenticar("email@email.com", "senha");
+		
+		//verificacao
+		Assertions.assertThat(cacheManager.getCache("usuarios").get(1l)).isNull();
+		Assertions.assertThat(cacheManager.getCache("usuariosPorEmail").get("email@email.com")).isNull();
+	}
+}
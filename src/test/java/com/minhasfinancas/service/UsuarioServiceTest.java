@@ -6,10 +6,13 @@ import org.assertj.core.api.Assertions;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 
@@ -30,6 +33,9 @@ public class UsuarioServiceTest {
 	@MockBean
 	UsuarioRepository usuarioRepository;
 	
+	@Autowired
+	PasswordEncoder codificadorSenha;
+	
 	/*@Before
 	public void setUp() {
 		//As instancias devem estar mockadas
@@ -119,6 +125,65 @@ public class UsuarioServiceTest {
 		Assertions.assertThat(exception).isInstanceOf(ErroAutenticacao.class).hasMessage("Senha inválida");
 	}
 	
+	@Test
+	public void deveGravarOHashDaSenha() {
+		//cenario
+		Mockito.doNothing().when(usuarioService).validarEmail(Mockito.anyString());
+		Mockito.when(usuarioRepository.save(Mockito.any(Usuario.class))).then(invocacao -> invocacao.getArgument(0));
+		
+		//acao
+		Usuario usuarioSalvo = usuarioService.salvarUsuario(Usuario.builder().id(1l).email("email@email.com").senha("senha").build());
+		
+		//verificacao
+		Assertions.assertThat(usuarioSalvo.getSenha()).startsWith("{bcrypt}$2a$").isNotEqualTo("senha");
+		Assertions.assertThat(codificadorSenha.matches("senha", usuarioSalvo.getSenha())).isTrue();
+	}
+	
+	@Test
+	public void deveRecodificarNoLoginUmaSenhaGravadaEmTextoPuro() {
+		//cenario
+		Usuario usuario = Usuario.builder().id(1l).email("email@email.com").senha("senha").build();
+		Mockito.when(usuarioRepository.findByEmail("email@email.com")).thenReturn(Optional.of(usuario));
+		
+		//acao
+		usuarioService.autenticar("email@email.com", "senha");
+		
+		//verificacao
+		ArgumentCaptor<String> novaSenha = ArgumentCaptor.forClass(String.class);
+		Mockito.verify(usuarioRepository).atualizarSenha(Mockito.eq(1l), Mockito.eq("senha"), novaSenha.capture());
+		Assertions.assertThat(codificadorSenha.matches("senha", novaSenha.getValue())).isTrue();
+		Assertions.assertThat(codificadorSenha.upgradeEncoding(novaSenha.getValue())).isFalse();
+		Assertions.assertThat(usuario.getSenha()).isEqualTo("senha");
+	}
+	
+	@Test
+	public void naoDeveRecodificarUmaSenhaJaNoFormatoAtual() {
+		//cenario
+		Usuario usuario = Usuario.builder().id(1l).email("email@email.com").senha(codificadorSenha.encode("senha")).build();
+		Mockito.when(usuarioRepository.findByEmail("email@email.com")).thenReturn(Optional.of(usuario));
+		
+		//acao
+		Usuario autenticado = usuarioService.autenticar("email@email.com", "senha");
+		
+		//verificacao
+		Assertions.assertThat(autenticado).isSameAs(usuario);
+		Mockito.verify(usuarioRepository, Mockito.never())
+			.atualizarSenha(Mockito.anyLong(), Mockito.anyString(), Mockito.anyString());
+	}
+	
+	@Test
+	public void deveRecusarUmaSenhaErradaGravadaComoHash() {
+		//cenario
+		Usuario usuario = Usuario.builder().id(1l).email("email@email.com").senha(codificadorSenha.encode("senha")).build();
+		Mockito.when(usuarioRepository.findByEmail("email@email.com")).thenReturn(Optional.of(usuario));
+		
+		//acao
+		Throwable exception = Assertions.catchThrowable(() -> usuarioService.autenticar("email@email.com", "1234"));
+		
+		//verificacao
+		Assertions.assertThat(exception).isInstanceOf(ErroAutenticacao.class).hasMessage("Senha inválida");
+	}
+	
 	@Test(expected = Test.None.class)
 	public void deveValidarEmail() {
 		//cenario
@@ -0,0 +1,65 @@
+package com.minhasfinancas.service.exportacao;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import com.minhasfinancas.model.entity.Lancamento;
+import com.minhasfinancas.model.enums.StatusLancamento;
+import com.minhasfinancas.model.enums.TipoLancamento;
+
+public class EscritorCsvTest {
+	
+	@Test
+	public void deveColocarEntreAspasADescricaoComRetornoDeCarro() throws Exception {
+		//execucao
+		String linha = escrever("Aluguel\rjaneiro");
+		
+		//verificacao
+		Assertions.assertThat(linha).startsWith("1;\"Aluguel\rjaneiro\";1;2022;");
+	}
+	
+	@Test
+	public void deveNeutralizarADescricaoQueComecaComoFormula() throws Exception {
+		for(String formula : new String[] {"=HYPERLINK(\"http://x\")", "+1+1", "-2+3", "@SUM(A1)"}) {
+			//execucao
+			String linha = escrever(formula);
+			
+			//verificacao
+			Assertions.assertThat(linha).startsWith("1;\"'" + formula.replace("\"", "\"\"") + "\";1;2022;");
+		}
+	}
+	
+	@Test
+	public void deveManterADescricaoSimplesSemAspas() throws Exception {
+		//execucao
+		String linha = escrever("Mercado - semana 2");
+		
+		//verificacao
+		Assertions.assertThat(linha).startsWith("1;Mercado - semana 2;1;2022;");
+	}
+	
+	/** devolve a linha do lançamento, sem o cabeçalho */
+	private static String escrever(String descricao) throws Exception {
+		Lancamento lancamento = Lancamento.builder()
+				.id(1l)
+				.descricao(descricao)
+				.mes(1)
+				.ano(2022)
+				.valor(BigDecimal.TEN)
+				.tipo(TipoLancamento.DESPESA)
+				.status(StatusLancamento.PENDENTE)
+				.build();
+		
+		ByteArrayOutputStream saida = new ByteArrayOutputStream();
+		EscritorCsv escritor = new EscritorCsv(saida);
+		escritor.escrever(lancamento);
+		escritor.finalizar();
+		
+		String conteudo = saida.toString(StandardCharsets.UTF_8.name());
+		return conteudo.substring(conteudo.indexOf(System.lineSeparator()) + System.lineSeparator().length());
+	}
+}